@@ -1,25 +1,58 @@
 package com.espoch.grafo.controller;
 
+import com.espoch.grafo.export.GraphExporter;
+import com.espoch.grafo.export.LayoutPlayer;
+import com.espoch.grafo.export.LayoutRecorder;
+import com.espoch.grafo.load.ProgressiveLoader;
+import com.espoch.grafo.metrics.CrossingEstimator;
+import com.espoch.grafo.metrics.FrameMetrics;
+import com.espoch.grafo.view.ClusterView;
+import com.espoch.grafo.view.EdgeAggregator;
 import com.espoch.grafo.view.ForceDirectedLayout;
+import com.espoch.grafo.view.GraphRenderer;
+import com.espoch.grafo.view.LayeredConstraint;
+import com.espoch.grafo.view.LayoutStats;
+import com.espoch.grafo.view.NeighborCentroidPlacement;
+import com.espoch.grafo.view.PivotMdsPlacement;
+import com.espoch.grafo.view.SeededRandomPlacement;
+import com.espoch.grafo.view.SpatialIndex;
+import com.espoch.grafo.view.SugiyamaLayout;
+import com.espoch.grafo.view.TileCache;
 import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.HistorialGrafo;
+import com.espoch.grafo.model.IndiceGrafo;
 import com.espoch.grafo.model.Nodo;
+import com.espoch.grafo.model.ParcheGrafo;
 import javafx.animation.AnimationTimer;
 import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.scene.Cursor;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.input.ScrollEvent;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.CycleMethod;
-import javafx.scene.paint.LinearGradient;
-import javafx.scene.paint.Stop;
 import javafx.scene.text.Font;
 import javafx.scene.text.TextAlignment;
+import javafx.stage.FileChooser;
 import javafx.util.Duration;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntBiFunction;
+
 /**
  * Controlador para la vista del grafo direccional
  */
@@ -38,13 +71,65 @@ public class GraphController {
     private ScrollPane scrollPane;
     @FXML
     private Label mensajeLabel;
+    @FXML
+    private CheckBox hudCheckBox;
+    @FXML
+    private CheckBox agruparCheckBox;
+    @FXML
+    private CheckBox clustersCheckBox;
+
+    @FXML
+    private CheckBox capasCheckBox;
+
+    @FXML
+    private CheckBox jerarquicoCheckBox;
 
     private GrafoDireccional<Integer> grafo;
     private ForceDirectedLayout layout;
+    private NeighborCentroidPlacement placement;
+    private FrameMetrics metrics;
+    private GraphRenderer renderer;
+    private TileCache tileCache;
+    private EdgeAggregator edgeAggregator;
+    private ClusterView<Integer> clusterView; // null si se muestra el grafo completo
+    private ForceDirectedLayout clusterLayout;
+    private LayeredConstraint capas; // Restricción de capas del grafo visible (null = sin capas)
+    private boolean jerarquicoEnCurso; // Hay un layout jerárquico calculándose en otro hilo
+    private ProgressiveLoader cargador; // Carga de archivo en curso (null = ninguna)
+    private boolean cargaDesdeVacio; // La carga en curso arma el grafo entero: se coloca con MDS al terminar
+    // Nodos agregados a mano que todavía no tienen aristas (se colocaron al azar)
+    private final Set<Nodo<Integer>> sinVecinos = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long inicioCarga;
+    private boolean recargando; // Leyendo la nueva versión del grafo en otro hilo
+    private final HistorialGrafo<Integer> historial = new HistorialGrafo<>(HISTORY_BUDGET_BYTES);
+    private LayoutRecorder grabador; // Grabación de la sesión en curso (null = ninguna)
+    private LayoutPlayer reproductor; // Reproducción en curso (null = ninguna)
+    private long inicioReproduccion;
+    private Nodo<?>[] reproducidos; // Nodo del grafo que corresponde a cada índice de la grabación
+    private boolean renderDirty = true; // Hay que redibujar aunque el layout esté quieto
+    private CrossingEstimator crossingEstimator;
+
+    // Elementos dibujados y descartados en el último drawGraph
+    private int drawnNodes;
+    private int culledNodes;
+    private int drawnEdges;
+    private int culledEdges;
     private AnimationTimer animationTimer;
     private PauseTransition mensajeTimer;
     private boolean isAnimating = true;
 
+    // Interacción con el mouse (nodos del grafo visible)
+    private Nodo<?> nodoSeleccionado;
+    private Nodo<?> nodoBajoMouse;
+    private Nodo<?>[] aristaBajoMouse; // [origen, destino]
+    private double mouseX; // Coordenadas del canvas del último movimiento
+    private double mouseY;
+    private boolean arrastrando;
+    // Nodo arrastrado en el layout jerárquico y los orígenes de sus aristas entrantes (para los tiles)
+    private Nodo<Integer> arrastradoEnTiles;
+    private final List<Nodo<Integer>> entrantesArrastrado = new ArrayList<>();
+    private boolean hayFijos; // Algún nodo fue fijado (evita recorrer los nodos al dibujar)
+
     // Configuración de zoom
     private double zoomLevel = 1.0;
     private static final double MIN_ZOOM = 0.3;
@@ -52,11 +137,46 @@ public class GraphController {
     private static final double ZOOM_INCREMENT = 0.1;
 
     // Configuración de visualización
-    private static final double NODE_RADIUS = 22.0;
-    private static final double ARROW_SIZE = 12.0;
     private static final double MIN_CANVAS_WIDTH = 800.0;
     private static final double MIN_CANVAS_HEIGHT = 600.0;
 
+    // Semilla de la colocación inicial (layouts reproducibles)
+    private static final long LAYOUT_SEED = 42L;
+
+    // Configuración de métricas
+    private static final int CROSSING_SAMPLES = 2000;
+    private static final int CROSSING_INTERVAL = 30; // Frames entre estimaciones de cruces
+
+    // Agregación de aristas para grafos densos
+    private static final double AGGREGATION_CELL_PIXELS = 16.0;
+    private static final int AGGREGATION_MAX_PRIMITIVES = 5000;
+    private static final int AGGREGATION_EDGE_THRESHOLD = 20000; // Se activa sola por encima de esta cantidad
+
+    // Vista de supernodos
+    private static final int CLUSTER_TARGET = 50; // Supernodos buscados en el nivel superior
+    private static final double CLUSTER_EXPAND_ZOOM = 2.0; // Acercar hasta aquí expande lo visible
+    private static final double CLUSTER_COLLAPSE_ZOOM = 0.5; // Alejar hasta aquí sube un nivel
+    private static final int CLUSTER_EXPAND_MAX = 8; // Supernodos expandidos por paso de zoom
+
+    // Capas para DAG
+    private static final double LAYER_GAP = 140.0; // Separación vertical entre capas
+
+    // Carga progresiva de archivos
+    private static final long LOAD_BUDGET_NANOS = 8_000_000L; // Tiempo por frame para agregar lo leído
+    private static final int LIVE_LAYOUT_MAX_NODES = 3000; // Por encima, solo colocación junto a vecinos
+    private static final int MDS_PIVOTS = 50; // Pivotes de la colocación inicial de una carga completa
+    private static final double MDS_EDGE_LENGTH = 180.0; // Longitud media de arista tras la colocación
+
+    // Deshacer/rehacer: tamaño máximo del historial (-Dgrafo.historial.mb)
+    private static final long HISTORY_BUDGET_BYTES = Long.getLong("grafo.historial.mb", 64) << 20;
+
+    // Exportación de imágenes (píxeles por unidad del mundo)
+    private static final double EXPORT_SCALE = 2.0;
+
+    // Picking
+    private static final double EDGE_PICK_PIXELS = 6.0; // Distancia en pantalla para señalar una arista
+    private static final Color SELECTION_COLOR = Color.web("#e67e22");
+
     /**
      * Inicialización del controlador
      */
@@ -64,6 +184,12 @@ public class GraphController {
     public void initialize() {
         grafo = new GrafoDireccional<>();
         layout = new ForceDirectedLayout(MIN_CANVAS_WIDTH / 2, MIN_CANVAS_HEIGHT / 2);
+        placement = new NeighborCentroidPlacement(new SeededRandomPlacement(LAYOUT_SEED), LAYOUT_SEED);
+        metrics = new FrameMetrics();
+        crossingEstimator = new CrossingEstimator(CROSSING_SAMPLES, LAYOUT_SEED);
+        renderer = new GraphRenderer();
+        tileCache = new TileCache();
+        edgeAggregator = new EdgeAggregator(AGGREGATION_CELL_PIXELS, AGGREGATION_MAX_PRIMITIVES);
 
         // Inicializar timer de mensajes
         mensajeTimer = new PauseTransition(Duration.seconds(5));
@@ -71,6 +197,18 @@ public class GraphController {
 
         // Configurar evento de scroll para zoom
         canvas.setOnScroll(this::onCanvasScroll);
+        canvas.setOnMouseClicked(this::onCanvasClicked);
+        canvas.setOnMouseMoved(this::onCanvasMoved);
+        canvas.setOnMousePressed(this::onCanvasPressed);
+        canvas.setOnMouseDragged(this::onCanvasDragged);
+        canvas.setOnMouseReleased(e -> {
+            arrastrando = false;
+            canvas.setCursor(Cursor.DEFAULT);
+        });
+
+        // Al desplazar la vista hay que dibujar la parte que aparece
+        scrollPane.hvalueProperty().addListener((obs, anterior, nuevo) -> renderDirty = true);
+        scrollPane.vvalueProperty().addListener((obs, anterior, nuevo) -> renderDirty = true);
 
         // Iniciar animación del layout
         startAnimation();
@@ -97,30 +235,70 @@ public class GraphController {
                 double deltaTime = (now - lastUpdate) / 1_000_000_000.0;
                 lastUpdate = now;
 
-                // Solo actualizar si hay nodos
-                if (!grafo.isEmpty()) {
-                    // Actualizar centro del layout
-                    double[] bounds = layout.getBounds(grafo.getNodos());
-                    double centerX = (bounds[0] + bounds[2]) / 2;
-                    double centerY = (bounds[1] + bounds[3]) / 2;
-                    layout.setCenter(centerX, centerY);
+                // Agregar lo que llegó del archivo en carga
+                if (cargador != null) {
+                    aplicarCarga();
+                }
+                if (reproductor != null) {
+                    avanzarReproduccion(now);
+                }
+                boolean reproduciendo = reproductor != null; // Las posiciones vienen de la grabación
+
+                // Solo actualizar si hay nodos y algo cambió desde el último frame
+                GrafoDireccional<?> visible = grafoVisible();
+                ForceDirectedLayout activo = layoutActivo();
+                if (!visible.isEmpty() && (isAnimating || renderDirty)) {
+                    metrics.beginFrame();
+
+                    // Actualizar centro del layout con las métricas del frame anterior
+                    LayoutStats stats = activo.measure(visible.getNodos());
+                    activo.setCenter(stats.getCenterX(), stats.getCenterY());
+
+                    // Layout jerárquico: se calcula de una vez en otro hilo en lugar de simular
+                    if (isAnimating && !reproduciendo && jerarquicoCheckBox.isSelected()) {
+                        isAnimating = false;
+                        calcularJerarquico(visible);
+                    }
 
                     // Verificar si el grafo está estable
-                    if (isAnimating && layout.isStable(grafo.getNodos())) {
+                    if (isAnimating && !reproduciendo && activo.isStable(visible.getNodos())) {
                         isAnimating = false;
+                        tileCache.invalidateMoved(grafo.getNodos());
+                        edgeAggregator.invalidate();
+                        mostrarInfo("Layout estable",
+                                "El grafo convergió en " + activo.getIterations() + " iteraciones.");
                     }
 
                     // Solo calcular fuerzas si aún está animando
-                    if (isAnimating) {
-                        layout.calculateForces(grafo.getNodos());
-                        layout.updatePositions(grafo.getNodos(), deltaTime);
+                    if (isAnimating && !reproduciendo) {
+                        long inicio = metrics.start();
+                        activo.calculateForces(visible.getNodos());
+                        metrics.stop(FrameMetrics.Phase.FORCES, inicio);
+
+                        inicio = metrics.start();
+                        stats = activo.updatePositions(visible.getNodos(), deltaTime);
+                        metrics.stop(FrameMetrics.Phase.POSITIONS, inicio);
+
+                        if (metrics.getFrames() % CROSSING_INTERVAL == 0) {
+                            metrics.setCrossings(crossingEstimator.estimate(visible.getNodos()));
+                        }
                     }
 
                     // Actualizar tamaño del canvas
                     updateCanvasSize();
 
                     // Redibujar
+                    long inicio = metrics.startRender();
                     drawGraph();
+                    metrics.stopRender(inicio, drawnNodes, culledNodes, drawnEdges, culledEdges);
+
+                    metrics.endFrame(visible.size(), visible.getNumAristas(), stats.getForceEnergy(),
+                            activo.getIterations());
+                }
+
+                // Durante una carga la estructura cambia en cada frame: se graba al terminar
+                if (grabador != null && cargador == null) {
+                    grabarFrame(now);
                 }
             }
         };
@@ -141,13 +319,21 @@ public class GraphController {
 
         try {
             Integer valor = Integer.parseInt(texto);
-            Nodo<Integer> nodo = grafo.agregarNodo(valor);
 
-            if (nodo == null) {
+            if (grafo.encontrarNodo(valor) != null) {
                 mostrarAdvertencia("Nodo duplicado",
                         "Ya existe un nodo con el valor " + valor + ". Los valores de nodos deben ser únicos.");
             } else {
+                editar(new ParcheGrafo<Integer>().agregarNodo(valor), "agregar nodo " + valor,
+                        (nodo, vecino) -> {
+                            placement.place(grafo, nodo);
+                            sinVecinos.add(nodo);
+                        });
                 nodoTextField.clear();
+                layout.invalidateStats();
+                layout.restart();
+                refrescarClusters();
+                refrescarCapas();
                 isAnimating = true; // Reactivar animación
                 mostrarExito("Nodo agregado",
                         "Se agregó exitosamente el nodo con valor " + valor + ". Total de nodos: " + grafo.size());
@@ -180,14 +366,25 @@ public class GraphController {
                         + " hacia sí mismo. Esto es válido en grafos direccionales.");
             }
 
-            boolean exito = grafo.agregarArista(origen, destino);
+            Nodo<Integer> nodoOrigen = grafo.encontrarNodo(origen);
+            Nodo<Integer> nodoDestino = grafo.encontrarNodo(destino);
 
-            if (!exito) {
+            if (nodoOrigen == null || nodoDestino == null) {
                 mostrarError("Nodos no encontrados: No se pudo crear la arista. Verifique que los nodos " + origen
                         + " y " + destino + " existan en el grafo.");
             } else {
+                if (!nodoOrigen.tieneVecino(nodoDestino)) {
+                    editar(new ParcheGrafo<Integer>().agregarArista(origen, destino),
+                            "agregar arista " + origen + " → " + destino, (nodo, vecino) -> {
+                            });
+                    recolocarAislado(nodoOrigen, nodoDestino);
+                    recolocarAislado(nodoDestino, nodoOrigen);
+                }
                 origenTextField.clear();
                 destinoTextField.clear();
+                layout.restart();
+                refrescarClusters();
+                refrescarCapas();
                 isAnimating = true; // Reactivar animación
                 mostrarExito("Arista agregada", "Se creó la arista direccional: " + origen + " → " + destino);
                 drawGraph();
@@ -197,6 +394,32 @@ public class GraphController {
         }
     }
 
+    /**
+     * Aplica una edición del usuario a través del historial y descarta solo
+     * los tiles que toca: lo que se quita antes de aplicarla y lo que se
+     * agrega después
+     */
+    private List<Nodo<Integer>> editar(ParcheGrafo<Integer> parche, String descripcion,
+            BiConsumer<Nodo<Integer>, Nodo<Integer>> colocar) {
+        tileCache.invalidatePatch(grafo, parche);
+        List<Nodo<Integer>> cambiados = historial.aplicar(grafo, parche, descripcion, colocar);
+        tileCache.invalidatePatch(grafo, parche);
+        layout.invalidateStructure();
+        edgeAggregator.invalidate();
+        return cambiados;
+    }
+
+    /**
+     * Un nodo agregado sin aristas se colocó al azar (no tenía vecinos para
+     * el centroide): con su primera arista pasa junto al otro extremo
+     */
+    private void recolocarAislado(Nodo<Integer> nodo, Nodo<Integer> vecino) {
+        if (nodo != vecino && sinVecinos.remove(nodo) && !nodo.isFijo()) {
+            placement.placeNear(grafo, nodo, vecino);
+            tileCache.invalidateEdge(nodo, vecino); // Su única arista, en la posición nueva
+        }
+    }
+
     /**
      * Maneja el evento de eliminar
      */
@@ -217,12 +440,20 @@ public class GraphController {
                     Integer origen = Integer.parseInt(partes[0].trim());
                     Integer destino = Integer.parseInt(partes[1].trim());
 
-                    boolean exito = grafo.eliminarArista(origen, destino);
-                    if (!exito) {
+                    Nodo<Integer> nodoOrigen = grafo.encontrarNodo(origen);
+                    Nodo<Integer> nodoDestino = grafo.encontrarNodo(destino);
+                    if (nodoOrigen == null || !nodoOrigen.tieneVecino(nodoDestino)) {
                         mostrarAdvertencia("Arista no encontrada",
                                 "No existe una arista de " + origen + " → " + destino + " en el grafo.");
                     } else {
+                        editar(new ParcheGrafo<Integer>().eliminarArista(origen, destino),
+                                "eliminar arista " + origen + " → " + destino, (nodo, vecino) -> {
+                                });
                         eliminarTextField.clear();
+                        layout.restart();
+                        aristaBajoMouse = null;
+                        refrescarClusters();
+                        refrescarCapas();
                         isAnimating = true; // Reactivar animación para reorganizar
                         mostrarInfo("Arista eliminada",
                                 "Se eliminó la arista direccional: " + origen + " → " + destino);
@@ -240,29 +471,24 @@ public class GraphController {
             try {
                 Integer valor = Integer.parseInt(texto);
 
-                // Contar aristas antes de eliminar
-                Nodo<Integer> nodoAEliminar = grafo.encontrarNodo(valor);
-                if (nodoAEliminar != null) {
-                    int aristasSalientes = nodoAEliminar.getVecinos().size();
-                    int aristasEntrantes = 0;
-                    for (Nodo<Integer> n : grafo.getNodos()) {
-                        if (n.getVecinos().contains(nodoAEliminar)) {
-                            aristasEntrantes++;
-                        }
-                    }
-                    int totalAristas = aristasSalientes + aristasEntrantes;
-
-                    boolean exito = grafo.eliminarNodo(valor);
-                    if (exito) {
-                        eliminarTextField.clear();
-                        String mensaje = "Se eliminó el nodo " + valor;
-                        if (totalAristas > 0) {
-                            mensaje += " y " + totalAristas + " arista(s) asociada(s)";
-                        }
-                        mensaje += ". Nodos restantes: " + grafo.size();
-                        mostrarInfo("Nodo eliminado", mensaje);
-                        drawGraph();
+                // El parche lleva las aristas entrantes y salientes, para poder deshacerlo
+                ParcheGrafo<Integer> parche = ParcheGrafo.eliminacion(grafo, valor);
+                if (parche != null) {
+                    int totalAristas = parche.getAristasEliminadas().size();
+                    editar(parche, "eliminar nodo " + valor, (nodo, vecino) -> {
+                    });
+                    eliminarTextField.clear();
+                    layout.invalidateStats();
+                    limpiarSeleccion();
+                    refrescarClusters();
+                    refrescarCapas();
+                    String mensaje = "Se eliminó el nodo " + valor;
+                    if (totalAristas > 0) {
+                        mensaje += " y " + totalAristas + " arista(s) asociada(s)";
                     }
+                    mensaje += ". Nodos restantes: " + grafo.size();
+                    mostrarInfo("Nodo eliminado", mensaje);
+                    drawGraph();
                 } else {
                     mostrarAdvertencia("Nodo no encontrado",
                             "No existe un nodo con el valor " + valor + " en el grafo.");
@@ -279,20 +505,726 @@ public class GraphController {
      */
     @FXML
     private void onLimpiar() {
+        if (cargador != null) {
+            cargador.close();
+            cargador = null;
+        }
+        if (reproductor != null) {
+            detenerReproduccion();
+        }
         if (grafo.isEmpty()) {
             mostrarInfo("Grafo vacío", "El grafo ya está vacío. No hay nodos para eliminar.");
             return;
         }
 
         int nodosEliminados = grafo.size();
-        grafo.limpiar();
+        boolean deshacible = historial.vaciar(grafo);
+        sinVecinos.clear();
+        layout.invalidateStats();
+        layout.invalidateStructure();
+        limpiarSeleccion();
+        hayFijos = false;
+        refrescarClusters();
+        refrescarCapas();
+        tileCache.invalidateAll();
+        edgeAggregator.invalidate();
         zoomLevel = 1.0;
         isAnimating = false; // Detener animación
         mostrarInfo("Grafo limpiado",
-                "Se eliminaron " + nodosEliminados + " nodo(s) y todas sus aristas. El grafo está ahora vacío.");
+                "Se eliminaron " + nodosEliminados + " nodo(s) y todas sus aristas. El grafo está ahora vacío."
+                        + (deshacible ? "" : " El grafo era demasiado grande para poder deshacerlo."));
+        drawGraph();
+    }
+
+    /**
+     * Deshace la última edición del grafo
+     */
+    @FXML
+    private void onDeshacer() {
+        moverHistorial(true);
+    }
+
+    /**
+     * Rehace la última edición deshecha
+     */
+    @FXML
+    private void onRehacer() {
+        moverHistorial(false);
+    }
+
+    private void moverHistorial(boolean atras) {
+        if (cargador != null || recargando) {
+            mostrarAdvertencia("Carga en curso", "Espere a que termine la carga actual.");
+            return;
+        }
+        String descripcion = atras ? historial.getSiguienteDeshacer() : historial.getSiguienteRehacer();
+        if (descripcion == null) {
+            mostrarInfo(atras ? "Nada para deshacer" : "Nada para rehacer", "El historial está vacío.");
+            return;
+        }
+
+        List<Nodo<Integer>> cambiados;
+        ParcheGrafo<Integer> parche = atras ? historial.getParcheDeshacer() : historial.getParcheRehacer();
+        tileCache.invalidatePatch(grafo, parche);
+        try {
+            BiConsumer<Nodo<Integer>, Nodo<Integer>> colocar = (nodo, vecino) -> placement.placeNear(grafo, nodo,
+                    vecino);
+            cambiados = atras ? historial.deshacer(grafo, colocar) : historial.rehacer(grafo, colocar);
+        } catch (IllegalStateException e) {
+            mostrarError("No se pudo " + (atras ? "deshacer" : "rehacer") + ": " + e.getMessage());
+            return;
+        }
+
+        for (Nodo<Integer> nodo : cambiados) {
+            hayFijos |= nodo.isFijo();
+        }
+        sinVecinos.clear(); // Los nodos que vuelven ya tienen su posición
+        tileCache.invalidatePatch(grafo, parche);
+        limpiarSeleccion();
+        layout.invalidateStats();
+        layout.invalidateStructure();
+        refrescarClusters();
+        refrescarCapas();
+        edgeAggregator.invalidate();
+        layout.restartLocal(cambiados, grafo.getNodos());
+        isAnimating = true;
+        renderDirty = true;
+        mostrarInfo(atras ? "Deshecho" : "Rehecho", descripcion);
+        drawGraph();
+    }
+
+    /**
+     * Muestra u oculta el panel de métricas
+     */
+    @FXML
+    private void onToggleHud() {
+        drawGraph();
+    }
+
+    /**
+     * Activa o desactiva la agregación de aristas
+     */
+    @FXML
+    private void onToggleAgrupar() {
+        drawGraph();
+    }
+
+    /**
+     * Activa o desactiva la vista de supernodos
+     */
+    @FXML
+    private void onToggleClusters() {
+        limpiarSeleccion();
+        if (!clustersCheckBox.isSelected()) {
+            clusterView = null;
+            layout.invalidateStats();
+            refrescarCapas();
+            zoomLevel = 1.0;
+            renderDirty = true;
+            updateCanvasSize();
+            drawGraph();
+            return;
+        }
+
+        if (grafo.isEmpty()) {
+            clustersCheckBox.setSelected(false);
+            mostrarInfo("Grafo vacío", "No hay nodos para agrupar.");
+            return;
+        }
+
+        refrescarClusters();
+
+        refrescarCapas();
+        mostrarInfo("Supernodos", clusterView.getGrafo().size() + " supernodo(s) en "
+                + (clusterView.getJerarquia().getNumNiveles() - 1) + " nivel(es). Doble clic expande, "
+                + "Shift + doble clic colapsa; el zoom también expande y colapsa.");
+        updateCanvasSize();
+        drawGraph();
+    }
+
+    /**
+     * Recalcula la jerarquía de supernodos después de cambiar el grafo (si la
+     * vista de supernodos está activa)
+     */
+    private void refrescarClusters() {
+        if (clustersCheckBox == null || !clustersCheckBox.isSelected()) {
+            return;
+        }
+        if (grafo.isEmpty()) {
+            clustersCheckBox.setSelected(false);
+            clusterView = null;
+            return;
+        }
+
+        limpiarSeleccion();
+        clusterView = new ClusterView<>(grafo, CLUSTER_TARGET, LAYOUT_SEED);
+        clusterLayout = new ForceDirectedLayout(MIN_CANVAS_WIDTH / 2, MIN_CANVAS_HEIGHT / 2);
+        zoomLevel = 1.0;
+        isAnimating = true;
+    }
+
+    /**
+     * Activa o desactiva el ordenamiento en capas del grafo visible
+     */
+    @FXML
+    private void onToggleCapas() {
+        if (!capasCheckBox.isSelected() && capas != null) {
+            layoutActivo().removeConstraint(capas, grafoVisible().getNodos());
+            capas = null;
+            isAnimating = true;
+            return;
+        }
+        refrescarCapas();
+    }
+
+    /**
+     * Alterna entre el layout jerárquico y el de fuerzas. Al volver a
+     * fuerzas la simulación parte de las posiciones jerárquicas.
+     */
+    @FXML
+    private void onToggleJerarquico() {
+        if (!jerarquicoCheckBox.isSelected()) {
+            layoutActivo().invalidateStats();
+            layoutActivo().restart();
+        }
+        isAnimating = true;
+        renderDirty = true;
+    }
+
+    /**
+     * Vuelve a calcular las capas después de cambiar el grafo visible (si
+     * el ordenamiento en capas está activo)
+     */
+    private void refrescarCapas() {
+        layout.clearConstraints();
+        if (clusterLayout != null) {
+            clusterLayout.clearConstraints();
+        }
+        capas = null;
+
+        GrafoDireccional<?> visible = grafoVisible();
+        if (capasCheckBox == null || !capasCheckBox.isSelected() || visible.isEmpty()) {
+            return;
+        }
+
+        ForceDirectedLayout activo = layoutActivo();
+        capas = new LayeredConstraint(visible, activo.measure(visible.getNodos()).getMinY(), LAYER_GAP);
+        activo.addConstraint(capas, visible.getNodos());
+        edgeAggregator.invalidate();
+        isAnimating = true; // Los tiles se actualizan con lo que se mueva al estabilizar
+    }
+
+    /**
+     * El layout debe volver a acomodar los supernodos después de expandir
+     * o colapsar
+     */
+    private void clustersCambiaron() {
+        limpiarSeleccion();
+        clusterLayout.invalidateStats();
+        clusterLayout.restart();
+        refrescarCapas();
+        isAnimating = true;
+        updateCanvasSize();
         drawGraph();
     }
 
+    /**
+     * @return Grafo que se simula y dibuja: los supernodos visibles o el
+     *         grafo completo
+     */
+    private GrafoDireccional<?> grafoVisible() {
+        return clusterView != null ? clusterView.getGrafo() : grafo;
+    }
+
+    /**
+     * @return Layout del grafo visible
+     */
+    private ForceDirectedLayout layoutActivo() {
+        return clusterView != null ? clusterLayout : layout;
+    }
+
+    /**
+     * Carga una lista de aristas de forma progresiva: el grafo se dibuja (y
+     * mientras sea chico, se simula) a medida que se lee
+     */
+    @FXML
+    private void onCargarArchivo() {
+        if (cargador != null || recargando) {
+            mostrarAdvertencia("Carga en curso", "Espere a que termine la carga actual.");
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Cargar lista de aristas");
+        chooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Lista de aristas", "*.txt", "*.csv", "*.tsv", "*.edges"));
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Todos", "*.*"));
+        File archivo = chooser.showOpenDialog(canvas.getScene().getWindow());
+        if (archivo == null) {
+            return;
+        }
+
+        if (reproductor != null) {
+            detenerReproduccion();
+        }
+        try {
+            cargador = new ProgressiveLoader(archivo.toPath());
+        } catch (IOException e) {
+            mostrarError("No se pudo abrir el archivo: " + e.getMessage());
+            return;
+        }
+
+        // Los supernodos se recalculan recién al terminar
+        if (clustersCheckBox.isSelected()) {
+            clustersCheckBox.setSelected(false);
+            onToggleClusters();
+        }
+        limpiarSeleccion();
+        historial.limpiar(); // La carga no pasa por el historial
+        sinVecinos.clear();
+        cargaDesdeVacio = grafo.isEmpty();
+        inicioCarga = System.nanoTime();
+        cargador.start();
+        mostrarInfo("Cargando", archivo.getName());
+    }
+
+    /**
+     * Reemplaza el grafo por la versión de un archivo aplicando solo la
+     * diferencia: los nodos que no cambiaron conservan su posición y el
+     * layout se reacomoda alrededor de los cambios
+     */
+    @FXML
+    private void onRecargarArchivo() {
+        if (cargador != null || recargando) {
+            mostrarAdvertencia("Carga en curso", "Espere a que termine la carga actual.");
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Recargar lista de aristas");
+        chooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Lista de aristas", "*.txt", "*.csv", "*.tsv", "*.edges"));
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Todos", "*.*"));
+        File archivo = chooser.showOpenDialog(canvas.getScene().getWindow());
+        if (archivo == null) {
+            return;
+        }
+
+        if (reproductor != null) {
+            detenerReproduccion();
+        }
+        recargando = true;
+        mostrarInfo("Recargando", "Leyendo " + archivo.getName() + "...");
+        Thread hilo = new Thread(() -> {
+            try {
+                GrafoDireccional<Integer> nuevo = ProgressiveLoader.cargar(archivo.toPath());
+                Platform.runLater(() -> aplicarRecarga(nuevo, archivo.getName()));
+            } catch (IOException e) {
+                Platform.runLater(() -> {
+                    recargando = false;
+                    mostrarError("Error al leer el archivo: " + e.getMessage());
+                });
+            }
+        }, "recargar-grafo");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Calcula y aplica el parche entre el grafo actual y la versión leída
+     */
+    private void aplicarRecarga(GrafoDireccional<Integer> nuevo, String nombre) {
+        recargando = false;
+        boolean desdeVacio = grafo.isEmpty();
+        long inicio = System.nanoTime();
+        ParcheGrafo<Integer> parche = ParcheGrafo.calcular(grafo, nuevo);
+        if (parche.isEmpty()) {
+            mostrarInfo("Sin cambios", nombre + " es igual al grafo actual.");
+            return;
+        }
+
+        List<Nodo<Integer>> cambiados = historial.aplicar(grafo, parche, "recargar " + nombre,
+                (nodo, vecino) -> placement.placeNear(grafo, nodo, vecino));
+        double ms = (System.nanoTime() - inicio) / 1e6;
+
+        limpiarSeleccion();
+        layout.invalidateStats();
+        layout.invalidateStructure();
+        refrescarClusters();
+        refrescarCapas();
+        tileCache.invalidateAll();
+        edgeAggregator.invalidate();
+        layout.restartLocal(cambiados, grafo.getNodos());
+        isAnimating = true;
+        renderDirty = true;
+        if (desdeVacio) {
+            colocarConMds();
+        }
+        mostrarExito("Grafo recargado", String.format("+%d/-%d nodo(s), +%d/-%d arista(s) en %.0f ms",
+                parche.getNodosAgregados().size(), parche.getNodosEliminados().size(),
+                parche.getAristasAgregadas().size(), parche.getAristasEliminadas().size(), ms));
+    }
+
+    /**
+     * Agrega al grafo lo que el lector dejó en la cola, dentro del
+     * presupuesto de tiempo del frame
+     */
+    private void aplicarCarga() {
+        int aplicadas = cargador.aplicar(grafo, LOAD_BUDGET_NANOS,
+                (nodo, vecino) -> placement.placeNear(grafo, nodo, vecino));
+        if (aplicadas > 0) {
+            layout.invalidateStats();
+            layout.invalidateStructure();
+            tileCache.invalidateAll();
+            edgeAggregator.invalidate();
+            renderDirty = true;
+            if (grafo.size() <= LIVE_LAYOUT_MAX_NODES) {
+                layout.restart();
+                isAnimating = true;
+            } else {
+                isAnimating = false; // La simulación ya no entra en el frame junto con la carga
+            }
+        }
+
+        if (!cargador.isTerminado()) {
+            return;
+        }
+
+        ProgressiveLoader terminado = cargador;
+        cargador = null;
+        if (terminado.getError() != null) {
+            mostrarError("Error al leer el archivo: " + terminado.getError().getMessage());
+        } else {
+            double segundos = (System.nanoTime() - inicioCarga) / 1e9;
+            String invalidas = terminado.getLineasInvalidas() > 0
+                    ? "; " + terminado.getLineasInvalidas() + " línea(s) inválida(s)"
+                    : "";
+            mostrarExito("Carga completa", String.format("%d nodo(s) y %d arista(s) nuevos en %.1f s%s",
+                    terminado.getNodosAgregados(), terminado.getAristasAplicadas(), segundos, invalidas));
+            if (cargaDesdeVacio) {
+                colocarConMds();
+            }
+        }
+        refrescarCapas();
+        layout.restart();
+        isAnimating = true;
+        renderDirty = true;
+    }
+
+    /**
+     * Coloca un grafo recién cargado entero con Pivot MDS, para que la
+     * simulación parta de la estructura global y solo refine. El cálculo
+     * corre en otro hilo sobre una copia indexada de la estructura; si el
+     * grafo cambia mientras tanto, el resultado se descarta.
+     */
+    private void colocarConMds() {
+        IndiceGrafo<Integer> indice = new IndiceGrafo<>(grafo);
+        long version = grafo.getModificaciones();
+        LayoutStats stats = layout.measure(grafo.getNodos());
+        PivotMdsPlacement mds = new PivotMdsPlacement(MDS_PIVOTS, MDS_EDGE_LENGTH, stats.getCenterX(),
+                stats.getCenterY(), LAYOUT_SEED);
+        Thread hilo = new Thread(() -> {
+            double[] posiciones = mds.calcular(indice);
+            Platform.runLater(() -> {
+                if (posiciones == null || grafo.getModificaciones() != version || reproductor != null) {
+                    return;
+                }
+                PivotMdsPlacement.aplicar(indice, posiciones);
+                layout.invalidateStats();
+                layout.restart();
+                tileCache.invalidateAll(); // Se movieron todos los nodos
+                edgeAggregator.invalidate();
+                isAnimating = true;
+                renderDirty = true;
+            });
+        }, "colocar-mds");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Calcula el layout jerárquico del grafo visible en otro hilo, sobre una
+     * copia indexada, y lo aplica en el hilo de JavaFX. Si ya hay uno en
+     * curso no se lanza otro: al terminar, si el grafo cambió mientras
+     * tanto, el resultado se descarta y se vuelve a calcular una sola vez
+     * con el grafo actual (durante una carga no se encola un cálculo por
+     * frame).
+     */
+    private <T> void calcularJerarquico(GrafoDireccional<T> visible) {
+        if (jerarquicoEnCurso) {
+            return; // Al terminar ve el cambio de versión y recalcula
+        }
+        jerarquicoEnCurso = true;
+        IndiceGrafo<T> indice = new IndiceGrafo<>(visible);
+        long version = visible.getModificaciones();
+        Thread hilo = new Thread(() -> {
+            double[] posiciones = new SugiyamaLayout().calcular(indice);
+            Platform.runLater(() -> {
+                jerarquicoEnCurso = false;
+                if (grafoVisible() != visible || !jerarquicoCheckBox.isSelected() || reproductor != null) {
+                    return;
+                }
+                if (visible.getModificaciones() != version) {
+                    isAnimating = true; // Recalcular en el próximo frame
+                    return;
+                }
+                SugiyamaLayout.aplicar(indice, posiciones);
+                layoutActivo().invalidateStats();
+                tileCache.invalidateMoved(grafo.getNodos());
+                edgeAggregator.invalidate();
+                renderDirty = true;
+            });
+        }, "layout-jerarquico");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Empieza o termina la grabación de la sesión: la estructura del grafo
+     * completo y, por frame, las posiciones que cambiaron
+     */
+    @FXML
+    private void onGrabar() {
+        if (grabador != null) {
+            detenerGrabacion();
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Grabar sesión de layout");
+        chooser.setInitialFileName("sesion.grly");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Grabación de layout", "*.grly"));
+        File archivo = chooser.showSaveDialog(canvas.getScene().getWindow());
+        if (archivo == null) {
+            return;
+        }
+
+        try {
+            grabador = new LayoutRecorder(archivo.toPath());
+            mostrarInfo("Grabando", archivo.getName() + ". Presione Grabar otra vez para terminar.");
+        } catch (IOException e) {
+            mostrarError("No se pudo crear la grabación: " + e.getMessage());
+        }
+    }
+
+    private void grabarFrame(long now) {
+        try {
+            grabador.grabar(grafo, now);
+        } catch (IOException e) {
+            LayoutRecorder fallido = grabador;
+            grabador = null;
+            try {
+                fallido.close();
+            } catch (IOException ignorada) {
+                // Ya se informa el primer error
+            }
+            mostrarError("Se detuvo la grabación: " + e.getMessage());
+        }
+    }
+
+    private void detenerGrabacion() {
+        LayoutRecorder terminado = grabador;
+        grabador = null;
+        try {
+            terminado.close();
+            mostrarExito("Grabación terminada", String.format("%d frame(s), %.1f KB", terminado.getFrames(),
+                    terminado.getBytes() / 1024.0));
+        } catch (IOException e) {
+            mostrarError("No se pudo cerrar la grabación: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reproduce una grabación sobre el grafo: la estructura grabada
+     * reemplaza a la actual aplicando solo la diferencia, y las posiciones
+     * avanzan al ritmo en que se grabaron, sin simular
+     */
+    @FXML
+    private void onReproducir() {
+        if (reproductor != null) {
+            detenerReproduccion();
+            mostrarInfo("Reproducción detenida", "El grafo queda como en el último frame reproducido.");
+            return;
+        }
+        if (cargador != null || recargando) {
+            mostrarAdvertencia("Carga en curso", "Espere a que termine la carga actual.");
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Reproducir sesión de layout");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Grabación de layout", "*.grly"));
+        File archivo = chooser.showOpenDialog(canvas.getScene().getWindow());
+        if (archivo == null) {
+            return;
+        }
+
+        try {
+            reproductor = new LayoutPlayer(archivo.toPath());
+        } catch (IOException e) {
+            mostrarError("No se pudo abrir la grabación: " + e.getMessage());
+            return;
+        }
+        if (clustersCheckBox.isSelected()) {
+            clustersCheckBox.setSelected(false);
+            onToggleClusters();
+        }
+        limpiarSeleccion();
+        historial.limpiar(); // La reproducción no pasa por el historial
+        sinVecinos.clear();
+        inicioReproduccion = -1;
+        reproducidos = new Nodo<?>[0];
+        isAnimating = true; // Dibujo directo mientras las posiciones cambian
+        mostrarInfo("Reproduciendo", archivo.getName());
+    }
+
+    /**
+     * Aplica los registros de la grabación hasta el tiempo del frame y copia
+     * las posiciones al grafo
+     */
+    private void avanzarReproduccion(long now) {
+        if (inicioReproduccion < 0) {
+            inicioReproduccion = now;
+        }
+        int frames;
+        try {
+            frames = reproductor.avanzar(now - inicioReproduccion);
+        } catch (IOException e) {
+            detenerReproduccion();
+            mostrarError("Error al leer la grabación: " + e.getMessage());
+            return;
+        }
+        if (frames < 0) {
+            double segundos = reproductor.getTiempoNanos() / 1e9;
+            detenerReproduccion();
+            mostrarExito("Reproducción terminada", String.format("%.1f s de layout", segundos));
+            return;
+        }
+
+        List<Nodo<Integer>> grabados = reproductor.getGrafo().getNodos();
+        if (reproductor.isEstructuraNueva()) {
+            ParcheGrafo<Integer> parche = ParcheGrafo.calcular(grafo, reproductor.getGrafo());
+            if (!parche.isEmpty()) {
+                tileCache.invalidatePatch(grafo, parche);
+                grafo.aplicar(parche, (nodo, vecino) -> {
+                }); // La posición llega con el frame clave
+                tileCache.invalidatePatch(grafo, parche);
+                layout.invalidateStructure();
+                historial.limpiar();
+                sinVecinos.clear();
+                limpiarSeleccion();
+                refrescarCapas();
+            }
+            reproducidos = new Nodo<?>[grabados.size()];
+            for (int i = 0; i < grabados.size(); i++) {
+                Nodo<Integer> nodo = grafo.encontrarNodo(grabados.get(i).getValue());
+                nodo.setX(grabados.get(i).getX());
+                nodo.setY(grabados.get(i).getY());
+                reproducidos[i] = nodo;
+            }
+        } else {
+            for (int k = 0; k < reproductor.getNumCambiados(); k++) {
+                int i = reproductor.getCambiado(k);
+                reproducidos[i].setX(grabados.get(i).getX());
+                reproducidos[i].setY(grabados.get(i).getY());
+            }
+        }
+        if (frames > 0 || reproductor.isEstructuraNueva()) {
+            layout.invalidateStats();
+            edgeAggregator.invalidate();
+            renderDirty = true;
+        }
+    }
+
+    private void detenerReproduccion() {
+        try {
+            reproductor.close();
+        } catch (IOException e) {
+            // Solo se leía
+        }
+        reproductor = null;
+        reproducidos = null;
+        layout.invalidateStats();
+        tileCache.invalidateMoved(grafo.getNodos());
+        edgeAggregator.invalidate();
+        isAnimating = false;
+        renderDirty = true;
+    }
+
+    /**
+     * Exporta las métricas de los últimos frames a CSV
+     */
+    @FXML
+    private void onExportarMetricas() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Exportar métricas");
+        chooser.setInitialFileName("metricas.csv");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV", "*.csv"));
+        File archivo = chooser.showSaveDialog(canvas.getScene().getWindow());
+        if (archivo == null) {
+            return;
+        }
+
+        try {
+            metrics.exportCsv(archivo.toPath());
+            mostrarExito("Métricas exportadas",
+                    metrics.getFrames() + " frame(s) registrados. Archivo: " + archivo.getName());
+        } catch (IOException e) {
+            mostrarError("No se pudo exportar las métricas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exporta el grafo visible a PNG o SVG en un hilo aparte
+     */
+    @FXML
+    private void onExportarImagen() {
+        if (grafoVisible().isEmpty()) {
+            mostrarInfo("Grafo vacío", "No hay nada que exportar.");
+            return;
+        }
+        if (isAnimating) {
+            mostrarAdvertencia("Layout en movimiento", "Espere a que el layout se estabilice para exportar.");
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Exportar imagen");
+        chooser.setInitialFileName("grafo.png");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("PNG", "*.png"));
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("SVG", "*.svg"));
+        File archivo = chooser.showSaveDialog(canvas.getScene().getWindow());
+        if (archivo == null) {
+            return;
+        }
+
+        mostrarInfo("Exportando", "Generando " + archivo.getName() + "...");
+        exportarImagen(grafoVisible(), archivo);
+    }
+
+    private <T> void exportarImagen(GrafoDireccional<T> g, File archivo) {
+        // Copia de la lista para no chocar con cambios hechos mientras se exporta
+        List<Nodo<T>> nodos = new ArrayList<>(g.getNodos());
+        boolean svg = archivo.getName().toLowerCase().endsWith(".svg");
+
+        Thread hilo = new Thread(() -> {
+            try {
+                GraphExporter exporter = new GraphExporter(EXPORT_SCALE);
+                if (svg) {
+                    exporter.exportSvg(nodos, archivo.toPath());
+                } else {
+                    exporter.exportPng(nodos, archivo.toPath());
+                }
+                Platform.runLater(() -> mostrarExito("Imagen exportada",
+                        nodos.size() + " nodo(s). Archivo: " + archivo.getName()));
+            } catch (IOException e) {
+                Platform.runLater(() -> mostrarError("No se pudo exportar la imagen: " + e.getMessage()));
+            }
+        }, "exportar-imagen");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
     /**
      * Maneja el evento de scroll para zoom
      */
@@ -303,6 +1235,20 @@ public class GraphController {
             double delta = event.getDeltaY() > 0 ? ZOOM_INCREMENT : -ZOOM_INCREMENT;
             double newZoom = zoomLevel + delta;
 
+            // Con supernodos, acercar o alejar lo suficiente cambia de nivel
+            if (clusterView != null && newZoom >= CLUSTER_EXPAND_ZOOM) {
+                double[] mundo = getVisibleWorldRegion();
+                if (clusterView.expandirEn(mundo[0], mundo[1], mundo[2], mundo[3], CLUSTER_EXPAND_MAX) > 0) {
+                    zoomLevel = 1.0;
+                    clustersCambiaron();
+                    return;
+                }
+            } else if (clusterView != null && newZoom <= CLUSTER_COLLAPSE_ZOOM && clusterView.colapsarTodo()) {
+                zoomLevel = 1.0;
+                clustersCambiaron();
+                return;
+            }
+
             // Limitar zoom y mostrar advertencia en límites
             if (newZoom >= MIN_ZOOM && newZoom <= MAX_ZOOM) {
                 zoomLevel = newZoom;
@@ -318,192 +1264,466 @@ public class GraphController {
         }
     }
 
+    /**
+     * Doble clic sobre un supernodo lo expande; con Shift lo colapsa en su
+     * supernodo padre
+     */
+    private void onCanvasClicked(MouseEvent event) {
+        if (clusterView == null || event.getClickCount() != 2) {
+            return;
+        }
+
+        double[] mundo = aMundo(event.getX(), event.getY());
+        @SuppressWarnings("unchecked") // El índice activo es el de los supernodos
+        Nodo<ClusterView.Cluster> elegido = (Nodo<ClusterView.Cluster>) indiceEspacial()
+                .nodeAt(mundo[0], mundo[1], GraphRenderer.NODE_RADIUS);
+        if (elegido == null) {
+            return;
+        }
+
+        boolean cambio = event.isShiftDown() ? clusterView.colapsar(elegido) : clusterView.expandir(elegido);
+        if (cambio) {
+            clustersCambiaron();
+        }
+    }
+
+    /**
+     * Resalta el nodo o la arista bajo el mouse
+     */
+    private void onCanvasMoved(MouseEvent event) {
+        if (arrastrando || grafoVisible().isEmpty()) {
+            return;
+        }
+
+        double[] mundo = aMundo(event.getX(), event.getY());
+        SpatialIndex indice = indiceEspacial();
+        Nodo<?> nodo = indice.nodeAt(mundo[0], mundo[1], GraphRenderer.NODE_RADIUS);
+
+        // Las aristas solo con el layout quieto: su índice se arma una vez por posición
+        Nodo<?>[] arista = null;
+        if (nodo == null && !isAnimating) {
+            arista = indice.edgeAt(mundo[0], mundo[1], EDGE_PICK_PIXELS / zoomLevel);
+        }
+
+        boolean mismaArista = arista == null ? aristaBajoMouse == null
+                : aristaBajoMouse != null && arista[0] == aristaBajoMouse[0] && arista[1] == aristaBajoMouse[1];
+        if (nodo != nodoBajoMouse || !mismaArista) {
+            nodoBajoMouse = nodo;
+            aristaBajoMouse = arista;
+            mouseX = event.getX();
+            mouseY = event.getY();
+            canvas.setCursor(nodo != null ? Cursor.HAND : Cursor.DEFAULT);
+            renderDirty = true;
+        }
+    }
+
+    /**
+     * Selecciona el nodo bajo el mouse y empieza a arrastrarlo
+     */
+    private void onCanvasPressed(MouseEvent event) {
+        if (grafoVisible().isEmpty()) {
+            return;
+        }
+
+        double[] mundo = aMundo(event.getX(), event.getY());
+        Nodo<?> nodo = indiceEspacial().nodeAt(mundo[0], mundo[1], GraphRenderer.NODE_RADIUS);
+        if (event.getButton() == MouseButton.SECONDARY) {
+            // Clic derecho fija o libera el nodo
+            if (nodo != null) {
+                layoutActivo().pin(nodo, !nodo.isFijo(), grafoVisible().getNodos());
+                hayFijos |= nodo.isFijo();
+                isAnimating |= !jerarquicoCheckBox.isSelected();
+                renderDirty = true;
+            }
+            return;
+        }
+        if (event.getButton() != MouseButton.PRIMARY) {
+            return;
+        }
+
+        nodoSeleccionado = nodo;
+        arrastrando = nodo != null;
+        arrastradoEnTiles = null;
+        entrantesArrastrado.clear();
+        if (arrastrando && clusterView == null && jerarquicoCheckBox.isSelected()) {
+            // Una pasada al tomar el nodo; cada movimiento solo descarta lo que toca
+            for (Nodo<Integer> otro : grafo.getNodos()) {
+                if (otro == nodo) {
+                    arrastradoEnTiles = otro;
+                }
+                for (int i = 0; i < otro.getGrado(); i++) {
+                    if (otro.getVecino(i) == nodo) {
+                        entrantesArrastrado.add(otro);
+                        break;
+                    }
+                }
+            }
+        }
+        renderDirty = true;
+    }
+
+    /**
+     * Mueve el nodo arrastrado y lo deja fijo; el layout solo reacomoda su
+     * vecindario
+     */
+    private void onCanvasDragged(MouseEvent event) {
+        if (!arrastrando) {
+            return;
+        }
+
+        double[] mundo = aMundo(event.getX(), event.getY());
+        invalidarArrastrado(); // Posición vieja
+        nodoSeleccionado.setX(mundo[0]);
+        nodoSeleccionado.setY(mundo[1]);
+        nodoSeleccionado.setVx(0);
+        nodoSeleccionado.setVy(0);
+        nodoBajoMouse = nodoSeleccionado;
+        canvas.setCursor(Cursor.MOVE);
+
+        ForceDirectedLayout activo = layoutActivo();
+        activo.invalidateStats();
+        if (jerarquicoCheckBox.isSelected()) {
+            // Sin simulación: solo se mueve el nodo
+            invalidarArrastrado();
+            edgeAggregator.invalidate();
+            renderDirty = true;
+            return;
+        }
+        if (!nodoSeleccionado.isFijo() || activo.isStable(grafoVisible().getNodos())) {
+            activo.pin(nodoSeleccionado, true, grafoVisible().getNodos());
+            hayFijos = true;
+        }
+        isAnimating = true; // Sin tiles hasta estabilizar, que descarta lo que se movió
+        edgeAggregator.invalidate();
+        renderDirty = true;
+    }
+
+    /**
+     * Descarta los tiles del nodo arrastrado en el layout jerárquico y de
+     * sus aristas
+     */
+    private void invalidarArrastrado() {
+        if (arrastradoEnTiles != null) {
+            tileCache.invalidateIncident(arrastradoEnTiles, entrantesArrastrado);
+        }
+    }
+
+    /**
+     * Olvida la selección y el resaltado (los nodos pueden haber dejado de
+     * existir o de estar visibles)
+     */
+    private void limpiarSeleccion() {
+        nodoSeleccionado = null;
+        nodoBajoMouse = null;
+        aristaBajoMouse = null;
+        arrastrando = false;
+        arrastradoEnTiles = null;
+        entrantesArrastrado.clear();
+    }
+
+    /**
+     * @return Índice espacial vigente del grafo visible
+     */
+    private SpatialIndex indiceEspacial() {
+        return layoutActivo().getSpatialIndex(grafoVisible().getNodos());
+    }
+
+    /**
+     * Convierte coordenadas del canvas a coordenadas del mundo
+     *
+     * @return Array con [x, y]
+     */
+    private double[] aMundo(double x, double y) {
+        double[] offset = getOffset();
+        return new double[] { (x - offset[0]) / zoomLevel, (y - offset[1]) / zoomLevel };
+    }
+
     /**
      * Actualiza el tamaño del canvas basándose en el contenido
      */
     private void updateCanvasSize() {
-        if (grafo.isEmpty()) {
+        if (grafoVisible().isEmpty()) {
             canvas.setWidth(MIN_CANVAS_WIDTH);
             canvas.setHeight(MIN_CANVAS_HEIGHT);
             return;
         }
 
-        double[] bounds = layout.getBounds(grafo.getNodos());
+        LayoutStats stats = layoutActivo().measure(grafoVisible().getNodos());
 
         // Calcular tamaño necesario con zoom
-        double width = Math.max(MIN_CANVAS_WIDTH, (bounds[2] - bounds[0]) * zoomLevel);
-        double height = Math.max(MIN_CANVAS_HEIGHT, (bounds[3] - bounds[1]) * zoomLevel);
+        double width = Math.max(MIN_CANVAS_WIDTH, stats.getWidth() * zoomLevel);
+        double height = Math.max(MIN_CANVAS_HEIGHT, stats.getHeight() * zoomLevel);
 
         canvas.setWidth(width);
         canvas.setHeight(height);
     }
 
     /**
-     * Dibuja el grafo completo en el canvas
+     * Dibuja el grafo completo en el canvas. Mientras el layout anima se
+     * dibuja todo directamente; con el layout quieto se usan tiles en caché.
      */
     private void drawGraph() {
         GraphicsContext gc = canvas.getGraphicsContext2D();
+        renderDirty = false;
 
-        // Limpiar canvas
-        gc.setFill(Color.web("#ecf0f1"));
-        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        // Región visible (en coordenadas del canvas) para descartar lo que no se ve
+        double[] vista = getVisibleRegion();
 
-        if (grafo.isEmpty()) {
+        // Limpiar región visible
+        gc.setFill(GraphRenderer.BACKGROUND_COLOR);
+        gc.fillRect(vista[0], vista[1], vista[2] - vista[0], vista[3] - vista[1]);
+
+        drawnNodes = 0;
+        culledNodes = 0;
+        drawnEdges = 0;
+        culledEdges = 0;
+
+        if (grafoVisible().isEmpty()) {
             return;
         }
 
         // Calcular offset para centrar el grafo
-        double[] bounds = layout.getBounds(grafo.getNodos());
-        double offsetX = (canvas.getWidth() - (bounds[2] - bounds[0]) * zoomLevel) / 2 - bounds[0] * zoomLevel;
-        double offsetY = (canvas.getHeight() - (bounds[3] - bounds[1]) * zoomLevel) / 2 - bounds[1] * zoomLevel;
+        LayoutStats stats = layoutActivo().measure(grafoVisible().getNodos());
+        double[] offset = getOffset();
+        double offsetX = offset[0];
+        double offsetY = offset[1];
+        renderer.setZoom(zoomLevel);
+
+        if (clusterView != null) {
+            // Supernodos: pocos elementos, siempre directo y con grosor según el peso
+            ClusterView<Integer> vistaClusters = clusterView;
+            double logMax = Math.log(vistaClusters.getMaxPeso()) + 1;
+            drawEdgesDirect(gc, vistaClusters.getGrafo(), offsetX, offsetY, vista,
+                    (desde, hacia) -> vistaClusters.getPeso(desde, hacia), logMax);
+            drawNodesDirect(gc, vistaClusters.getGrafo(), offsetX, offsetY, vista);
+        } else if (agruparCheckBox.isSelected() || grafo.getNumAristas() > AGGREGATION_EDGE_THRESHOLD) {
+            // Aristas agregadas por celdas: la geometría se reutiliza mientras el layout esté quieto
+            if (isAnimating) {
+                edgeAggregator.invalidate();
+            }
+            edgeAggregator.update(grafo.getNodos(), stats, zoomLevel);
+            drawnEdges = edgeAggregator.draw(gc, zoomLevel, offsetX, offsetY, vista);
+            culledEdges = edgeAggregator.getPrimitiveCount() - drawnEdges;
+            drawNodesDirect(gc, grafo, offsetX, offsetY, vista);
+        } else if (isAnimating) {
+            drawEdgesDirect(gc, grafo, offsetX, offsetY, vista, null, 0);
+            drawNodesDirect(gc, grafo, offsetX, offsetY, vista);
+        } else {
+            tileCache.draw(gc, renderer, grafo.getNodos(), offsetX, offsetY, vista);
+            drawnNodes = tileCache.getRenderedNodes();
+            drawnEdges = tileCache.getRenderedEdges();
+        }
 
-        // Dibujar aristas primero (debajo de los nodos)
-        gc.setLineWidth(2.5 * zoomLevel);
-        gc.setStroke(Color.web("#2c3e50"));
+        drawSeleccion(gc, offsetX, offsetY);
 
-        for (Nodo<Integer> nodo : grafo.getNodos()) {
-            for (Nodo<Integer> vecino : nodo.getVecinos()) {
-                drawEdge(gc, nodo, vecino, offsetX, offsetY);
-            }
+        if (cargador != null) {
+            drawProgresoCarga(gc);
         }
 
-        // Dibujar nodos encima
-        for (Nodo<Integer> nodo : grafo.getNodos()) {
-            drawNode(gc, nodo, offsetX, offsetY);
+        if (hudCheckBox.isSelected()) {
+            drawHud(gc);
         }
     }
 
     /**
-     * Dibuja una arista direccional con flecha, evitando nodos intermedios
+     * Dibuja el nodo seleccionado y la información del elemento bajo el mouse
      */
-    private void drawEdge(GraphicsContext gc, Nodo<Integer> from, Nodo<Integer> to, double offsetX, double offsetY) {
-        double x1 = from.getX() * zoomLevel + offsetX;
-        double y1 = from.getY() * zoomLevel + offsetY;
-        double x2 = to.getX() * zoomLevel + offsetX;
-        double y2 = to.getY() * zoomLevel + offsetY;
-
-        // Calcular ángulo
-        double angle = Math.atan2(y2 - y1, x2 - x1);
-
-        // Acortar la línea para que no entre en los nodos
-        double radius = NODE_RADIUS * zoomLevel;
-        double x1Adjusted = x1 + Math.cos(angle) * radius;
-        double y1Adjusted = y1 + Math.sin(angle) * radius;
-        double x2Adjusted = x2 - Math.cos(angle) * radius;
-        double y2Adjusted = y2 - Math.sin(angle) * radius;
+    private void drawSeleccion(GraphicsContext gc, double offsetX, double offsetY) {
+        double radius = GraphRenderer.NODE_RADIUS * zoomLevel;
+
+        // Marca de los nodos fijos
+        if (hayFijos) {
+            gc.setFill(Color.web("#2c3e50"));
+            double r = radius * 0.35;
+            for (Nodo<?> nodo : grafoVisible().getNodos()) {
+                if (nodo.isFijo()) {
+                    double x = nodo.getX() * zoomLevel + offsetX;
+                    double y = nodo.getY() * zoomLevel + offsetY;
+                    gc.fillOval(x - r, y - r, r * 2, r * 2);
+                }
+            }
+        }
 
-        // Dibujar línea con segmentos que evitan otros nodos
-        drawEdgeWithClipping(gc, x1Adjusted, y1Adjusted, x2Adjusted, y2Adjusted, from, to, offsetX, offsetY);
+        if (nodoSeleccionado != null) {
+            double x = nodoSeleccionado.getX() * zoomLevel + offsetX;
+            double y = nodoSeleccionado.getY() * zoomLevel + offsetY;
+            double r = radius + 4 * zoomLevel;
+            gc.setStroke(SELECTION_COLOR);
+            gc.setLineWidth(3 * zoomLevel);
+            gc.strokeOval(x - r, y - r, r * 2, r * 2);
+        }
 
-        // Dibujar flecha
-        drawArrowHead(gc, x2Adjusted, y2Adjusted, angle);
+        if (nodoBajoMouse != null) {
+            double x = nodoBajoMouse.getX() * zoomLevel + offsetX;
+            double y = nodoBajoMouse.getY() * zoomLevel + offsetY;
+            drawTooltip(gc, "Nodo " + nodoBajoMouse.getValue() + " · "
+                    + nodoBajoMouse.getGrado() + " arista(s) saliente(s)"
+                    + (nodoBajoMouse.isFijo() ? " · fijo" : ""), x + radius, y - radius);
+        } else if (aristaBajoMouse != null) {
+            gc.setStroke(SELECTION_COLOR);
+            gc.setLineWidth(GraphRenderer.EDGE_WIDTH * 1.5 * zoomLevel);
+            gc.strokeLine(aristaBajoMouse[0].getX() * zoomLevel + offsetX,
+                    aristaBajoMouse[0].getY() * zoomLevel + offsetY,
+                    aristaBajoMouse[1].getX() * zoomLevel + offsetX,
+                    aristaBajoMouse[1].getY() * zoomLevel + offsetY);
+            drawTooltip(gc, "Arista " + aristaBajoMouse[0].getValue() + " → " + aristaBajoMouse[1].getValue(),
+                    mouseX + 12, mouseY - 12);
+        }
     }
 
     /**
-     * Dibuja una arista evitando nodos intermedios
+     * Dibuja un recuadro de texto con la esquina inferior izquierda en (x, y)
      */
-    private void drawEdgeWithClipping(GraphicsContext gc, double x1, double y1, double x2, double y2,
-            Nodo<Integer> from, Nodo<Integer> to, double offsetX, double offsetY) {
-        // Dividir la línea en segmentos pequeños
-        int numSegments = 50;
-        double prevX = x1;
-        double prevY = y1;
-        boolean wasInside = false;
-
-        for (int i = 1; i <= numSegments; i++) {
-            double t = (double) i / numSegments;
-            double currentX = x1 + (x2 - x1) * t;
-            double currentY = y1 + (y2 - y1) * t;
+    private void drawTooltip(GraphicsContext gc, String texto, double x, double y) {
+        double ancho = texto.length() * 7.5 + 16;
+        gc.setFill(Color.web("#2c3e50", 0.9));
+        gc.fillRect(x, y - 24, ancho, 24);
+        gc.setFill(Color.WHITE);
+        gc.setFont(Font.font("Monospaced", 12));
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.fillText(texto, x + 8, y - 8);
+    }
 
-            // Verificar si el punto actual está dentro de algún nodo (excepto origen y
-            // destino)
-            boolean isInside = false;
-            for (Nodo<Integer> nodo : grafo.getNodos()) {
-                if (nodo == from || nodo == to)
+    /**
+     * Dibuja las aristas visibles directamente sobre el canvas
+     *
+     * @param peso    Peso de cada arista para escalar su grosor, o null
+     * @param logMax  Logaritmo del peso máximo más uno (si hay pesos)
+     */
+    private <T> void drawEdgesDirect(GraphicsContext gc, GrafoDireccional<T> g, double offsetX, double offsetY,
+            double[] vista, ToIntBiFunction<Nodo<T>, Nodo<T>> peso, double logMax) {
+        // Dibujar aristas primero (debajo de los nodos)
+        renderer.beginEdges(gc);
+
+        for (Nodo<T> nodo : g.getNodos()) {
+            double x1 = nodo.getX() * zoomLevel + offsetX;
+            double y1 = nodo.getY() * zoomLevel + offsetY;
+            for (int i = 0; i < nodo.getGrado(); i++) {
+                Nodo<T> vecino = nodo.getVecino(i);
+                double x2 = vecino.getX() * zoomLevel + offsetX;
+                double y2 = vecino.getY() * zoomLevel + offsetY;
+                if (Math.max(x1, x2) < vista[0] || Math.min(x1, x2) > vista[2]
+                        || Math.max(y1, y2) < vista[1] || Math.min(y1, y2) > vista[3]) {
+                    culledEdges++;
                     continue;
-
-                double nodeX = nodo.getX() * zoomLevel + offsetX;
-                double nodeY = nodo.getY() * zoomLevel + offsetY;
-                double distance = Math.sqrt(Math.pow(currentX - nodeX, 2) + Math.pow(currentY - nodeY, 2));
-
-                if (distance < NODE_RADIUS * zoomLevel) {
-                    isInside = true;
-                    break;
                 }
-            }
-
-            // Dibujar segmento solo si no está dentro de un nodo
-            if (!isInside) {
-                if (!wasInside) {
-                    // Continuar línea
-                    gc.strokeLine(prevX, prevY, currentX, currentY);
+                if (peso != null) {
+                    double relativo = (Math.log(peso.applyAsInt(nodo, vecino)) + 1) / logMax;
+                    gc.setLineWidth(GraphRenderer.EDGE_WIDTH * zoomLevel * (0.5 + 2.5 * relativo));
                 }
-                prevX = currentX;
-                prevY = currentY;
+                renderer.drawEdge(gc, g.getNodos(), nodo, vecino, offsetX, offsetY);
+                drawnEdges++;
             }
-
-            wasInside = isInside;
         }
     }
 
     /**
-     * Dibuja la punta de flecha mejorada
+     * Dibuja los nodos visibles directamente sobre el canvas
      */
-    private void drawArrowHead(GraphicsContext gc, double x, double y, double angle) {
-        double arrowSize = ARROW_SIZE * zoomLevel;
+    private <T> void drawNodesDirect(GraphicsContext gc, GrafoDireccional<T> g, double offsetX, double offsetY,
+            double[] vista) {
+        double radius = GraphRenderer.NODE_RADIUS * zoomLevel;
 
-        // Calcular puntos del triángulo de la flecha
-        double x1 = x - arrowSize * Math.cos(angle - Math.PI / 7);
-        double y1 = y - arrowSize * Math.sin(angle - Math.PI / 7);
-        double x2 = x - arrowSize * Math.cos(angle + Math.PI / 7);
-        double y2 = y - arrowSize * Math.sin(angle + Math.PI / 7);
+        // Dibujar nodos encima
+        for (Nodo<T> nodo : g.getNodos()) {
+            double x = nodo.getX() * zoomLevel + offsetX;
+            double y = nodo.getY() * zoomLevel + offsetY;
+            if (x + radius < vista[0] || x - radius > vista[2] || y + radius < vista[1] || y - radius > vista[3]) {
+                culledNodes++;
+                continue;
+            }
+            renderer.drawNode(gc, nodo, offsetX, offsetY);
+            drawnNodes++;
+        }
+    }
+
+    /**
+     * Calcula el desplazamiento que centra el grafo visible en el canvas
+     *
+     * @return Array con [offsetX, offsetY]
+     */
+    private double[] getOffset() {
+        LayoutStats stats = layoutActivo().measure(grafoVisible().getNodos());
+        return new double[] {
+                (canvas.getWidth() - stats.getWidth() * zoomLevel) / 2 - stats.getMinX() * zoomLevel,
+                (canvas.getHeight() - stats.getHeight() * zoomLevel) / 2 - stats.getMinY() * zoomLevel
+        };
+    }
 
-        // Guardar color actual
-        Color currentStroke = (Color) gc.getStroke();
+    /**
+     * Calcula la parte visible en coordenadas del mundo
+     *
+     * @return Array con [minX, minY, maxX, maxY]
+     */
+    private double[] getVisibleWorldRegion() {
+        double[] vista = getVisibleRegion();
+        double[] offset = getOffset();
+        return new double[] {
+                (vista[0] - offset[0]) / zoomLevel, (vista[1] - offset[1]) / zoomLevel,
+                (vista[2] - offset[0]) / zoomLevel, (vista[3] - offset[1]) / zoomLevel
+        };
+    }
 
-        // Dibujar flecha rellena
-        gc.setFill(currentStroke);
-        gc.fillPolygon(
-                new double[] { x, x1, x2 },
-                new double[] { y, y1, y2 },
-                3);
+    /**
+     * Calcula la parte del canvas visible en el ScrollPane
+     * 
+     * @return Array con [minX, minY, maxX, maxY] en coordenadas del canvas
+     */
+    private double[] getVisibleRegion() {
+        double viewWidth = scrollPane.getViewportBounds().getWidth();
+        double viewHeight = scrollPane.getViewportBounds().getHeight();
+        if (viewWidth <= 0 || viewHeight <= 0) {
+            // El ScrollPane aún no tiene tamaño: considerar todo el canvas visible
+            return new double[] { 0, 0, canvas.getWidth(), canvas.getHeight() };
+        }
 
-        // Dibujar borde de la flecha para mejor definición
-        gc.setLineWidth(1.0 * zoomLevel);
-        gc.strokePolygon(
-                new double[] { x, x1, x2 },
-                new double[] { y, y1, y2 },
-                3);
+        double viewX = scrollPane.getHvalue() * Math.max(0, canvas.getWidth() - viewWidth);
+        double viewY = scrollPane.getVvalue() * Math.max(0, canvas.getHeight() - viewHeight);
+        return new double[] { viewX, viewY, viewX + viewWidth, viewY + viewHeight };
     }
 
     /**
-     * Dibuja un nodo con gradiente y texto
+     * Dibuja el panel de métricas en la esquina visible del canvas
      */
-    private void drawNode(GraphicsContext gc, Nodo<Integer> nodo, double offsetX, double offsetY) {
-        double x = nodo.getX() * zoomLevel + offsetX;
-        double y = nodo.getY() * zoomLevel + offsetY;
-        double radius = NODE_RADIUS * zoomLevel;
+    private void drawHud(GraphicsContext gc) {
+        String[] lineas = metrics.hudLines();
 
-        // Crear gradiente azul
-        LinearGradient gradient = new LinearGradient(
-                0, 0, 0, 1, true, CycleMethod.NO_CYCLE,
-                new Stop(0, Color.web("#3498db")),
-                new Stop(1, Color.web("#2980b9")));
+        // Esquina superior izquierda de la parte visible del ScrollPane
+        double[] vista = getVisibleRegion();
+        double x = vista[0] + 10;
+        double y = vista[1] + 10;
+        gc.setFill(Color.web("#2c3e50", 0.85));
+        gc.fillRect(x, y, 380, 18 * lineas.length + 12);
 
-        // Dibujar círculo con gradiente
-        gc.setFill(gradient);
-        gc.fillOval(x - radius, y - radius, radius * 2, radius * 2);
+        gc.setFill(Color.WHITE);
+        gc.setFont(Font.font("Monospaced", 12));
+        gc.setTextAlign(TextAlignment.LEFT);
+        for (int i = 0; i < lineas.length; i++) {
+            gc.fillText(lineas[i], x + 8, y + 20 + i * 18);
+        }
+    }
 
-        // Dibujar borde blanco
-        gc.setStroke(Color.WHITE);
-        gc.setLineWidth(2.5 * zoomLevel);
-        gc.strokeOval(x - radius, y - radius, radius * 2, radius * 2);
+    /**
+     * Dibuja el avance de la carga en la esquina inferior izquierda de la
+     * parte visible del canvas
+     */
+    private void drawProgresoCarga(GraphicsContext gc) {
+        double[] vista = getVisibleRegion();
+        double ancho = 340;
+        double x = vista[0] + 10;
+        double y = vista[3] - 46;
+        double progreso = Math.min(1, cargador.getProgreso());
+
+        gc.setFill(Color.web("#2c3e50", 0.85));
+        gc.fillRect(x, y, ancho, 36);
+        gc.setFill(Color.web("#16a085"));
+        gc.fillRect(x + 8, y + 24, (ancho - 16) * progreso, 6);
 
-        // Dibujar texto centrado
         gc.setFill(Color.WHITE);
-        gc.setFont(Font.font("Arial", 14 * zoomLevel));
-        gc.setTextAlign(TextAlignment.CENTER);
-        gc.fillText(nodo.getValue().toString(), x, y + 5 * zoomLevel);
+        gc.setFont(Font.font("Monospaced", 12));
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.fillText(String.format("Cargando %3.0f%%  %d nodos  %d aristas", progreso * 100, grafo.size(),
+                grafo.getNumAristas()), x + 8, y + 16);
     }
 
     /**
@@ -0,0 +1,432 @@
+package com.espoch.grafo.export;
+
+import com.espoch.grafo.model.Nodo;
+import com.espoch.grafo.view.GraphRenderer;
+import javafx.application.Platform;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Exporta el grafo a imágenes de alta resolución sin pasar por el canvas
+ * en pantalla ni necesitar un Stage visible.
+ *
+ * El PNG se rasteriza por franjas horizontales: cada franja se dibuja en
+ * tiles con {@link GraphRenderer} (el mismo estilo que la vista), se copia
+ * a un buffer de una franja y se comprime a disco antes de pasar a la
+ * siguiente, así que la memoria de imagen depende del ancho y no del alto.
+ * Nodos y aristas se ordenan una vez por la primera franja que tocan y se
+ * recorren con una ventana de elementos activos, así que cada franja solo
+ * mira lo que la toca. El dibujado de cada tile se hace en el hilo de JavaFX; el resto
+ * puede correr en cualquier hilo.
+ *
+ * El SVG se escribe como texto a medida que se recorre el grafo, con las
+ * mismas medidas y colores, y no usa JavaFX.
+ */
+public class GraphExporter {
+    private static final int STRIP_HEIGHT = 256;
+    private static final int TILE_WIDTH = 2048; // Dentro del límite de textura habitual
+    private static final int MAX_BUFFER_PIXELS = 8 * 1024 * 1024; // ~32 MB por franja
+    private static final double PADDING = 40.0; // Borde alrededor del grafo (coordenadas del mundo)
+
+    // Margen alrededor de cada elemento (radio, flecha, grosor del trazo)
+    private static final double MARGIN = GraphRenderer.NODE_RADIUS + GraphRenderer.ARROW_SIZE
+            + GraphRenderer.EDGE_WIDTH;
+
+    private final double escala;
+
+    /**
+     * Canvas y snapshot reutilizados entre tiles (solo en el hilo de JavaFX)
+     */
+    private static class Lienzo {
+        Canvas canvas;
+        WritableImage imagen;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param escala Píxeles por unidad del mundo (1 = tamaño del zoom 100%)
+     */
+    public GraphExporter(double escala) {
+        this.escala = escala;
+    }
+
+    /**
+     * Inicia el toolkit de JavaFX si todavía no está corriendo, para
+     * exportar PNG desde un programa sin interfaz
+     */
+    public static void iniciarToolkit() {
+        try {
+            Platform.startup(() -> {
+            });
+        } catch (IllegalStateException yaIniciado) {
+            // El toolkit ya estaba corriendo
+        }
+    }
+
+    /**
+     * Exporta a PNG
+     *
+     * @param nodos   Nodos a dibujar
+     * @param archivo Archivo de salida
+     * @throws IOException si no se puede escribir o se interrumpe el hilo
+     */
+    public <T> void exportPng(List<Nodo<T>> nodos, Path archivo) throws IOException {
+        double[] limites = limites(nodos);
+        int width = tamañoEnPixeles(limites[2] - limites[0]);
+        int height = tamañoEnPixeles(limites[3] - limites[1]);
+        double origenX = -limites[0] * escala;
+        double origenY = -limites[1] * escala;
+        double margen = MARGIN * escala;
+
+        int altoFranja = Math.max(16, Math.min(STRIP_HEIGHT, MAX_BUFFER_PIXELS / width));
+        int[] franja = new int[width * altoFranja];
+        Lienzo lienzo = new Lienzo(); // Se llena en el hilo de JavaFX
+
+        int numFranjas = (height + altoFranja - 1) / altoFranja;
+
+        // Nodos por la primera franja que tocan (orden por conteo)
+        int numAristas = 0;
+        int[] inicioNodos = new int[numFranjas + 1];
+        for (Nodo<T> nodo : nodos) {
+            double y = nodo.getY() * escala + origenY;
+            inicioNodos[franjaDe(y - margen, altoFranja, numFranjas) + 1]++;
+            numAristas += nodo.getGrado();
+        }
+        acumular(inicioNodos);
+        @SuppressWarnings("unchecked")
+        Nodo<T>[] porFranja = (Nodo<T>[]) new Nodo<?>[nodos.size()];
+        int[] llenos = inicioNodos.clone();
+        for (Nodo<T> nodo : nodos) {
+            double y = nodo.getY() * escala + origenY;
+            porFranja[llenos[franjaDe(y - margen, altoFranja, numFranjas)]++] = nodo;
+        }
+
+        // Aristas por la primera franja que tocan, con la última para sacarlas de la ventana
+        int[] inicioAristas = new int[numFranjas + 1];
+        for (Nodo<T> nodo : nodos) {
+            double y1 = nodo.getY() * escala + origenY;
+            for (int i = 0; i < nodo.getGrado(); i++) {
+                double y2 = nodo.getVecino(i).getY() * escala + origenY;
+                inicioAristas[franjaDe(Math.min(y1, y2) - margen, altoFranja, numFranjas) + 1]++;
+            }
+        }
+        acumular(inicioAristas);
+        @SuppressWarnings("unchecked")
+        Nodo<T>[] aristaDesde = (Nodo<T>[]) new Nodo<?>[numAristas];
+        @SuppressWarnings("unchecked")
+        Nodo<T>[] aristaHacia = (Nodo<T>[]) new Nodo<?>[numAristas];
+        int[] ultimaFranja = new int[numAristas];
+        llenos = inicioAristas.clone();
+        for (Nodo<T> nodo : nodos) {
+            double y1 = nodo.getY() * escala + origenY;
+            for (int i = 0; i < nodo.getGrado(); i++) {
+                Nodo<T> vecino = nodo.getVecino(i);
+                double y2 = vecino.getY() * escala + origenY;
+                int e = llenos[franjaDe(Math.min(y1, y2) - margen, altoFranja, numFranjas)]++;
+                aristaDesde[e] = nodo;
+                aristaHacia[e] = vecino;
+                ultimaFranja[e] = franjaDe(Math.max(y1, y2) + margen, altoFranja, numFranjas);
+            }
+        }
+
+        try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(archivo));
+                PngStreamWriter png = new PngStreamWriter(salida, width, height)) {
+            List<Nodo<T>> desde = new ArrayList<>();
+            List<Nodo<T>> hacia = new ArrayList<>();
+            List<Nodo<T>> nodosFranja = new ArrayList<>();
+            int[] activas = new int[16]; // Aristas que tocan la franja actual
+            int numActivas = 0;
+            int primerNodo = 0; // Los nodos tocan a lo sumo unas pocas franjas: ventana sobre porFranja
+
+            for (int f = 0, y0 = 0; f < numFranjas; f++, y0 += altoFranja) {
+                int alto = Math.min(altoFranja, height - y0);
+
+                // Entran las aristas que empiezan aquí y salen las que ya terminaron
+                int n = 0;
+                for (int k = 0; k < numActivas; k++) {
+                    if (ultimaFranja[activas[k]] >= f)
+                        activas[n++] = activas[k];
+                }
+                numActivas = n;
+                for (int e = inicioAristas[f]; e < inicioAristas[f + 1]; e++) {
+                    if (numActivas == activas.length)
+                        activas = Arrays.copyOf(activas, numActivas * 2);
+                    activas[numActivas++] = e;
+                }
+                desde.clear();
+                hacia.clear();
+                for (int k = 0; k < numActivas; k++) {
+                    desde.add(aristaDesde[activas[k]]);
+                    hacia.add(aristaHacia[activas[k]]);
+                }
+
+                nodosFranja.clear();
+                double maxY = y0 + alto + margen;
+                while (primerNodo < inicioNodos[f + 1]
+                        && porFranja[primerNodo].getY() * escala + origenY + margen < y0) {
+                    primerNodo++;
+                }
+                for (int k = primerNodo; k < inicioNodos[f + 1]; k++) {
+                    double y = porFranja[k].getY() * escala + origenY;
+                    if (y + margen >= y0 && y - margen <= maxY)
+                        nodosFranja.add(porFranja[k]);
+                }
+
+                for (int x0 = 0; x0 < width; x0 += TILE_WIDTH) {
+                    int ancho = Math.min(TILE_WIDTH, width - x0);
+                    int tileX = x0;
+                    int tileY = y0;
+                    enHiloFx(() -> {
+                        if (lienzo.canvas == null)
+                            lienzo.canvas = new Canvas(Math.min(TILE_WIDTH, width), altoFranja);
+                        dibujarTile(lienzo, desde, hacia, nodosFranja, origenX - tileX, origenY - tileY,
+                                ancho, alto, franja, tileX, width);
+                    });
+                }
+                png.writeRows(franja, 0, width, alto);
+            }
+        }
+    }
+
+    /**
+     * Franja que contiene una coordenada Y (en píxeles de la imagen),
+     * acotada a las que existen
+     */
+    private static int franjaDe(double y, int altoFranja, int numFranjas) {
+        return (int) Math.max(0, Math.min(numFranjas - 1, Math.floor(y / altoFranja)));
+    }
+
+    /**
+     * Convierte conteos en {@code c[i + 1]} en posiciones de inicio
+     */
+    private static void acumular(int[] c) {
+        for (int i = 0; i + 1 < c.length; i++) {
+            c[i + 1] += c[i];
+        }
+    }
+
+    /**
+     * Dibuja un tile y copia sus píxeles al buffer de la franja
+     */
+    private <T> void dibujarTile(Lienzo lienzo, List<Nodo<T>> desde, List<Nodo<T>> hacia,
+            List<Nodo<T>> nodosFranja, double offsetX, double offsetY, int ancho, int alto,
+            int[] franja, int destino, int stride) {
+        GraphRenderer renderer = new GraphRenderer();
+        renderer.setZoom(escala);
+        double margen = MARGIN * escala;
+        GraphicsContext gc = lienzo.canvas.getGraphicsContext2D();
+        gc.setFill(GraphRenderer.BACKGROUND_COLOR);
+        gc.fillRect(0, 0, lienzo.canvas.getWidth(), lienzo.canvas.getHeight());
+
+        // Nodos del tile: se dibujan y sirven para recortar las aristas
+        List<Nodo<T>> nodosTile = new ArrayList<>();
+        for (Nodo<T> nodo : nodosFranja) {
+            double x = nodo.getX() * escala + offsetX;
+            if (x >= -margen && x <= ancho + margen)
+                nodosTile.add(nodo);
+        }
+
+        renderer.beginEdges(gc);
+        for (int i = 0; i < desde.size(); i++) {
+            double x1 = desde.get(i).getX() * escala + offsetX;
+            double x2 = hacia.get(i).getX() * escala + offsetX;
+            if (Math.max(x1, x2) >= -margen && Math.min(x1, x2) <= ancho + margen) {
+                renderer.drawEdge(gc, nodosTile, desde.get(i), hacia.get(i), offsetX, offsetY);
+            }
+        }
+        for (Nodo<T> nodo : nodosTile) {
+            renderer.drawNode(gc, nodo, offsetX, offsetY);
+        }
+
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(GraphRenderer.BACKGROUND_COLOR);
+        lienzo.imagen = lienzo.canvas.snapshot(params, lienzo.imagen);
+        lienzo.imagen.getPixelReader().getPixels(0, 0, ancho, alto, PixelFormat.getIntArgbInstance(),
+                franja, destino, stride);
+    }
+
+    /**
+     * Exporta a SVG
+     *
+     * @param nodos   Nodos a dibujar
+     * @param archivo Archivo de salida
+     * @throws IOException si no se puede escribir
+     */
+    public <T> void exportSvg(List<Nodo<T>> nodos, Path archivo) throws IOException {
+        double[] limites = limites(nodos);
+        int width = tamañoEnPixeles(limites[2] - limites[0]);
+        int height = tamañoEnPixeles(limites[3] - limites[1]);
+        double origenX = -limites[0] * escala;
+        double origenY = -limites[1] * escala;
+        double radio = GraphRenderer.NODE_RADIUS * escala;
+        double flecha = GraphRenderer.ARROW_SIZE * escala;
+
+        try (Writer out = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height
+                    + "\" viewBox=\"0 0 " + width + " " + height + "\">\n");
+            out.write("<defs><linearGradient id=\"nodo\" x1=\"0\" y1=\"0\" x2=\"0\" y2=\"1\">"
+                    + "<stop offset=\"0\" stop-color=\"" + hex(GraphRenderer.NODE_COLOR) + "\"/>"
+                    + "<stop offset=\"1\" stop-color=\"" + hex(GraphRenderer.NODE_COLOR_DARK) + "\"/>"
+                    + "</linearGradient></defs>\n");
+            out.write("<rect width=\"100%\" height=\"100%\" fill=\"" + hex(GraphRenderer.BACKGROUND_COLOR) + "\"/>\n");
+
+            // Aristas: línea acortada al borde de los nodos y punta de flecha
+            String colorArista = hex(GraphRenderer.EDGE_COLOR);
+            out.write("<g stroke=\"" + colorArista + "\" fill=\"" + colorArista + "\" stroke-width=\"");
+            out.write(numero(GraphRenderer.EDGE_WIDTH * escala));
+            out.write("\">\n");
+            StringBuilder sb = new StringBuilder(256);
+            for (Nodo<T> nodo : nodos) {
+                double x1 = nodo.getX() * escala + origenX;
+                double y1 = nodo.getY() * escala + origenY;
+                for (int i = 0; i < nodo.getGrado(); i++) {
+                    Nodo<T> vecino = nodo.getVecino(i);
+                    double x2 = vecino.getX() * escala + origenX;
+                    double y2 = vecino.getY() * escala + origenY;
+                    double angulo = Math.atan2(y2 - y1, x2 - x1);
+                    double cos = Math.cos(angulo);
+                    double sin = Math.sin(angulo);
+                    double ax = x2 - cos * radio;
+                    double ay = y2 - sin * radio;
+
+                    sb.setLength(0);
+                    sb.append("<line x1=\"").append(numero(x1 + cos * radio))
+                            .append("\" y1=\"").append(numero(y1 + sin * radio))
+                            .append("\" x2=\"").append(numero(ax))
+                            .append("\" y2=\"").append(numero(ay)).append("\"/>");
+                    sb.append("<polygon stroke-width=\"").append(numero(escala)).append("\" points=\"")
+                            .append(numero(ax)).append(',').append(numero(ay)).append(' ')
+                            .append(numero(ax - flecha * Math.cos(angulo - Math.PI / 7))).append(',')
+                            .append(numero(ay - flecha * Math.sin(angulo - Math.PI / 7))).append(' ')
+                            .append(numero(ax - flecha * Math.cos(angulo + Math.PI / 7))).append(',')
+                            .append(numero(ay - flecha * Math.sin(angulo + Math.PI / 7)))
+                            .append("\"/>\n");
+                    out.append(sb);
+                }
+            }
+            out.write("</g>\n");
+
+            // Nodos encima de las aristas
+            out.write("<g font-family=\"Arial\" font-size=\"" + numero(14 * escala)
+                    + "\" text-anchor=\"middle\" stroke-width=\"" + numero(GraphRenderer.EDGE_WIDTH * escala)
+                    + "\">\n");
+            for (Nodo<T> nodo : nodos) {
+                double x = nodo.getX() * escala + origenX;
+                double y = nodo.getY() * escala + origenY;
+                sb.setLength(0);
+                sb.append("<circle cx=\"").append(numero(x)).append("\" cy=\"").append(numero(y))
+                        .append("\" r=\"").append(numero(radio))
+                        .append("\" fill=\"url(#nodo)\" stroke=\"#ffffff\"/>");
+                sb.append("<text x=\"").append(numero(x)).append("\" y=\"").append(numero(y + 5 * escala))
+                        .append("\" fill=\"#ffffff\">");
+                escaparXml(sb, nodo.getValue().toString());
+                sb.append("</text>\n");
+                out.append(sb);
+            }
+            out.write("</g>\n</svg>\n");
+        }
+    }
+
+    /**
+     * Límites del grafo con borde [minX, minY, maxX, maxY] en coordenadas
+     * del mundo
+     */
+    private static <T> double[] limites(List<Nodo<T>> nodos) {
+        if (nodos.isEmpty()) {
+            throw new IllegalArgumentException("El grafo está vacío");
+        }
+
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (Nodo<T> nodo : nodos) {
+            minX = Math.min(minX, nodo.getX());
+            minY = Math.min(minY, nodo.getY());
+            maxX = Math.max(maxX, nodo.getX());
+            maxY = Math.max(maxY, nodo.getY());
+        }
+        double borde = MARGIN + PADDING;
+        return new double[] { minX - borde, minY - borde, maxX + borde, maxY + borde };
+    }
+
+    private int tamañoEnPixeles(double mundo) {
+        double pixeles = Math.ceil(mundo * escala);
+        if (pixeles > Integer.MAX_VALUE / 4) {
+            throw new IllegalArgumentException("Imagen demasiado grande: " + (long) pixeles + " px");
+        }
+        return Math.max(1, (int) pixeles);
+    }
+
+    /**
+     * Ejecuta una tarea en el hilo de JavaFX y espera a que termine
+     */
+    private static void enHiloFx(Runnable tarea) throws IOException {
+        if (Platform.isFxApplicationThread()) {
+            tarea.run();
+            return;
+        }
+
+        FutureTask<Void> futura = new FutureTask<>(tarea, null);
+        Platform.runLater(futura);
+        try {
+            futura.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Exportación interrumpida");
+        } catch (ExecutionException e) {
+            throw new IOException("Error al dibujar un tile", e.getCause());
+        }
+    }
+
+    /**
+     * Número con un decimal sin notación científica ni dependencia del
+     * locale
+     */
+    private static String numero(double valor) {
+        long decimas = Math.round(valor * 10);
+        if (decimas % 10 == 0) {
+            return Long.toString(decimas / 10);
+        }
+        String signo = decimas < 0 ? "-" : "";
+        long abs = Math.abs(decimas);
+        return signo + (abs / 10) + "." + (abs % 10);
+    }
+
+    private static String hex(Color color) {
+        return String.format(Locale.ROOT, "#%02x%02x%02x", Math.round(color.getRed() * 255),
+                Math.round(color.getGreen() * 255), Math.round(color.getBlue() * 255));
+    }
+
+    private static void escaparXml(StringBuilder sb, String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                case '"' -> sb.append("&quot;");
+                default -> sb.append(c);
+            }
+        }
+    }
+}
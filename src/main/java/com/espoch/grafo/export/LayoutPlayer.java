@@ -0,0 +1,251 @@
+package com.espoch.grafo.export;
+
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.Nodo;
+import com.espoch.grafo.model.ParcheGrafo;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reproduce una grabación de {@link LayoutRecorder}. El reproductor arma
+ * su propio grafo con la estructura grabada, le aplica los parches y los
+ * frames en orden, a medida que se le pide avanzar en el tiempo; la vista
+ * puede dibujar ese grafo o copiar las posiciones de los nodos que
+ * cambiaron.
+ */
+public class LayoutPlayer implements Closeable {
+    private final DataInputStream entrada;
+    private final PositionFrameDecoder decodificador;
+    private GrafoDireccional<Integer> grafo = new GrafoDireccional<>();
+    private byte[] contenido = new byte[1 << 12];
+
+    // Registro leído por adelantado (tipo < 0 = fin de la grabación)
+    private int tipoSiguiente;
+    private long tiempoSiguiente;
+    private long tiempo;
+
+    // Cambios del último avance: índices sin repetir, marcados con la época
+    private int[] cambiados = new int[0];
+    private int[] marcas = new int[0];
+    private int epoca;
+    private int numCambiados;
+    private boolean estructuraNueva;
+
+    /**
+     * Abre una grabación
+     *
+     * @param archivo Archivo grabado con {@link LayoutRecorder}
+     * @throws IOException si no se puede leer o no es una grabación
+     */
+    public LayoutPlayer(Path archivo) throws IOException {
+        entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(archivo), 1 << 16));
+        try {
+            if (entrada.readInt() != LayoutRecorder.MAGIC)
+                throw new IOException("No es una grabación de layout");
+            int version = entrada.readUnsignedByte();
+            if (version < 1 || version > LayoutRecorder.VERSION)
+                throw new IOException("Versión de grabación no soportada: " + version);
+            decodificador = new PositionFrameDecoder(entrada.readDouble());
+            leerCabecera();
+        } catch (IOException e) {
+            entrada.close();
+            throw e;
+        }
+    }
+
+    private void leerCabecera() throws IOException {
+        tipoSiguiente = entrada.read();
+        if (tipoSiguiente < 0)
+            return;
+        int micros = Varint.leer(entrada);
+        if (micros < 0)
+            throw new EOFException("Registro truncado");
+        tiempoSiguiente = tiempo + micros * 1000L;
+    }
+
+    /**
+     * Aplica todos los registros grabados hasta el tiempo dado
+     *
+     * @param hastaNanos Tiempo desde el comienzo de la grabación
+     * @return Frames aplicados, o -1 si la grabación terminó
+     * @throws IOException si falla la lectura o la grabación está dañada
+     */
+    public int avanzar(long hastaNanos) throws IOException {
+        if (tipoSiguiente < 0)
+            return -1;
+        epoca++;
+        numCambiados = 0;
+        estructuraNueva = false;
+        int aplicados = 0;
+        while (tipoSiguiente >= 0 && tiempoSiguiente <= hastaNanos) {
+            int largo = Varint.leer(entrada);
+            if (largo < 0)
+                throw new EOFException("Registro truncado");
+            if (contenido.length < largo)
+                contenido = new byte[Math.max(largo, contenido.length * 2)];
+            entrada.readFully(contenido, 0, largo);
+            tiempo = tiempoSiguiente;
+
+            try {
+                if (tipoSiguiente == LayoutRecorder.ESTRUCTURA) {
+                    leerEstructura(largo);
+                } else if (tipoSiguiente == LayoutRecorder.PARCHE) {
+                    aplicarParche(largo);
+                } else if (tipoSiguiente == LayoutRecorder.FRAME) {
+                    aplicarFrame(largo);
+                    aplicados++;
+                } else {
+                    throw new IOException("Tipo de registro desconocido: " + tipoSiguiente);
+                }
+            } catch (IllegalArgumentException | IllegalStateException | IndexOutOfBoundsException e) {
+                throw new IOException("Grabación dañada: " + e.getMessage(), e);
+            }
+            leerCabecera();
+        }
+        return aplicados;
+    }
+
+    private void leerEstructura(int largo) {
+        Varint.Lector lector = new Varint.Lector(contenido, 0, largo);
+        int n = lector.leer();
+        GrafoDireccional<Integer> nuevo = new GrafoDireccional<>();
+        int valor = 0;
+        for (int i = 0; i < n; i++) {
+            valor += lector.leerZigzag();
+            nuevo.agregarNodo(valor);
+        }
+        List<Nodo<Integer>> nodos = nuevo.getNodos();
+        for (int i = 0; i < n; i++) {
+            int grado = lector.leer();
+            int vecino = i;
+            for (int k = 0; k < grado; k++) {
+                vecino += lector.leerZigzag();
+                nuevo.agregarArista(nodos.get(i).getValue(), nodos.get(vecino).getValue());
+            }
+        }
+        nuevo.compactar();
+        grafo = nuevo;
+        estructuraNueva = true;
+        epoca++; // Los índices anteriores ya no valen; el frame clave que sigue trae todas las posiciones
+        numCambiados = 0;
+    }
+
+    /**
+     * Aplica al grafo la diferencia grabada. Los nodos nuevos quedan al
+     * final, como en el grafo grabado, y sus posiciones llegan en el frame
+     * siguiente.
+     */
+    private void aplicarParche(int largo) {
+        Varint.Lector lector = new Varint.Lector(contenido, 0, largo);
+        ParcheGrafo<Integer> parche = new ParcheGrafo<>();
+        int valor = 0;
+        for (int i = lector.leer(); i > 0; i--) {
+            valor += lector.leerZigzag();
+            parche.eliminarNodo(valor);
+        }
+        valor = 0;
+        for (int i = lector.leer(); i > 0; i--) {
+            valor += lector.leerZigzag();
+            parche.agregarNodo(valor);
+        }
+        valor = 0;
+        for (int i = lector.leer(); i > 0; i--) {
+            valor += lector.leerZigzag();
+            parche.eliminarArista(valor, valor + lector.leerZigzag());
+        }
+        valor = 0;
+        for (int i = lector.leer(); i > 0; i--) {
+            valor += lector.leerZigzag();
+            parche.agregarArista(valor, valor + lector.leerZigzag());
+        }
+        if (!lector.terminado())
+            throw new IllegalArgumentException("Bytes sobrantes al final del parche");
+
+        grafo.aplicar(parche, (nodo, vecino) -> {
+        });
+        estructuraNueva = true;
+        if (!parche.getNodosEliminados().isEmpty()) {
+            epoca++; // Los índices se corrieron; el codificador grabó un frame clave a continuación
+            numCambiados = 0;
+        }
+    }
+
+    private void aplicarFrame(int largo) {
+        List<Nodo<Integer>> nodos = grafo.getNodos();
+        int cantidad = decodificador.decodificar(contenido, 0, largo);
+        if (decodificador.size() > nodos.size())
+            throw new IllegalArgumentException("Frame con más nodos que la estructura");
+        if (marcas.length < nodos.size()) {
+            marcas = Arrays.copyOf(marcas, nodos.size());
+            cambiados = Arrays.copyOf(cambiados, nodos.size());
+        }
+        for (int k = 0; k < cantidad; k++) {
+            int i = decodificador.getCambiado(k);
+            Nodo<Integer> nodo = nodos.get(i);
+            nodo.setX(decodificador.getX(i));
+            nodo.setY(decodificador.getY(i));
+            if (marcas[i] != epoca) {
+                marcas[i] = epoca;
+                cambiados[numCambiados++] = i;
+            }
+        }
+    }
+
+    /**
+     * @return Grafo reproducido (se reemplaza cuando la grabación trae una
+     *         estructura completa; los parches lo modifican en el lugar)
+     */
+    public GrafoDireccional<Integer> getGrafo() {
+        return grafo;
+    }
+
+    /**
+     * @return true si el último avance cambió la estructura del grafo (con
+     *         una estructura completa o un parche)
+     */
+    public boolean isEstructuraNueva() {
+        return estructuraNueva;
+    }
+
+    /**
+     * @return Nodos movidos en el último avance (sin repetir)
+     */
+    public int getNumCambiados() {
+        return numCambiados;
+    }
+
+    /**
+     * @param k Posición entre los cambiados
+     * @return Índice del nodo en {@code getGrafo().getNodos()}
+     */
+    public int getCambiado(int k) {
+        return cambiados[k];
+    }
+
+    /**
+     * @return Tiempo del último registro aplicado, desde el comienzo
+     */
+    public long getTiempoNanos() {
+        return tiempo;
+    }
+
+    /**
+     * @return true si ya se aplicó toda la grabación
+     */
+    public boolean isTerminado() {
+        return tipoSiguiente < 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+}
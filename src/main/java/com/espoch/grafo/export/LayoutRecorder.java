@@ -0,0 +1,253 @@
+package com.espoch.grafo.export;
+
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.Nodo;
+import com.espoch.grafo.model.ParcheGrafo;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Graba una sesión de layout a disco para reproducirla con
+ * {@link LayoutPlayer}. Cada frame se guarda con
+ * {@link PositionFrameEncoder} (solo los nodos que se movieron, en
+ * varints). La primera vez, o si se graba otro grafo, se guarda la
+ * estructura completa (valores y aristas) seguida de un frame clave; después,
+ * cuando el grafo cambia, solo el {@link ParcheGrafo} que lleva de la última
+ * estructura grabada a la actual. Para calcularlo el grabador guarda una
+ * copia de esa estructura (sin posiciones útiles), así que ocupa tanto como
+ * el grafo.
+ *
+ * Formato: {@code GRLY}, versión, cuanto (double) y una secuencia de
+ * registros: tipo ({@link #ESTRUCTURA}, {@link #PARCHE} o {@link #FRAME}),
+ * microsegundos desde el registro anterior, largo y contenido. La estructura
+ * lleva la cantidad de nodos, sus valores como diferencia con el anterior y,
+ * por nodo, el grado y el índice de cada vecino como diferencia con el
+ * anterior. El parche lleva los nodos eliminados, los agregados, las
+ * aristas eliminadas y las agregadas, cada grupo con su cantidad; los
+ * valores como diferencia con el anterior del grupo y cada destino como
+ * diferencia con su origen.
+ */
+public class LayoutRecorder implements Closeable {
+    static final int MAGIC = 0x47524C59; // "GRLY"
+    static final int VERSION = 2; // La 1 no tenía parches
+    public static final int ESTRUCTURA = 1;
+    public static final int FRAME = 2;
+    public static final int PARCHE = 3;
+
+    public static final double DEFAULT_QUANTUM = 0.1;
+    public static final double DEFAULT_THRESHOLD = 0.5; // Movimiento mínimo para grabar un nodo
+    public static final int KEYFRAME_INTERVAL = 300; // ~5 s a 60 fps
+
+    private final DataOutputStream salida;
+    private final PositionFrameEncoder codificador;
+    private final Varint.Buffer registro = new Varint.Buffer();
+    private long modificaciones = -1;
+    private Object grafoGrabado; // Para notar si se graba otro grafo
+    private GrafoDireccional<Integer> estructura; // Copia de la última estructura grabada, en el mismo orden
+    private long anteriorNanos = -1;
+    private long bytes;
+    private int frames;
+
+    /**
+     * Crea la grabación con la resolución y el umbral por defecto
+     *
+     * @param archivo Archivo a crear (se reemplaza si existe)
+     * @throws IOException si no se puede crear
+     */
+    public LayoutRecorder(Path archivo) throws IOException {
+        this(archivo, DEFAULT_QUANTUM, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param archivo Archivo a crear (se reemplaza si existe)
+     * @param cuanto  Resolución de las coordenadas
+     * @param umbral  Movimiento mínimo para grabar un nodo
+     * @throws IOException si no se puede crear
+     */
+    public LayoutRecorder(Path archivo, double cuanto, double umbral) throws IOException {
+        this.codificador = new PositionFrameEncoder(cuanto, umbral, KEYFRAME_INTERVAL);
+        this.salida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(archivo), 1 << 16));
+        salida.writeInt(MAGIC);
+        salida.writeByte(VERSION);
+        salida.writeDouble(cuanto);
+        bytes = Integer.BYTES + 1 + Double.BYTES;
+    }
+
+    /**
+     * Graba el estado actual: la estructura o el parche si cambió desde la
+     * última llamada y las posiciones que se movieron. Comparar con la
+     * estructura grabada cuesta O(V + E) en cada cambio (lo escrito es
+     * proporcional al cambio), así que conviene no grabar durante una carga
+     * masiva.
+     *
+     * @param grafo Grafo a grabar
+     * @param nanos Tiempo del frame ({@link System#nanoTime()} o el del
+     *              timer de animación)
+     * @return true si se escribió algo
+     * @throws IOException si falla la escritura
+     */
+    public boolean grabar(GrafoDireccional<Integer> grafo, long nanos) throws IOException {
+        long micros = anteriorNanos < 0 ? 0 : Math.max(0, (nanos - anteriorNanos) / 1000);
+        boolean escrito = false;
+
+        if (grafo != grafoGrabado || grafo.getModificaciones() != modificaciones) {
+            modificaciones = grafo.getModificaciones();
+            int tipo = grafo == grafoGrabado ? codificarParche(grafo) : 0;
+            if (tipo == 0) {
+                grafoGrabado = grafo;
+                codificarEstructura(grafo);
+                codificador.forzarClave();
+                tipo = ESTRUCTURA;
+            }
+            // Sin forzar un frame clave después de un parche: el codificador
+            // lo emite solo si cambió algún nodo ya enviado
+            if (tipo > 0) {
+                escribir(tipo, micros, registro.getBytes(), registro.size());
+                micros = 0;
+                escrito = true;
+            }
+        }
+
+        byte[] frame = codificador.codificar(grafo.getNodos());
+        if (frame != null) {
+            escribir(FRAME, micros, frame, frame.length);
+            frames++;
+            escrito = true;
+        }
+        if (escrito)
+            anteriorNanos = nanos;
+        return escrito;
+    }
+
+    private void codificarEstructura(GrafoDireccional<Integer> grafo) {
+        List<Nodo<Integer>> nodos = grafo.getNodos();
+        Map<Nodo<Integer>, Integer> indices = new IdentityHashMap<>(nodos.size() * 2);
+        estructura = new GrafoDireccional<>();
+        registro.reiniciar();
+        registro.escribir(nodos.size());
+        int anterior = 0;
+        for (int i = 0; i < nodos.size(); i++) {
+            Nodo<Integer> nodo = nodos.get(i);
+            indices.put(nodo, i);
+            estructura.agregarNodo(nodo.getValue());
+            registro.escribirZigzag(nodo.getValue() - anterior);
+            anterior = nodo.getValue();
+        }
+        for (int i = 0; i < nodos.size(); i++) {
+            Nodo<Integer> nodo = nodos.get(i);
+            int grado = nodo.getGrado();
+            registro.escribir(grado);
+            int vecinoAnterior = i;
+            for (int k = 0; k < grado; k++) {
+                int vecino = indices.get(nodo.getVecino(k));
+                registro.escribirZigzag(vecino - vecinoAnterior);
+                vecinoAnterior = vecino;
+                estructura.agregarArista(nodo.getValue(), nodo.getVecino(k).getValue());
+            }
+        }
+        estructura.compactar();
+    }
+
+    /**
+     * Codifica en {@link #registro} la diferencia con la última estructura
+     * grabada y la aplica a la copia
+     *
+     * @return {@link #PARCHE}, -1 si no hay diferencia, o 0 si conviene
+     *         grabar la estructura completa (el parche es tan grande como
+     *         ella, o aplicarlo deja los nodos en otro orden que el grafo y
+     *         los índices de los frames no coincidirían)
+     */
+    private int codificarParche(GrafoDireccional<Integer> grafo) {
+        ParcheGrafo<Integer> parche = ParcheGrafo.calcular(estructura, grafo);
+        if (parche.size() >= (long) estructura.size() + estructura.getNumAristas() && !parche.isEmpty())
+            return 0;
+
+        if (!parche.isEmpty()) {
+            estructura.aplicar(parche, (nodo, vecino) -> {
+            });
+        }
+        // Un nodo eliminado y vuelto a agregar queda al final de la lista,
+        // aunque la diferencia no lo incluya
+        List<Nodo<Integer>> copia = estructura.getNodos();
+        List<Nodo<Integer>> nodos = grafo.getNodos();
+        for (int i = 0; i < nodos.size(); i++) {
+            if (!copia.get(i).getValue().equals(nodos.get(i).getValue()))
+                return 0;
+        }
+        if (parche.isEmpty())
+            return -1;
+
+        registro.reiniciar();
+        escribirValores(parche.getNodosEliminados());
+        escribirValores(parche.getNodosAgregados());
+        escribirAristas(parche.getAristasEliminadas());
+        escribirAristas(parche.getAristasAgregadas());
+        return PARCHE;
+    }
+
+    private void escribirValores(List<Integer> valores) {
+        registro.escribir(valores.size());
+        int anterior = 0;
+        for (int valor : valores) {
+            registro.escribirZigzag(valor - anterior);
+            anterior = valor;
+        }
+    }
+
+    private void escribirAristas(List<ParcheGrafo.Arista<Integer>> aristas) {
+        registro.escribir(aristas.size());
+        int anterior = 0;
+        for (ParcheGrafo.Arista<Integer> arista : aristas) {
+            registro.escribirZigzag(arista.origen() - anterior);
+            registro.escribirZigzag(arista.destino() - arista.origen());
+            anterior = arista.origen();
+        }
+    }
+
+    private void escribir(int tipo, long micros, byte[] contenido, int largo) throws IOException {
+        salida.writeByte(tipo);
+        bytes += 1 + escribirVarint((int) Math.min(micros, Integer.MAX_VALUE)) + escribirVarint(largo) + largo;
+        salida.write(contenido, 0, largo);
+    }
+
+    /**
+     * @return Bytes escritos
+     */
+    private int escribirVarint(int valor) throws IOException {
+        int escritos = 1;
+        while ((valor & ~0x7F) != 0) {
+            salida.writeByte((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+            escritos++;
+        }
+        salida.writeByte(valor);
+        return escritos;
+    }
+
+    /**
+     * @return Bytes escritos hasta ahora
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return Frames de posiciones grabados
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    @Override
+    public void close() throws IOException {
+        salida.close();
+    }
+}
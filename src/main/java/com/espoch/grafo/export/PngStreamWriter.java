@@ -0,0 +1,165 @@
+package com.espoch.grafo.export;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Escritor de PNG RGB de 8 bits por canal que recibe la imagen fila por
+ * fila y la comprime a medida que llega, así que la memoria usada no
+ * depende del alto de la imagen. Los datos comprimidos se emiten en
+ * chunks IDAT de tamaño fijo.
+ */
+public class PngStreamWriter implements Closeable {
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' };
+    private static final int IDAT_SIZE = 64 * 1024;
+    private static final int FILTER_SUB = 1; // Resta el píxel de la izquierda: barato y comprime bien
+
+    private final DataOutputStream out;
+    private final DeflaterOutputStream idat;
+    private final Deflater deflater;
+    private final int width;
+    private final int height;
+    private final byte[] fila;
+    private int filasEscritas;
+
+    /**
+     * Escribe la cabecera del PNG
+     *
+     * @param salida Destino (no se cierra hasta {@link #close()})
+     * @param width  Ancho en píxeles
+     * @param height Alto en píxeles
+     * @throws IOException si no se puede escribir
+     */
+    public PngStreamWriter(OutputStream salida, int width, int height) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Tamaño de imagen inválido: " + width + "x" + height);
+        }
+        this.out = new DataOutputStream(salida);
+        this.width = width;
+        this.height = height;
+        this.fila = new byte[1 + width * 3];
+
+        out.write(SIGNATURE);
+        byte[] ihdr = new byte[13];
+        escribirEntero(ihdr, 0, width);
+        escribirEntero(ihdr, 4, height);
+        ihdr[8] = 8; // Bits por canal
+        ihdr[9] = 2; // RGB
+        escribirChunk("IHDR", ihdr, ihdr.length);
+
+        this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        this.idat = new DeflaterOutputStream(new IdatStream(), deflater, IDAT_SIZE);
+    }
+
+    /**
+     * Agrega filas de la imagen
+     *
+     * @param argb     Píxeles en formato ARGB (se ignora el alfa)
+     * @param offset   Posición del primer píxel de la primera fila
+     * @param stride   Distancia entre filas en el arreglo
+     * @param cantidad Cantidad de filas a escribir
+     * @throws IOException si no se puede escribir
+     */
+    public void writeRows(int[] argb, int offset, int stride, int cantidad) throws IOException {
+        if (filasEscritas + cantidad > height) {
+            throw new IllegalStateException("Se escribieron más filas que el alto de la imagen");
+        }
+
+        for (int r = 0; r < cantidad; r++) {
+            int base = offset + r * stride;
+            fila[0] = FILTER_SUB;
+            int anterior = 0;
+            for (int x = 0, i = 1; x < width; x++) {
+                int p = argb[base + x];
+                fila[i++] = (byte) ((p >> 16) - (anterior >> 16));
+                fila[i++] = (byte) ((p >> 8) - (anterior >> 8));
+                fila[i++] = (byte) (p - anterior);
+                anterior = p;
+            }
+            idat.write(fila);
+        }
+        filasEscritas += cantidad;
+    }
+
+    /**
+     * Termina la compresión y escribe el final del archivo
+     *
+     * @throws IOException si no se puede escribir o faltan filas
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (filasEscritas != height) {
+                throw new IOException("Imagen incompleta: " + filasEscritas + " de " + height + " filas");
+            }
+            idat.finish();
+            idat.flush();
+            escribirChunk("IEND", new byte[0], 0);
+            out.flush();
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private void escribirChunk(String tipo, byte[] datos, int longitud) throws IOException {
+        byte[] bytesTipo = tipo.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(bytesTipo);
+        crc.update(datos, 0, longitud);
+
+        out.writeInt(longitud);
+        out.write(bytesTipo);
+        out.write(datos, 0, longitud);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private static void escribirEntero(byte[] destino, int pos, int valor) {
+        destino[pos] = (byte) (valor >>> 24);
+        destino[pos + 1] = (byte) (valor >>> 16);
+        destino[pos + 2] = (byte) (valor >>> 8);
+        destino[pos + 3] = (byte) valor;
+    }
+
+    /**
+     * Junta la salida del compresor en chunks IDAT de {@value #IDAT_SIZE} bytes
+     */
+    private class IdatStream extends OutputStream {
+        private final byte[] buffer = new byte[IDAT_SIZE];
+        private int usados;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (usados == buffer.length)
+                flush();
+            buffer[usados++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (usados == buffer.length)
+                    flush();
+                int n = Math.min(len, buffer.length - usados);
+                System.arraycopy(b, off, buffer, usados, n);
+                usados += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (usados > 0) {
+                escribirChunk("IDAT", buffer, usados);
+                usados = 0;
+            }
+        }
+    }
+}
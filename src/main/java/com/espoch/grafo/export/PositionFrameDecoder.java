@@ -0,0 +1,142 @@
+package com.espoch.grafo.export;
+
+import com.espoch.grafo.model.Nodo;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decodifica los frames de {@link PositionFrameEncoder}. Guarda la última
+ * posición cuantizada de cada índice, así que los frames de diferencia hay
+ * que pasarlos todos y en orden a partir de un frame clave.
+ */
+public class PositionFrameDecoder {
+    private final double cuanto;
+    private int[] qx = new int[0];
+    private int[] qy = new int[0];
+    private int n;
+    private int[] cambiados = new int[0];
+    private int numCambiados;
+    private boolean clave;
+    private boolean sincronizado; // Ya se recibió un frame clave
+
+    /**
+     * Constructor
+     *
+     * @param cuanto El mismo cuanto que usó el codificador
+     */
+    public PositionFrameDecoder(double cuanto) {
+        this.cuanto = cuanto;
+    }
+
+    /**
+     * Decodifica un frame y deja disponibles los índices que cambiaron
+     * ({@link #getCambiado}) y sus posiciones ({@link #getX},
+     * {@link #getY})
+     *
+     * @param frame Bytes del frame
+     * @param desde Primer byte
+     * @param largo Cantidad de bytes
+     * @return Cantidad de nodos que cambiaron
+     * @throws IllegalArgumentException si el frame está mal formado o es una
+     *                                  diferencia sin un frame clave previo
+     */
+    public int decodificar(byte[] frame, int desde, int largo) {
+        Varint.Lector lector = new Varint.Lector(frame, desde, largo);
+        int tipo = lector.leerByte();
+        int total = lector.leer();
+        if (tipo != PositionFrameEncoder.KEY && tipo != PositionFrameEncoder.DELTA)
+            throw new IllegalArgumentException("Tipo de frame desconocido: " + tipo);
+        if (tipo == PositionFrameEncoder.DELTA && (!sincronizado || total < n))
+            throw new IllegalArgumentException("Frame de diferencia sin frame clave previo");
+
+        if (qx.length < total) {
+            int capacidad = Math.max(total, qx.length * 3 / 2);
+            qx = Arrays.copyOf(qx, capacidad);
+            qy = Arrays.copyOf(qy, capacidad);
+            cambiados = Arrays.copyOf(cambiados, capacidad);
+        }
+        numCambiados = 0;
+        clave = tipo == PositionFrameEncoder.KEY;
+
+        if (clave) {
+            int x = 0;
+            int y = 0;
+            for (int i = 0; i < total; i++) {
+                x += lector.leerZigzag();
+                y += lector.leerZigzag();
+                qx[i] = x;
+                qy[i] = y;
+                cambiados[numCambiados++] = i;
+            }
+            sincronizado = true;
+        } else {
+            Arrays.fill(qx, n, total, 0); // Los nodos nuevos parten de 0
+            Arrays.fill(qy, n, total, 0);
+            int movidos = lector.leer();
+            int i = -1;
+            for (int k = 0; k < movidos; k++) {
+                i += lector.leer() + 1;
+                if (i >= total)
+                    throw new IllegalArgumentException("Índice fuera del frame: " + i);
+                qx[i] += lector.leerZigzag();
+                qy[i] += lector.leerZigzag();
+                cambiados[numCambiados++] = i;
+            }
+        }
+        if (!lector.terminado())
+            throw new IllegalArgumentException("Bytes sobrantes al final del frame");
+        n = total;
+        return numCambiados;
+    }
+
+    /**
+     * Decodifica un frame y mueve los nodos que cambiaron
+     *
+     * @param frame Bytes del frame
+     * @param nodos Nodos en el mismo orden que al codificar
+     * @return Cantidad de nodos movidos
+     */
+    public <T> int aplicar(byte[] frame, List<Nodo<T>> nodos) {
+        int cantidad = decodificar(frame, 0, frame.length);
+        if (nodos.size() < n)
+            throw new IllegalArgumentException("El frame tiene " + n + " nodos y la vista " + nodos.size());
+        for (int k = 0; k < cantidad; k++) {
+            int i = cambiados[k];
+            Nodo<T> nodo = nodos.get(i);
+            nodo.setX(qx[i] * cuanto);
+            nodo.setY(qy[i] * cuanto);
+        }
+        return cantidad;
+    }
+
+    /**
+     * @return true si el último frame fue clave
+     */
+    public boolean isClave() {
+        return clave;
+    }
+
+    /**
+     * @return Cantidad de nodos del último frame
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * @param k Posición entre los cambiados del último frame
+     * @return Índice del nodo
+     */
+    public int getCambiado(int k) {
+        return cambiados[k];
+    }
+
+    public double getX(int indice) {
+        return qx[indice] * cuanto;
+    }
+
+    public double getY(int indice) {
+        return qy[indice] * cuanto;
+    }
+}
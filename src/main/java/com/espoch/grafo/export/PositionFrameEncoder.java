@@ -0,0 +1,184 @@
+package com.espoch.grafo.export;
+
+import com.espoch.grafo.model.Nodo;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Codifica las posiciones de un layout frame a frame, para grabarlas o
+ * enviarlas. Las coordenadas se cuantizan a múltiplos de {@code cuanto} y
+ * cada frame lleva solo los nodos que se movieron más que el umbral desde
+ * la última posición enviada, con el índice como salto desde el nodo
+ * anterior y el movimiento como diferencia, todo en varints zigzag. Un
+ * nodo quieto no ocupa nada y uno que se mueve poco ocupa 3 bytes, contra
+ * los 16 de dos doubles.
+ *
+ * Los nodos se identifican por su índice en la lista. Mientras la lista
+ * solo crezca por el final los frames siguen siendo diferencias; si cambia
+ * un nodo ya enviado (eliminaciones) se emite un frame clave con todas las
+ * posiciones, igual que cada {@code intervaloClave} frames para poder
+ * empezar a reproducir desde el medio.
+ *
+ * Formato de un frame: tipo ({@link #KEY} o {@link #DELTA}), cantidad de
+ * nodos, y luego
+ * <ul>
+ * <li>clave: x, y de cada nodo como diferencia con el nodo anterior</li>
+ * <li>diferencia: cantidad de nodos movidos y, por cada uno, salto de
+ * índice, dx y dy respecto de lo último enviado</li>
+ * </ul>
+ *
+ * El decodificador correspondiente es {@link PositionFrameDecoder}.
+ */
+public class PositionFrameEncoder {
+    public static final int KEY = 1;
+    public static final int DELTA = 2;
+
+    private final double cuanto;
+    private final int umbral; // En cuantos
+    private final int intervaloClave;
+    private final Varint.Buffer buffer = new Varint.Buffer();
+    private final Varint.Buffer cuerpo = new Varint.Buffer(); // Nodos movidos, antes de saber cuántos son
+
+    // Último valor enviado de cada nodo, por índice
+    private Nodo<?>[] enviados = new Nodo<?>[0];
+    private int[] qx = new int[0];
+    private int[] qy = new int[0];
+    private int numEnviados;
+    private int framesDesdeClave;
+    private boolean forzarClave = true;
+
+    /**
+     * Constructor
+     *
+     * @param cuanto         Resolución de las coordenadas (unidades del
+     *                       mundo)
+     * @param umbral         Movimiento mínimo para volver a enviar un nodo
+     *                       (unidades del mundo; 0 = cualquier cambio de
+     *                       cuanto)
+     * @param intervaloClave Frames entre frames clave (0 = solo cuando hace
+     *                       falta)
+     */
+    public PositionFrameEncoder(double cuanto, double umbral, int intervaloClave) {
+        if (cuanto <= 0)
+            throw new IllegalArgumentException("El cuanto debe ser positivo");
+        this.cuanto = cuanto;
+        this.umbral = (int) Math.floor(umbral / cuanto);
+        this.intervaloClave = intervaloClave;
+    }
+
+    /**
+     * @return Resolución de las coordenadas
+     */
+    public double getCuanto() {
+        return cuanto;
+    }
+
+    /**
+     * Hace que el próximo frame sea clave
+     */
+    public void forzarClave() {
+        forzarClave = true;
+    }
+
+    /**
+     * Codifica las posiciones actuales
+     *
+     * @param nodos Nodos del grafo, en el mismo orden que en frames
+     *              anteriores salvo agregados al final
+     * @return El frame, o null si ningún nodo se movió más que el umbral
+     */
+    public <T> byte[] codificar(List<Nodo<T>> nodos) {
+        int n = nodos.size();
+        boolean clave = forzarClave || n < numEnviados
+                || (intervaloClave > 0 && framesDesdeClave >= intervaloClave);
+        for (int i = 0; !clave && i < numEnviados; i++) {
+            clave = nodos.get(i) != enviados[i];
+        }
+        if (enviados.length < n) {
+            int capacidad = Math.max(n, enviados.length * 3 / 2);
+            enviados = Arrays.copyOf(enviados, capacidad);
+            qx = Arrays.copyOf(qx, capacidad);
+            qy = Arrays.copyOf(qy, capacidad);
+        }
+
+        buffer.reiniciar();
+        if (clave) {
+            codificarClave(nodos);
+        } else if (!codificarDelta(nodos)) {
+            return null;
+        }
+        if (n < numEnviados)
+            Arrays.fill(enviados, n, numEnviados, null);
+        numEnviados = n;
+        return buffer.toByteArray();
+    }
+
+    private <T> void codificarClave(List<Nodo<T>> nodos) {
+        int n = nodos.size();
+        buffer.escribirByte(KEY);
+        buffer.escribir(n);
+        int anteriorX = 0;
+        int anteriorY = 0;
+        for (int i = 0; i < n; i++) {
+            Nodo<T> nodo = nodos.get(i);
+            int x = cuantizar(nodo.getX());
+            int y = cuantizar(nodo.getY());
+            buffer.escribirZigzag(x - anteriorX);
+            buffer.escribirZigzag(y - anteriorY);
+            anteriorX = x;
+            anteriorY = y;
+            enviados[i] = nodo;
+            qx[i] = x;
+            qy[i] = y;
+        }
+        forzarClave = false;
+        framesDesdeClave = 0;
+    }
+
+    /**
+     * @return false si no hay nada que enviar
+     */
+    private <T> boolean codificarDelta(List<Nodo<T>> nodos) {
+        int n = nodos.size();
+        buffer.escribirByte(DELTA);
+        buffer.escribir(n);
+        cuerpo.reiniciar();
+        int movidos = 0;
+        int anterior = -1;
+        for (int i = 0; i < n; i++) {
+            Nodo<T> nodo = nodos.get(i);
+            int x = cuantizar(nodo.getX());
+            int y = cuantizar(nodo.getY());
+            boolean nuevo = i >= numEnviados;
+            if (!nuevo && Math.abs(x - qx[i]) <= umbral && Math.abs(y - qy[i]) <= umbral)
+                continue;
+            if (nuevo) {
+                enviados[i] = nodo;
+                qx[i] = 0; // Los nodos nuevos parten de 0 en ambos extremos
+                qy[i] = 0;
+            }
+            cuerpo.escribir(i - anterior - 1);
+            cuerpo.escribirZigzag(x - qx[i]);
+            cuerpo.escribirZigzag(y - qy[i]);
+            qx[i] = x;
+            qy[i] = y;
+            anterior = i;
+            movidos++;
+        }
+        if (movidos == 0 && n == numEnviados)
+            return false;
+
+        buffer.escribir(movidos);
+        byte[] bytes = cuerpo.getBytes();
+        for (int i = 0; i < cuerpo.size(); i++) {
+            buffer.escribirByte(bytes[i]);
+        }
+        framesDesdeClave++;
+        return true;
+    }
+
+    private int cuantizar(double valor) {
+        return (int) Math.round(valor / cuanto);
+    }
+}
@@ -0,0 +1,121 @@
+package com.espoch.grafo.export;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Enteros de longitud variable (7 bits por byte, el bit alto indica que
+ * sigue otro byte) y codificación zigzag para que los valores negativos
+ * chicos también ocupen pocos bytes. Incluye un buffer de bytes que crece
+ * a medida que se escribe.
+ */
+final class Varint {
+    private Varint() {
+    }
+
+    /**
+     * Buffer de escritura reutilizable
+     */
+    static final class Buffer {
+        private byte[] bytes = new byte[256];
+        private int largo;
+
+        void reiniciar() {
+            largo = 0;
+        }
+
+        void escribirByte(int valor) {
+            if (largo == bytes.length)
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            bytes[largo++] = (byte) valor;
+        }
+
+        void escribir(int valor) {
+            while ((valor & ~0x7F) != 0) {
+                escribirByte((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            escribirByte(valor);
+        }
+
+        void escribirZigzag(int valor) {
+            escribir((valor << 1) ^ (valor >> 31));
+        }
+
+        int size() {
+            return largo;
+        }
+
+        byte[] getBytes() {
+            return bytes;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, largo);
+        }
+    }
+
+    /**
+     * Lector sobre un arreglo de bytes
+     */
+    static final class Lector {
+        private final byte[] bytes;
+        private int posicion;
+        private final int fin;
+
+        Lector(byte[] bytes, int desde, int largo) {
+            this.bytes = bytes;
+            this.posicion = desde;
+            this.fin = desde + largo;
+        }
+
+        int leerByte() {
+            if (posicion >= fin)
+                throw new IllegalArgumentException("Frame truncado");
+            return bytes[posicion++] & 0xFF;
+        }
+
+        int leer() {
+            int valor = 0;
+            for (int desplazamiento = 0; desplazamiento < 32; desplazamiento += 7) {
+                int b = leerByte();
+                valor |= (b & 0x7F) << desplazamiento;
+                if ((b & 0x80) == 0)
+                    return valor;
+            }
+            throw new IllegalArgumentException("Varint demasiado largo");
+        }
+
+        int leerZigzag() {
+            int valor = leer();
+            return (valor >>> 1) ^ -(valor & 1);
+        }
+
+        boolean terminado() {
+            return posicion >= fin;
+        }
+    }
+
+    /**
+     * Lee un varint de un flujo
+     *
+     * @return El valor, o -1 si el flujo terminó antes del primer byte
+     */
+    static int leer(InputStream entrada) throws IOException {
+        int valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 32; desplazamiento += 7) {
+            int b = entrada.read();
+            if (b < 0) {
+                if (desplazamiento == 0)
+                    return -1;
+                throw new EOFException("Varint truncado");
+            }
+            valor |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0)
+                return valor;
+        }
+        throw new IOException("Varint demasiado largo");
+    }
+}
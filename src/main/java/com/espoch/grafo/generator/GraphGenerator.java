@@ -0,0 +1,354 @@
+package com.espoch.grafo.generator;
+
+import com.espoch.grafo.model.GrafoDireccional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generadores de grafos sintéticos para pruebas de escala. Cada generador
+ * arma la lista de aristas en arreglos primitivos ({@link Aristas}) en
+ * O(V + E), sin crear nodos ni objetos por arista; el grafo se construye
+ * después con {@link Aristas#toGrafo()}, que quita las aristas repetidas.
+ * Con la misma semilla se obtiene siempre el mismo grafo, y
+ * {@link Aristas#toGrafo(long)} lo ubica con la semilla dada.
+ *
+ * Uso como programa, para escribir una lista de aristas que se pueda abrir
+ * con "Cargar archivo":
+ * {@code java -cp ... com.espoch.grafo.generator.GraphGenerator <tipo> <a> <b> <archivo> [semilla]}
+ * donde tipo y parámetros son {@code er n grado}, {@code ba n k},
+ * {@code rmat escala m}, {@code grilla filas columnas} o {@code dag n m}.
+ */
+public final class GraphGenerator {
+    // Parámetros de R-MAT de Graph500
+    public static final double RMAT_A = 0.57;
+    public static final double RMAT_B = 0.19;
+    public static final double RMAT_C = 0.19;
+
+    private GraphGenerator() {
+    }
+
+    /**
+     * Lista de aristas sobre los nodos 0..numNodos-1. Puede tener aristas
+     * repetidas; los arreglos pueden ser más largos que numAristas.
+     */
+    public record Aristas(int numNodos, int[] origenes, int[] destinos, int numAristas) {
+        /**
+         * @return Grafo con estos nodos y aristas, sin repetidas
+         */
+        public GrafoDireccional<Integer> toGrafo() {
+            return GrafoDireccional.desdeAristas(numNodos, origenes, destinos, numAristas);
+        }
+
+        /**
+         * @param semilla Semilla de las posiciones iniciales de los nodos
+         * @return Grafo con estos nodos y aristas, sin repetidas
+         */
+        public GrafoDireccional<Integer> toGrafo(long semilla) {
+            return GrafoDireccional.desdeAristas(numNodos, origenes, destinos, numAristas, semilla);
+        }
+    }
+
+    /**
+     * Acumula aristas en arreglos que crecen
+     */
+    private static final class Acumulador {
+        private final int numNodos;
+        private int[] origenes;
+        private int[] destinos;
+        private int n;
+
+        Acumulador(int numNodos, long capacidad) {
+            if (capacidad > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException("Demasiadas aristas: " + capacidad);
+            this.numNodos = numNodos;
+            this.origenes = new int[(int) Math.max(capacidad, 16)];
+            this.destinos = new int[origenes.length];
+        }
+
+        void agregar(int origen, int destino) {
+            if (n == origenes.length) {
+                int capacidad = (int) Math.min((long) n + (n >> 1) + 1, Integer.MAX_VALUE - 8);
+                if (capacidad == n)
+                    throw new IllegalStateException("Demasiadas aristas");
+                origenes = Arrays.copyOf(origenes, capacidad);
+                destinos = Arrays.copyOf(destinos, capacidad);
+            }
+            origenes[n] = origen;
+            destinos[n] = destino;
+            n++;
+        }
+
+        Aristas aristas() {
+            return new Aristas(numNodos, origenes, destinos, n);
+        }
+    }
+
+    /**
+     * Grafo aleatorio de Erdős–Rényi G(n, p): cada arista dirigida u → v
+     * (u ≠ v) está con probabilidad p. Se saltan directamente los pares
+     * ausentes con saltos geométricos (Batagelj y Brandes), así que cuesta
+     * O(n + E) y no O(n²).
+     *
+     * @param n    Cantidad de nodos
+     * @param p    Probabilidad de cada arista
+     * @param seed Semilla
+     * @return Aristas generadas
+     */
+    public static Aristas erdosRenyi(int n, double p, long seed) {
+        requerirNodos(n);
+        if (p < 0 || p > 1)
+            throw new IllegalArgumentException("Probabilidad fuera de [0, 1]: " + p);
+        long pares = (long) n * (n - 1);
+        Acumulador acumulador = new Acumulador(n, (long) Math.ceil(pares * p * 1.05));
+        if (p == 0 || n < 2)
+            return acumulador.aristas();
+
+        SplittableRandom random = new SplittableRandom(seed);
+        double logQ = Math.log1p(-p);
+        long par = -1;
+        while (true) {
+            long salto = p == 1 ? 0 : (long) Math.floor(Math.log1p(-random.nextDouble()) / logQ);
+            par += salto + 1;
+            if (par >= pares || par < 0)
+                break;
+            int origen = (int) (par / (n - 1));
+            int destino = (int) (par % (n - 1));
+            if (destino >= origen)
+                destino++; // Sin lazos
+            acumulador.agregar(origen, destino);
+        }
+        return acumulador.aristas();
+    }
+
+    /**
+     * Grafo de Barabási–Albert por enlace preferencial: cada nodo nuevo
+     * apunta a k nodos anteriores distintos, elegidos con probabilidad
+     * proporcional a su grado. Se sortea sobre la lista de extremos de las
+     * aristas ya creadas, así que cuesta O(n·k). Los primeros k nodos
+     * apuntan a todos los anteriores.
+     *
+     * @param n    Cantidad de nodos
+     * @param k    Aristas por nodo nuevo
+     * @param seed Semilla
+     * @return Aristas generadas (sin repetidas)
+     */
+    public static Aristas barabasiAlbert(int n, int k, long seed) {
+        requerirNodos(n);
+        if (k < 1)
+            throw new IllegalArgumentException("k debe ser positivo: " + k);
+        long total = (long) n * k;
+        if (2 * total > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Demasiadas aristas: " + total);
+        Acumulador acumulador = new Acumulador(n, total);
+        int[] extremos = new int[(int) (2 * total)];
+        int numExtremos = 0;
+        int[] elegidos = new int[k];
+        SplittableRandom random = new SplittableRandom(seed);
+
+        for (int v = 1; v < n; v++) {
+            int cantidad = Math.min(k, v);
+            for (int j = 0; j < cantidad; j++) {
+                int destino;
+                if (v <= k) {
+                    destino = j;
+                } else {
+                    boolean repetido;
+                    do {
+                        destino = extremos[random.nextInt(numExtremos)];
+                        repetido = false;
+                        for (int i = 0; i < j && !repetido; i++) {
+                            repetido = elegidos[i] == destino;
+                        }
+                    } while (repetido);
+                }
+                elegidos[j] = destino;
+            }
+            for (int j = 0; j < cantidad; j++) {
+                acumulador.agregar(v, elegidos[j]);
+                extremos[numExtremos++] = v;
+                extremos[numExtremos++] = elegidos[j];
+            }
+        }
+        return acumulador.aristas();
+    }
+
+    /**
+     * R-MAT con los parámetros de Graph500
+     *
+     * @see #rmat(int, int, double, double, double, long)
+     */
+    public static Aristas rmat(int escala, int m, long seed) {
+        return rmat(escala, m, RMAT_A, RMAT_B, RMAT_C, seed);
+    }
+
+    /**
+     * Grafo R-MAT (Chakrabarti et al.): cada arista se ubica en la matriz de
+     * adyacencia de 2^escala × 2^escala eligiendo en cada nivel uno de los
+     * cuatro cuadrantes con probabilidades a, b, c y 1 - a - b - c. Da
+     * grados con cola pesada y comunidades anidadas, como los grafos
+     * reales. Los lazos se descartan y las repetidas se quitan al construir
+     * el grafo, así que quedan algo menos de m aristas.
+     *
+     * @param escala Logaritmo en base 2 de la cantidad de nodos
+     * @param m      Aristas a sortear
+     * @param a      Probabilidad del cuadrante superior izquierdo
+     * @param b      Probabilidad del cuadrante superior derecho
+     * @param c      Probabilidad del cuadrante inferior izquierdo
+     * @param seed   Semilla
+     * @return Aristas generadas
+     */
+    public static Aristas rmat(int escala, int m, double a, double b, double c, long seed) {
+        if (escala < 0 || escala > 30)
+            throw new IllegalArgumentException("Escala fuera de 0..30: " + escala);
+        if (m < 0 || a < 0 || b < 0 || c < 0 || a + b + c > 1)
+            throw new IllegalArgumentException("Parámetros de R-MAT inválidos");
+        int n = 1 << escala;
+        Acumulador acumulador = new Acumulador(n, m);
+        SplittableRandom random = new SplittableRandom(seed);
+        double ab = a + b;
+        double abc = a + b + c;
+        for (int e = 0; e < m; e++) {
+            int origen = 0;
+            int destino = 0;
+            for (int bit = n >> 1; bit > 0; bit >>= 1) {
+                double r = random.nextDouble();
+                if (r >= ab)
+                    origen |= bit; // Mitad inferior (c o d)
+                if ((r >= a && r < ab) || r >= abc)
+                    destino |= bit; // Mitad derecha (b o d)
+            }
+            if (origen != destino)
+                acumulador.agregar(origen, destino);
+        }
+        return acumulador.aristas();
+    }
+
+    /**
+     * Grilla de filas × columnas con aristas hacia la derecha y hacia abajo
+     * (un DAG plano con diámetro filas + columnas)
+     *
+     * @param filas    Filas
+     * @param columnas Columnas
+     * @return Aristas generadas; el nodo (i, j) es i·columnas + j
+     */
+    public static Aristas grilla(int filas, int columnas) {
+        if (filas < 0 || columnas < 0)
+            throw new IllegalArgumentException("Dimensiones negativas");
+        long n = (long) filas * columnas;
+        requerirNodos(n);
+        Acumulador acumulador = new Acumulador((int) n, 2 * n);
+        for (int i = 0; i < filas; i++) {
+            for (int j = 0; j < columnas; j++) {
+                int u = i * columnas + j;
+                if (j + 1 < columnas)
+                    acumulador.agregar(u, u + 1);
+                if (i + 1 < filas)
+                    acumulador.agregar(u, u + columnas);
+            }
+        }
+        return acumulador.aristas();
+    }
+
+    /**
+     * DAG aleatorio: m pares de nodos distintos sorteados al azar, cada uno
+     * orientado según un orden topológico aleatorio (una permutación de los
+     * nodos), así que no hay ciclos y el orden no coincide con los valores
+     *
+     * @param n    Cantidad de nodos
+     * @param m    Aristas a sortear (las repetidas se quitan al construir)
+     * @param seed Semilla
+     * @return Aristas generadas
+     */
+    public static Aristas dag(int n, int m, long seed) {
+        requerirNodos(n);
+        if (m < 0)
+            throw new IllegalArgumentException("Cantidad de aristas negativa: " + m);
+        Acumulador acumulador = new Acumulador(n, m);
+        if (n < 2)
+            return acumulador.aristas();
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] orden = new int[n]; // orden[r] = nodo con rango topológico r
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(i + 1);
+            orden[i] = orden[j];
+            orden[j] = i;
+        }
+        for (int e = 0; e < m; e++) {
+            int r1 = random.nextInt(n);
+            int r2 = random.nextInt(n - 1);
+            if (r2 >= r1)
+                r2++;
+            acumulador.agregar(orden[Math.min(r1, r2)], orden[Math.max(r1, r2)]);
+        }
+        return acumulador.aristas();
+    }
+
+    private static void requerirNodos(long n) {
+        if (n < 0 || n > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Cantidad de nodos fuera de rango: " + n);
+    }
+
+    /**
+     * Escribe las aristas en el formato de la carga por archivo: una arista
+     * por línea, y una línea con el valor solo para cada nodo aislado
+     *
+     * @param aristas Aristas a escribir
+     * @param archivo Archivo a crear (se reemplaza si existe)
+     * @throws IOException si no se puede escribir
+     */
+    public static void escribir(Aristas aristas, Path archivo) throws IOException {
+        boolean[] tocados = new boolean[aristas.numNodos()];
+        try (Writer salida = new BufferedWriter(Files.newBufferedWriter(archivo, StandardCharsets.US_ASCII),
+                1 << 16)) {
+            salida.write("# " + aristas.numNodos() + " nodos, " + aristas.numAristas() + " aristas\n");
+            for (int e = 0; e < aristas.numAristas(); e++) {
+                int origen = aristas.origenes()[e];
+                int destino = aristas.destinos()[e];
+                tocados[origen] = true;
+                tocados[destino] = true;
+                salida.write(Integer.toString(origen));
+                salida.write(' ');
+                salida.write(Integer.toString(destino));
+                salida.write('\n');
+            }
+            for (int v = 0; v < tocados.length; v++) {
+                if (!tocados[v]) {
+                    salida.write(Integer.toString(v));
+                    salida.write('\n');
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Uso: GraphGenerator (er <n> <grado> | ba <n> <k> | rmat <escala> <m>"
+                    + " | grilla <filas> <columnas> | dag <n> <m>) <archivo> [semilla]");
+            System.exit(2);
+        }
+        int primero = Integer.parseInt(args[1]);
+        int segundo = Integer.parseInt(args[2]);
+        Path archivo = Path.of(args[3]);
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+
+        long inicio = System.nanoTime();
+        Aristas aristas = switch (args[0]) {
+            case "er" -> erdosRenyi(primero, primero > 1 ? (double) segundo / (primero - 1) : 0, seed);
+            case "ba" -> barabasiAlbert(primero, segundo, seed);
+            case "rmat" -> rmat(primero, segundo, seed);
+            case "grilla" -> grilla(primero, segundo);
+            case "dag" -> dag(primero, segundo, seed);
+            default -> throw new IllegalArgumentException("Tipo desconocido: " + args[0]);
+        };
+        System.out.printf("%,d nodos, %,d aristas generadas en %.0f ms%n", aristas.numNodos(),
+                aristas.numAristas(), (System.nanoTime() - inicio) / 1e6);
+        escribir(aristas, archivo);
+    }
+}
@@ -0,0 +1,378 @@
+package com.espoch.grafo.load;
+
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.Nodo;
+import com.espoch.grafo.model.ParcheGrafo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.BiConsumer;
+
+/**
+ * Carga progresiva de una lista de aristas. Un hilo lector analiza el
+ * archivo y entrega lotes de aristas por una cola acotada; quien consume
+ * (el hilo de JavaFX, o cualquier otro sin interfaz) llama a
+ * {@link #aplicar} con un presupuesto de tiempo y el grafo crece de a poco
+ * mientras se sigue leyendo. Si el consumidor se atrasa, la cola llena
+ * frena al lector y la memoria en tránsito queda acotada.
+ *
+ * Formato: una arista por línea, {@code origen destino} como enteros
+ * separados por espacios, tabuladores, comas o punto y coma. Una línea con
+ * un solo entero agrega un nodo aislado; las columnas extra (pesos) se
+ * ignoran; las líneas que empiezan con {@code #} o {@code %} son
+ * comentarios. Las líneas inválidas se cuentan y se saltan.
+ */
+public class ProgressiveLoader implements Closeable {
+    private static final int CHUNK_EDGES = 8192; // Aristas por lote
+    private static final int QUEUE_CAPACITY = 16; // Lotes en tránsito como máximo
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int PASO = 512; // Líneas aplicadas entre consultas del reloj
+    private static final int SIN_DESTINO = Integer.MIN_VALUE; // Línea con un solo nodo
+
+    /**
+     * Aristas leídas; {@code destinos[i] == SIN_DESTINO} indica un nodo
+     * aislado
+     */
+    private record Lote(int[] origenes, int[] destinos, int cantidad) {
+    }
+
+    private static final Lote FIN = new Lote(new int[0], new int[0], 0);
+
+    private final Path archivo;
+    private final long tamaño;
+    private final BlockingQueue<Lote> cola = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private Thread lector;
+
+    // Escritos por el lector
+    private volatile long bytesLeidos;
+    private volatile long lineasInvalidas;
+    private volatile IOException error;
+    private volatile boolean cancelado;
+
+    // Del lado del consumidor
+    private boolean terminado;
+    private Lote actual; // Lote a medio aplicar
+    private int posicion;
+    private long aristasAplicadas;
+    private long nodosAgregados;
+
+    /**
+     * Constructor
+     *
+     * @param archivo Lista de aristas a cargar
+     * @throws IOException si no se puede leer el tamaño del archivo
+     */
+    public ProgressiveLoader(Path archivo) throws IOException {
+        this.archivo = archivo;
+        this.tamaño = Files.size(archivo);
+    }
+
+    /**
+     * Inicia el hilo lector
+     */
+    public void start() {
+        lector = new Thread(this::leer, "cargar-grafo");
+        lector.setDaemon(true);
+        lector.start();
+    }
+
+    /**
+     * Aplica al grafo los lotes ya leídos hasta agotar el presupuesto de
+     * tiempo (se revisa entre lotes). No bloquea si todavía no hay lotes.
+     *
+     * @param grafo            Grafo destino
+     * @param presupuestoNanos Tiempo máximo a dedicar en esta llamada
+     * @param colocar          Recibe cada nodo nuevo y un vecino ya presente
+     *                         en el grafo (o null) para darle posición
+     * @return Cantidad de líneas aplicadas (aristas y nodos aislados)
+     */
+    public int aplicar(GrafoDireccional<Integer> grafo, long presupuestoNanos,
+            BiConsumer<Nodo<Integer>, Nodo<Integer>> colocar) {
+        long inicio = System.nanoTime();
+        int aplicadas = 0;
+        int aristasAntes = grafo.getNumAristas();
+        while (!terminado && System.nanoTime() - inicio < presupuestoNanos) {
+            if (actual == null) {
+                actual = cola.poll();
+                posicion = 0;
+                if (actual == null)
+                    break;
+            }
+            if (actual == FIN) {
+                actual = null;
+                terminado = true;
+                grafo.compactar(); // Ya no llegan más aristas
+                break;
+            }
+
+            // El reloj se consulta cada PASO líneas para no pasarse del presupuesto
+            int fin = Math.min(actual.cantidad(), posicion + PASO);
+            for (int i = posicion; i < fin; i++) {
+                Nodo<Integer> origen = obtenerNodo(grafo, actual.origenes()[i], null, colocar);
+                int destino = actual.destinos()[i];
+                if (destino != SIN_DESTINO) {
+                    obtenerNodo(grafo, destino, origen, colocar);
+                    grafo.agregarArista(actual.origenes()[i], destino);
+                }
+            }
+            aplicadas += fin - posicion;
+            posicion = fin;
+            if (posicion == actual.cantidad())
+                actual = null;
+        }
+        aristasAplicadas += grafo.getNumAristas() - aristasAntes; // Sin contar repetidas
+        return aplicadas;
+    }
+
+    /**
+     * Lee un archivo completo en el hilo actual (por ejemplo, la nueva
+     * versión de un grafo para compararla con {@link ParcheGrafo#calcular})
+     *
+     * @param archivo Lista de aristas
+     * @return Grafo leído; las posiciones de sus nodos no se inicializan
+     * @throws IOException si falla la lectura
+     */
+    public static GrafoDireccional<Integer> cargar(Path archivo) throws IOException {
+        GrafoDireccional<Integer> grafo = new GrafoDireccional<>();
+        try (ProgressiveLoader cargador = new ProgressiveLoader(archivo)) {
+            cargador.start();
+            while (!cargador.isTerminado()) {
+                cargador.esperar();
+                cargador.aplicar(grafo, Long.MAX_VALUE, (nodo, vecino) -> {
+                });
+            }
+            if (cargador.getError() != null) {
+                throw cargador.getError();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Carga interrumpida");
+        }
+        return grafo;
+    }
+
+    /**
+     * Bloquea hasta que haya un lote para aplicar (para consumidores que no
+     * tienen un frame que cuidar)
+     *
+     * @throws InterruptedException si se interrumpe la espera
+     */
+    public void esperar() throws InterruptedException {
+        if (actual == null && !terminado) {
+            actual = cola.take();
+            posicion = 0;
+        }
+    }
+
+    /**
+     * Busca el nodo y, si no existe, lo agrega y lo coloca junto al vecino
+     */
+    private Nodo<Integer> obtenerNodo(GrafoDireccional<Integer> grafo, int valor, Nodo<Integer> vecino,
+            BiConsumer<Nodo<Integer>, Nodo<Integer>> colocar) {
+        Nodo<Integer> nodo = grafo.encontrarNodo(valor);
+        if (nodo == null) {
+            nodo = grafo.agregarNodo(valor);
+            colocar.accept(nodo, vecino);
+            nodosAgregados++;
+        }
+        return nodo;
+    }
+
+    /**
+     * @return true cuando se leyó todo el archivo (o falló) y ya se aplicaron
+     *         todos los lotes
+     */
+    public boolean isTerminado() {
+        return terminado;
+    }
+
+    /**
+     * @return Fracción del archivo leída (0..1)
+     */
+    public double getProgreso() {
+        return tamaño == 0 ? 1 : (double) bytesLeidos / tamaño;
+    }
+
+    /**
+     * @return Error de lectura, o null si no hubo
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    public long getLineasInvalidas() {
+        return lineasInvalidas;
+    }
+
+    public long getAristasAplicadas() {
+        return aristasAplicadas;
+    }
+
+    public long getNodosAgregados() {
+        return nodosAgregados;
+    }
+
+    /**
+     * Detiene la lectura y descarta los lotes pendientes
+     */
+    @Override
+    public void close() {
+        cancelado = true;
+        if (lector != null)
+            lector.interrupt();
+        cola.clear();
+        actual = null;
+        terminado = true;
+    }
+
+    /**
+     * Hilo lector: analiza el archivo byte a byte (sin crear cadenas) y
+     * encola lotes de {@value #CHUNK_EDGES} aristas
+     */
+    private void leer() {
+        Analizador analizador = new Analizador();
+        try (InputStream entrada = Files.newInputStream(archivo)) {
+            byte[] buffer = new byte[BUFFER_BYTES];
+            long total = 0;
+            int leidos;
+            while (!cancelado && (leidos = entrada.read(buffer)) > 0) {
+                for (int i = 0; i < leidos; i++) {
+                    if (analizador.consumir(buffer[i]))
+                        encolar(analizador);
+                }
+                total += leidos;
+                bytesLeidos = total;
+            }
+            analizador.finDeLinea();
+            encolar(analizador);
+            if (analizador.cantidad > 0)
+                cola.put(analizador.entregar());
+        } catch (IOException e) {
+            error = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lineasInvalidas = analizador.invalidas;
+            if (!cancelado) {
+                try {
+                    cola.put(FIN);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Encola el lote en curso si está lleno; si la cola está llena espera
+     */
+    private void encolar(Analizador analizador) throws InterruptedException {
+        if (analizador.cantidad == CHUNK_EDGES) {
+            cola.put(analizador.entregar());
+            lineasInvalidas = analizador.invalidas;
+        }
+    }
+
+    /**
+     * Máquina de estados de una línea: acumula hasta dos enteros y al final
+     * de la línea agrega la arista (o el nodo) al lote en curso
+     */
+    private static final class Analizador {
+        private int[] origenes = new int[CHUNK_EDGES];
+        private int[] destinos = new int[CHUNK_EDGES];
+        private int cantidad;
+        private long invalidas;
+
+        private final int[] enteros = new int[2];
+        private int numEnteros;
+        private long valor;
+        private boolean enNumero;
+        private boolean negativo;
+        private boolean vacia = true; // Sin caracteres visibles todavía
+        private boolean ignorar; // Comentario o línea inválida
+        private boolean invalida;
+
+        /**
+         * @return true si se completó una línea
+         */
+        boolean consumir(byte b) {
+            if (b == '\n') {
+                finDeLinea();
+                return true;
+            }
+            if (ignorar)
+                return false;
+
+            if (b >= '0' && b <= '9') {
+                valor = valor * 10 + (b - '0');
+                enNumero = true;
+                vacia = false;
+                if (valor > Integer.MAX_VALUE)
+                    marcarInvalida();
+            } else if (b == ' ' || b == '\t' || b == ',' || b == ';' || b == '\r') {
+                cerrarNumero();
+            } else if (b == '-' && !enNumero && !negativo) {
+                negativo = true;
+                vacia = false;
+            } else if (vacia && (b == '#' || b == '%')) {
+                ignorar = true;
+            } else {
+                marcarInvalida();
+            }
+            return false;
+        }
+
+        private void marcarInvalida() {
+            invalida = true;
+            ignorar = true;
+        }
+
+        private void cerrarNumero() {
+            if (negativo && !enNumero) {
+                marcarInvalida();
+                return;
+            }
+            if (enNumero) {
+                enteros[numEnteros++] = (int) (negativo ? -valor : valor);
+                if (numEnteros == 2)
+                    ignorar = true; // Columnas extra (pesos): se ignoran
+            }
+            valor = 0;
+            enNumero = false;
+            negativo = false;
+        }
+
+        void finDeLinea() {
+            if (!ignorar)
+                cerrarNumero();
+            if (invalida) {
+                invalidas++;
+            } else if (numEnteros > 0) {
+                origenes[cantidad] = enteros[0];
+                destinos[cantidad] = numEnteros == 2 ? enteros[1] : SIN_DESTINO;
+                cantidad++;
+            }
+            numEnteros = 0;
+            valor = 0;
+            enNumero = false;
+            negativo = false;
+            vacia = true;
+            ignorar = false;
+            invalida = false;
+        }
+
+        Lote entregar() {
+            Lote lote = new Lote(origenes, destinos, cantidad);
+            origenes = new int[CHUNK_EDGES];
+            destinos = new int[CHUNK_EDGES];
+            cantidad = 0;
+            return lote;
+        }
+    }
+}
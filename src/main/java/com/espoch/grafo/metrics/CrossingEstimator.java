@@ -0,0 +1,101 @@
+package com.espoch.grafo.metrics;
+
+import com.espoch.grafo.model.Nodo;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Estima la cantidad de cruces de aristas del layout por muestreo: toma
+ * pares de aristas uniformemente al azar, mide qué fracción se cruza y la
+ * extrapola al total de pares. Contar todos los cruces es O(E²).
+ */
+public class CrossingEstimator {
+    private final Random random;
+    private final int samples;
+
+    /**
+     * Constructor
+     * 
+     * @param samples Pares de aristas a muestrear por estimación
+     * @param seed    Semilla del muestreo
+     */
+    public CrossingEstimator(int samples, long seed) {
+        this.samples = samples;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Estima los cruces del layout actual
+     * 
+     * @param nodos Nodos del grafo con sus posiciones
+     * @return Cantidad estimada de cruces entre aristas
+     */
+    public <T> double estimate(List<Nodo<T>> nodos) {
+        int n = nodos.size();
+        long[] acumulado = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            acumulado[i + 1] = acumulado[i] + nodos.get(i).getGrado();
+        }
+        long aristas = acumulado[n];
+        if (aristas < 2)
+            return 0;
+
+        int cruces = 0;
+        for (int s = 0; s < samples; s++) {
+            long a = Math.floorMod(random.nextLong(), aristas);
+            long b = Math.floorMod(random.nextLong(), aristas);
+            if (a == b)
+                continue;
+
+            int ia = origenDe(acumulado, a);
+            int ib = origenDe(acumulado, b);
+            Nodo<T> a1 = nodos.get(ia);
+            Nodo<T> a2 = a1.getVecino((int) (a - acumulado[ia]));
+            Nodo<T> b1 = nodos.get(ib);
+            Nodo<T> b2 = b1.getVecino((int) (b - acumulado[ib]));
+
+            if (seCruzan(a1, a2, b1, b2))
+                cruces++;
+        }
+
+        double pares = aristas * (aristas - 1) / 2.0;
+        return pares * cruces / samples;
+    }
+
+    /**
+     * Busca el nodo origen de la arista global número {@code arista}
+     */
+    private static int origenDe(long[] acumulado, long arista) {
+        int lo = 0;
+        int hi = acumulado.length - 2;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (acumulado[mid] <= arista)
+                lo = mid;
+            else
+                hi = mid - 1;
+        }
+        return lo;
+    }
+
+    /**
+     * Cruce propio entre los segmentos AB y CD; las aristas que comparten un
+     * extremo no cuentan como cruce
+     */
+    private static <T> boolean seCruzan(Nodo<T> a, Nodo<T> b, Nodo<T> c, Nodo<T> d) {
+        if (a == c || a == d || b == c || b == d)
+            return false;
+
+        double d1 = orientacion(c, d, a);
+        double d2 = orientacion(c, d, b);
+        double d3 = orientacion(a, b, c);
+        double d4 = orientacion(a, b, d);
+        return ((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0))
+                && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0));
+    }
+
+    private static <T> double orientacion(Nodo<T> p, Nodo<T> q, Nodo<T> r) {
+        return (q.getX() - p.getX()) * (r.getY() - p.getY()) - (q.getY() - p.getY()) * (r.getX() - p.getX());
+    }
+}
@@ -0,0 +1,282 @@
+package com.espoch.grafo.metrics;
+
+import jdk.jfr.EventType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Instrumentación por frame de la simulación y el renderizado: tiempos en
+ * nanosegundos de cada fase, bytes reservados por el hilo, energía del
+ * layout y cruces estimados. Los tiempos se acumulan en histogramas y los
+ * últimos {@value #HISTORY} frames se guardan en arreglos circulares para
+ * exportarlos a CSV. Todo está preasignado, así que medir no genera basura.
+ * 
+ * Si hay una grabación de Java Flight Recorder activa, además se emiten los
+ * eventos {@link LayoutStepEvent} y {@link RenderFrameEvent}; sin grabación
+ * solo se consulta si el tipo de evento está habilitado.
+ */
+public class FrameMetrics {
+    /**
+     * Fases medidas en cada frame
+     */
+    public enum Phase {
+        FORCES, POSITIONS, RENDER
+    }
+
+    private static final int HISTORY = 4096; // Frames guardados para exportar
+    private static final Phase[] PHASES = Phase.values();
+    private static final EventType LAYOUT_STEP_TYPE = EventType.getEventType(LayoutStepEvent.class);
+    private static final EventType RENDER_FRAME_TYPE = EventType.getEventType(RenderFrameEvent.class);
+
+    private final Histogram frameHistogram = new Histogram();
+    private final Histogram[] phaseHistograms = new Histogram[PHASES.length];
+
+    // Historial circular por frame
+    private final long[] frameHistory = new long[HISTORY];
+    private final long[][] phaseHistory = new long[PHASES.length][HISTORY];
+    private final long[] allocHistory = new long[HISTORY];
+    private final double[] energyHistory = new double[HISTORY];
+    private final double[] crossingHistory = new double[HISTORY];
+    private final int[] nodeHistory = new int[HISTORY];
+    private final int[] iterationHistory = new int[HISTORY];
+
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    // Frame en curso
+    private final long[] currentPhases = new long[PHASES.length];
+    private long frameStart;
+    private long allocStart;
+    private long frames;
+    private double lastEnergy;
+    private double lastCrossings;
+    private LayoutStepEvent layoutEvent;
+    private RenderFrameEvent renderEvent;
+
+    /**
+     * Constructor
+     */
+    public FrameMetrics() {
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseHistograms[i] = new Histogram();
+        }
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+            sunBean.setThreadAllocatedMemoryEnabled(true);
+            this.threadBean = sunBean;
+        } else {
+            this.threadBean = null;
+        }
+    }
+
+    /**
+     * Marca el inicio de un frame
+     */
+    public void beginFrame() {
+        for (int i = 0; i < currentPhases.length; i++) {
+            currentPhases[i] = 0;
+        }
+        allocStart = allocatedBytes();
+        if (LAYOUT_STEP_TYPE.isEnabled()) {
+            layoutEvent = new LayoutStepEvent();
+            layoutEvent.begin();
+        }
+        frameStart = System.nanoTime();
+    }
+
+    /**
+     * @return Marca de tiempo para pasar a {@link #stop}
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Acumula el tiempo de una fase desde la marca indicada
+     *
+     * @param phase Fase medida
+     * @param start Marca devuelta por {@link #start()}
+     * @return Duración medida en nanosegundos
+     */
+    public long stop(Phase phase, long start) {
+        long duracion = System.nanoTime() - start;
+        currentPhases[phase.ordinal()] += duracion;
+        return duracion;
+    }
+
+    /**
+     * Inicia la medición del dibujado de un frame
+     *
+     * @return Marca de tiempo para pasar a {@link #stopRender}
+     */
+    public long startRender() {
+        if (RENDER_FRAME_TYPE.isEnabled()) {
+            renderEvent = new RenderFrameEvent();
+            renderEvent.begin();
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Cierra la medición del dibujado con la cantidad de elementos dibujados
+     * y descartados por estar fuera de la vista
+     *
+     * @param start Marca devuelta por {@link #startRender()}
+     */
+    public void stopRender(long start, int drawnNodes, int culledNodes, int drawnEdges, int culledEdges) {
+        stop(Phase.RENDER, start);
+
+        RenderFrameEvent evento = renderEvent;
+        if (evento != null) {
+            renderEvent = null;
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.drawnNodes = drawnNodes;
+                evento.culledNodes = culledNodes;
+                evento.drawnEdges = drawnEdges;
+                evento.culledEdges = culledEdges;
+                evento.commit();
+            }
+        }
+    }
+
+    /**
+     * Registra la estimación de cruces más reciente (se calcula con menos
+     * frecuencia que los frames)
+     */
+    public void setCrossings(double crossings) {
+        this.lastCrossings = crossings;
+    }
+
+    /**
+     * Cierra el frame y lo registra en histogramas e historial
+     *
+     * @param nodes     Nodos del grafo
+     * @param edges     Aristas del grafo
+     * @param energy    Energía del layout (fuerza residual)
+     * @param iteration Iteración del layout
+     */
+    public void endFrame(int nodes, int edges, double energy, int iteration) {
+        long duracion = System.nanoTime() - frameStart;
+        long alloc = allocatedBytes() - allocStart;
+
+        int slot = (int) (frames % HISTORY);
+        frameHistory[slot] = duracion;
+        frameHistogram.record(duracion);
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseHistory[i][slot] = currentPhases[i];
+            if (currentPhases[i] > 0) {
+                phaseHistograms[i].record(currentPhases[i]);
+            }
+        }
+        allocHistory[slot] = alloc;
+        energyHistory[slot] = energy;
+        crossingHistory[slot] = lastCrossings;
+        nodeHistory[slot] = nodes;
+        iterationHistory[slot] = iteration;
+
+        lastEnergy = energy;
+        frames++;
+
+        LayoutStepEvent evento = layoutEvent;
+        if (evento != null) {
+            layoutEvent = null;
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.nodeCount = nodes;
+                evento.edgeCount = edges;
+                evento.iteration = iteration;
+                evento.energy = energy;
+                evento.forcesDuration = currentPhases[Phase.FORCES.ordinal()];
+                evento.positionsDuration = currentPhases[Phase.POSITIONS.ordinal()];
+                evento.renderDuration = currentPhases[Phase.RENDER.ordinal()];
+                evento.commit();
+            }
+        }
+    }
+
+    /**
+     * @return Nanosegundos de cada fase en el último frame cerrado
+     */
+    public long getLastPhase(Phase phase) {
+        return frames == 0 ? 0 : phaseHistory[phase.ordinal()][(int) ((frames - 1) % HISTORY)];
+    }
+
+    /**
+     * @return Bytes reservados por el hilo durante el último frame cerrado
+     */
+    public long getLastAllocatedBytes() {
+        return frames == 0 ? 0 : allocHistory[(int) ((frames - 1) % HISTORY)];
+    }
+
+    public Histogram getFrameHistogram() {
+        return frameHistogram;
+    }
+
+    public Histogram getPhaseHistogram(Phase phase) {
+        return phaseHistograms[phase.ordinal()];
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Genera las líneas de texto del HUD
+     *
+     * @return Líneas con el resumen de métricas
+     */
+    public String[] hudLines() {
+        return new String[] {
+                String.format(Locale.ROOT, "frame  p50 %.2f ms  p99 %.2f ms  (%d)",
+                        millis(frameHistogram.percentile(50)), millis(frameHistogram.percentile(99)), frames),
+                String.format(Locale.ROOT, "fuerzas %.2f ms  posiciones %.2f ms  render %.2f ms",
+                        millis(getLastPhase(Phase.FORCES)), millis(getLastPhase(Phase.POSITIONS)),
+                        millis(getLastPhase(Phase.RENDER))),
+                String.format(Locale.ROOT, "alloc %.1f KB/frame  energia %.1f  cruces ~%.0f",
+                        getLastAllocatedBytes() / 1024.0, lastEnergy, lastCrossings)
+        };
+    }
+
+    /**
+     * Exporta los últimos frames a un archivo CSV
+     *
+     * @param archivo Ruta del archivo a escribir
+     * @throws IOException si no se puede escribir
+     */
+    public void exportCsv(Path archivo) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            out.write("frame,frame_ns,forces_ns,positions_ns,render_ns,alloc_bytes,energy,crossings,nodes,iteration");
+            out.newLine();
+
+            long desde = Math.max(0, frames - HISTORY);
+            for (long f = desde; f < frames; f++) {
+                int slot = (int) (f % HISTORY);
+                out.write(f + "," + frameHistory[slot]
+                        + "," + phaseHistory[Phase.FORCES.ordinal()][slot]
+                        + "," + phaseHistory[Phase.POSITIONS.ordinal()][slot]
+                        + "," + phaseHistory[Phase.RENDER.ordinal()][slot]
+                        + "," + allocHistory[slot]
+                        + "," + String.format(Locale.ROOT, "%.4f", energyHistory[slot])
+                        + "," + String.format(Locale.ROOT, "%.1f", crossingHistory[slot])
+                        + "," + nodeHistory[slot]
+                        + "," + iterationHistory[slot]);
+                out.newLine();
+            }
+        }
+    }
+
+    private long allocatedBytes() {
+        return threadBean == null ? 0 : threadBean.getCurrentThreadAllocatedBytes();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,95 @@
+package com.espoch.grafo.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Histograma log-lineal de valores enteros no negativos (p. ej. nanosegundos).
+ * Cada potencia de dos se divide en 8 sub-intervalos, lo que da un error
+ * relativo máximo de 12.5% con un arreglo fijo de contadores: registrar un
+ * valor no reserva memoria y cuesta unas pocas operaciones de bits.
+ */
+public class Histogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    private final long[] counts = new long[64 << SUB_BITS];
+    private long count;
+    private long total;
+    private long max;
+
+    /**
+     * Registra un valor
+     * 
+     * @param value Valor a registrar (los negativos se cuentan como 0)
+     */
+    public void record(long value) {
+        if (value < 0)
+            value = 0;
+        counts[indexOf(value)]++;
+        count++;
+        total += value;
+        if (value > max)
+            max = value;
+    }
+
+    /**
+     * Obtiene el valor aproximado bajo el cual está el percentil indicado
+     * 
+     * @param percentile Percentil entre 0 y 100
+     * @return Límite inferior del intervalo que contiene el percentil
+     */
+    public long percentile(double percentile) {
+        if (count == 0)
+            return 0;
+
+        long objetivo = (long) Math.ceil(count * percentile / 100.0);
+        if (objetivo < 1)
+            objetivo = 1;
+        long acumulado = 0;
+        for (int i = 0; i < counts.length; i++) {
+            acumulado += counts[i];
+            if (acumulado >= objetivo) {
+                return Math.min(valueAt(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Vacía el histograma
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_COUNT)
+            return (int) value;
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) ((value >>> (exp - SUB_BITS)) & (SUB_COUNT - 1));
+        return ((exp - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    private static long valueAt(int index) {
+        if (index < SUB_COUNT)
+            return index;
+        int exp = (index >> SUB_BITS) + SUB_BITS - 1;
+        int sub = index & (SUB_COUNT - 1);
+        return (long) (SUB_COUNT + sub) << (exp - SUB_BITS);
+    }
+}
@@ -0,0 +1,42 @@
+package com.espoch.grafo.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento JFR emitido por cada frame animado del layout
+ */
+@Name("com.espoch.grafo.LayoutStep")
+@Label("Layout Step")
+@Category({ "Grafo", "Layout" })
+@Description("Un frame del AnimationTimer con las duraciones de cada fase")
+@StackTrace(false)
+public class LayoutStepEvent extends jdk.jfr.Event {
+    @Label("Nodes")
+    int nodeCount;
+
+    @Label("Edges")
+    int edgeCount;
+
+    @Label("Iteration")
+    int iteration;
+
+    @Label("Energy")
+    double energy;
+
+    @Label("Forces")
+    @Timespan(Timespan.NANOSECONDS)
+    long forcesDuration;
+
+    @Label("Positions")
+    @Timespan(Timespan.NANOSECONDS)
+    long positionsDuration;
+
+    @Label("Render")
+    @Timespan(Timespan.NANOSECONDS)
+    long renderDuration;
+}
@@ -0,0 +1,29 @@
+package com.espoch.grafo.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR emitido por cada frame dibujado en el canvas
+ */
+@Name("com.espoch.grafo.RenderFrame")
+@Label("Render Frame")
+@Category({ "Grafo", "Render" })
+@Description("Elementos dibujados y descartados por estar fuera de la vista")
+@StackTrace(false)
+public class RenderFrameEvent extends jdk.jfr.Event {
+    @Label("Drawn Nodes")
+    int drawnNodes;
+
+    @Label("Culled Nodes")
+    int culledNodes;
+
+    @Label("Drawn Edges")
+    int drawnEdges;
+
+    @Label("Culled Edges")
+    int culledEdges;
+}
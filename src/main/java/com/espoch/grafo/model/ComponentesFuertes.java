@@ -0,0 +1,79 @@
+package com.espoch.grafo.model;
+
+/**
+ * Componentes fuertemente conexas con el algoritmo de Tarjan, en versión
+ * iterativa para no desbordar la pila con caminos largos. Costo O(V + E).
+ */
+public final class ComponentesFuertes {
+    private ComponentesFuertes() {
+    }
+
+    /**
+     * Calcula la componente de cada nodo. Las componentes quedan numeradas
+     * en orden topológico inverso: si hay una arista de la componente a
+     * hacia la componente b (a != b), entonces a > b.
+     * 
+     * @param indice Grafo indexado
+     * @return Componente de cada nodo (0..cantidad-1); la cantidad es el
+     *         máximo más uno
+     */
+    public static int[] calcular(IndiceGrafo<?> indice) {
+        int n = indice.size();
+        int[] componente = new int[n];
+        int[] orden = new int[n]; // Orden de descubrimiento (0 = sin visitar)
+        int[] bajo = new int[n];
+        int[] pila = new int[n];
+        boolean[] enPila = new boolean[n];
+        int[] llamadas = new int[n]; // Pila de recursión explícita
+        int[] siguienteArista = new int[n];
+        int cima = 0;
+        int contador = 0;
+        int componentes = 0;
+
+        for (int raiz = 0; raiz < n; raiz++) {
+            if (orden[raiz] != 0)
+                continue;
+
+            int profundidad = 0;
+            llamadas[profundidad++] = raiz;
+            orden[raiz] = bajo[raiz] = ++contador;
+            pila[cima++] = raiz;
+            enPila[raiz] = true;
+
+            while (profundidad > 0) {
+                int u = llamadas[profundidad - 1];
+                int[] salientes = indice.getSalientes(u);
+
+                if (siguienteArista[u] < salientes.length) {
+                    int v = salientes[siguienteArista[u]++];
+                    if (orden[v] == 0) {
+                        orden[v] = bajo[v] = ++contador;
+                        pila[cima++] = v;
+                        enPila[v] = true;
+                        llamadas[profundidad++] = v;
+                    } else if (enPila[v]) {
+                        bajo[u] = Math.min(bajo[u], orden[v]);
+                    }
+                    continue;
+                }
+
+                // Todas las aristas de u procesadas: cerrar u
+                if (bajo[u] == orden[u]) {
+                    int w;
+                    do {
+                        w = pila[--cima];
+                        enPila[w] = false;
+                        componente[w] = componentes;
+                    } while (w != u);
+                    componentes++;
+                }
+                profundidad--;
+                if (profundidad > 0) {
+                    int padre = llamadas[profundidad - 1];
+                    bajo[padre] = Math.min(bajo[padre], bajo[u]);
+                }
+            }
+        }
+        return componente;
+    }
+}
@@ -0,0 +1,108 @@
+package com.espoch.grafo.model;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Detección de comunidades por propagación de etiquetas (Raghavan et al.)
+ * sobre un grafo no dirigido con pesos en formato CSR: cada nodo adopta
+ * repetidamente la etiqueta con mayor peso acumulado entre sus vecinos,
+ * hasta que ninguna cambia. Cada ronda cuesta O(V + E).
+ */
+public final class Comunidades {
+    private Comunidades() {
+    }
+
+    /**
+     * Agrupa los nodos en comunidades
+     * 
+     * @param n         Cantidad de nodos
+     * @param inicio    Desplazamientos CSR (longitud n + 1)
+     * @param vecinos   Vecinos de cada nodo, contiguos según {@code inicio}
+     * @param pesos     Peso (positivo) de cada entrada de {@code vecinos}
+     * @param maxRondas Máximo de rondas de propagación
+     * @param seed      Semilla del orden de visita y los desempates
+     * @return Comunidad de cada nodo, numeradas 0..cantidad-1 sin huecos
+     */
+    public static int[] propagarEtiquetas(int n, int[] inicio, int[] vecinos, int[] pesos,
+            int maxRondas, long seed) {
+        Random random = new Random(seed);
+        int[] etiqueta = new int[n];
+        int[] ordenVisita = new int[n];
+        for (int i = 0; i < n; i++) {
+            etiqueta[i] = i;
+            ordenVisita[i] = i;
+        }
+
+        // Acumulador disperso de peso por etiqueta
+        long[] acumulado = new long[n];
+        int[] tocadas = new int[n];
+
+        for (int ronda = 0; ronda < maxRondas; ronda++) {
+            // Orden aleatorio (Fisher-Yates) para evitar oscilaciones
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = ordenVisita[i];
+                ordenVisita[i] = ordenVisita[j];
+                ordenVisita[j] = tmp;
+            }
+
+            int cambios = 0;
+            for (int u : ordenVisita) {
+                int numTocadas = 0;
+                for (int k = inicio[u]; k < inicio[u + 1]; k++) {
+                    int l = etiqueta[vecinos[k]];
+                    if (acumulado[l] == 0)
+                        tocadas[numTocadas++] = l;
+                    acumulado[l] += pesos[k];
+                }
+                if (numTocadas == 0)
+                    continue;
+
+                // Mejor etiqueta; en empate se conserva la actual o se elige al azar
+                long mejorPeso = 0;
+                for (int t = 0; t < numTocadas; t++) {
+                    mejorPeso = Math.max(mejorPeso, acumulado[tocadas[t]]);
+                }
+                int mejor = etiqueta[u];
+                if (acumulado[mejor] != mejorPeso) {
+                    int empates = 0;
+                    for (int t = 0; t < numTocadas; t++) {
+                        if (acumulado[tocadas[t]] == mejorPeso && random.nextInt(++empates) == 0)
+                            mejor = tocadas[t];
+                    }
+                }
+                for (int t = 0; t < numTocadas; t++) {
+                    acumulado[tocadas[t]] = 0;
+                }
+
+                if (mejor != etiqueta[u]) {
+                    etiqueta[u] = mejor;
+                    cambios++;
+                }
+            }
+            if (cambios == 0)
+                break;
+        }
+
+        return compactar(etiqueta);
+    }
+
+    /**
+     * Renumera etiquetas arbitrarias (0..n-1) como 0..cantidad-1
+     */
+    static int[] compactar(int[] etiqueta) {
+        int[] nueva = new int[etiqueta.length];
+        Arrays.fill(nueva, -1);
+        int siguiente = 0;
+
+        int[] resultado = new int[etiqueta.length];
+        for (int i = 0; i < etiqueta.length; i++) {
+            int l = etiqueta[i];
+            if (nueva[l] < 0)
+                nueva[l] = siguiente++;
+            resultado[i] = nueva[l];
+        }
+        return resultado;
+    }
+}
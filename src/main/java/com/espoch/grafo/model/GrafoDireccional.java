@@ -1,7 +1,16 @@
 package com.espoch.grafo.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
 
 /**
  * Representa un grafo direccional con operaciones básicas
@@ -9,13 +18,111 @@ import java.util.List;
  * @param <L> Tipo genérico de los valores de los nodos
  */
 public class GrafoDireccional<L> {
+    private static final long SEMILLA_POSICIONES = 42L; // De desdeAristas sin semilla
+
     private List<Nodo<L>> nodos;
+    private Map<L, Nodo<L>> porValor; // Búsqueda por valor en O(1)
+    private int numAristas;
+    private long modificaciones; // Cambia con cada nodo o arista agregado o eliminado
 
     /**
      * Constructor del grafo direccional
      */
     public GrafoDireccional() {
         this.nodos = new ArrayList<>();
+        this.porValor = new HashMap<>();
+    }
+
+    /**
+     * Construye un grafo de enteros 0..numNodos-1 directamente desde una
+     * lista de aristas en arreglos primitivos (generadores, cargas de
+     * millones de aristas). Agrupa las aristas por origen con un conteo,
+     * ordena y quita repetidas en cada grupo, y le da a cada nodo una
+     * adyacencia del tamaño justo: O(V + E log d) sin la revisión lineal de
+     * repetidos de {@link #agregarArista}. Los vecinos de cada nodo quedan
+     * ordenados por valor.
+     * 
+     * @param numNodos   Cantidad de nodos
+     * @param origenes   Origen de cada arista
+     * @param destinos   Destino de cada arista
+     * @param numAristas Cantidad de aristas usadas de los arreglos
+     * @return El grafo, con los nodos en posiciones aleatorias (siempre las
+     *         mismas para los mismos argumentos)
+     * @throws IllegalArgumentException si una arista apunta fuera de
+     *                                  0..numNodos-1
+     */
+    public static GrafoDireccional<Integer> desdeAristas(int numNodos, int[] origenes, int[] destinos,
+            int numAristas) {
+        return desdeAristas(numNodos, origenes, destinos, numAristas, SEMILLA_POSICIONES);
+    }
+
+    /**
+     * Como {@link #desdeAristas(int, int[], int[], int)}, con la semilla de
+     * las posiciones iniciales
+     *
+     * @param semilla Semilla de las posiciones de los nodos
+     */
+    public static GrafoDireccional<Integer> desdeAristas(int numNodos, int[] origenes, int[] destinos,
+            int numAristas, long semilla) {
+        if (numNodos < 0 || numAristas < 0 || numAristas > origenes.length || numAristas > destinos.length) {
+            throw new IllegalArgumentException(
+                    "Tamaños inválidos: " + numNodos + " nodos, " + numAristas + " aristas");
+        }
+        GraphMutationEvent evento = GraphMutationEvent.iniciar();
+
+        // Adyacencia agrupada por origen (CSR): inicio[u]..inicio[u+1]
+        int[] inicio = new int[numNodos + 1];
+        for (int e = 0; e < numAristas; e++) {
+            int origen = origenes[e];
+            int destino = destinos[e];
+            if (origen < 0 || origen >= numNodos || destino < 0 || destino >= numNodos) {
+                throw new IllegalArgumentException("Arista fuera de rango: " + origen + " -> " + destino);
+            }
+            inicio[origen + 1]++;
+        }
+        for (int u = 0; u < numNodos; u++) {
+            inicio[u + 1] += inicio[u];
+        }
+        int[] adyacencia = new int[numAristas];
+        int[] siguiente = Arrays.copyOf(inicio, numNodos);
+        for (int e = 0; e < numAristas; e++) {
+            adyacencia[siguiente[origenes[e]]++] = destinos[e];
+        }
+
+        GrafoDireccional<Integer> grafo = new GrafoDireccional<>();
+        grafo.nodos = new ArrayList<>(numNodos);
+        grafo.porValor = HashMap.newHashMap(numNodos);
+        SplittableRandom random = new SplittableRandom(semilla);
+        for (int i = 0; i < numNodos; i++) {
+            Nodo<Integer> nodo = new Nodo<>(i, Nodo.INICIO_X + random.nextDouble() * Nodo.INICIO_ANCHO,
+                    Nodo.INICIO_Y + random.nextDouble() * Nodo.INICIO_ALTO);
+            grafo.nodos.add(nodo);
+            grafo.porValor.put(i, nodo);
+        }
+        for (int u = 0; u < numNodos; u++) {
+            int desde = inicio[u];
+            int hasta = inicio[u + 1];
+            Arrays.sort(adyacencia, desde, hasta);
+            int distintos = 0;
+            for (int k = desde; k < hasta; k++) {
+                if (k == desde || adyacencia[k] != adyacencia[k - 1]) {
+                    adyacencia[desde + distintos++] = adyacencia[k];
+                }
+            }
+            @SuppressWarnings("unchecked")
+            Nodo<Integer>[] vecinos = (Nodo<Integer>[]) new Nodo<?>[distintos];
+            for (int k = 0; k < distintos; k++) {
+                vecinos[k] = grafo.nodos.get(adyacencia[desde + k]);
+            }
+            grafo.nodos.get(u).setVecinos(vecinos);
+            grafo.numAristas += distintos;
+        }
+        grafo.modificaciones++;
+
+        if (evento != null) {
+            evento.commit("desdeAristas", numNodos, grafo.numAristas, numNodos, grafo.numAristas);
+        }
+        return grafo;
     }
 
     /**
@@ -32,6 +139,8 @@ public class GrafoDireccional<L> {
 
         Nodo<L> nuevoNodo = new Nodo<>(valor);
         nodos.add(nuevoNodo);
+        porValor.put(valor, nuevoNodo);
+        modificaciones++;
         return nuevoNodo;
     }
 
@@ -47,13 +156,25 @@ public class GrafoDireccional<L> {
             return false;
         }
 
+        GraphMutationEvent evento = GraphMutationEvent.iniciar();
+
         // Eliminar todas las aristas que apuntan a este nodo
+        int aristasEliminadas = nodoAEliminar.getGrado();
         for (Nodo<L> nodo : nodos) {
-            nodo.removeVecino(nodoAEliminar);
+            if (nodo != nodoAEliminar && nodo.removeVecino(nodoAEliminar)) {
+                aristasEliminadas++;
+            }
         }
+        numAristas -= aristasEliminadas;
 
         // Eliminar el nodo de la lista
-        return nodos.remove(nodoAEliminar);
+        boolean eliminado = nodos.remove(nodoAEliminar);
+        porValor.remove(valor);
+        modificaciones++;
+        if (evento != null) {
+            evento.commit("eliminarNodo", 1, aristasEliminadas, nodos.size(), numAristas);
+        }
+        return eliminado;
     }
 
     /**
@@ -71,7 +192,10 @@ public class GrafoDireccional<L> {
             return false; // Uno o ambos nodos no existen
         }
 
-        origen.addVecino(destino);
+        if (origen.addVecino(destino)) {
+            numAristas++;
+            modificaciones++;
+        }
         return true;
     }
 
@@ -90,22 +214,24 @@ public class GrafoDireccional<L> {
             return false;
         }
 
-        return origen.removeVecino(destino);
+        if (origen.removeVecino(destino)) {
+            numAristas--;
+            modificaciones++;
+            return true;
+        }
+        return false;
     }
 
     /**
-     * Encuentra un nodo por su valor
+     * Encuentra un nodo por su valor. Usa un índice hash, así que el valor
+     * de un nodo no debe cambiarse con {@link Nodo#setValue} mientras
+     * pertenezca al grafo.
      * 
      * @param valor Valor a buscar
      * @return El nodo encontrado, o null si no existe
      */
     public Nodo<L> encontrarNodo(L valor) {
-        for (Nodo<L> nodo : nodos) {
-            if (nodo.getValue().equals(valor)) {
-                return nodo;
-            }
-        }
-        return null;
+        return porValor.get(valor);
     }
 
     /**
@@ -121,7 +247,208 @@ public class GrafoDireccional<L> {
      * Limpia el grafo eliminando todos los nodos
      */
     public void limpiar() {
+        GraphMutationEvent evento = GraphMutationEvent.iniciar();
+
+        int nodosEliminados = nodos.size();
+        int aristasEliminadas = numAristas;
         nodos.clear();
+        porValor.clear();
+        numAristas = 0;
+        modificaciones++;
+
+        if (evento != null) {
+            evento.commit("limpiar", nodosEliminados, aristasEliminadas, 0, 0);
+        }
+    }
+
+    /**
+     * Aplica en el lugar un parche calculado con
+     * {@link ParcheGrafo#calcular} a partir de este grafo. Los nodos que no
+     * cambian conservan su posición y su estado; los nuevos se pasan a
+     * {@code colocar} junto con un vecino ya colocado (o null). Cuesta en
+     * proporción al tamaño del parche; si elimina nodos, además se recorre
+     * la lista desde el más antiguo de ellos y las aristas una vez (para
+     * comprobar que no les queden aristas entrantes).
+     * 
+     * @param parche  Parche a aplicar
+     * @param colocar Recibe cada nodo nuevo y un vecino para darle posición
+     * @return Nodos que siguen en el grafo y cambiaron (nuevos o con aristas
+     *         agregadas o eliminadas)
+     * @throws IllegalStateException si el parche no corresponde al grafo; en
+     *                               ese caso el grafo no se modifica
+     */
+    public List<Nodo<L>> aplicar(ParcheGrafo<L> parche, BiConsumer<Nodo<L>, Nodo<L>> colocar) {
+        return aplicar(parche, colocar, false);
+    }
+
+    /**
+     * Como {@link #aplicar(ParcheGrafo, BiConsumer)}, pero con
+     * {@code entrantesCompletas} no comprueba las aristas entrantes de los
+     * nodos eliminados: {@link HistorialGrafo} lo usa con los parches que
+     * deshacen o rehacen una edición ya validada sobre este mismo estado.
+     */
+    List<Nodo<L>> aplicar(ParcheGrafo<L> parche, BiConsumer<Nodo<L>, Nodo<L>> colocar,
+            boolean entrantesCompletas) {
+        validar(parche, entrantesCompletas);
+
+        GraphMutationEvent evento = GraphMutationEvent.iniciar();
+        Set<Nodo<L>> cambiados = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        // Aristas primero: así los nodos eliminados quedan aislados. En orden
+        // inverso, para que al vaciar un nodo se saquen desde el final.
+        List<ParcheGrafo.Arista<L>> aristasEliminadas = parche.getAristasEliminadas();
+        for (int i = aristasEliminadas.size() - 1; i >= 0; i--) {
+            ParcheGrafo.Arista<L> arista = aristasEliminadas.get(i);
+            Nodo<L> origen = porValor.get(arista.origen());
+            if (origen.removeVecino(porValor.get(arista.destino()))) {
+                numAristas--;
+            }
+            cambiados.add(origen);
+        }
+
+        if (!parche.getNodosEliminados().isEmpty()) {
+            Set<Nodo<L>> eliminados = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (L valor : parche.getNodosEliminados()) {
+                eliminados.add(porValor.remove(valor));
+            }
+            // Se buscan desde el final, donde quedan los agregados recientes, y
+            // se compacta una sola vez desde el más antiguo
+            int desde = nodos.size();
+            for (int faltan = eliminados.size(); faltan > 0;) {
+                if (eliminados.contains(nodos.get(--desde))) {
+                    faltan--;
+                }
+            }
+            nodos.subList(desde, nodos.size()).removeIf(eliminados::contains);
+            cambiados.removeAll(eliminados);
+        }
+
+        List<Nodo<L>> nuevos = new ArrayList<>(parche.getNodosAgregados().size());
+        for (L valor : parche.getNodosAgregados()) {
+            nuevos.add(agregarNodo(valor));
+        }
+        List<ParcheGrafo.Arista<L>> aristasAgregadas = parche.getAristasAgregadas();
+        List<Nodo<L>> extremos = new ArrayList<>(aristasAgregadas.size() * 2); // Origen y destino de cada una
+        for (ParcheGrafo.Arista<L> arista : aristasAgregadas) {
+            Nodo<L> origen = porValor.get(arista.origen());
+            Nodo<L> destino = porValor.get(arista.destino());
+            if (origen.addVecino(destino)) {
+                numAristas++;
+            }
+            extremos.add(origen);
+            extremos.add(destino);
+        }
+        cambiados.addAll(extremos);
+
+        // Colocar los nuevos junto a un vecino que ya tenga posición
+        Set<Nodo<L>> sinColocar = Collections.newSetFromMap(new IdentityHashMap<>());
+        sinColocar.addAll(nuevos);
+        for (int i = 0; i < extremos.size() && !sinColocar.isEmpty(); i += 2) {
+            Nodo<L> origen = extremos.get(i);
+            Nodo<L> destino = extremos.get(i + 1);
+            if (sinColocar.contains(destino) && !sinColocar.contains(origen)) {
+                colocar.accept(destino, origen);
+                sinColocar.remove(destino);
+            } else if (sinColocar.contains(origen) && !sinColocar.contains(destino)) {
+                colocar.accept(origen, destino);
+                sinColocar.remove(origen);
+            }
+        }
+        for (Nodo<L> nodo : nuevos) {
+            if (sinColocar.contains(nodo)) {
+                colocar.accept(nodo, null);
+            }
+        }
+        cambiados.addAll(nuevos);
+        modificaciones++;
+
+        if (evento != null) {
+            evento.commit("aplicarParche", parche.getNodosAgregados().size() + parche.getNodosEliminados().size(),
+                    parche.getAristasAgregadas().size() + parche.getAristasEliminadas().size(), nodos.size(),
+                    numAristas);
+        }
+        return new ArrayList<>(cambiados);
+    }
+
+    /**
+     * Verifica que cada operación del parche se pueda aplicar a este grafo
+     * y que ninguna esté repetida (el parche inverso no se podría aplicar).
+     * Si el parche elimina nodos y {@code entrantesCompletas} es false,
+     * revisa con una pasada por las aristas que incluya todas sus aristas
+     * entrantes.
+     */
+    private void validar(ParcheGrafo<L> parche, boolean entrantesCompletas) {
+        Set<L> agregados = new HashSet<>();
+        for (L valor : parche.getNodosAgregados()) {
+            if (porValor.containsKey(valor) || !agregados.add(valor)) {
+                throw new IllegalStateException("El parche agrega un nodo que ya existe: " + valor);
+            }
+        }
+
+        Map<L, Integer> gradoRestante = new HashMap<>();
+        Set<ParcheGrafo.Arista<L>> quitadas = new HashSet<>();
+        for (ParcheGrafo.Arista<L> arista : parche.getAristasEliminadas()) {
+            Nodo<L> origen = porValor.get(arista.origen());
+            Nodo<L> destino = porValor.get(arista.destino());
+            if (origen == null || destino == null || !origen.tieneVecino(destino)) {
+                throw new IllegalStateException("El parche elimina una arista que no existe: " + arista);
+            }
+            if (!quitadas.add(arista)) {
+                throw new IllegalStateException("El parche elimina dos veces la arista " + arista);
+            }
+            gradoRestante.merge(arista.origen(), origen.getGrado() - 1, (g, uno) -> g - 1);
+        }
+
+        Set<L> eliminados = new HashSet<>();
+        // Aristas entrantes de cada nodo eliminado que el parche no quita (se
+        // suman las que quita y se restan las que hay)
+        Map<Nodo<L>, Integer> entrantesSinQuitar = new IdentityHashMap<>();
+        for (L valor : parche.getNodosEliminados()) {
+            Nodo<L> nodo = porValor.get(valor);
+            if (nodo == null || !eliminados.add(valor)) {
+                throw new IllegalStateException("El parche elimina un nodo que no existe: " + valor);
+            }
+            if (gradoRestante.getOrDefault(valor, nodo.getGrado()) != 0) {
+                throw new IllegalStateException("El parche elimina el nodo " + valor + " sin sus aristas");
+            }
+            entrantesSinQuitar.put(nodo, 0);
+        }
+        if (!entrantesSinQuitar.isEmpty() && !entrantesCompletas) {
+            for (ParcheGrafo.Arista<L> arista : quitadas) {
+                entrantesSinQuitar.computeIfPresent(porValor.get(arista.destino()), (nodo, c) -> c + 1);
+            }
+            for (Nodo<L> nodo : nodos) {
+                for (int i = 0; i < nodo.getGrado(); i++) {
+                    entrantesSinQuitar.computeIfPresent(nodo.getVecino(i), (destino, c) -> c - 1);
+                }
+            }
+            for (Map.Entry<Nodo<L>, Integer> entrada : entrantesSinQuitar.entrySet()) {
+                if (entrada.getValue() != 0) {
+                    throw new IllegalStateException("El parche elimina el nodo " + entrada.getKey().getValue()
+                            + " sin sus aristas entrantes");
+                }
+            }
+        }
+
+        Set<ParcheGrafo.Arista<L>> puestas = new HashSet<>();
+        for (ParcheGrafo.Arista<L> arista : parche.getAristasAgregadas()) {
+            if (!puestas.add(arista)) {
+                throw new IllegalStateException("El parche agrega dos veces la arista " + arista);
+            }
+            Nodo<L> origen = porValor.get(arista.origen());
+            Nodo<L> destino = porValor.get(arista.destino());
+            boolean origenExiste = origen != null && !eliminados.contains(arista.origen());
+            boolean destinoExiste = destino != null && !eliminados.contains(arista.destino());
+            if ((!origenExiste && !agregados.contains(arista.origen()))
+                    || (!destinoExiste && !agregados.contains(arista.destino()))) {
+                throw new IllegalStateException("El parche agrega una arista sin sus extremos: " + arista);
+            }
+            // Una arista repetida no se podría deshacer con el parche inverso
+            if (origenExiste && destinoExiste && origen.tieneVecino(destino)
+                    && !quitadas.contains(arista)) {
+                throw new IllegalStateException("El parche agrega una arista que ya existe: " + arista);
+            }
+        }
     }
 
     /**
@@ -133,6 +460,39 @@ public class GrafoDireccional<L> {
         return nodos.size();
     }
 
+    /**
+     * Obtiene el número de aristas en el grafo
+     * 
+     * @return Cantidad de aristas
+     */
+    public int getNumAristas() {
+        return numAristas;
+    }
+
+    /**
+     * Contador de modificaciones: cambia cada vez que se agrega o elimina un
+     * nodo o una arista, así que sirve para saber si la estructura cambió
+     * desde una lectura anterior sin compararla
+     * 
+     * @return Valor actual del contador
+     */
+    public long getModificaciones() {
+        return modificaciones;
+    }
+
+    /**
+     * Ajusta la adyacencia de cada nodo a su grado, liberando la capacidad
+     * sobrante. Conviene llamarlo al terminar una carga masiva de aristas.
+     */
+    public void compactar() {
+        for (Nodo<L> nodo : nodos) {
+            nodo.compactarVecinos();
+        }
+        if (nodos instanceof ArrayList<Nodo<L>> lista) {
+            lista.trimToSize();
+        }
+    }
+
     /**
      * Verifica si el grafo está vacío
      * 
@@ -0,0 +1,65 @@
+package com.espoch.grafo.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR emitido por las mutaciones costosas o masivas del grafo. Vive
+ * junto al modelo para que este no dependa de las métricas. Se crea con
+ * {@link #iniciar()}, que sin grabación activa no crea nada, y solo se
+ * completa si {@link #shouldCommit()} lo indica.
+ */
+@Name("com.espoch.grafo.GraphMutation")
+@Label("Graph Mutation")
+@Category({ "Grafo", "Modelo" })
+@Description("Mutación masiva o en cascada de un GrafoDireccional")
+@StackTrace(false)
+public class GraphMutationEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Nodes Affected")
+    int nodesAffected;
+
+    @Label("Edges Affected")
+    int edgesAffected;
+
+    @Label("Nodes After")
+    int nodesAfter;
+
+    @Label("Edges After")
+    int edgesAfter;
+
+    private static final EventType TIPO = EventType.getEventType(GraphMutationEvent.class);
+
+    /**
+     * @return Evento iniciado, o null si ninguna grabación lo pide
+     */
+    static GraphMutationEvent iniciar() {
+        if (!TIPO.isEnabled()) {
+            return null;
+        }
+        GraphMutationEvent evento = new GraphMutationEvent();
+        evento.begin();
+        return evento;
+    }
+
+    /**
+     * Completa el evento si la grabación lo requiere
+     */
+    void commit(String operation, int nodesAffected, int edgesAffected, int nodesAfter, int edgesAfter) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.nodesAffected = nodesAffected;
+            this.edgesAffected = edgesAffected;
+            this.nodesAfter = nodesAfter;
+            this.edgesAfter = edgesAfter;
+            commit();
+        }
+    }
+}
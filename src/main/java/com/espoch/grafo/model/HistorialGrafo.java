@@ -0,0 +1,327 @@
+package com.espoch.grafo.model;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Historial de deshacer/rehacer de un grafo. En lugar de copiar el grafo,
+ * cada edición se guarda como el {@link ParcheGrafo} que la produjo (ya
+ * incluye las aristas entrantes y salientes de los nodos eliminados) más
+ * la posición y la fijación de esos nodos, para volver a ponerlos donde
+ * estaban. Deshacer aplica el parche inverso, así que cuesta en proporción
+ * a la edición y no al grafo.
+ *
+ * Cada entrada se guarda compacta, en arreglos planos de valores y
+ * coordenadas, y el historial descarta las entradas más viejas cuando su
+ * tamaño estimado pasa el presupuesto. Si una sola edición no entra en el
+ * presupuesto, el historial se vacía: las anteriores ya no se podrían
+ * deshacer en orden.
+ *
+ * Solo es válido mientras todas las ediciones del grafo pasen por aquí; si
+ * el grafo cambia por fuera hay que llamar a {@link #limpiar()}.
+ *
+ * @param <L> Tipo de los valores de los nodos
+ */
+public class HistorialGrafo<L> {
+    private static final int OBJECT_BYTES = 16; // Cabecera de un arreglo o de un valor en caja
+    private static final int REF_BYTES = 4;
+
+    /**
+     * Edición guardada: {@code nodos*} y {@code aristas*} (pares origen,
+     * destino) en el sentido en que se aplicó, y la posición y fijación de
+     * los nodos que eliminó
+     */
+    private static final class Entrada {
+        final String descripcion;
+        final Object[] nodosAgregados;
+        final Object[] nodosEliminados;
+        final Object[] aristasAgregadas;
+        final Object[] aristasEliminadas;
+        final double[] posiciones; // x, y de cada nodo eliminado
+        final boolean[] fijos;
+        final long bytes;
+
+        Entrada(String descripcion, ParcheGrafo<?> parche, GrafoDireccional<?> antes) {
+            this.descripcion = descripcion;
+            this.nodosAgregados = parche.getNodosAgregados().toArray();
+            this.nodosEliminados = parche.getNodosEliminados().toArray();
+            this.aristasAgregadas = aplanar(parche.getAristasAgregadas());
+            this.aristasEliminadas = aplanar(parche.getAristasEliminadas());
+
+            posiciones = new double[nodosEliminados.length * 2];
+            fijos = new boolean[nodosEliminados.length];
+            for (int i = 0; i < nodosEliminados.length; i++) {
+                Nodo<?> nodo = buscar(antes, nodosEliminados[i]);
+                if (nodo != null) {
+                    posiciones[2 * i] = nodo.getX();
+                    posiciones[2 * i + 1] = nodo.getY();
+                    fijos[i] = nodo.isFijo();
+                }
+            }
+            this.bytes = estimarBytes(parche);
+        }
+
+        /**
+         * Parche que deshace esta entrada
+         */
+        @SuppressWarnings("unchecked")
+        <L> ParcheGrafo<L> inverso() {
+            ParcheGrafo<L> parche = new ParcheGrafo<>();
+            for (Object valor : nodosEliminados) {
+                parche.agregarNodo((L) valor);
+            }
+            for (Object valor : nodosAgregados) {
+                parche.eliminarNodo((L) valor);
+            }
+            for (int i = 0; i < aristasEliminadas.length; i += 2) {
+                parche.agregarArista((L) aristasEliminadas[i], (L) aristasEliminadas[i + 1]);
+            }
+            for (int i = 0; i < aristasAgregadas.length; i += 2) {
+                parche.eliminarArista((L) aristasAgregadas[i], (L) aristasAgregadas[i + 1]);
+            }
+            return parche;
+        }
+
+        private static Object[] aplanar(List<? extends ParcheGrafo.Arista<?>> aristas) {
+            Object[] pares = new Object[aristas.size() * 2];
+            for (int i = 0; i < aristas.size(); i++) {
+                pares[2 * i] = aristas.get(i).origen();
+                pares[2 * i + 1] = aristas.get(i).destino();
+            }
+            return pares;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <L> Nodo<L> buscar(GrafoDireccional<L> grafo, Object valor) {
+            return grafo.encontrarNodo((L) valor);
+        }
+    }
+
+    private final Deque<Entrada> deshacer = new ArrayDeque<>();
+    private final Deque<Entrada> rehacer = new ArrayDeque<>();
+    private final long presupuestoBytes;
+    private long bytes;
+
+    // Grafo y contador de modificaciones tras la última operación: si siguen
+    // iguales, los parches del historial no necesitan revisar las entrantes
+    private GrafoDireccional<L> grafoRegistrado;
+    private long modificacionesRegistradas;
+
+    /**
+     * Constructor
+     *
+     * @param presupuestoBytes Tamaño estimado máximo del historial
+     */
+    public HistorialGrafo(long presupuestoBytes) {
+        this.presupuestoBytes = presupuestoBytes;
+    }
+
+    /**
+     * Bytes que ocuparía guardar un parche (valores de nodos eliminados en
+     * caja, referencias y coordenadas)
+     */
+    private static long estimarBytes(ParcheGrafo<?> parche) {
+        long eliminados = parche.getNodosEliminados().size();
+        long refs = parche.getNodosAgregados().size() + eliminados
+                + 2L * (parche.getAristasAgregadas().size() + parche.getAristasEliminadas().size());
+        return 6L * OBJECT_BYTES + refs * REF_BYTES + eliminados * (OBJECT_BYTES + 2 * Double.BYTES + 1);
+    }
+
+    /**
+     * Aplica una edición al grafo y la registra
+     *
+     * @param grafo       Grafo a editar
+     * @param parche      Edición (ver {@link ParcheGrafo#eliminacion} para
+     *                    borrar un nodo con sus aristas)
+     * @param descripcion Texto para los mensajes de deshacer/rehacer
+     * @param colocar     Da posición a los nodos nuevos (recibe un vecino o
+     *                    null)
+     * @return Nodos cambiados, como {@link GrafoDireccional#aplicar}
+     */
+    public List<Nodo<L>> aplicar(GrafoDireccional<L> grafo, ParcheGrafo<L> parche, String descripcion,
+            BiConsumer<Nodo<L>, Nodo<L>> colocar) {
+        Entrada entrada = crearEntrada(grafo, parche, descripcion);
+        List<Nodo<L>> cambiados = grafo.aplicar(parche, colocar);
+        registrar(entrada);
+        recordarEstado(grafo);
+        return cambiados;
+    }
+
+    /**
+     * Vacía el grafo dejando la operación en el historial
+     *
+     * @param grafo Grafo a vaciar
+     * @return true si se podrá deshacer (entró en el presupuesto)
+     */
+    public boolean vaciar(GrafoDireccional<L> grafo) {
+        long estimado = (long) grafo.size() * (2 * REF_BYTES + OBJECT_BYTES + 2 * Double.BYTES + 1)
+                + 2L * REF_BYTES * grafo.getNumAristas();
+        boolean cabe = estimado <= presupuestoBytes;
+        Entrada entrada = cabe ? crearEntrada(grafo, ParcheGrafo.vaciado(grafo), "limpiar") : null;
+        grafo.limpiar(); // Más rápido que aplicar el parche
+        if (cabe) {
+            registrar(entrada);
+            recordarEstado(grafo);
+        } else {
+            limpiar();
+        }
+        return cabe;
+    }
+
+    private Entrada crearEntrada(GrafoDireccional<L> grafo, ParcheGrafo<L> parche, String descripcion) {
+        return estimarBytes(parche) <= presupuestoBytes ? new Entrada(descripcion, parche, grafo) : null;
+    }
+
+    /**
+     * Agrega la entrada de una edición recién aplicada (null = no entró en
+     * el presupuesto)
+     */
+    private void registrar(Entrada entrada) {
+        if (entrada == null) {
+            limpiar();
+            return;
+        }
+        for (Entrada descartada; (descartada = rehacer.poll()) != null;) {
+            bytes -= descartada.bytes;
+        }
+        deshacer.push(entrada);
+        bytes += entrada.bytes;
+        while (bytes > presupuestoBytes && deshacer.size() > 1) {
+            bytes -= deshacer.removeLast().bytes;
+        }
+    }
+
+    /**
+     * Deshace la última edición
+     *
+     * @param grafo   Grafo editado
+     * @param colocar Da posición a nodos restaurados sin posición guardada
+     * @return Nodos cambiados, o null si no hay nada para deshacer
+     * @throws IllegalStateException si el grafo cambió por fuera del
+     *                               historial; el historial se vacía
+     */
+    public List<Nodo<L>> deshacer(GrafoDireccional<L> grafo, BiConsumer<Nodo<L>, Nodo<L>> colocar) {
+        return mover(deshacer, rehacer, grafo, colocar);
+    }
+
+    /**
+     * Vuelve a aplicar la última edición deshecha
+     *
+     * @see #deshacer
+     */
+    public List<Nodo<L>> rehacer(GrafoDireccional<L> grafo, BiConsumer<Nodo<L>, Nodo<L>> colocar) {
+        return mover(rehacer, deshacer, grafo, colocar);
+    }
+
+    /**
+     * Aplica el inverso de la entrada más reciente de {@code desde} y guarda
+     * el resultado en {@code hacia}, con las posiciones de los nodos que el
+     * inverso elimina
+     */
+    private List<Nodo<L>> mover(Deque<Entrada> desde, Deque<Entrada> hacia, GrafoDireccional<L> grafo,
+            BiConsumer<Nodo<L>, Nodo<L>> colocar) {
+        Entrada entrada = desde.poll();
+        if (entrada == null) {
+            return null;
+        }
+        bytes -= entrada.bytes;
+
+        ParcheGrafo<L> inverso = entrada.inverso();
+        Entrada contraria = new Entrada(entrada.descripcion, inverso, grafo);
+
+        // Los nodos que vuelven recuperan su posición
+        Map<Object, Integer> indice = new HashMap<>(entrada.nodosEliminados.length * 2);
+        for (int i = 0; i < entrada.nodosEliminados.length; i++) {
+            indice.put(entrada.nodosEliminados[i], i);
+        }
+        boolean intacto = grafo == grafoRegistrado && grafo.getModificaciones() == modificacionesRegistradas;
+        List<Nodo<L>> cambiados;
+        try {
+            cambiados = grafo.aplicar(inverso, (nodo, vecino) -> {
+                Integer i = indice.get(nodo.getValue());
+                if (i == null) {
+                    colocar.accept(nodo, vecino);
+                    return;
+                }
+                nodo.setX(entrada.posiciones[2 * i]);
+                nodo.setY(entrada.posiciones[2 * i + 1]);
+                nodo.setVx(0);
+                nodo.setVy(0);
+                nodo.setFijo(entrada.fijos[i]);
+            }, intacto);
+        } catch (IllegalStateException e) {
+            limpiar();
+            throw e;
+        }
+
+        hacia.push(contraria);
+        bytes += contraria.bytes;
+        recordarEstado(grafo);
+        return cambiados;
+    }
+
+    /**
+     * @return Descripción de la edición que se desharía, o null
+     */
+    public String getSiguienteDeshacer() {
+        return deshacer.isEmpty() ? null : deshacer.peek().descripcion;
+    }
+
+    /**
+     * @return Descripción de la edición que se reharía, o null
+     */
+    public String getSiguienteRehacer() {
+        return rehacer.isEmpty() ? null : rehacer.peek().descripcion;
+    }
+
+    /**
+     * @return Parche que aplicaría {@link #deshacer}, o null
+     */
+    public ParcheGrafo<L> getParcheDeshacer() {
+        return deshacer.isEmpty() ? null : deshacer.peek().inverso();
+    }
+
+    /**
+     * @return Parche que aplicaría {@link #rehacer}, o null
+     */
+    public ParcheGrafo<L> getParcheRehacer() {
+        return rehacer.isEmpty() ? null : rehacer.peek().inverso();
+    }
+
+    public boolean puedeDeshacer() {
+        return !deshacer.isEmpty();
+    }
+
+    public boolean puedeRehacer() {
+        return !rehacer.isEmpty();
+    }
+
+    /**
+     * @return Tamaño estimado del historial en bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Recuerda el estado del grafo después de una operación del historial
+     */
+    private void recordarEstado(GrafoDireccional<L> grafo) {
+        grafoRegistrado = grafo;
+        modificacionesRegistradas = grafo.getModificaciones();
+    }
+
+    /**
+     * Descarta todo el historial
+     */
+    public void limpiar() {
+        deshacer.clear();
+        rehacer.clear();
+        bytes = 0;
+        grafoRegistrado = null;
+    }
+}
@@ -0,0 +1,133 @@
+package com.espoch.grafo.model;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instantánea indexada de un grafo direccional: asigna a cada nodo un
+ * identificador entero consecutivo y guarda las listas de adyacencia
+ * salientes y entrantes como arreglos primitivos.
+ * 
+ * Sirve para algoritmos que recorren el grafo muchas veces (BFS, MDS,
+ * capas) sin buscar nodos por valor ni recorrer la lista de nodos para
+ * encontrar aristas entrantes. No se actualiza si el grafo cambia.
+ * 
+ * @param <L> Tipo genérico de los valores de los nodos
+ */
+public class IndiceGrafo<L> {
+    private final Nodo<L>[] nodos;
+    private final Map<Nodo<L>, Integer> ids;
+    private final int[][] salientes;
+    private final int[][] entrantes;
+    private final int numAristas;
+
+    /**
+     * Construye el índice a partir del estado actual del grafo
+     * 
+     * @param grafo Grafo a indexar
+     */
+    public IndiceGrafo(GrafoDireccional<L> grafo) {
+        this(grafo.getNodos());
+    }
+
+    /**
+     * Construye el índice sobre una lista de nodos. Las aristas hacia nodos
+     * que no están en la lista se ignoran.
+     * 
+     * @param lista Nodos a indexar
+     */
+    @SuppressWarnings("unchecked")
+    public IndiceGrafo(List<Nodo<L>> lista) {
+        int n = lista.size();
+        this.nodos = (Nodo<L>[]) lista.toArray(new Nodo<?>[0]);
+        this.ids = new IdentityHashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            ids.put(nodos[i], i);
+        }
+
+        // Primera pasada: aristas salientes y grado de entrada
+        this.salientes = new int[n][];
+        int[] gradoEntrada = new int[n];
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            Nodo<L> nodo = nodos[i];
+            int[] destinos = new int[nodo.getGrado()];
+            int k = 0;
+            for (int v = 0; v < destinos.length; v++) {
+                Integer j = ids.get(nodo.getVecino(v));
+                if (j != null) {
+                    destinos[k++] = j;
+                    gradoEntrada[j]++;
+                }
+            }
+            salientes[i] = k == destinos.length ? destinos : Arrays.copyOf(destinos, k);
+            total += k;
+        }
+        this.numAristas = total;
+
+        // Segunda pasada: aristas entrantes
+        this.entrantes = new int[n][];
+        for (int j = 0; j < n; j++) {
+            entrantes[j] = new int[gradoEntrada[j]];
+        }
+        int[] llenado = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int j : salientes[i]) {
+                entrantes[j][llenado[j]++] = i;
+            }
+        }
+    }
+
+    /**
+     * @return Cantidad de nodos indexados
+     */
+    public int size() {
+        return nodos.length;
+    }
+
+    /**
+     * @return Cantidad de aristas entre nodos indexados
+     */
+    public int getNumAristas() {
+        return numAristas;
+    }
+
+    /**
+     * Obtiene el nodo con un identificador dado
+     * 
+     * @param id Identificador del nodo (0..size-1)
+     * @return El nodo
+     */
+    public Nodo<L> getNodo(int id) {
+        return nodos[id];
+    }
+
+    /**
+     * Obtiene el identificador de un nodo
+     * 
+     * @param nodo Nodo a buscar
+     * @return Identificador, o -1 si el nodo no está indexado
+     */
+    public int getId(Nodo<L> nodo) {
+        Integer id = ids.get(nodo);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id Identificador del nodo
+     * @return Identificadores de los destinos de sus aristas (no modificar)
+     */
+    public int[] getSalientes(int id) {
+        return salientes[id];
+    }
+
+    /**
+     * @param id Identificador del nodo
+     * @return Identificadores de los orígenes de aristas hacia él (no modificar)
+     */
+    public int[] getEntrantes(int id) {
+        return entrantes[id];
+    }
+}
@@ -0,0 +1,256 @@
+package com.espoch.grafo.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Jerarquía de agrupamientos de un grafo para navegar grafos enormes por
+ * niveles. El nivel 0 son los nodos originales; el nivel 1 condensa las
+ * componentes fuertemente conexas (los ciclos quedan en un solo
+ * supernodo) si ninguna es gigante, y cada nivel siguiente agrupa el
+ * anterior por propagación de etiquetas sobre las aristas agregadas. Si
+ * la propagación no reduce o lo junta casi todo, el nivel se arma por
+ * cercanía en una grilla sobre las posiciones actuales. Se sigue hasta
+ * llegar a la cantidad de supernodos objetivo o hasta que ya no se reduce.
+ * 
+ * Cada elemento de un nivel se identifica con un entero 0..n-1 de ese
+ * nivel. Se calcula una sola vez; no se actualiza si el grafo cambia.
+ * 
+ * @param <L> Tipo genérico de los valores de los nodos
+ */
+public class JerarquiaClusters<L> {
+    public static final int MAX_NIVELES = 8;
+    private static final int RONDAS_PROPAGACION = 20;
+    private static final double REDUCCION_MINIMA = 0.9; // Un nivel debe tener < 90% de los elementos
+    private static final double MAX_COMPONENTE = 0.1; // Fracción máxima de nodos en una componente condensada
+
+    private final IndiceGrafo<L> indice;
+    private final List<int[]> padres = new ArrayList<>(); // padres.get(k)[i]: elemento del nivel k+1
+    private final List<int[]> tamaños = new ArrayList<>(); // Nodos originales por elemento
+    private final List<int[]> inicioHijos = new ArrayList<>(); // CSR de hijos (nivel >= 1)
+    private final List<int[]> hijos = new ArrayList<>();
+
+    /**
+     * Construye la jerarquía
+     * 
+     * @param grafo    Grafo a agrupar
+     * @param objetivo Cantidad de supernodos a la que se intenta llegar en el
+     *                 nivel superior
+     * @param seed     Semilla de la propagación de etiquetas
+     */
+    public JerarquiaClusters(GrafoDireccional<L> grafo, int objetivo, long seed) {
+        this.indice = new IndiceGrafo<>(grafo);
+        int n = indice.size();
+
+        int[] unos = new int[n];
+        Arrays.fill(unos, 1);
+        tamaños.add(unos);
+        inicioHijos.add(null);
+        hijos.add(null);
+
+        // rep[u]: elemento del nivel actual que contiene al nodo original u
+        int[] rep = new int[n];
+        for (int u = 0; u < n; u++) {
+            rep[u] = u;
+        }
+        int actual = n;
+
+        // Nivel 1: condensación de componentes fuertemente conexas
+        int[] componentes = ComponentesFuertes.calcular(indice);
+        int numComponentes = cantidad(componentes);
+        int[] porComponente = new int[numComponentes];
+        int mayor = 0;
+        for (int c : componentes) {
+            mayor = Math.max(mayor, ++porComponente[c]);
+        }
+        if (numComponentes < actual && mayor <= Math.max(1, n * MAX_COMPONENTE)) {
+            agregarNivel(componentes, numComponentes);
+            rep = componentes.clone();
+            actual = numComponentes;
+        }
+
+        // Niveles siguientes: comunidades sobre las aristas agregadas
+        while (actual > objetivo && tamaños.size() < MAX_NIVELES) {
+            MapaLongInt pares = new MapaLongInt(Math.max(16, indice.getNumAristas()));
+            for (int u = 0; u < n; u++) {
+                for (int v : indice.getSalientes(u)) {
+                    long a = rep[u];
+                    long b = rep[v];
+                    if (a != b)
+                        pares.increment(a < b ? (a << 32) | b : (b << 32) | a);
+                }
+            }
+            int[] etiquetas = null;
+            int numEtiquetas = actual;
+            if (pares.size() > 0) {
+                // Grafo no dirigido con pesos en CSR
+                int[] inicio = new int[actual + 1];
+                for (int slot = 0; slot < pares.capacity(); slot++) {
+                    if (pares.isUsed(slot)) {
+                        long clave = pares.keyAt(slot);
+                        inicio[(int) (clave >>> 32) + 1]++;
+                        inicio[(int) clave + 1]++;
+                    }
+                }
+                for (int i = 0; i < actual; i++) {
+                    inicio[i + 1] += inicio[i];
+                }
+                int[] llenado = Arrays.copyOf(inicio, actual);
+                int[] vecinos = new int[inicio[actual]];
+                int[] pesos = new int[inicio[actual]];
+                for (int slot = 0; slot < pares.capacity(); slot++) {
+                    if (pares.isUsed(slot)) {
+                        long clave = pares.keyAt(slot);
+                        int a = (int) (clave >>> 32);
+                        int b = (int) clave;
+                        int peso = pares.valueAt(slot);
+                        vecinos[llenado[a]] = b;
+                        pesos[llenado[a]++] = peso;
+                        vecinos[llenado[b]] = a;
+                        pesos[llenado[b]++] = peso;
+                    }
+                }
+
+                etiquetas = Comunidades.propagarEtiquetas(actual, inicio, vecinos, pesos,
+                        RONDAS_PROPAGACION, seed + tamaños.size());
+                numEtiquetas = cantidad(etiquetas);
+            }
+
+            // Sin aristas entre elementos, con poca reducción o con todo en
+            // pocas comunidades gigantes: agrupar por cercanía
+            if (numEtiquetas > actual * REDUCCION_MINIMA || numEtiquetas < Math.max(2, objetivo / 4)) {
+                etiquetas = agruparEspacialmente(rep, actual, objetivo);
+                numEtiquetas = cantidad(etiquetas);
+                if (numEtiquetas >= actual)
+                    break;
+            }
+
+            agregarNivel(etiquetas, numEtiquetas);
+            for (int u = 0; u < n; u++) {
+                rep[u] = etiquetas[rep[u]];
+            }
+            actual = numEtiquetas;
+        }
+    }
+
+    /**
+     * Agrega un nivel a partir del elemento padre de cada elemento del
+     * nivel superior actual
+     */
+    private void agregarNivel(int[] padre, int cantidad) {
+        int[] tamañosHijos = tamaños.get(tamaños.size() - 1);
+        int[] tamaño = new int[cantidad];
+        int[] inicio = new int[cantidad + 1];
+        for (int i = 0; i < padre.length; i++) {
+            tamaño[padre[i]] += tamañosHijos[i];
+            inicio[padre[i] + 1]++;
+        }
+        for (int c = 0; c < cantidad; c++) {
+            inicio[c + 1] += inicio[c];
+        }
+        int[] llenado = Arrays.copyOf(inicio, cantidad);
+        int[] lista = new int[padre.length];
+        for (int i = 0; i < padre.length; i++) {
+            lista[llenado[padre[i]]++] = i;
+        }
+
+        padres.add(padre);
+        tamaños.add(tamaño);
+        inicioHijos.add(inicio);
+        hijos.add(lista);
+    }
+
+    /**
+     * Agrupa los elementos del nivel actual en una grilla de a lo sumo
+     * {@code objetivo} celdas según el centroide de sus nodos originales
+     */
+    private int[] agruparEspacialmente(int[] rep, int actual, int objetivo) {
+        double[] sumaX = new double[actual];
+        double[] sumaY = new double[actual];
+        int[] cantidad = new int[actual];
+        for (int u = 0; u < rep.length; u++) {
+            Nodo<L> nodo = indice.getNodo(u);
+            sumaX[rep[u]] += nodo.getX();
+            sumaY[rep[u]] += nodo.getY();
+            cantidad[rep[u]]++;
+        }
+
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < actual; i++) {
+            sumaX[i] /= cantidad[i];
+            sumaY[i] /= cantidad[i];
+            minX = Math.min(minX, sumaX[i]);
+            minY = Math.min(minY, sumaY[i]);
+            maxX = Math.max(maxX, sumaX[i]);
+            maxY = Math.max(maxY, sumaY[i]);
+        }
+
+        int lado = Math.max(1, (int) Math.sqrt(objetivo));
+        double anchoCelda = Math.max(1e-9, (maxX - minX) / lado);
+        double altoCelda = Math.max(1e-9, (maxY - minY) / lado);
+        int[] celda = new int[actual];
+        for (int i = 0; i < actual; i++) {
+            int cx = Math.min(lado - 1, (int) ((sumaX[i] - minX) / anchoCelda));
+            int cy = Math.min(lado - 1, (int) ((sumaY[i] - minY) / altoCelda));
+            celda[i] = cy * lado + cx;
+        }
+        return Comunidades.compactar(celda);
+    }
+
+    private static int cantidad(int[] etiquetas) {
+        int max = -1;
+        for (int e : etiquetas) {
+            max = Math.max(max, e);
+        }
+        return max + 1;
+    }
+
+    /**
+     * @return Índice de los nodos originales (nivel 0)
+     */
+    public IndiceGrafo<L> getIndice() {
+        return indice;
+    }
+
+    /**
+     * @return Cantidad de niveles, incluyendo el nivel 0
+     */
+    public int getNumNiveles() {
+        return tamaños.size();
+    }
+
+    /**
+     * @return Cantidad de elementos de un nivel
+     */
+    public int getNumElementos(int nivel) {
+        return tamaños.get(nivel).length;
+    }
+
+    /**
+     * @return Cantidad de nodos originales que contiene un elemento
+     */
+    public int getTamaño(int nivel, int id) {
+        return tamaños.get(nivel)[id];
+    }
+
+    /**
+     * @return Elemento del nivel siguiente que contiene a este, o -1 si es
+     *         del nivel superior
+     */
+    public int getPadre(int nivel, int id) {
+        return nivel < padres.size() ? padres.get(nivel)[id] : -1;
+    }
+
+    /**
+     * @return Elementos del nivel anterior que forman este (vacío en el
+     *         nivel 0)
+     */
+    public int[] getHijos(int nivel, int id) {
+        if (nivel == 0)
+            return new int[0];
+        int[] inicio = inicioHijos.get(nivel);
+        return Arrays.copyOfRange(hijos.get(nivel), inicio[id], inicio[id + 1]);
+    }
+}
@@ -0,0 +1,135 @@
+package com.espoch.grafo.model;
+
+import java.util.Arrays;
+
+/**
+ * Tabla hash de direccionamiento abierto de claves long a valores int, sin
+ * objetos por entrada. Pensada para contar o indexar millones de pares
+ * (aristas, celdas) sin el costo de boxing de un HashMap. Las claves deben
+ * ser no negativas.
+ */
+public class MapaLongInt {
+    private static final long VACIO = -1L;
+
+    private long[] claves;
+    private int[] valores;
+    private int size;
+
+    /**
+     * Constructor
+     * 
+     * @param esperados Cantidad aproximada de entradas
+     */
+    public MapaLongInt(int esperados) {
+        int capacidad = Integer.highestOneBit(Math.max(4, esperados * 2) - 1) << 1;
+        claves = new long[capacidad];
+        valores = new int[capacidad];
+        Arrays.fill(claves, VACIO);
+    }
+
+    /**
+     * @return Valor asociado a la clave, o -1 si no existe
+     */
+    public int get(long clave) {
+        int mask = claves.length - 1;
+        for (int i = mezclar(clave) & mask;; i = (i + 1) & mask) {
+            if (claves[i] == clave)
+                return valores[i];
+            if (claves[i] == VACIO)
+                return -1;
+        }
+    }
+
+    /**
+     * Asocia un valor a la clave
+     */
+    public void put(long clave, int valor) {
+        int slot = slotPara(clave);
+        if (claves[slot] == VACIO) {
+            claves[slot] = clave;
+            size++;
+        }
+        valores[slot] = valor;
+        crecerSiHaceFalta();
+    }
+
+    /**
+     * Suma uno al valor de la clave (empieza en 1 si no existía)
+     */
+    public void increment(long clave) {
+        add(clave, 1);
+    }
+
+    /**
+     * Suma una cantidad al valor de la clave (empieza en 0 si no existía)
+     */
+    public void add(long clave, int cantidad) {
+        int slot = slotPara(clave);
+        if (claves[slot] == VACIO) {
+            claves[slot] = clave;
+            valores[slot] = cantidad;
+            size++;
+            crecerSiHaceFalta();
+        } else {
+            valores[slot] += cantidad;
+        }
+    }
+
+    /**
+     * @return Cantidad de entradas
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Cantidad de slots (para recorrer con {@link #isUsed})
+     */
+    public int capacity() {
+        return claves.length;
+    }
+
+    public boolean isUsed(int slot) {
+        return claves[slot] != VACIO;
+    }
+
+    public long keyAt(int slot) {
+        return claves[slot];
+    }
+
+    public int valueAt(int slot) {
+        return valores[slot];
+    }
+
+    private int slotPara(long clave) {
+        int mask = claves.length - 1;
+        int i = mezclar(clave) & mask;
+        while (claves[i] != VACIO && claves[i] != clave) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void crecerSiHaceFalta() {
+        if (size * 2 <= claves.length)
+            return;
+
+        long[] viejasClaves = claves;
+        int[] viejosValores = valores;
+        claves = new long[viejasClaves.length * 2];
+        valores = new int[viejasClaves.length * 2];
+        Arrays.fill(claves, VACIO);
+        for (int i = 0; i < viejasClaves.length; i++) {
+            if (viejasClaves[i] != VACIO) {
+                int slot = slotPara(viejasClaves[i]);
+                claves[slot] = viejasClaves[i];
+                valores[slot] = viejosValores[i];
+            }
+        }
+    }
+
+    private static int mezclar(long clave) {
+        long h = clave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -1,48 +1,95 @@
 package com.espoch.grafo.model;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
 
 /**
  * Representa un nodo en un grafo direccional.
+ *
+ * El nodo está pensado para grafos de millones de nodos: la adyacencia es
+ * un arreglo que se crea con la primera arista y crece de a poco (ver
+ * {@link #compactarVecinos()}), la velocidad del layout se guarda en float y
+ * el grado comparte un int con la marca de nodo fijo. Ocupa 48 bytes más
+ * 4 por arista.
  * 
  * @param <L> Tipo genérico del valor almacenado en el nodo
  */
 public class Nodo<L> {
+    private static final int CAPACIDAD_INICIAL = 2;
+    private static final int FIJO = 1 << 31; // Bit de estado: fijado por el usuario
+    private static final int GRADO = ~FIJO;
+
+    // Rectángulo de la posición inicial cuando no se indica una
+    static final double INICIO_X = 200;
+    static final double INICIO_Y = 150;
+    static final double INICIO_ANCHO = 400;
+    static final double INICIO_ALTO = 300;
+
     private L valor;
-    private List<Nodo<L>> vecinos; // Lista de adyacencia (nodos destino)
+    private Nodo<L>[] vecinos; // Adyacencia (nodos destino); null hasta la primera arista
+    private int estado; // Grado en los bits bajos y FIJO en el alto
 
     // Propiedades para visualización
     private double x;
     private double y;
 
-    // Propiedades para el algoritmo de layout
-    private double vx; // Velocidad en X
-    private double vy; // Velocidad en Y
+    // Propiedades para el algoritmo de layout (solo estado de la simulación)
+    private float vx; // Velocidad en X
+    private float vy; // Velocidad en Y
 
     /**
-     * Constructor del nodo
+     * Constructor del nodo. La posición inicial es pseudoaleatoria pero
+     * depende solo del valor, así que las mismas operaciones dan siempre el
+     * mismo layout.
      * 
      * @param valor Valor a almacenar en el nodo
      */
     public Nodo(L valor) {
+        this(valor, new SplittableRandom(Objects.hashCode(valor)));
+    }
+
+    private Nodo(L valor, SplittableRandom random) {
+        this(valor, INICIO_X + random.nextDouble() * INICIO_ANCHO, INICIO_Y + random.nextDouble() * INICIO_ALTO);
+    }
+
+    /**
+     * Constructor del nodo con posición inicial conocida
+     * 
+     * @param valor Valor a almacenar en el nodo
+     * @param x     Posición inicial en X
+     * @param y     Posición inicial en Y
+     */
+    public Nodo(L valor, double x, double y) {
         this.valor = valor;
-        this.vecinos = new ArrayList<>();
-        this.x = Math.random() * 400 + 200; // Posición inicial aleatoria
-        this.y = Math.random() * 300 + 150;
-        this.vx = 0;
-        this.vy = 0;
+        this.x = x;
+        this.y = y;
     }
 
     /**
      * Agrega un vecino (arista direccional) desde este nodo
      * 
      * @param vecino Nodo destino de la arista
+     * @return true si se agregó, false si la arista ya existía
      */
-    public void addVecino(Nodo<L> vecino) {
-        if (!vecinos.contains(vecino)) {
-            vecinos.add(vecino);
+    @SuppressWarnings("unchecked")
+    public boolean addVecino(Nodo<L> vecino) {
+        int grado = getGrado();
+        if (indiceDe(vecino, grado) >= 0) {
+            return false;
         }
+
+        if (vecinos == null) {
+            vecinos = (Nodo<L>[]) new Nodo<?>[CAPACIDAD_INICIAL];
+        } else if (grado == vecinos.length) {
+            vecinos = Arrays.copyOf(vecinos, grado + (grado >> 1) + 1);
+        }
+        vecinos[grado] = vecino;
+        estado++;
+        return true;
     }
 
     /**
@@ -52,16 +99,119 @@ public class Nodo<L> {
      * @return true si se eliminó, false si no existía
      */
     public boolean removeVecino(Nodo<L> vecino) {
-        return vecinos.remove(vecino);
+        int grado = getGrado();
+        int i = indiceDe(vecino, grado);
+        if (i < 0) {
+            return false;
+        }
+
+        System.arraycopy(vecinos, i + 1, vecinos, i, grado - i - 1);
+        vecinos[grado - 1] = null;
+        estado--;
+        if (grado == 1) {
+            vecinos = null;
+        }
+        return true;
+    }
+
+    private int indiceDe(Nodo<L> vecino, int grado) {
+        // Desde el final: las aristas recién agregadas se quitan primero
+        for (int i = grado - 1; i >= 0; i--) {
+            if (vecinos[i] == vecino) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
-     * Obtiene la lista de vecinos (nodos destino)
+     * Obtiene la lista de vecinos (nodos destino). Es una vista de solo
+     * lectura que refleja los cambios posteriores; para recorrer en bucles
+     * calientes conviene {@link #getGrado()} y {@link #getVecino(int)}.
      * 
      * @return Lista de nodos adyacentes
      */
     public List<Nodo<L>> getVecinos() {
-        return vecinos;
+        return new Vecinos();
+    }
+
+    /**
+     * @param vecino Posible destino
+     * @return true si hay una arista de este nodo a {@code vecino} (sin
+     *         crear la vista de {@link #getVecinos()})
+     */
+    public boolean tieneVecino(Nodo<?> vecino) {
+        for (int i = getGrado() - 1; i >= 0; i--) {
+            if (vecinos[i] == vecino) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Cantidad de aristas salientes
+     */
+    public int getGrado() {
+        return estado & GRADO;
+    }
+
+    /**
+     * @param i Índice entre 0 y {@link #getGrado()} - 1
+     * @return Destino de la i-ésima arista saliente
+     */
+    public Nodo<L> getVecino(int i) {
+        if (i < 0 || i >= getGrado()) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return vecinos[i];
+    }
+
+    /**
+     * Ajusta el arreglo de adyacencia al grado actual (después de una carga
+     * masiva, cuando ya no se esperan más aristas)
+     */
+    public void compactarVecinos() {
+        int grado = getGrado();
+        if (vecinos != null && vecinos.length > grado) {
+            vecinos = Arrays.copyOf(vecinos, grado);
+        }
+    }
+
+    /**
+     * Reemplaza la adyacencia sin revisar repetidos (carga masiva desde
+     * {@link GrafoDireccional#desdeAristas}, que ya los quitó). El arreglo
+     * pasa a ser del nodo.
+     */
+    void setVecinos(Nodo<L>[] nuevos) {
+        vecinos = nuevos.length == 0 ? null : nuevos;
+        estado = (estado & FIJO) | nuevos.length;
+    }
+
+    /**
+     * Vista de la adyacencia como lista
+     */
+    private final class Vecinos extends AbstractList<Nodo<L>> implements RandomAccess {
+        @Override
+        public Nodo<L> get(int i) {
+            return getVecino(i);
+        }
+
+        @Override
+        public int size() {
+            return getGrado();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Nodo<?> nodo && indexOf(nodo) >= 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int indexOf(Object o) {
+            return o instanceof Nodo<?> ? indiceDe((Nodo<L>) o, getGrado()) : -1;
+        }
     }
 
     /**
@@ -105,7 +255,7 @@ public class Nodo<L> {
     }
 
     public void setVx(double vx) {
-        this.vx = vx;
+        this.vx = (float) vx;
     }
 
     public double getVy() {
@@ -113,7 +263,18 @@ public class Nodo<L> {
     }
 
     public void setVy(double vy) {
-        this.vy = vy;
+        this.vy = (float) vy;
+    }
+
+    /**
+     * @return true si el layout no debe mover el nodo
+     */
+    public boolean isFijo() {
+        return (estado & FIJO) != 0;
+    }
+
+    public void setFijo(boolean fijo) {
+        estado = fijo ? estado | FIJO : estado & GRADO;
     }
 
     @Override
@@ -0,0 +1,240 @@
+package com.espoch.grafo.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Diferencia mínima entre dos versiones de un grafo: nodos y aristas a
+ * agregar y a eliminar, identificados por valor. Se calcula con
+ * {@link #calcular} (o se arma operación por operación para una edición)
+ * y se aplica en el lugar con
+ * {@link GrafoDireccional#aplicar}, de modo que los nodos que no cambian
+ * conservan su posición y recargar un grafo que cambió poco cuesta en
+ * proporción al cambio.
+ *
+ * Las aristas que tocan un nodo eliminado figuran como aristas eliminadas,
+ * así que aplicar el parche no necesita buscar aristas entrantes.
+ *
+ * @param <L> Tipo de los valores de los nodos
+ */
+public class ParcheGrafo<L> {
+    private static final int LINEAR_DEGREE = 16; // Hasta este grado se compara sin tabla hash
+
+    /**
+     * Arista identificada por los valores de sus extremos
+     */
+    public record Arista<L>(L origen, L destino) {
+    }
+
+    private final List<L> nodosAgregados = new ArrayList<>();
+    private final List<L> nodosEliminados = new ArrayList<>();
+    private final List<Arista<L>> aristasAgregadas = new ArrayList<>();
+    private final List<Arista<L>> aristasEliminadas = new ArrayList<>();
+
+    /**
+     * Crea un parche vacío, para completar con {@link #agregarNodo},
+     * {@link #agregarArista}, etc.
+     */
+    public ParcheGrafo() {
+    }
+
+    /**
+     * Parche que elimina un nodo junto con todas sus aristas, salientes y
+     * entrantes. Recorre las adyacencias del grafo para encontrar las
+     * entrantes (O(E)).
+     *
+     * @param grafo Grafo que contiene el nodo
+     * @param valor Valor del nodo a eliminar
+     * @return El parche, o null si el nodo no existe
+     */
+    public static <L> ParcheGrafo<L> eliminacion(GrafoDireccional<L> grafo, L valor) {
+        Nodo<L> nodo = grafo.encontrarNodo(valor);
+        if (nodo == null) {
+            return null;
+        }
+
+        ParcheGrafo<L> parche = new ParcheGrafo<>();
+        for (Nodo<L> otro : grafo.getNodos()) {
+            for (int i = 0; otro != nodo && i < otro.getGrado(); i++) {
+                if (otro.getVecino(i) == nodo) {
+                    parche.eliminarArista(otro.getValue(), valor);
+                    break;
+                }
+            }
+        }
+        for (int i = 0; i < nodo.getGrado(); i++) {
+            parche.eliminarArista(valor, nodo.getVecino(i).getValue());
+        }
+        parche.eliminarNodo(valor);
+        return parche;
+    }
+
+    /**
+     * Parche que deja el grafo vacío
+     *
+     * @param grafo Grafo a vaciar
+     * @return Parche con todos los nodos y aristas como eliminados
+     */
+    public static <L> ParcheGrafo<L> vaciado(GrafoDireccional<L> grafo) {
+        ParcheGrafo<L> parche = new ParcheGrafo<>();
+        for (Nodo<L> nodo : grafo.getNodos()) {
+            for (int i = 0; i < nodo.getGrado(); i++) {
+                parche.eliminarArista(nodo.getValue(), nodo.getVecino(i).getValue());
+            }
+            parche.eliminarNodo(nodo.getValue());
+        }
+        return parche;
+    }
+
+    /**
+     * Calcula el parche que lleva de {@code actual} a {@code nuevo}. Recorre
+     * ambos grafos una vez (O(V + E)) buscando nodos por valor en el índice
+     * hash de cada grafo; las adyacencias de grado alto se comparan con un
+     * conjunto hash de valores.
+     *
+     * @param actual Grafo de partida
+     * @param nuevo  Versión nueva del grafo
+     * @return Parche a aplicar sobre {@code actual}
+     */
+    public static <L> ParcheGrafo<L> calcular(GrafoDireccional<L> actual, GrafoDireccional<L> nuevo) {
+        ParcheGrafo<L> parche = new ParcheGrafo<>();
+
+        for (Nodo<L> nodo : actual.getNodos()) {
+            Nodo<L> otro = nuevo.encontrarNodo(nodo.getValue());
+            if (otro == null) {
+                parche.nodosEliminados.add(nodo.getValue());
+            }
+            // Aristas de actual que no están en nuevo (incluye las de nodos eliminados)
+            diferencia(nodo, otro, parche.aristasEliminadas);
+        }
+
+        for (Nodo<L> nodo : nuevo.getNodos()) {
+            Nodo<L> otro = actual.encontrarNodo(nodo.getValue());
+            if (otro == null) {
+                parche.nodosAgregados.add(nodo.getValue());
+            }
+            diferencia(nodo, otro, parche.aristasAgregadas);
+        }
+        return parche;
+    }
+
+    /**
+     * Agrega a {@code salida} las aristas salientes de {@code nodo} cuyo
+     * destino no es vecino de {@code otro} (comparando por valor)
+     *
+     * @param otro El mismo nodo en el otro grafo, o null si no existe
+     */
+    private static <L> void diferencia(Nodo<L> nodo, Nodo<L> otro, List<Arista<L>> salida) {
+        int grado = nodo.getGrado();
+        if (grado == 0) {
+            return;
+        }
+        L origen = nodo.getValue();
+        int gradoOtro = otro == null ? 0 : otro.getGrado();
+
+        Set<L> valoresOtro = null;
+        if (gradoOtro > LINEAR_DEGREE && grado > 1) {
+            valoresOtro = new HashSet<>(gradoOtro * 2);
+            for (int i = 0; i < gradoOtro; i++) {
+                valoresOtro.add(otro.getVecino(i).getValue());
+            }
+        }
+
+        for (int i = 0; i < grado; i++) {
+            L destino = nodo.getVecino(i).getValue();
+            boolean esta;
+            if (gradoOtro == 0) {
+                esta = false;
+            } else if (valoresOtro != null) {
+                esta = valoresOtro.contains(destino);
+            } else {
+                esta = contieneValor(otro, gradoOtro, destino);
+            }
+            if (!esta) {
+                salida.add(new Arista<>(origen, destino));
+            }
+        }
+    }
+
+    private static <L> boolean contieneValor(Nodo<L> nodo, int grado, L valor) {
+        for (int i = 0; i < grado; i++) {
+            if (nodo.getVecino(i).getValue().equals(valor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public ParcheGrafo<L> agregarNodo(L valor) {
+        nodosAgregados.add(valor);
+        return this;
+    }
+
+    public ParcheGrafo<L> eliminarNodo(L valor) {
+        nodosEliminados.add(valor);
+        return this;
+    }
+
+    public ParcheGrafo<L> agregarArista(L origen, L destino) {
+        aristasAgregadas.add(new Arista<>(origen, destino));
+        return this;
+    }
+
+    public ParcheGrafo<L> eliminarArista(L origen, L destino) {
+        aristasEliminadas.add(new Arista<>(origen, destino));
+        return this;
+    }
+
+    /**
+     * @return Parche que deshace a este (las posiciones de los nodos
+     *         eliminados no se guardan aquí, ver {@link HistorialGrafo})
+     */
+    public ParcheGrafo<L> invertir() {
+        ParcheGrafo<L> inverso = new ParcheGrafo<>();
+        inverso.nodosAgregados.addAll(nodosEliminados);
+        inverso.nodosEliminados.addAll(nodosAgregados);
+        inverso.aristasAgregadas.addAll(aristasEliminadas);
+        inverso.aristasEliminadas.addAll(aristasAgregadas);
+        return inverso;
+    }
+
+    public List<L> getNodosAgregados() {
+        return Collections.unmodifiableList(nodosAgregados);
+    }
+
+    public List<L> getNodosEliminados() {
+        return Collections.unmodifiableList(nodosEliminados);
+    }
+
+    public List<Arista<L>> getAristasAgregadas() {
+        return Collections.unmodifiableList(aristasAgregadas);
+    }
+
+    public List<Arista<L>> getAristasEliminadas() {
+        return Collections.unmodifiableList(aristasEliminadas);
+    }
+
+    /**
+     * @return Cantidad total de operaciones del parche
+     */
+    public int size() {
+        return nodosAgregados.size() + nodosEliminados.size() + aristasAgregadas.size()
+                + aristasEliminadas.size();
+    }
+
+    /**
+     * @return true si los dos grafos comparados eran iguales
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ParcheGrafo{+" + nodosAgregados.size() + " -" + nodosEliminados.size() + " nodos, +"
+                + aristasAgregadas.size() + " -" + aristasEliminadas.size() + " aristas}";
+    }
+}
@@ -0,0 +1,296 @@
+package com.espoch.grafo.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modo servidor sin interfaz: expone un {@link GraphService} por HTTP con
+ * el servidor embebido del JDK, atendiendo cada pedido en un hilo virtual.
+ *
+ * <ul>
+ * <li>{@code POST /mutaciones}: lote de mutaciones en texto, una por línea
+ * (ver {@link GraphService#aplicarLote})</li>
+ * <li>{@code GET /grafo}: resumen en JSON</li>
+ * <li>{@code GET /nodos/{valor}}: un nodo en JSON</li>
+ * <li>{@code GET /posiciones}: todas las posiciones, {@code valor x y} por
+ * línea</li>
+ * <li>{@code GET /stream}: Server-Sent Events; primero un evento
+ * {@code completo} con todas las posiciones y luego un {@code delta} por
+ * frame con los nodos que se movieron</li>
+ * </ul>
+ *
+ * Uso: {@code java -cp ... com.espoch.grafo.server.GraphServer [--puerto n]
+ * [--host direccion] [lista-de-aristas]}. Por defecto solo escucha en la
+ * interfaz local; para exponerlo hay que indicar la dirección con
+ * {@code --host} (p. ej. {@code 0.0.0.0}).
+ */
+public class GraphServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 256;
+    private static final long FRAME_NANOS = 33_000_000L; // ~30 pasos de simulación por segundo
+    private static final int MAX_BODY_BYTES = 16 << 20;
+    private static final int SUBSCRIBER_QUEUE = 16; // Frames pendientes por cliente del stream
+    private static final int HEARTBEAT_SECONDS = 15;
+    private static final String TEXTO = "text/plain; charset=utf-8";
+    private static final String JSON = "application/json; charset=utf-8";
+
+    static {
+        // El servidor del JDK escribe cabeceras y cuerpo por separado; con Nagle
+        // activo cada respuesta espera el ACK diferido del cliente (~40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null)
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    /**
+     * Cliente del stream. Si se atrasa más de {@value #SUBSCRIBER_QUEUE}
+     * frames se descartan sus pendientes y recibe una lista completa.
+     */
+    private static final class Suscriptor {
+        final BlockingQueue<String> pendientes = new ArrayBlockingQueue<>(SUBSCRIBER_QUEUE);
+        volatile boolean necesitaCompleto;
+    }
+
+    private final GraphService servicio;
+    private final HttpServer http;
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+    private Thread simulacion;
+    private volatile boolean detenido;
+
+    /**
+     * Constructor
+     *
+     * @param servicio  Grafo a exponer
+     * @param direccion Dirección y puerto (puerto 0 = uno libre)
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public GraphServer(GraphService servicio, InetSocketAddress direccion) throws IOException {
+        this.servicio = servicio;
+        this.http = HttpServer.create(direccion, BACKLOG);
+        http.setExecutor(hilos);
+        http.createContext("/mutaciones", this::mutaciones);
+        http.createContext("/grafo", e -> responder(e, "GET", 200, JSON, servicio.resumenJson()));
+        http.createContext("/nodos/", this::nodo);
+        http.createContext("/posiciones", e -> responder(e, "GET", 200, TEXTO, servicio.posiciones()));
+        http.createContext("/stream", this::stream);
+    }
+
+    /**
+     * Empieza a atender pedidos y a simular
+     */
+    public void start() {
+        http.start();
+        simulacion = new Thread(this::simular, "simulacion-servidor");
+        simulacion.setDaemon(true);
+        simulacion.start();
+    }
+
+    /**
+     * Cierra las conexiones y detiene la simulación
+     */
+    public void stop() {
+        detenido = true;
+        if (simulacion != null)
+            simulacion.interrupt();
+        http.stop(0);
+        hilos.shutdownNow();
+    }
+
+    /**
+     * @return Puerto en el que escucha el servidor
+     */
+    public int getPuerto() {
+        return http.getAddress().getPort();
+    }
+
+    /**
+     * Hilo de simulación: un paso de layout por frame y el delta resultante
+     * a cada cliente del stream
+     */
+    private void simular() {
+        long anterior = System.nanoTime();
+        while (!detenido) {
+            long inicio = System.nanoTime();
+            servicio.paso((inicio - anterior) / 1e9);
+            anterior = inicio;
+
+            if (!suscriptores.isEmpty()) {
+                GraphService.Delta delta = servicio.publicarDelta();
+                if (!delta.isVacio()) {
+                    String evento = evento(delta.completo() ? "completo" : "delta", delta.version(), delta.texto());
+                    for (Suscriptor suscriptor : suscriptores) {
+                        if (!suscriptor.pendientes.offer(evento)) {
+                            suscriptor.pendientes.clear();
+                            suscriptor.necesitaCompleto = true;
+                        }
+                    }
+                }
+            }
+
+            long espera = FRAME_NANOS - (System.nanoTime() - inicio);
+            try {
+                if (espera > 0)
+                    TimeUnit.NANOSECONDS.sleep(espera);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Evento SSE: cada línea del texto va en su propio campo {@code data}
+     */
+    private static String evento(String tipo, long version, String texto) {
+        StringBuilder evento = new StringBuilder(texto.length() + texto.length() / 4 + 32);
+        evento.append("event: ").append(tipo).append("\nid: ").append(version).append('\n');
+        int inicio = 0;
+        while (inicio < texto.length()) {
+            int fin = texto.indexOf('\n', inicio);
+            if (fin < 0)
+                fin = texto.length();
+            evento.append("data: ").append(texto, inicio, fin).append('\n');
+            inicio = fin + 1;
+        }
+        if (texto.isEmpty())
+            evento.append("data:\n");
+        return evento.append('\n').toString();
+    }
+
+    private void mutaciones(HttpExchange intercambio) throws IOException {
+        if (!intercambio.getRequestMethod().equals("POST")) {
+            responder(intercambio, null, 405, TEXTO, "Use POST");
+            return;
+        }
+        byte[] cuerpo = intercambio.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+        if (cuerpo.length > MAX_BODY_BYTES) {
+            responder(intercambio, null, 413, TEXTO, "Lote de más de " + MAX_BODY_BYTES + " bytes");
+            return;
+        }
+
+        List<String> lineas = new String(cuerpo, StandardCharsets.UTF_8).lines().toList();
+        GraphService.ResultadoLote resultado = servicio.aplicarLote(lineas);
+        responder(intercambio, null, 200, JSON, "{\"aplicadas\":" + resultado.aplicadas()
+                + ",\"ignoradas\":" + resultado.ignoradas() + ",\"invalidas\":" + resultado.invalidas()
+                + ",\"nodos\":" + resultado.nodos() + ",\"aristas\":" + resultado.aristas()
+                + ",\"version\":" + resultado.version() + "}");
+    }
+
+    private void nodo(HttpExchange intercambio) throws IOException {
+        String ruta = intercambio.getRequestURI().getPath();
+        String json;
+        try {
+            json = servicio.nodoJson(Integer.parseInt(ruta.substring(ruta.lastIndexOf('/') + 1)));
+        } catch (NumberFormatException e) {
+            responder(intercambio, "GET", 400, TEXTO, "Valor de nodo inválido");
+            return;
+        }
+        if (json == null)
+            responder(intercambio, "GET", 404, TEXTO, "No existe el nodo");
+        else
+            responder(intercambio, "GET", 200, JSON, json);
+    }
+
+    /**
+     * Mantiene la conexión abierta y le escribe los eventos del stream hasta
+     * que el cliente se desconecta
+     */
+    private void stream(HttpExchange intercambio) throws IOException {
+        if (!intercambio.getRequestMethod().equals("GET")) {
+            responder(intercambio, null, 405, TEXTO, "Use GET");
+            return;
+        }
+        intercambio.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        intercambio.getResponseHeaders().set("Cache-Control", "no-cache");
+        intercambio.sendResponseHeaders(200, 0);
+
+        Suscriptor suscriptor = new Suscriptor();
+        suscriptor.necesitaCompleto = true;
+        suscriptores.add(suscriptor);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            while (!detenido) {
+                String evento;
+                if (suscriptor.necesitaCompleto) {
+                    suscriptor.necesitaCompleto = false;
+                    evento = evento("completo", servicio.getVersion(), servicio.posiciones());
+                } else {
+                    evento = suscriptor.pendientes.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                    if (evento == null)
+                        evento = ": latido\n\n"; // Comentario: detecta clientes desconectados
+                }
+                salida.write(evento.getBytes(StandardCharsets.UTF_8));
+                salida.flush();
+            }
+        } catch (IOException e) {
+            // El cliente cerró la conexión
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            suscriptores.remove(suscriptor);
+            intercambio.close();
+        }
+    }
+
+    /**
+     * Envía una respuesta completa
+     *
+     * @param metodo Método esperado (null = ya verificado)
+     */
+    private static void responder(HttpExchange intercambio, String metodo, int estado, String tipo, String texto)
+            throws IOException {
+        try (intercambio) {
+            intercambio.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            if (metodo != null && !intercambio.getRequestMethod().equals(metodo)) {
+                estado = 405;
+                tipo = TEXTO;
+                texto = "Use " + metodo;
+            }
+            byte[] cuerpo = texto.getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().set("Content-Type", tipo);
+            intercambio.sendResponseHeaders(estado, cuerpo.length == 0 ? -1 : cuerpo.length);
+            if (cuerpo.length > 0)
+                intercambio.getResponseBody().write(cuerpo);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int puerto = DEFAULT_PORT;
+        InetAddress host = InetAddress.getLoopbackAddress();
+        Path archivo = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--puerto"))
+                puerto = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--host"))
+                host = InetAddress.getByName(args[++i]);
+            else
+                archivo = Path.of(args[i]);
+        }
+
+        GraphService servicio = new GraphService();
+        GraphServer servidor = new GraphServer(servicio, new InetSocketAddress(host, puerto));
+        servidor.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(servidor::stop));
+        System.out.println("Escuchando en http://" + host.getHostAddress() + ":" + servidor.getPuerto());
+
+        if (archivo != null) {
+            long inicio = System.nanoTime();
+            int nodos = servicio.cargar(archivo);
+            System.out.printf("Cargados %d nodos de %s en %.1f s%n", nodos, archivo,
+                    (System.nanoTime() - inicio) / 1e9);
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package com.espoch.grafo.server;
+
+import com.espoch.grafo.load.ProgressiveLoader;
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.IndiceGrafo;
+import com.espoch.grafo.model.Nodo;
+import com.espoch.grafo.view.ForceDirectedLayout;
+import com.espoch.grafo.view.LayoutStats;
+import com.espoch.grafo.view.NeighborCentroidPlacement;
+import com.espoch.grafo.view.PivotMdsPlacement;
+import com.espoch.grafo.view.SeededRandomPlacement;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Grafo y layout compartidos por el servidor. Todo acceso pasa por un
+ * único candado: los lotes de mutaciones, las consultas y el paso de
+ * simulación se ejecutan de a uno, así que el modelo (que no es seguro
+ * para hilos) no necesita otra sincronización.
+ *
+ * Además de simular, lleva la última posición publicada de cada nodo para
+ * armar los deltas del stream: solo viajan los nodos que se movieron al
+ * menos {@value #DELTA_MIN} unidades.
+ */
+public class GraphService {
+    private static final long LAYOUT_SEED = 42L;
+    private static final int LIVE_LAYOUT_MAX_NODES = 3000; // Por encima, solo colocación junto a vecinos
+    // Nodos × aristas: un paso global cuesta O(V·E) por la repulsión nodo-arista y se da con el candado tomado
+    private static final long LIVE_LAYOUT_MAX_WORK = 1_000_000L;
+    private static final double DELTA_MIN = 0.5; // Movimiento mínimo para publicar una posición
+    private static final long LOAD_BUDGET_NANOS = 20_000_000L; // Tiempo máximo con el candado durante la carga
+    private static final int MDS_PIVOTS = 50; // Pivotes de la colocación inicial de una carga completa
+    private static final double MDS_EDGE_LENGTH = 180.0; // Longitud media de arista tras la colocación
+
+    private final GrafoDireccional<Integer> grafo = new GrafoDireccional<>();
+    private final ForceDirectedLayout layout = new ForceDirectedLayout(0, 0);
+    private final NeighborCentroidPlacement placement = new NeighborCentroidPlacement(
+            new SeededRandomPlacement(LAYOUT_SEED), LAYOUT_SEED);
+    private final ReentrantLock candado = new ReentrantLock();
+    private boolean animando;
+    private long version; // Cambia con cada lote que modifica el grafo
+
+    // Últimas posiciones publicadas, por índice en la lista de nodos
+    private Nodo<?>[] publicados = new Nodo<?>[0];
+    private float[] publicadoX = new float[0];
+    private float[] publicadoY = new float[0];
+    private int numPublicados;
+    private boolean reordenado = true; // Se eliminaron nodos: los índices ya no sirven
+    private boolean pasoSinPublicar; // Hubo pasos de layout desde la última publicación
+    private long versionPublicada = -1;
+
+    /**
+     * Resultado de un lote de mutaciones
+     */
+    public record ResultadoLote(int aplicadas, int ignoradas, int invalidas, int nodos, int aristas,
+            long version) {
+    }
+
+    /**
+     * Aplica un lote de mutaciones, una por línea:
+     * <ul>
+     * <li>{@code origen destino} o {@code + origen destino}: agrega la arista
+     * (y los nodos que falten)</li>
+     * <li>{@code valor} o {@code + valor}: agrega un nodo</li>
+     * <li>{@code - origen destino}: elimina la arista</li>
+     * <li>{@code - valor}: elimina el nodo y sus aristas (recorre el grafo)</li>
+     * </ul>
+     * Los separadores son los del formato de lista de aristas (espacio,
+     * tabulador, coma, punto y coma). Las operaciones que no cambian nada
+     * (nodo repetido, arista inexistente) se cuentan como ignoradas.
+     *
+     * @param lineas Texto del lote
+     * @return Cantidades aplicadas, ignoradas e inválidas
+     */
+    public ResultadoLote aplicarLote(List<String> lineas) {
+        candado.lock();
+        try {
+            int aplicadas = 0;
+            int ignoradas = 0;
+            int invalidas = 0;
+            Set<Nodo<Integer>> cambiados = Collections.newSetFromMap(new IdentityHashMap<>());
+
+            for (String linea : lineas) {
+                String texto = linea.strip();
+                if (texto.isEmpty() || texto.startsWith("#"))
+                    continue;
+
+                boolean eliminar = texto.startsWith("-") && !Character.isDigit(texto.charAt(1 % texto.length()));
+                if (eliminar || texto.startsWith("+"))
+                    texto = texto.substring(1).strip();
+                int[] valores = parsear(texto);
+                if (valores == null) {
+                    invalidas++;
+                    continue;
+                }
+
+                boolean cambio;
+                if (valores.length == 1) {
+                    cambio = eliminar ? eliminarNodo(valores[0]) : agregarNodo(valores[0], null, cambiados) != null;
+                } else if (eliminar) {
+                    cambio = eliminarArista(valores[0], valores[1], cambiados);
+                } else {
+                    cambio = agregarArista(valores[0], valores[1], cambiados);
+                }
+                if (cambio)
+                    aplicadas++;
+                else
+                    ignoradas++;
+            }
+
+            if (aplicadas > 0) {
+                version++;
+                layout.invalidateStats();
+                layout.invalidateStructure();
+                reacomodar(cambiados);
+            }
+            return new ResultadoLote(aplicadas, ignoradas, invalidas, grafo.size(), grafo.getNumAristas(), version);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * @return Uno o dos enteros, o null si la línea no es válida
+     */
+    private static int[] parsear(String texto) {
+        String[] partes = texto.split("[\\s,;]+");
+        if (partes.length < 1 || partes.length > 2)
+            return null;
+        try {
+            int[] valores = new int[partes.length];
+            for (int i = 0; i < partes.length; i++) {
+                valores[i] = Integer.parseInt(partes[i]);
+            }
+            return valores;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Nodo<Integer> agregarNodo(int valor, Nodo<Integer> vecino, Set<Nodo<Integer>> cambiados) {
+        Nodo<Integer> nodo = grafo.agregarNodo(valor);
+        if (nodo != null) {
+            placement.placeNear(grafo, nodo, vecino);
+            cambiados.add(nodo);
+        }
+        return nodo;
+    }
+
+    private boolean agregarArista(int origen, int destino, Set<Nodo<Integer>> cambiados) {
+        Nodo<Integer> nodoOrigen = grafo.encontrarNodo(origen);
+        if (nodoOrigen == null)
+            nodoOrigen = agregarNodo(origen, grafo.encontrarNodo(destino), cambiados);
+        Nodo<Integer> nodoDestino = grafo.encontrarNodo(destino);
+        if (nodoDestino == null)
+            nodoDestino = agregarNodo(destino, nodoOrigen, cambiados);
+
+        int antes = grafo.getNumAristas();
+        grafo.agregarArista(origen, destino);
+        if (grafo.getNumAristas() == antes)
+            return false;
+        cambiados.add(nodoOrigen);
+        cambiados.add(nodoDestino);
+        return true;
+    }
+
+    private boolean eliminarArista(int origen, int destino, Set<Nodo<Integer>> cambiados) {
+        if (!grafo.eliminarArista(origen, destino))
+            return false;
+        cambiados.add(grafo.encontrarNodo(origen));
+        cambiados.add(grafo.encontrarNodo(destino));
+        return true;
+    }
+
+    private boolean eliminarNodo(int valor) {
+        Nodo<Integer> nodo = grafo.encontrarNodo(valor);
+        if (nodo == null)
+            return false;
+        grafo.eliminarNodo(valor);
+        reordenado = true;
+        return true;
+    }
+
+    /**
+     * Vuelve a simular alrededor de los cambios (grafos chicos) o deja las
+     * posiciones de la colocación (grafos grandes, donde un paso del layout
+     * global retendría el candado demasiado tiempo)
+     */
+    private void reacomodar(Set<Nodo<Integer>> cambiados) {
+        List<Nodo<Integer>> nodos = grafo.getNodos();
+        if (!layoutEnVivo()) {
+            animando = false;
+            return;
+        }
+        cambiados.removeIf(nodo -> grafo.encontrarNodo(nodo.getValue()) != nodo); // Eliminados después
+        layout.restartLocal(cambiados, nodos); // No hace nada si hay una simulación global en curso
+        animando = true;
+    }
+
+    private boolean layoutEnVivo() {
+        return grafo.size() <= LIVE_LAYOUT_MAX_NODES
+                && (long) grafo.size() * grafo.getNumAristas() <= LIVE_LAYOUT_MAX_WORK;
+    }
+
+    /**
+     * Avanza la simulación un paso si el layout todavía no convergió
+     *
+     * @param deltaTime Tiempo desde el paso anterior, en segundos
+     * @return true si se movió algún nodo
+     */
+    public boolean paso(double deltaTime) {
+        candado.lock();
+        try {
+            List<Nodo<Integer>> nodos = grafo.getNodos();
+            if (!animando || nodos.isEmpty())
+                return false;
+            if (layout.isStable(nodos)) {
+                animando = false;
+                return false;
+            }
+            var stats = layout.measure(nodos);
+            layout.setCenter(stats.getCenterX(), stats.getCenterY());
+            layout.calculateForces(nodos);
+            layout.updatePositions(nodos, deltaTime);
+            pasoSinPublicar = true;
+            return true;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Arma el delta de posiciones desde la publicación anterior, como
+     * líneas {@code valor x y} con coordenadas redondeadas. Si se
+     * eliminaron nodos, el delta es la lista completa. Si no hubo pasos ni
+     * lotes desde la publicación anterior no recorre los nodos.
+     *
+     * @return Delta (vacío si nada se movió) y si es una lista completa
+     */
+    public Delta publicarDelta() {
+        candado.lock();
+        try {
+            if (!pasoSinPublicar && !reordenado && version == versionPublicada)
+                return new Delta("", false, version);
+            pasoSinPublicar = false;
+            versionPublicada = version;
+
+            List<Nodo<Integer>> nodos = grafo.getNodos();
+            boolean completo = reordenado;
+            if (reordenado) {
+                numPublicados = 0;
+                reordenado = false;
+            }
+            if (publicados.length < nodos.size()) {
+                int capacidad = Math.max(nodos.size(), publicados.length * 3 / 2);
+                publicados = Arrays.copyOf(publicados, capacidad);
+                publicadoX = Arrays.copyOf(publicadoX, capacidad);
+                publicadoY = Arrays.copyOf(publicadoY, capacidad);
+            }
+
+            StringBuilder texto = new StringBuilder();
+            for (int i = 0; i < nodos.size(); i++) {
+                Nodo<Integer> nodo = nodos.get(i);
+                float x = (float) nodo.getX();
+                float y = (float) nodo.getY();
+                if (i < numPublicados && publicados[i] == nodo && Math.abs(x - publicadoX[i]) < DELTA_MIN
+                        && Math.abs(y - publicadoY[i]) < DELTA_MIN)
+                    continue;
+                publicados[i] = nodo;
+                publicadoX[i] = x;
+                publicadoY[i] = y;
+                linea(texto, nodo);
+            }
+            Arrays.fill(publicados, nodos.size(), Math.max(numPublicados, nodos.size()), null);
+            numPublicados = nodos.size();
+            return new Delta(texto.toString(), completo, version);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * @return Versión del grafo (cambia con cada lote que lo modifica)
+     */
+    public long getVersion() {
+        return leer(g -> version);
+    }
+
+    /**
+     * Posiciones de todos los nodos, en el formato de los deltas
+     */
+    public String posiciones() {
+        return leer(g -> {
+            StringBuilder texto = new StringBuilder(g.size() * 16);
+            for (Nodo<Integer> nodo : g.getNodos()) {
+                linea(texto, nodo);
+            }
+            return texto.toString();
+        });
+    }
+
+    private static void linea(StringBuilder texto, Nodo<Integer> nodo) {
+        texto.append(nodo.getValue()).append(' ').append(Math.round(nodo.getX())).append(' ')
+                .append(Math.round(nodo.getY())).append('\n');
+    }
+
+    /**
+     * Delta de posiciones listo para enviar
+     */
+    public record Delta(String texto, boolean completo, long version) {
+        public boolean isVacio() {
+            return texto.isEmpty() && !completo;
+        }
+    }
+
+    /**
+     * @return Resumen del grafo en JSON
+     */
+    public String resumenJson() {
+        return leer(g -> "{\"nodos\":" + g.size() + ",\"aristas\":" + g.getNumAristas() + ",\"iteraciones\":"
+                + layout.getIterations() + ",\"estable\":" + !animando + ",\"version\":" + version + "}");
+    }
+
+    /**
+     * @return Nodo en JSON (posición, fijación y vecinos salientes), o null si
+     *         no existe
+     */
+    public String nodoJson(int valor) {
+        return leer(g -> {
+            Nodo<Integer> nodo = g.encontrarNodo(valor);
+            if (nodo == null)
+                return null;
+            StringBuilder json = new StringBuilder("{\"valor\":").append(valor)
+                    .append(",\"x\":").append(nodo.getX())
+                    .append(",\"y\":").append(nodo.getY())
+                    .append(",\"fijo\":").append(nodo.isFijo())
+                    .append(",\"vecinos\":[");
+            for (int i = 0; i < nodo.getGrado(); i++) {
+                json.append(i == 0 ? "" : ",").append(nodo.getVecino(i).getValue());
+            }
+            return json.append("]}").toString();
+        });
+    }
+
+    /**
+     * Ejecuta una consulta con el candado tomado
+     */
+    public <R> R leer(Function<GrafoDireccional<Integer>, R> consulta) {
+        candado.lock();
+        try {
+            return consulta.apply(grafo);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Carga una lista de aristas por lotes, soltando el candado entre lotes
+     * para que las consultas no esperen a que termine. Si el grafo estaba
+     * vacío, al final se coloca entero con Pivot MDS (calculado fuera del
+     * candado sobre una copia indexada).
+     *
+     * @param archivo Lista de aristas
+     * @return Cantidad de nodos después de la carga
+     * @throws IOException si falla la lectura
+     */
+    public int cargar(Path archivo) throws IOException {
+        boolean desdeVacio = leer(GrafoDireccional::isEmpty);
+        try (ProgressiveLoader cargador = new ProgressiveLoader(archivo)) {
+            cargador.start();
+            while (!cargador.isTerminado()) {
+                cargador.esperar();
+                candado.lock();
+                try {
+                    if (cargador.aplicar(grafo, LOAD_BUDGET_NANOS,
+                            (nodo, vecino) -> placement.placeNear(grafo, nodo, vecino)) > 0) {
+                        version++;
+                        layout.invalidateStats();
+                        layout.invalidateStructure();
+                        animando = layoutEnVivo();
+                    }
+                } finally {
+                    candado.unlock();
+                }
+            }
+            if (cargador.getError() != null)
+                throw cargador.getError();
+            if (desdeVacio)
+                colocarConMds();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Carga interrumpida");
+        }
+        return leer(GrafoDireccional::size);
+    }
+
+    /**
+     * Reemplaza las posiciones de la carga por las de Pivot MDS, salvo que
+     * el grafo haya cambiado mientras se calculaban
+     */
+    private void colocarConMds() {
+        IndiceGrafo<Integer> indice;
+        long versionIndice;
+        PivotMdsPlacement mds;
+        candado.lock();
+        try {
+            indice = new IndiceGrafo<>(grafo);
+            versionIndice = version;
+            LayoutStats stats = layout.measure(grafo.getNodos());
+            mds = new PivotMdsPlacement(MDS_PIVOTS, MDS_EDGE_LENGTH, stats.getCenterX(), stats.getCenterY(),
+                    LAYOUT_SEED);
+        } finally {
+            candado.unlock();
+        }
+        double[] posiciones = mds.calcular(indice);
+        if (posiciones == null)
+            return;
+        candado.lock();
+        try {
+            if (version == versionIndice) {
+                PivotMdsPlacement.aplicar(indice, posiciones);
+                version++;
+                layout.invalidateStats();
+                layout.restart();
+                animando = layoutEnVivo();
+            }
+        } finally {
+            candado.unlock();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.espoch.grafo.view;
+
+import com.espoch.grafo.model.Nodo;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Mantiene un grupo de nodos dentro de una franja horizontal (y acotada) o
+ * vertical (x acotada). Con semiancho 0 los nodos quedan alineados.
+ */
+public class AlignmentBand implements LayoutConstraint {
+    private final Set<Nodo<?>> nodos = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final boolean horizontal;
+    private final double centro;
+    private final double semiancho;
+
+    /**
+     * Constructor
+     * 
+     * @param nodos      Nodos a alinear
+     * @param horizontal true para acotar y, false para acotar x
+     * @param centro     Coordenada del centro de la franja
+     * @param semiancho  Distancia máxima permitida al centro
+     */
+    public AlignmentBand(Collection<? extends Nodo<?>> nodos, boolean horizontal, double centro, double semiancho) {
+        this.nodos.addAll(nodos);
+        this.horizontal = horizontal;
+        this.centro = centro;
+        this.semiancho = semiancho;
+    }
+
+    @Override
+    public void project(Nodo<?> nodo) {
+        if (!nodos.contains(nodo))
+            return;
+
+        if (horizontal) {
+            nodo.setY(Math.max(centro - semiancho, Math.min(centro + semiancho, nodo.getY())));
+        } else {
+            nodo.setX(Math.max(centro - semiancho, Math.min(centro + semiancho, nodo.getX())));
+        }
+    }
+
+    @Override
+    public Collection<Nodo<?>> getNodos() {
+        return Collections.unmodifiableSet(nodos);
+    }
+}
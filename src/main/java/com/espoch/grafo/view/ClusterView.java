@@ -0,0 +1,332 @@
+package com.espoch.grafo.view;
+
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.IndiceGrafo;
+import com.espoch.grafo.model.JerarquiaClusters;
+import com.espoch.grafo.model.MapaLongInt;
+import com.espoch.grafo.model.Nodo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Vista de un grafo enorme a través de una {@link JerarquiaClusters}: se
+ * muestra un corte de la jerarquía (cada nodo original pertenece a
+ * exactamente un elemento visible) como un grafo pequeño de supernodos,
+ * con una arista por par de elementos conectados y su peso igual a la
+ * cantidad de aristas originales que representa.
+ *
+ * El layout y el renderer trabajan solo sobre {@link #getGrafo()}, así que
+ * su costo depende de cuántos elementos están visibles y no del tamaño del
+ * grafo original. Expandir o colapsar reconstruye el grafo visible en
+ * O(V · niveles + E) y conserva las posiciones de lo que no cambió.
+ *
+ * @param <L> Tipo genérico de los valores de los nodos originales
+ */
+public class ClusterView<L> {
+    /**
+     * Elemento visible de la jerarquía
+     *
+     * @param nivel    Nivel de la jerarquía (0 = nodo original)
+     * @param id       Identificador dentro del nivel
+     * @param tamaño   Nodos originales que contiene
+     * @param etiqueta Texto a dibujar
+     */
+    public record Cluster(int nivel, int id, int tamaño, String etiqueta) {
+        @Override
+        public String toString() {
+            return etiqueta;
+        }
+    }
+
+    private static final int ID_BITS = 28; // Clave de elemento: nivel (3 bits) e id (28 bits)
+    private static final double JITTER = 30.0; // Separa los hijos de un supernodo expandido
+
+    private final JerarquiaClusters<L> jerarquia;
+    private final Random random;
+    private final Set<Long> visibles = new HashSet<>();
+    private GrafoDireccional<Cluster> grafo = new GrafoDireccional<>();
+    private MapaLongInt pesos = new MapaLongInt(16);
+    private int maxPeso = 1;
+
+    /**
+     * Construye la jerarquía y muestra su nivel superior
+     *
+     * @param original Grafo original (sus posiciones dan la ubicación
+     *                 inicial de los supernodos)
+     * @param objetivo Cantidad de supernodos buscada en el nivel superior
+     * @param seed     Semilla del agrupamiento y la colocación
+     */
+    public ClusterView(GrafoDireccional<L> original, int objetivo, long seed) {
+        this.jerarquia = new JerarquiaClusters<>(original, objetivo, seed);
+        this.random = new Random(seed);
+        int superior = jerarquia.getNumNiveles() - 1;
+        for (int id = 0; id < jerarquia.getNumElementos(superior); id++) {
+            visibles.add(clave(superior, id));
+        }
+        reconstruir();
+    }
+
+    /**
+     * @return Grafo de los elementos visibles (para layout y renderizado)
+     */
+    public GrafoDireccional<Cluster> getGrafo() {
+        return grafo;
+    }
+
+    public JerarquiaClusters<L> getJerarquia() {
+        return jerarquia;
+    }
+
+    /**
+     * @return Cantidad de aristas originales que representa la arista
+     *         visible entre dos elementos
+     */
+    public int getPeso(Nodo<Cluster> desde, Nodo<Cluster> hacia) {
+        int peso = pesos.get((claveDe(desde) << 32) | claveDe(hacia));
+        return Math.max(peso, 0);
+    }
+
+    /**
+     * @return Peso máximo de las aristas visibles
+     */
+    public int getMaxPeso() {
+        return maxPeso;
+    }
+
+    /**
+     * Reemplaza un supernodo por sus hijos
+     *
+     * @return true si se expandió, false si es un nodo original
+     */
+    public boolean expandir(Nodo<Cluster> nodo) {
+        Cluster c = nodo.getValue();
+        if (c.nivel() == 0 || !visibles.remove(clave(c.nivel(), c.id())))
+            return false;
+
+        for (int hijo : jerarquia.getHijos(c.nivel(), c.id())) {
+            visibles.add(clave(c.nivel() - 1, hijo));
+        }
+        reconstruir();
+        return true;
+    }
+
+    /**
+     * Expande los supernodos visibles dentro de un rectángulo del mundo,
+     * empezando por los más grandes
+     *
+     * @param maximo Cantidad máxima de supernodos a expandir
+     * @return Cantidad de supernodos expandidos
+     */
+    public int expandirEn(double minX, double minY, double maxX, double maxY, int maximo) {
+        List<Cluster> candidatos = new ArrayList<>();
+        for (Nodo<Cluster> nodo : grafo.getNodos()) {
+            if (nodo.getValue().nivel() > 0 && nodo.getX() >= minX && nodo.getX() <= maxX
+                    && nodo.getY() >= minY && nodo.getY() <= maxY) {
+                candidatos.add(nodo.getValue());
+            }
+        }
+        candidatos.sort((a, b) -> Integer.compare(b.tamaño(), a.tamaño()));
+
+        int expandidos = 0;
+        for (Cluster c : candidatos) {
+            if (expandidos == maximo)
+                break;
+            visibles.remove(clave(c.nivel(), c.id()));
+            for (int hijo : jerarquia.getHijos(c.nivel(), c.id())) {
+                visibles.add(clave(c.nivel() - 1, hijo));
+            }
+            expandidos++;
+        }
+        if (expandidos > 0)
+            reconstruir();
+        return expandidos;
+    }
+
+    /**
+     * Reemplaza un elemento y sus hermanos por el supernodo que los contiene
+     *
+     * @return true si se colapsó, false si ya es del nivel superior
+     */
+    public boolean colapsar(Nodo<Cluster> nodo) {
+        Cluster c = nodo.getValue();
+        int padre = jerarquia.getPadre(c.nivel(), c.id());
+        if (padre < 0)
+            return false;
+
+        visibles.add(clave(c.nivel() + 1, padre));
+        normalizar();
+        reconstruir();
+        return true;
+    }
+
+    /**
+     * Sube un nivel todos los elementos visibles que no están en el nivel
+     * superior
+     *
+     * @return true si cambió algo
+     */
+    public boolean colapsarTodo() {
+        Set<Long> nuevos = new HashSet<>();
+        boolean cambio = false;
+        for (long clave : visibles) {
+            int nivel = nivelDe(clave);
+            int padre = jerarquia.getPadre(nivel, idDe(clave));
+            if (padre < 0) {
+                nuevos.add(clave);
+            } else {
+                nuevos.add(clave(nivel + 1, padre));
+                cambio = true;
+            }
+        }
+        if (!cambio)
+            return false;
+
+        visibles.clear();
+        visibles.addAll(nuevos);
+        normalizar();
+        reconstruir();
+        return true;
+    }
+
+    /**
+     * Quita los elementos que tienen un ancestro visible (el corte debe
+     * cubrir cada nodo original una sola vez)
+     */
+    private void normalizar() {
+        visibles.removeIf(clave -> {
+            int nivel = nivelDe(clave);
+            int id = idDe(clave);
+            while ((id = jerarquia.getPadre(nivel, id)) >= 0) {
+                nivel++;
+                if (visibles.contains(clave(nivel, id)))
+                    return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Reconstruye el grafo visible a partir del corte actual
+     */
+    private void reconstruir() {
+        IndiceGrafo<L> indice = jerarquia.getIndice();
+        int n = indice.size();
+        int niveles = jerarquia.getNumNiveles();
+
+        // Posición de cada elemento visible en cada nivel
+        int[][] posicionEnNivel = new int[niveles][];
+        for (int nivel = 0; nivel < niveles; nivel++) {
+            posicionEnNivel[nivel] = new int[jerarquia.getNumElementos(nivel)];
+            Arrays.fill(posicionEnNivel[nivel], -1);
+        }
+        List<Cluster> elementos = new ArrayList<>(visibles.size());
+        for (long clave : visibles) {
+            int nivel = nivelDe(clave);
+            int id = idDe(clave);
+            posicionEnNivel[nivel][id] = elementos.size();
+            String etiqueta = nivel == 0 ? indice.getNodo(id).getValue().toString()
+                    : "[" + jerarquia.getTamaño(nivel, id) + "]";
+            elementos.add(new Cluster(nivel, id, jerarquia.getTamaño(nivel, id), etiqueta));
+        }
+
+        // Elemento visible de cada nodo original
+        int[] rep = new int[n];
+        for (int u = 0; u < n; u++) {
+            int nivel = 0;
+            int id = u;
+            while (posicionEnNivel[nivel][id] < 0) {
+                id = jerarquia.getPadre(nivel, id);
+                nivel++;
+            }
+            rep[u] = posicionEnNivel[nivel][id];
+        }
+
+        // Posición inicial: la que ya tenía el elemento o, si es nuevo, el
+        // centroide de donde estaban sus nodos originales
+        Map<Long, Nodo<Cluster>> anteriores = new HashMap<>();
+        for (Nodo<Cluster> nodo : grafo.getNodos()) {
+            anteriores.put(claveDe(nodo), nodo);
+        }
+        Nodo<?>[] repAnterior = new Nodo<?>[n];
+        if (!anteriores.isEmpty()) {
+            for (int u = 0; u < n; u++) {
+                int nivel = 0;
+                int id = u;
+                Nodo<Cluster> nodo;
+                while ((nodo = anteriores.get(clave(nivel, id))) == null) {
+                    id = jerarquia.getPadre(nivel, id);
+                    nivel++;
+                }
+                repAnterior[u] = nodo;
+            }
+        }
+        double[] sumaX = new double[elementos.size()];
+        double[] sumaY = new double[elementos.size()];
+        for (int u = 0; u < n; u++) {
+            Nodo<?> origen = repAnterior[u] != null ? repAnterior[u] : indice.getNodo(u);
+            sumaX[rep[u]] += origen.getX();
+            sumaY[rep[u]] += origen.getY();
+        }
+
+        GrafoDireccional<Cluster> nuevo = new GrafoDireccional<>();
+        for (int i = 0; i < elementos.size(); i++) {
+            Cluster c = elementos.get(i);
+            Nodo<Cluster> nodo = nuevo.agregarNodo(c);
+            Nodo<Cluster> anterior = anteriores.get(clave(c.nivel(), c.id()));
+            if (anterior != null) {
+                nodo.setX(anterior.getX());
+                nodo.setY(anterior.getY());
+            } else {
+                nodo.setX(sumaX[i] / c.tamaño() + (random.nextDouble() - 0.5) * JITTER);
+                nodo.setY(sumaY[i] / c.tamaño() + (random.nextDouble() - 0.5) * JITTER);
+            }
+        }
+
+        // Aristas agregadas con su peso
+        MapaLongInt nuevosPesos = new MapaLongInt(Math.max(16, elementos.size() * 4));
+        int maximo = 1;
+        for (int u = 0; u < n; u++) {
+            int a = rep[u];
+            for (int v : indice.getSalientes(u)) {
+                int b = rep[v];
+                if (a == b)
+                    continue;
+                Cluster ca = elementos.get(a);
+                Cluster cb = elementos.get(b);
+                long par = (clave(ca.nivel(), ca.id()) << 32) | clave(cb.nivel(), cb.id());
+                nuevosPesos.increment(par);
+                int peso = nuevosPesos.get(par);
+                if (peso == 1)
+                    nuevo.agregarArista(ca, cb);
+                maximo = Math.max(maximo, peso);
+            }
+        }
+
+        this.grafo = nuevo;
+        this.pesos = nuevosPesos;
+        this.maxPeso = maximo;
+    }
+
+    private static long clave(int nivel, int id) {
+        return ((long) nivel << ID_BITS) | id;
+    }
+
+    private static long claveDe(Nodo<Cluster> nodo) {
+        return clave(nodo.getValue().nivel(), nodo.getValue().id());
+    }
+
+    private static int nivelDe(long clave) {
+        return (int) (clave >>> ID_BITS);
+    }
+
+    private static int idDe(long clave) {
+        return (int) (clave & ((1L << ID_BITS) - 1));
+    }
+}
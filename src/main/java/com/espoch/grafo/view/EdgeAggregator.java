@@ -0,0 +1,215 @@
+package com.espoch.grafo.view;
+
+import com.espoch.grafo.model.MapaLongInt;
+import com.espoch.grafo.model.Nodo;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Agregación de aristas por celdas de una grilla para grafos densos. Los
+ * nodos se agrupan en celdas de tamaño fijo en pantalla y todas las aristas
+ * entre el mismo par de celdas (en cualquier sentido) se dibujan como un
+ * único segmento entre los centroides de ambas celdas, con grosor y
+ * opacidad según la cantidad de aristas que representa. Se dibujan como
+ * máximo {@code maxPrimitives} segmentos, sin importar cuántas aristas haya.
+ *
+ * La geometría se calcula en coordenadas del mundo y queda en caché hasta
+ * que se invalida o cambia el tamaño de celda (zoom).
+ */
+public class EdgeAggregator {
+    private static final int CELL_BITS = 15; // Coordenada de celda: 0..32767 por eje
+    private static final int CELL_MASK = (1 << CELL_BITS) - 1;
+    private static final Color BUNDLE_COLOR = GraphRenderer.EDGE_COLOR;
+
+    private final double cellPixels;
+    private final int maxPrimitives;
+
+    // Geometría en caché (coordenadas del mundo)
+    private double[] x1 = new double[0];
+    private double[] y1 = new double[0];
+    private double[] x2 = new double[0];
+    private double[] y2 = new double[0];
+    private int[] weights = new int[0];
+    private int count;
+    private int maxWeight;
+    private double cachedCellSize = Double.NaN;
+    private boolean valid;
+
+    /**
+     * Constructor
+     *
+     * @param cellPixels    Lado de cada celda en píxeles de pantalla
+     * @param maxPrimitives Máximo de segmentos a dibujar
+     */
+    public EdgeAggregator(double cellPixels, int maxPrimitives) {
+        this.cellPixels = cellPixels;
+        this.maxPrimitives = maxPrimitives;
+    }
+
+    /**
+     * Descarta la geometría agregada (el grafo o las posiciones cambiaron)
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Recalcula la agregación si no es válida para el zoom indicado
+     *
+     * @param nodos Nodos del grafo
+     * @param stats Métricas del layout (límites del grafo)
+     * @param zoom  Nivel de zoom actual
+     */
+    public <T> void update(List<Nodo<T>> nodos, LayoutStats stats, double zoom) {
+        double cellSize = cellPixels / zoom;
+        if (valid && cellSize == cachedCellSize) {
+            return;
+        }
+        rebuild(nodos, stats.getMinX(), stats.getMinY(), cellSize);
+        cachedCellSize = cellSize;
+        valid = true;
+    }
+
+    private <T> void rebuild(List<Nodo<T>> nodos, double minX, double minY, double cellSize) {
+        // 1. Centroide de cada celda ocupada
+        MapaLongInt celdas = new MapaLongInt(Math.max(16, nodos.size() / 4));
+        double[] sumaX = new double[16];
+        double[] sumaY = new double[16];
+        int[] cantidad = new int[16];
+        int numCeldas = 0;
+        for (Nodo<T> nodo : nodos) {
+            int celda = cellOf(nodo, minX, minY, cellSize);
+            int idx = celdas.get(celda);
+            if (idx < 0) {
+                idx = numCeldas++;
+                celdas.put(celda, idx);
+                if (idx == sumaX.length) {
+                    sumaX = Arrays.copyOf(sumaX, idx * 2);
+                    sumaY = Arrays.copyOf(sumaY, idx * 2);
+                    cantidad = Arrays.copyOf(cantidad, idx * 2);
+                }
+            }
+            sumaX[idx] += nodo.getX();
+            sumaY[idx] += nodo.getY();
+            cantidad[idx]++;
+        }
+
+        // 2. Conteo de aristas por par de celdas (sin sentido)
+        MapaLongInt pares = new MapaLongInt(1024);
+        for (Nodo<T> nodo : nodos) {
+            long a = celdas.get(cellOf(nodo, minX, minY, cellSize));
+            for (int i = 0; i < nodo.getGrado(); i++) {
+                Nodo<T> vecino = nodo.getVecino(i);
+                long b = celdas.get(cellOf(vecino, minX, minY, cellSize));
+                if (a == b)
+                    continue; // Arista dentro de una celda: la tapan los nodos
+
+                pares.increment(a < b ? (a << 32) | b : (b << 32) | a);
+            }
+        }
+
+        // 3. Peso mínimo para no superar el máximo de segmentos; los pares con
+        // el peso justo debajo del corte completan el cupo restante
+        int minWeight = 1;
+        int cupoCorte = 0;
+        if (pares.size() > maxPrimitives) {
+            int maxPeso = 0;
+            for (int slot = 0; slot < pares.capacity(); slot++) {
+                if (pares.isUsed(slot))
+                    maxPeso = Math.max(maxPeso, pares.valueAt(slot));
+            }
+            int[] porPeso = new int[maxPeso + 1];
+            for (int slot = 0; slot < pares.capacity(); slot++) {
+                if (pares.isUsed(slot))
+                    porPeso[pares.valueAt(slot)]++;
+            }
+            int acumulado = 0;
+            minWeight = maxPeso + 1;
+            while (minWeight > 1 && acumulado + porPeso[minWeight - 1] <= maxPrimitives) {
+                minWeight--;
+                acumulado += porPeso[minWeight];
+            }
+            cupoCorte = maxPrimitives - acumulado;
+        }
+
+        int capacidad = Math.min(pares.size(), maxPrimitives);
+        if (x1.length < capacidad) {
+            x1 = new double[capacidad];
+            y1 = new double[capacidad];
+            x2 = new double[capacidad];
+            y2 = new double[capacidad];
+            weights = new int[capacidad];
+        }
+
+        maxWeight = 1;
+        count = 0;
+        for (int slot = 0; slot < pares.capacity() && count < capacidad; slot++) {
+            if (!pares.isUsed(slot))
+                continue;
+            int peso = pares.valueAt(slot);
+            if (peso < minWeight) {
+                if (peso != minWeight - 1 || cupoCorte == 0)
+                    continue;
+                cupoCorte--;
+            }
+
+            long clave = pares.keyAt(slot);
+            int a = (int) (clave >>> 32);
+            int b = (int) clave;
+            x1[count] = sumaX[a] / cantidad[a];
+            y1[count] = sumaY[a] / cantidad[a];
+            x2[count] = sumaX[b] / cantidad[b];
+            y2[count] = sumaY[b] / cantidad[b];
+            weights[count] = peso;
+            maxWeight = Math.max(maxWeight, weights[count]);
+            count++;
+        }
+    }
+
+    private static <T> int cellOf(Nodo<T> nodo, double minX, double minY, double cellSize) {
+        int cx = (int) Math.min(CELL_MASK, Math.max(0, (nodo.getX() - minX) / cellSize));
+        int cy = (int) Math.min(CELL_MASK, Math.max(0, (nodo.getY() - minY) / cellSize));
+        return (cx << CELL_BITS) | cy;
+    }
+
+    /**
+     * Dibuja los segmentos agregados que intersectan la región visible
+     *
+     * @param vista Región visible [minX, minY, maxX, maxY] en coordenadas del canvas
+     * @return Cantidad de segmentos dibujados
+     */
+    public int draw(GraphicsContext gc, double zoom, double offsetX, double offsetY, double[] vista) {
+        double logMax = Math.log(maxWeight) + 1;
+        int dibujados = 0;
+
+        for (int i = 0; i < count; i++) {
+            double sx1 = x1[i] * zoom + offsetX;
+            double sy1 = y1[i] * zoom + offsetY;
+            double sx2 = x2[i] * zoom + offsetX;
+            double sy2 = y2[i] * zoom + offsetY;
+            if (Math.max(sx1, sx2) < vista[0] || Math.min(sx1, sx2) > vista[2]
+                    || Math.max(sy1, sy2) < vista[1] || Math.min(sy1, sy2) > vista[3]) {
+                continue;
+            }
+
+            // Peso relativo en escala logarítmica (0..1)
+            double peso = (Math.log(weights[i]) + 1) / logMax;
+            gc.setStroke(Color.color(BUNDLE_COLOR.getRed(), BUNDLE_COLOR.getGreen(), BUNDLE_COLOR.getBlue(),
+                    0.15 + 0.65 * peso));
+            gc.setLineWidth(GraphRenderer.EDGE_WIDTH * zoom * (0.5 + 2.5 * peso));
+            gc.strokeLine(sx1, sy1, sx2, sy2);
+            dibujados++;
+        }
+        return dibujados;
+    }
+
+    /**
+     * @return Cantidad de segmentos agregados en caché
+     */
+    public int getPrimitiveCount() {
+        return count;
+    }
+}
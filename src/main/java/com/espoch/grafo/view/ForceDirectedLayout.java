@@ -2,11 +2,22 @@ package com.espoch.grafo.view;
 
 import com.espoch.grafo.model.Nodo;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Implementa un algoritmo de layout basado en fuerzas para grafos
  * Utiliza simulación física para posicionar los nodos de manera óptima
+ *
+ * Los nodos fijos ({@link Nodo#isFijo()}) no se mueven y las
+ * {@link LayoutConstraint restricciones} se aplican tras cada paso. Al fijar
+ * un nodo o cambiar una restricción solo se vuelve a simular su vecindario
+ * ({@link #restartLocal}); el resto del grafo queda quieto.
  */
 public class ForceDirectedLayout {
     // Parámetros del algoritmo
@@ -16,9 +27,54 @@ public class ForceDirectedLayout {
     private static final double CENTER_GRAVITY = 0.01; // Gravedad hacia el centro
     private static final double BASE_IDEAL_EDGE_LENGTH = 180.0; // Longitud base ideal de aristas
 
+    // Control de convergencia (esquema adaptativo de Hu)
+    private static final double INITIAL_STEP = 50.0; // Velocidad máxima inicial
+    private static final double MIN_STEP = 0.5; // Al enfriarse hasta este paso se considera convergido
+    private static final double COOLING = 0.9; // Factor de enfriamiento del paso
+    private static final int PROGRESS_STEPS = 5; // Mejoras seguidas necesarias para agrandar el paso
+    private static final double ENERGY_TOLERANCE = 1.0; // Fuerza residual cuadrática media por nodo para detenerse
+    private static final int MAX_ITERATIONS = 5000; // Límite de seguridad si la energía oscila
+
+    // Simulación local
+    private static final int LOCAL_HOPS = 2; // Saltos desde los nodos cambiados que se vuelven a simular
+    private static final double LOCAL_MAX_FRACTION = 0.5; // Por encima de esta fracción se simula todo
+
     private double centerX;
     private double centerY;
 
+    // Métricas del último frame (límites, velocidad máxima, energía)
+    private final LayoutStats stats = new LayoutStats();
+    private boolean statsValid = false;
+
+    // Índice para picking, reconstruido en la primera consulta después de mover los nodos
+    private final SpatialIndex spatialIndex = new SpatialIndex();
+
+    private final List<LayoutConstraint> constraints = new ArrayList<>();
+
+    // Repulsión sobre coordenadas empaquetadas (escalar o Vector API)
+    private final RepulsionKernel kernel = RepulsionKernel.best();
+    private double[] packedX = new double[0];
+    private double[] packedY = new double[0];
+    private double[] forceX = new double[0];
+    private double[] forceY = new double[0];
+
+    // Nodos que se simulan (null = todos)
+    private Set<Nodo<?>> activos;
+
+    // Orígenes de las aristas entrantes de cada nodo, para la lista de nodos
+    // con que se armó; se reutiliza entre reinicios locales hasta que cambie
+    // la estructura (null = hay que volver a armarlo)
+    private Map<Nodo<?>, List<Nodo<?>>> entrantes;
+    private List<?> entrantesDe;
+    private int entrantesNodos;
+
+    // Estado del enfriamiento adaptativo
+    private double step = INITIAL_STEP;
+    private double lastEnergy = Double.MAX_VALUE;
+    private int progress = 0;
+    private int iterations = 0;
+    private boolean converged = false;
+
     /**
      * Constructor
      * 
@@ -38,6 +94,147 @@ public class ForceDirectedLayout {
         this.centerY = centerY;
     }
 
+    /**
+     * Reinicia el enfriamiento para que la simulación vuelva a converger
+     * tras un cambio en el grafo
+     */
+    public void restart() {
+        activos = null;
+        reiniciarEnfriamiento();
+    }
+
+    /**
+     * Avisa que se agregaron o quitaron nodos o aristas, para volver a armar
+     * las aristas entrantes en el próximo reinicio local
+     */
+    public void invalidateStructure() {
+        entrantes = null;
+    }
+
+    /**
+     * Aristas entrantes de cada nodo, armadas con una pasada sobre las
+     * aristas solo si la estructura cambió desde la última vez
+     */
+    private <T> Map<Nodo<?>, List<Nodo<?>>> entrantes(List<Nodo<T>> nodos) {
+        if (entrantes != null && entrantesDe == nodos && entrantesNodos == nodos.size())
+            return entrantes;
+        Map<Nodo<?>, List<Nodo<?>>> porDestino = new IdentityHashMap<>();
+        for (Nodo<T> nodo : nodos) {
+            for (int i = 0; i < nodo.getGrado(); i++) {
+                porDestino.computeIfAbsent(nodo.getVecino(i), k -> new ArrayList<>(2)).add(nodo);
+            }
+        }
+        entrantes = porDestino;
+        entrantesDe = nodos;
+        entrantesNodos = nodos.size();
+        return porDestino;
+    }
+
+    private void reiniciarEnfriamiento() {
+        step = INITIAL_STEP;
+        lastEnergy = Double.MAX_VALUE;
+        progress = 0;
+        iterations = 0;
+        converged = false;
+    }
+
+    /**
+     * Vuelve a simular solo los nodos a {@value #LOCAL_HOPS} saltos (en
+     * cualquier sentido) de los nodos cambiados. Si ya hay una simulación
+     * global en curso no hace nada, y si el vecindario abarca gran parte del
+     * grafo reinicia la simulación completa. Recorre solo el vecindario,
+     * salvo la primera vez después de {@link #invalidateStructure()}.
+     * 
+     * @param cambiados Nodos cuya posición, fijación o restricción cambió
+     * @param nodos     Lista de nodos del grafo
+     */
+    public <T> void restartLocal(Collection<? extends Nodo<?>> cambiados, List<Nodo<T>> nodos) {
+        if (!converged && activos == null)
+            return;
+
+        Set<Nodo<?>> vecindario = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (activos != null && !converged)
+            vecindario.addAll(activos);
+        vecindario.addAll(cambiados);
+
+        // BFS sin sentido desde los cambiados, por salientes y entrantes
+        Map<Nodo<?>, List<Nodo<?>>> porDestino = entrantes(nodos);
+        List<Nodo<?>> frontera = new ArrayList<>(cambiados);
+        for (int salto = 0; salto < LOCAL_HOPS && !frontera.isEmpty(); salto++) {
+            List<Nodo<?>> siguiente = new ArrayList<>();
+            for (Nodo<?> nodo : frontera) {
+                for (int i = 0; i < nodo.getGrado(); i++) {
+                    if (vecindario.add(nodo.getVecino(i)))
+                        siguiente.add(nodo.getVecino(i));
+                }
+                for (Nodo<?> origen : porDestino.getOrDefault(nodo, List.of())) {
+                    if (vecindario.add(origen))
+                        siguiente.add(origen);
+                }
+            }
+            frontera = siguiente;
+        }
+
+        if (vecindario.size() > nodos.size() * LOCAL_MAX_FRACTION) {
+            restart();
+            return;
+        }
+
+        activos = vecindario;
+        reiniciarEnfriamiento();
+    }
+
+    /**
+     * Fija o libera un nodo y reacomoda su vecindario
+     * 
+     * @param nodo  Nodo a cambiar
+     * @param fijo  true para que el layout no lo mueva
+     * @param nodos Lista de nodos del grafo
+     */
+    public <T> void pin(Nodo<?> nodo, boolean fijo, List<Nodo<T>> nodos) {
+        nodo.setFijo(fijo);
+        nodo.setVx(0);
+        nodo.setVy(0);
+        restartLocal(List.of(nodo), nodos);
+    }
+
+    /**
+     * Agrega una restricción, la aplica de inmediato y reacomoda el
+     * vecindario de los nodos que restringe
+     * 
+     * @param constraint Restricción a agregar
+     * @param nodos      Lista de nodos del grafo
+     */
+    public <T> void addConstraint(LayoutConstraint constraint, List<Nodo<T>> nodos) {
+        constraints.add(constraint);
+        for (Nodo<?> nodo : constraint.getNodos()) {
+            if (!nodo.isFijo())
+                constraint.project(nodo);
+        }
+        invalidateStats();
+        restartLocal(constraint.getNodos(), nodos);
+    }
+
+    /**
+     * Quita una restricción y reacomoda el vecindario de los nodos que
+     * restringía
+     * 
+     * @return true si la restricción estaba agregada
+     */
+    public <T> boolean removeConstraint(LayoutConstraint constraint, List<Nodo<T>> nodos) {
+        if (!constraints.remove(constraint))
+            return false;
+        restartLocal(constraint.getNodos(), nodos);
+        return true;
+    }
+
+    /**
+     * Quita todas las restricciones (p. ej. al limpiar el grafo)
+     */
+    public void clearConstraints() {
+        constraints.clear();
+    }
+
     /**
      * Calcula y aplica las fuerzas a todos los nodos
      * 
@@ -46,61 +243,45 @@ public class ForceDirectedLayout {
     public <T> void calculateForces(List<Nodo<T>> nodos) {
         if (nodos.isEmpty())
             return;
-
-        // Calcular parámetros dinámicos basados en la cantidad de nodos
-        int numNodos = nodos.size();
-        double repulsionStrength = BASE_REPULSION_STRENGTH;
-        double idealEdgeLength = BASE_IDEAL_EDGE_LENGTH;
-
-        // Ajustar espaciado según cantidad de nodos
-        if (numNodos <= 3) {
-            repulsionStrength = BASE_REPULSION_STRENGTH * 1.5;
-            idealEdgeLength = BASE_IDEAL_EDGE_LENGTH * 1.3;
-        } else if (numNodos <= 10) {
-            repulsionStrength = BASE_REPULSION_STRENGTH;
-            idealEdgeLength = BASE_IDEAL_EDGE_LENGTH;
-        } else {
-            repulsionStrength = BASE_REPULSION_STRENGTH * 0.8;
-            idealEdgeLength = BASE_IDEAL_EDGE_LENGTH * 0.9;
+        if (activos != null) {
+            calculateLocalForces(nodos);
+            return;
         }
 
-        // 1. Resetear fuerzas (velocidades acumuladas para este frame)
-        for (Nodo<T> nodo : nodos) {
-            nodo.setVx(0);
-            nodo.setVy(0);
+        double repulsionStrength = repulsionStrength(nodos.size());
+        double idealEdgeLength = idealEdgeLength(nodos.size());
+
+        // 1. Empaquetar coordenadas y resetear fuerzas
+        int n = nodos.size();
+        if (packedX.length < n) {
+            packedX = new double[n];
+            packedY = new double[n];
+            forceX = new double[n];
+            forceY = new double[n];
+        }
+        for (int i = 0; i < n; i++) {
+            Nodo<T> nodo = nodos.get(i);
+            packedX[i] = nodo.getX();
+            packedY[i] = nodo.getY();
+            forceX[i] = 0;
+            forceY[i] = 0;
         }
 
         // 2. Fuerza de repulsión entre TODOS los pares de nodos (Evitar solapamiento de
         // nodos)
-        for (int i = 0; i < nodos.size(); i++) {
-            Nodo<T> nodo1 = nodos.get(i);
-            for (int j = i + 1; j < nodos.size(); j++) {
-                Nodo<T> nodo2 = nodos.get(j);
-
-                double dx = nodo2.getX() - nodo1.getX();
-                double dy = nodo2.getY() - nodo1.getY();
-                double distanciaSq = dx * dx + dy * dy;
-                double distancia = Math.sqrt(distanciaSq);
-
-                if (distancia < 1.0)
-                    distancia = 1.0;
-
-                double fuerza = repulsionStrength / (distancia * distancia);
-                double fx = (dx / distancia) * fuerza;
-                double fy = (dy / distancia) * fuerza;
-
-                nodo1.setVx(nodo1.getVx() - fx);
-                nodo1.setVy(nodo1.getVy() - fy);
-                nodo2.setVx(nodo2.getVx() + fx);
-                nodo2.setVy(nodo2.getVy() + fy);
-            }
+        kernel.accumulate(packedX, packedY, n, forceX, forceY, repulsionStrength);
+        for (int i = 0; i < n; i++) {
+            Nodo<T> nodo = nodos.get(i);
+            nodo.setVx(forceX[i]);
+            nodo.setVy(forceY[i]);
         }
 
         // 3. Fuerza de atracción por aristas y repulsión NODO-ARISTA
         double nodeEdgeRepulsion = repulsionStrength * 0.5; // Fuerza para evitar que nodos toquen aristas
 
         for (Nodo<T> nodoA : nodos) {
-            for (Nodo<T> nodoB : nodoA.getVecinos()) {
+            for (int i = 0; i < nodoA.getGrado(); i++) {
+                Nodo<T> nodoB = nodoA.getVecino(i);
                 // --- ATRACCIÓN (Atracción simétrica entre extremos de la arista) ---
                 double dxAB = nodoB.getX() - nodoA.getX();
                 double dyAB = nodoB.getY() - nodoA.getY();
@@ -171,6 +352,74 @@ public class ForceDirectedLayout {
         }
     }
 
+    /**
+     * Calcula las fuerzas solo sobre los nodos activos. Cada nodo activo
+     * recibe la repulsión de todos los demás y la atracción de sus aristas
+     * en ambos sentidos; los nodos quietos actúan como anclas, así que no
+     * hace falta la gravedad hacia el centro. Costo O(activos · V).
+     */
+    private <T> void calculateLocalForces(List<Nodo<T>> nodos) {
+        double repulsionStrength = repulsionStrength(nodos.size());
+        double idealEdgeLength = idealEdgeLength(nodos.size());
+
+        Map<Nodo<?>, List<Nodo<?>>> porDestino = entrantes(nodos);
+        for (Nodo<?> nodo : activos) {
+            double fx = 0;
+            double fy = 0;
+
+            for (Nodo<T> otro : nodos) {
+                if (otro == nodo)
+                    continue;
+                double dx = nodo.getX() - otro.getX();
+                double dy = nodo.getY() - otro.getY();
+                double distancia = Math.max(1.0, Math.sqrt(dx * dx + dy * dy));
+                double fuerza = repulsionStrength / (distancia * distancia);
+                fx += (dx / distancia) * fuerza;
+                fy += (dy / distancia) * fuerza;
+            }
+
+            // Atracción por las aristas salientes y luego por las entrantes, sin copiar listas
+            List<Nodo<?>> origenes = porDestino.getOrDefault(nodo, List.of());
+            int grado = nodo.getGrado();
+            for (int i = 0; i < grado + origenes.size(); i++) {
+                Nodo<?> vecino = i < grado ? nodo.getVecino(i) : origenes.get(i - grado);
+                double dx = vecino.getX() - nodo.getX();
+                double dy = vecino.getY() - nodo.getY();
+                double distancia = Math.sqrt(dx * dx + dy * dy);
+                if (distancia > 0) {
+                    double fuerza = ATTRACTION_STRENGTH * (distancia - idealEdgeLength);
+                    fx += (dx / distancia) * fuerza;
+                    fy += (dy / distancia) * fuerza;
+                }
+            }
+
+            nodo.setVx(fx);
+            nodo.setVy(fy);
+        }
+    }
+
+    /**
+     * Fuerza de repulsión según la cantidad de nodos
+     */
+    private static double repulsionStrength(int numNodos) {
+        if (numNodos <= 3)
+            return BASE_REPULSION_STRENGTH * 1.5;
+        if (numNodos <= 10)
+            return BASE_REPULSION_STRENGTH;
+        return BASE_REPULSION_STRENGTH * 0.8;
+    }
+
+    /**
+     * Longitud ideal de arista según la cantidad de nodos
+     */
+    private static double idealEdgeLength(int numNodos) {
+        if (numNodos <= 3)
+            return BASE_IDEAL_EDGE_LENGTH * 1.3;
+        if (numNodos <= 10)
+            return BASE_IDEAL_EDGE_LENGTH;
+        return BASE_IDEAL_EDGE_LENGTH * 0.9;
+    }
+
     /**
      * Agrega una pequeña perturbación aleatoria a los nodos
      * para ayudar a que salgan de equilibrios subóptimos
@@ -180,85 +429,181 @@ public class ForceDirectedLayout {
             nodo.setVx(nodo.getVx() + (Math.random() - 0.5) * 20);
             nodo.setVy(nodo.getVy() + (Math.random() - 0.5) * 20);
         }
+        statsValid = false;
     }
 
     /**
-     * Actualiza las posiciones de los nodos basándose en sus velocidades
+     * Actualiza las posiciones de los nodos basándose en sus velocidades.
+     * En la misma pasada acumula límites, velocidad máxima y energía cinética,
+     * y al final ajusta el paso según la energía global del sistema. Los
+     * nodos fijos y, en la simulación local, los que no están activos no se
+     * mueven.
      * 
      * @param nodos     Lista de nodos del grafo
      * @param deltaTime Tiempo transcurrido (para suavizar el movimiento)
+     * @return Métricas del frame recién calculado
      */
-    public <T> void updatePositions(List<Nodo<T>> nodos, double deltaTime) {
+    public <T> LayoutStats updatePositions(List<Nodo<T>> nodos, double deltaTime) {
+        stats.reset();
+        int movidos = 0;
         for (Nodo<T> nodo : nodos) {
+            if (nodo.isFijo() || (activos != null && !activos.contains(nodo))) {
+                nodo.setVx(0);
+                nodo.setVy(0);
+                stats.accumulate(nodo.getX(), nodo.getY(), 0, 0);
+                continue;
+            }
+            stats.accumulateForce(nodo.getVx(), nodo.getVy());
+            movidos++;
+
             // Aplicar amortiguamiento
             double vx = nodo.getVx() * DAMPING;
             double vy = nodo.getVy() * DAMPING;
 
-            // Limitar velocidad máxima
+            // Limitar velocidad al paso actual del enfriamiento
             double velocidad = Math.sqrt(vx * vx + vy * vy);
-            double maxVelocidad = 50.0;
+            double maxVelocidad = step;
             if (velocidad > maxVelocidad) {
                 vx = (vx / velocidad) * maxVelocidad;
                 vy = (vy / velocidad) * maxVelocidad;
             }
 
-            // Actualizar posición
+            // Actualizar posición y aplicar las restricciones
             nodo.setX(nodo.getX() + vx * deltaTime);
             nodo.setY(nodo.getY() + vy * deltaTime);
+            for (LayoutConstraint constraint : constraints) {
+                constraint.project(nodo);
+            }
+            double x = nodo.getX();
+            double y = nodo.getY();
 
             // Guardar velocidad para la próxima iteración
             nodo.setVx(vx);
             nodo.setVy(vy);
+
+            stats.accumulate(x, y, vx, vy);
         }
+        statsValid = true;
+        spatialIndex.invalidate(); // Se reconstruye en la próxima consulta, no en cada frame
+        updateStep(stats.getForceEnergy(), movidos);
+        return stats;
     }
 
     /**
-     * Calcula los límites del grafo (bounding box)
+     * Ajusta el paso con el esquema adaptativo de Hu: si la energía baja
+     * varias iteraciones seguidas el paso crece, si sube el paso se enfría.
+     * La energía es la suma de los cuadrados de las fuerzas netas
+     * ({@link LayoutStats#getForceEnergy()}); el layout converge cuando el
+     * paso es mínimo o esa energía por nodo movido cae por debajo de la
+     * tolerancia.
+     */
+    private void updateStep(double energia, int movidos) {
+        iterations++;
+
+        if (energia < lastEnergy) {
+            progress++;
+            if (progress >= PROGRESS_STEPS) {
+                progress = 0;
+                step = Math.min(INITIAL_STEP, step / COOLING);
+            }
+        } else {
+            progress = 0;
+            step = Math.max(MIN_STEP, step * COOLING);
+        }
+        lastEnergy = energia;
+
+        int n = Math.max(1, movidos);
+        if (energia / n < ENERGY_TOLERANCE || step <= MIN_STEP || iterations >= MAX_ITERATIONS) {
+            converged = true;
+            activos = null;
+        }
+    }
+
+    /**
+     * @return Iteraciones ejecutadas desde el último reinicio
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return Núcleo de repulsión en uso
+     */
+    public RepulsionKernel getRepulsionKernel() {
+        return kernel;
+    }
+
+    /**
+     * @return Paso (velocidad máxima) actual del enfriamiento
+     */
+    public double getStep() {
+        return step;
+    }
+
+    /**
+     * Obtiene las métricas actuales del layout. Solo recorre los nodos si las
+     * métricas fueron invalidadas desde el último frame.
      * 
      * @param nodos Lista de nodos
-     * @return Array con [minX, minY, maxX, maxY]
+     * @return Métricas vigentes
      */
-    public <T> double[] getBounds(List<Nodo<T>> nodos) {
-        if (nodos.isEmpty()) {
-            return new double[] { 0, 0, 800, 600 };
+    public <T> LayoutStats measure(List<Nodo<T>> nodos) {
+        if (!statsValid) {
+            stats.reset();
+            for (Nodo<T> nodo : nodos) {
+                stats.accumulate(nodo.getX(), nodo.getY(), nodo.getVx(), nodo.getVy());
+            }
+            statsValid = true;
         }
+        return stats;
+    }
 
-        double minX = Double.MAX_VALUE;
-        double minY = Double.MAX_VALUE;
-        double maxX = Double.MIN_VALUE;
-        double maxY = Double.MIN_VALUE;
+    /**
+     * Marca las métricas como obsoletas (p. ej. al agregar o eliminar nodos)
+     */
+    public void invalidateStats() {
+        statsValid = false;
+        spatialIndex.invalidate();
+    }
 
-        for (Nodo<T> nodo : nodos) {
-            minX = Math.min(minX, nodo.getX());
-            minY = Math.min(minY, nodo.getY());
-            maxX = Math.max(maxX, nodo.getX());
-            maxY = Math.max(maxY, nodo.getY());
+    /**
+     * Obtiene el índice espacial de los nodos, reconstruyéndolo si se
+     * movieron o cambiaron desde la última consulta
+     * 
+     * @param nodos Lista de nodos
+     * @return Índice vigente
+     */
+    public <T> SpatialIndex getSpatialIndex(List<Nodo<T>> nodos) {
+        if (!spatialIndex.isValid()) {
+            LayoutStats actual = measure(nodos);
+            spatialIndex.rebuild(nodos, actual.getMinX(), actual.getMinY(), actual.getMaxX(), actual.getMaxY());
         }
+        return spatialIndex;
+    }
 
-        // Agregar margen
-        double margen = 100;
+    /**
+     * Calcula los límites del grafo (bounding box)
+     * 
+     * @param nodos Lista de nodos
+     * @return Array con [minX, minY, maxX, maxY]
+     */
+    public <T> double[] getBounds(List<Nodo<T>> nodos) {
+        LayoutStats actual = measure(nodos);
         return new double[] {
-                minX - margen,
-                minY - margen,
-                maxX + margen,
-                maxY + margen
+                actual.getMinX(),
+                actual.getMinY(),
+                actual.getMaxX(),
+                actual.getMaxY()
         };
     }
 
     /**
-     * Verifica si el grafo se ha estabilizado (velocidades bajas)
+     * Verifica si el grafo se ha estabilizado según la energía global
      * 
      * @param nodos Lista de nodos
      * @return true si está estabilizado
      */
     public <T> boolean isStable(List<Nodo<T>> nodos) {
-        double umbral = 0.5;
-        for (Nodo<T> nodo : nodos) {
-            double velocidad = Math.sqrt(nodo.getVx() * nodo.getVx() + nodo.getVy() * nodo.getVy());
-            if (velocidad > umbral) {
-                return false;
-            }
-        }
-        return true;
+        return converged || nodos.isEmpty();
     }
 }
@@ -0,0 +1,185 @@
+package com.espoch.grafo.view;
+
+import com.espoch.grafo.model.Nodo;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Stop;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.List;
+
+/**
+ * Dibuja nodos y aristas con el estilo de la aplicación sobre cualquier
+ * GraphicsContext (canvas en pantalla, tiles o exportación). Las
+ * coordenadas de pantalla son {@code mundo * zoom + offset}.
+ */
+public class GraphRenderer {
+    // Configuración de visualización
+    public static final double NODE_RADIUS = 22.0;
+    public static final double ARROW_SIZE = 12.0;
+    public static final double EDGE_WIDTH = 2.5;
+    public static final Color BACKGROUND_COLOR = Color.web("#ecf0f1");
+    public static final Color EDGE_COLOR = Color.web("#2c3e50");
+    public static final Color NODE_COLOR = Color.web("#3498db"); // Parte superior del gradiente
+    public static final Color NODE_COLOR_DARK = Color.web("#2980b9"); // Parte inferior del gradiente
+
+    private static final LinearGradient NODE_GRADIENT = new LinearGradient(
+            0, 0, 0, 1, true, CycleMethod.NO_CYCLE,
+            new Stop(0, NODE_COLOR),
+            new Stop(1, NODE_COLOR_DARK));
+
+    private double zoomLevel = 1.0;
+
+    /**
+     * Establece el nivel de zoom usado para escalar posiciones y tamaños
+     */
+    public void setZoom(double zoomLevel) {
+        this.zoomLevel = zoomLevel;
+    }
+
+    public double getZoom() {
+        return zoomLevel;
+    }
+
+    /**
+     * Prepara el trazo para dibujar aristas
+     */
+    public void beginEdges(GraphicsContext gc) {
+        gc.setLineWidth(EDGE_WIDTH * zoomLevel);
+        gc.setStroke(EDGE_COLOR);
+    }
+
+    /**
+     * Dibuja una arista direccional con flecha, evitando nodos intermedios
+     *
+     * @param nodos Todos los nodos (para recortar la arista donde pasa sobre ellos)
+     */
+    public <T> void drawEdge(GraphicsContext gc, List<Nodo<T>> nodos, Nodo<T> from, Nodo<T> to,
+            double offsetX, double offsetY) {
+        double x1 = from.getX() * zoomLevel + offsetX;
+        double y1 = from.getY() * zoomLevel + offsetY;
+        double x2 = to.getX() * zoomLevel + offsetX;
+        double y2 = to.getY() * zoomLevel + offsetY;
+
+        // Calcular ángulo
+        double angle = Math.atan2(y2 - y1, x2 - x1);
+
+        // Acortar la línea para que no entre en los nodos
+        double radius = NODE_RADIUS * zoomLevel;
+        double x1Adjusted = x1 + Math.cos(angle) * radius;
+        double y1Adjusted = y1 + Math.sin(angle) * radius;
+        double x2Adjusted = x2 - Math.cos(angle) * radius;
+        double y2Adjusted = y2 - Math.sin(angle) * radius;
+
+        // Dibujar línea con segmentos que evitan otros nodos
+        drawEdgeWithClipping(gc, nodos, x1Adjusted, y1Adjusted, x2Adjusted, y2Adjusted, from, to, offsetX, offsetY);
+
+        // Dibujar flecha
+        drawArrowHead(gc, x2Adjusted, y2Adjusted, angle);
+    }
+
+    /**
+     * Dibuja una arista evitando nodos intermedios
+     */
+    private <T> void drawEdgeWithClipping(GraphicsContext gc, List<Nodo<T>> nodos, double x1, double y1,
+            double x2, double y2, Nodo<T> from, Nodo<T> to, double offsetX, double offsetY) {
+        // Dividir la línea en segmentos pequeños
+        int numSegments = 50;
+        double prevX = x1;
+        double prevY = y1;
+        boolean wasInside = false;
+
+        for (int i = 1; i <= numSegments; i++) {
+            double t = (double) i / numSegments;
+            double currentX = x1 + (x2 - x1) * t;
+            double currentY = y1 + (y2 - y1) * t;
+
+            // Verificar si el punto actual está dentro de algún nodo (excepto origen y
+            // destino)
+            boolean isInside = false;
+            for (Nodo<T> nodo : nodos) {
+                if (nodo == from || nodo == to)
+                    continue;
+
+                double nodeX = nodo.getX() * zoomLevel + offsetX;
+                double nodeY = nodo.getY() * zoomLevel + offsetY;
+                double distance = Math.sqrt(Math.pow(currentX - nodeX, 2) + Math.pow(currentY - nodeY, 2));
+
+                if (distance < NODE_RADIUS * zoomLevel) {
+                    isInside = true;
+                    break;
+                }
+            }
+
+            // Dibujar segmento solo si no está dentro de un nodo
+            if (!isInside) {
+                if (!wasInside) {
+                    // Continuar línea
+                    gc.strokeLine(prevX, prevY, currentX, currentY);
+                }
+                prevX = currentX;
+                prevY = currentY;
+            }
+
+            wasInside = isInside;
+        }
+    }
+
+    /**
+     * Dibuja la punta de flecha mejorada
+     */
+    private void drawArrowHead(GraphicsContext gc, double x, double y, double angle) {
+        double arrowSize = ARROW_SIZE * zoomLevel;
+
+        // Calcular puntos del triángulo de la flecha
+        double x1 = x - arrowSize * Math.cos(angle - Math.PI / 7);
+        double y1 = y - arrowSize * Math.sin(angle - Math.PI / 7);
+        double x2 = x - arrowSize * Math.cos(angle + Math.PI / 7);
+        double y2 = y - arrowSize * Math.sin(angle + Math.PI / 7);
+
+        // Guardar estado actual del trazo
+        double lineWidth = gc.getLineWidth();
+
+        // Dibujar flecha rellena
+        gc.setFill(gc.getStroke());
+        gc.fillPolygon(
+                new double[] { x, x1, x2 },
+                new double[] { y, y1, y2 },
+                3);
+
+        // Dibujar borde de la flecha para mejor definición
+        gc.setLineWidth(1.0 * zoomLevel);
+        gc.strokePolygon(
+                new double[] { x, x1, x2 },
+                new double[] { y, y1, y2 },
+                3);
+        gc.setLineWidth(lineWidth);
+    }
+
+    /**
+     * Dibuja un nodo con gradiente y texto
+     */
+    public <T> void drawNode(GraphicsContext gc, Nodo<T> nodo, double offsetX, double offsetY) {
+        double x = nodo.getX() * zoomLevel + offsetX;
+        double y = nodo.getY() * zoomLevel + offsetY;
+        double radius = NODE_RADIUS * zoomLevel;
+
+        // Dibujar círculo con gradiente
+        gc.setFill(NODE_GRADIENT);
+        gc.fillOval(x - radius, y - radius, radius * 2, radius * 2);
+
+        // Dibujar borde blanco
+        gc.setStroke(Color.WHITE);
+        gc.setLineWidth(EDGE_WIDTH * zoomLevel);
+        gc.strokeOval(x - radius, y - radius, radius * 2, radius * 2);
+
+        // Dibujar texto centrado
+        gc.setFill(Color.WHITE);
+        gc.setFont(Font.font("Arial", 14 * zoomLevel));
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.fillText(nodo.getValue().toString(), x, y + 5 * zoomLevel);
+    }
+}
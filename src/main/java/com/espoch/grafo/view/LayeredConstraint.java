@@ -0,0 +1,106 @@
+package com.espoch.grafo.view;
+
+import com.espoch.grafo.model.ComponentesFuertes;
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.IndiceGrafo;
+import com.espoch.grafo.model.Nodo;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Fija la y de cada nodo según su capa en el grafo (camino más largo desde
+ * una fuente), de modo que las aristas apunten hacia abajo. Los ciclos se
+ * tratan como un solo nodo: todos sus miembros comparten capa. La x la
+ * sigue decidiendo la simulación de fuerzas.
+ */
+public class LayeredConstraint implements LayoutConstraint {
+    private final Map<Nodo<?>, Double> alturas = new IdentityHashMap<>();
+    private final int numCapas;
+
+    /**
+     * Calcula las capas del estado actual del grafo (no se actualiza si el
+     * grafo cambia). Costo O(V + E).
+     * 
+     * @param grafo      Grafo a ordenar en capas
+     * @param origen     y de la primera capa
+     * @param separacion Distancia vertical entre capas
+     */
+    public <T> LayeredConstraint(GrafoDireccional<T> grafo, double origen, double separacion) {
+        IndiceGrafo<T> indice = new IndiceGrafo<>(grafo);
+        int[] capa = calcularCapas(indice);
+        int maximo = -1;
+        for (int u = 0; u < indice.size(); u++) {
+            alturas.put(indice.getNodo(u), origen + capa[u] * separacion);
+            maximo = Math.max(maximo, capa[u]);
+        }
+        this.numCapas = maximo + 1;
+    }
+
+    /**
+     * Capa de cada nodo: camino más largo desde una fuente en la
+     * condensación del grafo (componentes fuertes)
+     * 
+     * @param indice Grafo indexado
+     * @return Capa de cada nodo (0 = fuente)
+     */
+    public static int[] calcularCapas(IndiceGrafo<?> indice) {
+        int n = indice.size();
+        int[] componente = ComponentesFuertes.calcular(indice);
+        int numComponentes = 0;
+        for (int c : componente) {
+            numComponentes = Math.max(numComponentes, c + 1);
+        }
+
+        // Nodos agrupados por componente (counting sort); la numeración es
+        // topológica inversa, así que se recorren de la mayor a la menor
+        int[] inicio = new int[numComponentes + 1];
+        for (int c : componente) {
+            inicio[c + 1]++;
+        }
+        for (int c = 0; c < numComponentes; c++) {
+            inicio[c + 1] += inicio[c];
+        }
+        int[] orden = new int[n];
+        int[] siguiente = inicio.clone();
+        for (int u = 0; u < n; u++) {
+            orden[siguiente[componente[u]]++] = u;
+        }
+
+        int[] capaComponente = new int[numComponentes];
+        int[] capa = new int[n];
+        for (int c = numComponentes - 1; c >= 0; c--) {
+            for (int i = inicio[c]; i < inicio[c + 1]; i++) {
+                int u = orden[i];
+                capa[u] = capaComponente[c];
+                for (int v : indice.getSalientes(u)) {
+                    int cv = componente[v];
+                    if (cv != c)
+                        capaComponente[cv] = Math.max(capaComponente[cv], capaComponente[c] + 1);
+                }
+            }
+        }
+        return capa;
+    }
+
+    @Override
+    public void project(Nodo<?> nodo) {
+        Double y = alturas.get(nodo);
+        if (y != null)
+            nodo.setY(y);
+    }
+
+    @Override
+    public Collection<Nodo<?>> getNodos() {
+        return Collections.unmodifiableSet(alturas.keySet());
+    }
+
+    /**
+     * @return Cantidad de capas
+     */
+    public int getNumCapas() {
+        return numCapas;
+    }
+}
@@ -0,0 +1,26 @@
+package com.espoch.grafo.view;
+
+import com.espoch.grafo.model.Nodo;
+
+import java.util.Collection;
+
+/**
+ * Restricción de posición que el layout aplica después de mover cada nodo.
+ * Se implementa como una proyección: el nodo se lleva a la posición válida
+ * más cercana, sin agregar fuerzas.
+ */
+public interface LayoutConstraint {
+
+    /**
+     * Corrige la posición del nodo si la restricción le aplica
+     * 
+     * @param nodo Nodo recién movido
+     */
+    void project(Nodo<?> nodo);
+
+    /**
+     * @return Nodos cuya posición restringe (el layout solo vuelve a simular
+     *         alrededor de ellos al agregar o quitar la restricción)
+     */
+    Collection<Nodo<?>> getNodos();
+}
@@ -0,0 +1,139 @@
+package com.espoch.grafo.view;
+
+/**
+ * Métricas por frame del layout: límites del grafo, velocidad máxima y
+ * energía cinética. Se calculan en una sola pasada sobre los nodos durante
+ * {@link ForceDirectedLayout#updatePositions} y se reutilizan entre frames
+ * para no volver a recorrer el grafo.
+ */
+public class LayoutStats {
+    // Margen agregado alrededor de los nodos al reportar los límites
+    private static final double MARGEN = 100;
+
+    private double minX;
+    private double minY;
+    private double maxX;
+    private double maxY;
+    private double maxVelocitySq;
+    private double kineticEnergy;
+    private double forceEnergy;
+    private int nodeCount;
+
+    /**
+     * Reinicia los acumuladores para comenzar una nueva pasada
+     */
+    void reset() {
+        minX = Double.MAX_VALUE;
+        minY = Double.MAX_VALUE;
+        maxX = -Double.MAX_VALUE;
+        maxY = -Double.MAX_VALUE;
+        maxVelocitySq = 0;
+        kineticEnergy = 0;
+        forceEnergy = 0;
+        nodeCount = 0;
+    }
+
+    /**
+     * Acumula la posición y velocidad de un nodo
+     */
+    void accumulate(double x, double y, double vx, double vy) {
+        if (x < minX)
+            minX = x;
+        if (x > maxX)
+            maxX = x;
+        if (y < minY)
+            minY = y;
+        if (y > maxY)
+            maxY = y;
+
+        double velocidadSq = vx * vx + vy * vy;
+        if (velocidadSq > maxVelocitySq)
+            maxVelocitySq = velocidadSq;
+        kineticEnergy += 0.5 * velocidadSq;
+        nodeCount++;
+    }
+
+    /**
+     * Acumula la fuerza neta que recibió un nodo antes de mover
+     */
+    void accumulateForce(double fx, double fy) {
+        forceEnergy += fx * fx + fy * fy;
+    }
+
+    /**
+     * @return X mínima del grafo incluyendo margen
+     */
+    public double getMinX() {
+        return nodeCount == 0 ? 0 : minX - MARGEN;
+    }
+
+    /**
+     * @return Y mínima del grafo incluyendo margen
+     */
+    public double getMinY() {
+        return nodeCount == 0 ? 0 : minY - MARGEN;
+    }
+
+    /**
+     * @return X máxima del grafo incluyendo margen
+     */
+    public double getMaxX() {
+        return nodeCount == 0 ? 800 : maxX + MARGEN;
+    }
+
+    /**
+     * @return Y máxima del grafo incluyendo margen
+     */
+    public double getMaxY() {
+        return nodeCount == 0 ? 600 : maxY + MARGEN;
+    }
+
+    public double getWidth() {
+        return getMaxX() - getMinX();
+    }
+
+    public double getHeight() {
+        return getMaxY() - getMinY();
+    }
+
+    public double getCenterX() {
+        return (getMinX() + getMaxX()) / 2;
+    }
+
+    public double getCenterY() {
+        return (getMinY() + getMaxY()) / 2;
+    }
+
+    /**
+     * @return Mayor módulo de velocidad entre todos los nodos
+     */
+    public double getMaxVelocity() {
+        return Math.sqrt(maxVelocitySq);
+    }
+
+    /**
+     * @return Energía cinética total (masa unitaria)
+     */
+    public double getKineticEnergy() {
+        return kineticEnergy;
+    }
+
+    /**
+     * @return Suma de los cuadrados de las fuerzas netas (energía del sistema)
+     */
+    public double getForceEnergy() {
+        return forceEnergy;
+    }
+
+    /**
+     * @return Cantidad de nodos considerados en la pasada
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutStats{nodos=" + nodeCount + ", maxVel=" + getMaxVelocity() + ", energia=" + kineticEnergy + "}";
+    }
+}
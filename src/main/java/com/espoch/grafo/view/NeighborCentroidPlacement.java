@@ -0,0 +1,138 @@
+package com.espoch.grafo.view;
+
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.IndiceGrafo;
+import com.espoch.grafo.model.Nodo;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/**
+ * Coloca cada nodo nuevo en el centroide de sus vecinos ya colocados (arista
+ * en cualquier sentido), con un pequeño desplazamiento determinista para que
+ * no coincida exactamente con ellos. Si no tiene vecinos colocados usa la
+ * estrategia de respaldo.
+ */
+public class NeighborCentroidPlacement implements PlacementStrategy {
+    private static final double JITTER = 20.0; // Desplazamiento máximo respecto al centroide
+
+    private final PlacementStrategy fallback;
+    private final Random random;
+
+    /**
+     * Constructor
+     * 
+     * @param fallback Estrategia para nodos sin vecinos colocados
+     * @param seed     Semilla para el desplazamiento
+     */
+    public NeighborCentroidPlacement(PlacementStrategy fallback, long seed) {
+        this.fallback = fallback;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public <T> void place(GrafoDireccional<T> grafo, Nodo<T> nodo) {
+        double sumX = 0;
+        double sumY = 0;
+        int count = 0;
+
+        for (int i = 0; i < nodo.getGrado(); i++) {
+            Nodo<T> vecino = nodo.getVecino(i);
+            if (vecino != nodo) {
+                sumX += vecino.getX();
+                sumY += vecino.getY();
+                count++;
+            }
+        }
+        for (Nodo<T> otro : grafo.getNodos()) {
+            if (otro != nodo && otro.tieneVecino(nodo)) {
+                sumX += otro.getX();
+                sumY += otro.getY();
+                count++;
+            }
+        }
+
+        placeAt(grafo, nodo, sumX, sumY, count);
+    }
+
+    /**
+     * Recorre el grafo en anchura desde cada componente y coloca cada nodo en
+     * el centroide de los vecinos visitados antes que él
+     */
+    @Override
+    public <T> void placeAll(GrafoDireccional<T> grafo) {
+        IndiceGrafo<T> indice = new IndiceGrafo<>(grafo);
+        int n = indice.size();
+        boolean[] colocado = new boolean[n];
+        boolean[] encolado = new boolean[n];
+        ArrayDeque<Integer> cola = new ArrayDeque<>();
+
+        for (int inicio = 0; inicio < n; inicio++) {
+            if (encolado[inicio])
+                continue;
+            encolado[inicio] = true;
+            cola.add(inicio);
+
+            while (!cola.isEmpty()) {
+                int id = cola.poll();
+                double sumX = 0;
+                double sumY = 0;
+                int count = 0;
+
+                for (int v : indice.getSalientes(id)) {
+                    if (colocado[v]) {
+                        sumX += indice.getNodo(v).getX();
+                        sumY += indice.getNodo(v).getY();
+                        count++;
+                    } else if (!encolado[v]) {
+                        encolado[v] = true;
+                        cola.add(v);
+                    }
+                }
+                for (int v : indice.getEntrantes(id)) {
+                    if (colocado[v]) {
+                        sumX += indice.getNodo(v).getX();
+                        sumY += indice.getNodo(v).getY();
+                        count++;
+                    } else if (!encolado[v]) {
+                        encolado[v] = true;
+                        cola.add(v);
+                    }
+                }
+
+                placeAt(grafo, indice.getNodo(id), sumX, sumY, count);
+                colocado[id] = true;
+            }
+        }
+    }
+
+    /**
+     * Coloca un nodo junto a un único vecino conocido sin recorrer el grafo
+     * (carga progresiva, donde {@link #place} costaría O(V) por nodo)
+     * 
+     * @param grafo  Grafo al que pertenece el nodo
+     * @param nodo   Nodo a colocar
+     * @param vecino Vecino ya colocado, o null para usar el respaldo
+     */
+    public <T> void placeNear(GrafoDireccional<T> grafo, Nodo<T> nodo, Nodo<T> vecino) {
+        if (vecino == null) {
+            placeAt(grafo, nodo, 0, 0, 0);
+        } else {
+            placeAt(grafo, nodo, vecino.getX(), vecino.getY(), 1);
+        }
+    }
+
+    private <T> void placeAt(GrafoDireccional<T> grafo, Nodo<T> nodo, double sumX, double sumY, int count) {
+        if (count == 0) {
+            fallback.place(grafo, nodo);
+            return;
+        }
+
+        double angulo = random.nextDouble() * 2 * Math.PI;
+        double radio = JITTER * (0.5 + random.nextDouble() * 0.5);
+        nodo.setX(sumX / count + Math.cos(angulo) * radio);
+        nodo.setY(sumY / count + Math.sin(angulo) * radio);
+        nodo.setVx(0);
+        nodo.setVy(0);
+    }
+}
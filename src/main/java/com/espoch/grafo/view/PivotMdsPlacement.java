@@ -0,0 +1,281 @@
+package com.espoch.grafo.view;
+
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.IndiceGrafo;
+import com.espoch.grafo.model.Nodo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Colocación espectral para cargas masivas mediante Pivot MDS
+ * (Brandes y Pich): se calculan distancias en saltos desde unos pocos
+ * pivotes, se centra la matriz de distancias al cuadrado y se proyecta cada
+ * nodo sobre los dos vectores propios principales. El costo es
+ * O(k · (V + E)) con k pivotes, y el resultado ya refleja la estructura
+ * global del grafo, así que la simulación de fuerzas solo refina detalles.
+ */
+public class PivotMdsPlacement implements PlacementStrategy {
+    private static final int POWER_ITERATIONS = 100; // Iteraciones del método de la potencia
+    private static final double JITTER = 5.0; // Separa nodos con distancias idénticas
+
+    private final int numPivots;
+    private final double edgeLength;
+    private final double centerX;
+    private final double centerY;
+    private final Random random;
+    private final PlacementStrategy fallback;
+
+    /**
+     * Constructor
+     *
+     * @param numPivots  Cantidad de pivotes (50 suele bastar)
+     * @param edgeLength Longitud media deseada de las aristas
+     * @param centerX    Centro del layout resultante (X)
+     * @param centerY    Centro del layout resultante (Y)
+     * @param seed       Semilla para el primer pivote y el desplazamiento
+     */
+    public PivotMdsPlacement(int numPivots, double edgeLength, double centerX, double centerY, long seed) {
+        this.numPivots = numPivots;
+        this.edgeLength = edgeLength;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.random = new Random(seed);
+        this.fallback = new NeighborCentroidPlacement(new SeededRandomPlacement(seed), seed);
+    }
+
+    /**
+     * Un nodo aislado no justifica recalcular el MDS: se coloca junto a sus
+     * vecinos
+     */
+    @Override
+    public <T> void place(GrafoDireccional<T> grafo, Nodo<T> nodo) {
+        fallback.place(grafo, nodo);
+    }
+
+    @Override
+    public <T> void placeAll(GrafoDireccional<T> grafo) {
+        IndiceGrafo<T> indice = new IndiceGrafo<>(grafo);
+        double[] posiciones = calcular(indice);
+        if (posiciones == null) {
+            fallback.placeAll(grafo);
+            return;
+        }
+        aplicar(indice, posiciones);
+    }
+
+    /**
+     * Calcula las posiciones sin tocar los nodos. El índice es una copia de
+     * la estructura, así que esto puede correr en otro hilo; las
+     * posiciones se aplican después con {@link #aplicar} si el grafo no
+     * cambió mientras tanto.
+     *
+     * @param indice Estructura del grafo
+     * @return x, y de cada nodo del índice, o null si hay menos de 3 nodos
+     */
+    public <T> double[] calcular(IndiceGrafo<T> indice) {
+        int n = indice.size();
+        if (n < 3) {
+            return null;
+        }
+
+        int k = Math.min(numPivots, n);
+        double[][] c = new double[k][]; // c[p][i]: distancia del pivote p al nodo i
+        double[] minDist = new double[n];
+        Arrays.fill(minDist, Double.MAX_VALUE);
+        int[] cola = new int[n];
+
+        // Selección de pivotes max-min y BFS no dirigido desde cada uno
+        int pivote = random.nextInt(n);
+        for (int p = 0; p < k; p++) {
+            double[] dist = bfs(indice, pivote, cola);
+            c[p] = dist;
+
+            int siguiente = 0;
+            for (int i = 0; i < n; i++) {
+                if (dist[i] < minDist[i])
+                    minDist[i] = dist[i];
+                if (minDist[i] > minDist[siguiente])
+                    siguiente = i;
+            }
+            pivote = siguiente;
+        }
+
+        // Doble centrado de las distancias al cuadrado
+        double[] mediaFila = new double[n];
+        double[] mediaPivote = new double[k];
+        double mediaTotal = 0;
+        for (int p = 0; p < k; p++) {
+            double[] fila = c[p];
+            for (int i = 0; i < n; i++) {
+                double d2 = fila[i] * fila[i];
+                fila[i] = d2;
+                mediaFila[i] += d2;
+                mediaPivote[p] += d2;
+            }
+            mediaTotal += mediaPivote[p];
+            mediaPivote[p] /= n;
+        }
+        for (int i = 0; i < n; i++) {
+            mediaFila[i] /= k;
+        }
+        mediaTotal /= (double) n * k;
+        for (int p = 0; p < k; p++) {
+            double[] fila = c[p];
+            for (int i = 0; i < n; i++) {
+                fila[i] = -0.5 * (fila[i] - mediaFila[i] - mediaPivote[p] + mediaTotal);
+            }
+        }
+
+        // Matriz k x k (C^T C) y sus dos vectores propios principales
+        double[][] b = new double[k][k];
+        for (int p = 0; p < k; p++) {
+            for (int q = p; q < k; q++) {
+                double suma = 0;
+                for (int i = 0; i < n; i++) {
+                    suma += c[p][i] * c[q][i];
+                }
+                b[p][q] = suma;
+                b[q][p] = suma;
+            }
+        }
+        double[] v1 = powerIteration(b, null);
+        double[] v2 = powerIteration(b, v1);
+
+        // Proyección de cada nodo
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int p = 0; p < k; p++) {
+            double[] fila = c[p];
+            for (int i = 0; i < n; i++) {
+                xs[i] += fila[i] * v1[p];
+                ys[i] += fila[i] * v2[p];
+            }
+        }
+
+        // Escalar para que la arista media mida edgeLength
+        double sumaLongitud = 0;
+        int aristas = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j : indice.getSalientes(i)) {
+                double dx = xs[j] - xs[i];
+                double dy = ys[j] - ys[i];
+                sumaLongitud += Math.sqrt(dx * dx + dy * dy);
+                aristas++;
+            }
+        }
+        double escala = (aristas == 0 || sumaLongitud == 0) ? edgeLength : edgeLength / (sumaLongitud / aristas);
+
+        double cx = 0;
+        double cy = 0;
+        for (int i = 0; i < n; i++) {
+            cx += xs[i];
+            cy += ys[i];
+        }
+        cx /= n;
+        cy /= n;
+
+        double[] posiciones = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            posiciones[2 * i] = centerX + (xs[i] - cx) * escala + (random.nextDouble() - 0.5) * JITTER;
+            posiciones[2 * i + 1] = centerY + (ys[i] - cy) * escala + (random.nextDouble() - 0.5) * JITTER;
+        }
+        return posiciones;
+    }
+
+    /**
+     * Mueve los nodos a las posiciones calculadas con {@link #calcular}
+     *
+     * @param indice     El mismo índice que se pasó a calcular
+     * @param posiciones x, y de cada nodo del índice
+     */
+    public static <T> void aplicar(IndiceGrafo<T> indice, double[] posiciones) {
+        for (int i = 0; i < indice.size(); i++) {
+            Nodo<T> nodo = indice.getNodo(i);
+            nodo.setX(posiciones[2 * i]);
+            nodo.setY(posiciones[2 * i + 1]);
+            nodo.setVx(0);
+            nodo.setVy(0);
+        }
+    }
+
+    /**
+     * BFS ignorando el sentido de las aristas. Los nodos inalcanzables
+     * quedan a una distancia mayor que la máxima encontrada.
+     */
+    private static <T> double[] bfs(IndiceGrafo<T> indice, int origen, int[] cola) {
+        int n = indice.size();
+        double[] dist = new double[n];
+        Arrays.fill(dist, -1);
+        dist[origen] = 0;
+        int cabeza = 0;
+        int fin = 0;
+        cola[fin++] = origen;
+        double maxDist = 0;
+
+        while (cabeza < fin) {
+            int u = cola[cabeza++];
+            double du = dist[u] + 1;
+            for (int v : indice.getSalientes(u)) {
+                if (dist[v] < 0) {
+                    dist[v] = du;
+                    maxDist = du;
+                    cola[fin++] = v;
+                }
+            }
+            for (int v : indice.getEntrantes(u)) {
+                if (dist[v] < 0) {
+                    dist[v] = du;
+                    maxDist = du;
+                    cola[fin++] = v;
+                }
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (dist[i] < 0)
+                dist[i] = maxDist + 1;
+        }
+        return dist;
+    }
+
+    /**
+     * Método de la potencia sobre una matriz simétrica, ortogonalizando
+     * contra un vector ya encontrado si se indica
+     */
+    private double[] powerIteration(double[][] m, double[] ortogonal) {
+        int k = m.length;
+        double[] v = new double[k];
+        for (int i = 0; i < k; i++) {
+            v[i] = random.nextDouble() - 0.5;
+        }
+
+        double[] siguiente = new double[k];
+        for (int iter = 0; iter < POWER_ITERATIONS; iter++) {
+            for (int i = 0; i < k; i++) {
+                siguiente[i] = dot(m[i], v);
+            }
+            if (ortogonal != null) {
+                double proy = dot(siguiente, ortogonal);
+                for (int i = 0; i < k; i++) {
+                    siguiente[i] -= proy * ortogonal[i];
+                }
+            }
+            double norma = Math.sqrt(dot(siguiente, siguiente));
+            if (norma == 0)
+                break;
+            for (int i = 0; i < k; i++) {
+                v[i] = siguiente[i] / norma;
+            }
+        }
+        return v;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double suma = 0;
+        for (int i = 0; i < a.length; i++) {
+            suma += a[i] * b[i];
+        }
+        return suma;
+    }
+}
@@ -0,0 +1,32 @@
+package com.espoch.grafo.view;
+
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.Nodo;
+
+/**
+ * Estrategia de colocación inicial de nodos antes de la simulación de
+ * fuerzas. Una buena posición inicial reduce las iteraciones necesarias para
+ * converger y, si es determinista, hace reproducibles los layouts.
+ */
+public interface PlacementStrategy {
+
+    /**
+     * Coloca un único nodo (recién agregado) considerando al resto del grafo
+     * como ya colocado
+     * 
+     * @param grafo Grafo al que pertenece el nodo
+     * @param nodo  Nodo a colocar
+     */
+    <T> void place(GrafoDireccional<T> grafo, Nodo<T> nodo);
+
+    /**
+     * Coloca todos los nodos del grafo (carga masiva)
+     * 
+     * @param grafo Grafo a colocar
+     */
+    default <T> void placeAll(GrafoDireccional<T> grafo) {
+        for (Nodo<T> nodo : grafo.getNodos()) {
+            place(grafo, nodo);
+        }
+    }
+}
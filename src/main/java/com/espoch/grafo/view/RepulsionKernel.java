@@ -0,0 +1,76 @@
+package com.espoch.grafo.view;
+
+/**
+ * Núcleo de la repulsión entre todos los pares de nodos, sobre coordenadas
+ * empaquetadas en arreglos primitivos. Es el lazo O(n²) del layout de
+ * fuerzas: para cada nodo i acumula -k · Σ (pj - pi) / d³, con la distancia
+ * acotada a 1 como mínimo.
+ *
+ * Hay una versión escalar y una vectorial (Vector API, módulo incubador
+ * {@code jdk.incubator.vector}). La vectorial solo se usa si el módulo está
+ * cargado ({@code --add-modules jdk.incubator.vector}); si no, o si se
+ * define {@code -Dgrafo.simd=false}, se usa la escalar; también en CPUs
+ * sin vectores de al menos 256 bits, donde la vectorial es más lenta.
+ * Ambas dan el mismo resultado salvo por el orden de las sumas.
+ */
+public interface RepulsionKernel {
+
+    /**
+     * Suma la repulsión de todos los pares a las fuerzas
+     * 
+     * @param x        Coordenadas x (n valores)
+     * @param y        Coordenadas y (n valores)
+     * @param n        Cantidad de nodos
+     * @param fx       Fuerzas en x, se acumulan
+     * @param fy       Fuerzas en y, se acumulan
+     * @param strength Constante de repulsión
+     */
+    void accumulate(double[] x, double[] y, int n, double[] fx, double[] fy, double strength);
+
+    /**
+     * @return Nombre para reportes (p. ej. "escalar", "vector-256")
+     */
+    String getName();
+
+    /**
+     * @return Núcleo escalar (recorre cada par una sola vez)
+     */
+    static RepulsionKernel scalar() {
+        return new ScalarRepulsionKernel();
+    }
+
+    /**
+     * @return true si la Vector API está disponible en tiempo de ejecución
+     */
+    static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    /**
+     * Núcleo vectorial con un ancho de registro dado
+     * 
+     * @param bits Ancho del vector (128, 256 o 512)
+     * @return Núcleo vectorial
+     * @throws IllegalStateException si la Vector API no está disponible
+     */
+    static RepulsionKernel vector(int bits) {
+        if (!isVectorAvailable())
+            throw new IllegalStateException("Falta --add-modules jdk.incubator.vector");
+        return VectorRepulsionKernel.of(bits);
+    }
+
+    /**
+     * @return El núcleo vectorial con el ancho preferido por la CPU, o el
+     *         escalar si la Vector API no está disponible o está
+     *         desactivada, o si la CPU solo ofrece vectores de 128 bits
+     */
+    static RepulsionKernel best() {
+        if (!Boolean.parseBoolean(System.getProperty("grafo.simd", "true")) || !isVectorAvailable())
+            return scalar();
+        try {
+            return VectorRepulsionKernel.preferred();
+        } catch (LinkageError e) {
+            return scalar();
+        }
+    }
+}
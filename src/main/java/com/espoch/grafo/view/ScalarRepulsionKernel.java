@@ -0,0 +1,34 @@
+package com.espoch.grafo.view;
+
+/**
+ * Repulsión escalar: cada par se calcula una vez y se aplica a ambos nodos
+ */
+class ScalarRepulsionKernel implements RepulsionKernel {
+
+    @Override
+    public void accumulate(double[] x, double[] y, int n, double[] fx, double[] fy, double strength) {
+        for (int i = 0; i < n; i++) {
+            double xi = x[i];
+            double yi = y[i];
+            double sumaX = 0;
+            double sumaY = 0;
+            for (int j = i + 1; j < n; j++) {
+                double dx = x[j] - xi;
+                double dy = y[j] - yi;
+                double distancia = Math.max(1.0, Math.sqrt(dx * dx + dy * dy));
+                double factor = strength / (distancia * distancia * distancia);
+                sumaX += dx * factor;
+                sumaY += dy * factor;
+                fx[j] += dx * factor;
+                fy[j] += dy * factor;
+            }
+            fx[i] -= sumaX;
+            fy[i] -= sumaY;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "escalar";
+    }
+}
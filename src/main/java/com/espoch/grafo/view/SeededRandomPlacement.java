@@ -0,0 +1,52 @@
+package com.espoch.grafo.view;
+
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.Nodo;
+
+import java.util.Random;
+
+/**
+ * Coloca los nodos al azar dentro de un rectángulo usando una semilla fija,
+ * de modo que la misma secuencia de operaciones produce el mismo layout
+ */
+public class SeededRandomPlacement implements PlacementStrategy {
+    private final Random random;
+    private final double minX;
+    private final double minY;
+    private final double width;
+    private final double height;
+
+    /**
+     * Constructor con el rectángulo por defecto (el mismo que usa {@link Nodo})
+     * 
+     * @param seed Semilla del generador aleatorio
+     */
+    public SeededRandomPlacement(long seed) {
+        this(seed, 200, 150, 400, 300);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param seed   Semilla del generador aleatorio
+     * @param minX   Esquina superior izquierda del rectángulo (X)
+     * @param minY   Esquina superior izquierda del rectángulo (Y)
+     * @param width  Ancho del rectángulo
+     * @param height Alto del rectángulo
+     */
+    public SeededRandomPlacement(long seed, double minX, double minY, double width, double height) {
+        this.random = new Random(seed);
+        this.minX = minX;
+        this.minY = minY;
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public <T> void place(GrafoDireccional<T> grafo, Nodo<T> nodo) {
+        nodo.setX(minX + random.nextDouble() * width);
+        nodo.setY(minY + random.nextDouble() * height);
+        nodo.setVx(0);
+        nodo.setVy(0);
+    }
+}
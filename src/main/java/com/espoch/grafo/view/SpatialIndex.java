@@ -0,0 +1,343 @@
+package com.espoch.grafo.view;
+
+import com.espoch.grafo.model.Nodo;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice espacial para encontrar el nodo o la arista bajo el mouse sin
+ * recorrer todo el grafo. Los nodos se guardan en una grilla uniforme en
+ * formato CSR (celda → nodos), reconstruida en O(V) con un conteo por
+ * celda; el tamaño de celda se ajusta para que haya del orden de una
+ * celda por nodo. Una consulta solo revisa las celdas que toca el radio
+ * de búsqueda.
+ *
+ * Las aristas se indexan aparte, recorriendo las celdas que cruza cada
+ * segmento, y solo cuando se consulta una arista con el índice vigente
+ * (normalmente con el layout quieto). Esa grilla usa celdas de al menos
+ * media arista promedio, así que cada arista ocupa pocas celdas.
+ */
+public class SpatialIndex {
+    private static final double MIN_CELL_SIZE = GraphRenderer.NODE_RADIUS * 2;
+    private static final int MAX_CELLS_PER_EDGE = 1 << 16; // Límite de seguridad para aristas enormes
+    private static final double EDGE_CELLS_PER_LENGTH = 2.0; // Celdas de aristas por arista promedio
+
+    // Grilla de nodos
+    private Nodo<?>[] nodos = new Nodo<?>[0];
+    private int[] celdaDeNodo = new int[0];
+    private int[] orden = new int[0]; // Índices de nodos agrupados por celda
+    private int[] inicio = new int[1]; // inicio[c]..inicio[c+1]: nodos de la celda c
+    private int numNodos;
+    private double minX;
+    private double minY;
+    private double cellSize = MIN_CELL_SIZE;
+    private int cols;
+    private int rows;
+    private boolean valid;
+
+    // Grilla de aristas (perezosa)
+    private Nodo<?>[] aristaDesde = new Nodo<?>[0];
+    private Nodo<?>[] aristaHacia = new Nodo<?>[0];
+    private int[] inicioAristas = new int[1];
+    private int[] aristasPorCelda = new int[0];
+    private double cellSizeAristas;
+    private int colsAristas;
+    private int rowsAristas;
+    private boolean aristasValidas;
+
+    /**
+     * Marca el índice como obsoleto (nodos agregados, eliminados o movidos
+     * fuera del layout)
+     */
+    public void invalidate() {
+        valid = false;
+        aristasValidas = false;
+    }
+
+    /**
+     * @return true si refleja las posiciones actuales
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Reconstruye el índice calculando primero los límites de los nodos
+     */
+    public <T> void rebuild(List<Nodo<T>> lista) {
+        double x0 = Double.MAX_VALUE, y0 = Double.MAX_VALUE;
+        double x1 = -Double.MAX_VALUE, y1 = -Double.MAX_VALUE;
+        for (Nodo<T> nodo : lista) {
+            x0 = Math.min(x0, nodo.getX());
+            y0 = Math.min(y0, nodo.getY());
+            x1 = Math.max(x1, nodo.getX());
+            y1 = Math.max(y1, nodo.getY());
+        }
+        rebuild(lista, x0, y0, x1, y1);
+    }
+
+    /**
+     * Reconstruye el índice con límites ya conocidos (p. ej. los que
+     * acumuló {@link ForceDirectedLayout#updatePositions})
+     */
+    public <T> void rebuild(List<Nodo<T>> lista, double x0, double y0, double x1, double y1) {
+        int n = lista.size();
+        aristasValidas = false;
+        numNodos = n;
+        if (n == 0) {
+            cols = rows = 0;
+            inicio = new int[1];
+            valid = true;
+            return;
+        }
+
+        // Del orden de una celda por nodo, sin bajar del diámetro de un nodo
+        double ancho = Math.max(x1 - x0, 1);
+        double alto = Math.max(y1 - y0, 1);
+        cellSize = Math.max(MIN_CELL_SIZE, Math.sqrt(ancho * alto / n));
+        minX = x0;
+        minY = y0;
+        cols = (int) (ancho / cellSize) + 1;
+        rows = (int) (alto / cellSize) + 1;
+        int numCeldas = cols * rows;
+
+        if (nodos.length < n) {
+            nodos = new Nodo<?>[n];
+            celdaDeNodo = new int[n];
+            orden = new int[n];
+        } else {
+            Arrays.fill(nodos, n, nodos.length, null); // No retener nodos eliminados
+        }
+        if (inicio.length < numCeldas + 1) {
+            inicio = new int[numCeldas + 1];
+        } else {
+            Arrays.fill(inicio, 0, numCeldas + 1, 0);
+        }
+
+        // Conteo por celda, sumas prefijas y llenado
+        int i = 0;
+        for (Nodo<T> nodo : lista) {
+            int celda = celda(columna(nodo.getX()), fila(nodo.getY()));
+            nodos[i] = nodo;
+            celdaDeNodo[i] = celda;
+            inicio[celda + 1]++;
+            i++;
+        }
+        for (int c = 0; c < numCeldas; c++) {
+            inicio[c + 1] += inicio[c];
+        }
+        for (int j = n - 1; j >= 0; j--) {
+            orden[--inicio[celdaDeNodo[j] + 1]] = j;
+        }
+        // Al llenar de atrás hacia adelante inicio[c + 1] quedó en el comienzo de c
+        System.arraycopy(inicio, 1, inicio, 0, numCeldas);
+        inicio[numCeldas] = n;
+        valid = true;
+    }
+
+    /**
+     * Busca el nodo más cercano a un punto
+     *
+     * @param x     Coordenada X del mundo
+     * @param y     Coordenada Y del mundo
+     * @param radio Distancia máxima
+     * @return El nodo, o null si no hay ninguno dentro del radio
+     */
+    public Nodo<?> nodeAt(double x, double y, double radio) {
+        if (numNodos == 0)
+            return null;
+
+        int c0 = Math.max(0, columna(x - radio));
+        int c1 = Math.min(cols - 1, columna(x + radio));
+        int f0 = Math.max(0, fila(y - radio));
+        int f1 = Math.min(rows - 1, fila(y + radio));
+
+        Nodo<?> mejor = null;
+        double mejorDist = radio * radio;
+        for (int f = f0; f <= f1; f++) {
+            for (int c = c0; c <= c1; c++) {
+                int celda = celda(c, f);
+                for (int k = inicio[celda]; k < inicio[celda + 1]; k++) {
+                    Nodo<?> nodo = nodos[orden[k]];
+                    double dx = nodo.getX() - x;
+                    double dy = nodo.getY() - y;
+                    double d = dx * dx + dy * dy;
+                    if (d <= mejorDist) {
+                        mejorDist = d;
+                        mejor = nodo;
+                    }
+                }
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Busca la arista más cercana a un punto. La primera consulta después
+     * de reconstruir el índice indexa las aristas en O(E · celdas por arista).
+     *
+     * @param x          Coordenada X del mundo
+     * @param y          Coordenada Y del mundo
+     * @param tolerancia Distancia máxima al segmento
+     * @return [origen, destino], o null si no hay ninguna cerca
+     */
+    public Nodo<?>[] edgeAt(double x, double y, double tolerancia) {
+        if (numNodos == 0)
+            return null;
+        if (!aristasValidas)
+            indexarAristas();
+
+        int c0 = clamp((x - tolerancia - minX) / cellSizeAristas, colsAristas);
+        int c1 = clamp((x + tolerancia - minX) / cellSizeAristas, colsAristas);
+        int f0 = clamp((y - tolerancia - minY) / cellSizeAristas, rowsAristas);
+        int f1 = clamp((y + tolerancia - minY) / cellSizeAristas, rowsAristas);
+
+        int mejor = -1;
+        double mejorDist = tolerancia * tolerancia;
+        for (int f = f0; f <= f1; f++) {
+            for (int c = c0; c <= c1; c++) {
+                int celda = f * colsAristas + c;
+                for (int k = inicioAristas[celda]; k < inicioAristas[celda + 1]; k++) {
+                    int e = aristasPorCelda[k];
+                    double d = distanciaASegmento(x, y, aristaDesde[e], aristaHacia[e]);
+                    if (d <= mejorDist) {
+                        mejorDist = d;
+                        mejor = e;
+                    }
+                }
+            }
+        }
+        return mejor < 0 ? null : new Nodo<?>[] { aristaDesde[mejor], aristaHacia[mejor] };
+    }
+
+    /**
+     * Indexa cada arista en las celdas que cruza su segmento
+     */
+    private void indexarAristas() {
+        int total = 0;
+        for (int i = 0; i < numNodos; i++) {
+            total += nodos[i].getGrado();
+        }
+        if (aristaDesde.length < total) {
+            aristaDesde = new Nodo<?>[total];
+            aristaHacia = new Nodo<?>[total];
+        }
+        int e = 0;
+        double sumaLargos = 0;
+        for (int i = 0; i < numNodos; i++) {
+            for (int v = 0; v < nodos[i].getGrado(); v++) {
+                Nodo<?> vecino = nodos[i].getVecino(v);
+                aristaDesde[e] = nodos[i];
+                aristaHacia[e] = vecino;
+                sumaLargos += Math.hypot(vecino.getX() - nodos[i].getX(), vecino.getY() - nodos[i].getY());
+                e++;
+            }
+        }
+        Arrays.fill(aristaDesde, total, aristaDesde.length, null);
+        Arrays.fill(aristaHacia, total, aristaHacia.length, null);
+
+        // Celdas más grandes que las de nodos si las aristas son largas
+        double largoMedio = total == 0 ? 0 : sumaLargos / total;
+        cellSizeAristas = Math.max(cellSize, largoMedio / EDGE_CELLS_PER_LENGTH);
+        colsAristas = (int) (cols * cellSize / cellSizeAristas) + 1;
+        rowsAristas = (int) (rows * cellSize / cellSizeAristas) + 1;
+
+        // Dos recorridos: contar por celda y luego llenar
+        int numCeldas = colsAristas * rowsAristas;
+        inicioAristas = new int[numCeldas + 1];
+        for (int k = 0; k < total; k++) {
+            recorrerCeldas(aristaDesde[k], aristaHacia[k], k, null);
+        }
+        for (int c = 0; c < numCeldas; c++) {
+            inicioAristas[c + 1] += inicioAristas[c];
+        }
+        aristasPorCelda = new int[inicioAristas[numCeldas]];
+        int[] llenado = Arrays.copyOf(inicioAristas, numCeldas);
+        for (int k = 0; k < total; k++) {
+            recorrerCeldas(aristaDesde[k], aristaHacia[k], k, llenado);
+        }
+        aristasValidas = true;
+    }
+
+    /**
+     * Recorre las celdas que cruza un segmento (Amanatides y Woo). Sin
+     * {@code llenado} solo cuenta; con él agrega la arista a cada celda.
+     */
+    private void recorrerCeldas(Nodo<?> desde, Nodo<?> hacia, int arista, int[] llenado) {
+        double x1 = desde.getX() - minX;
+        double y1 = desde.getY() - minY;
+        double x2 = hacia.getX() - minX;
+        double y2 = hacia.getY() - minY;
+        double lado = cellSizeAristas;
+        int c = clamp(x1 / lado, colsAristas);
+        int f = clamp(y1 / lado, rowsAristas);
+        int cFin = clamp(x2 / lado, colsAristas);
+        int fFin = clamp(y2 / lado, rowsAristas);
+
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        int pasoC = dx > 0 ? 1 : -1;
+        int pasoF = dy > 0 ? 1 : -1;
+        double deltaC = dx == 0 ? Double.MAX_VALUE : lado / Math.abs(dx);
+        double deltaF = dy == 0 ? Double.MAX_VALUE : lado / Math.abs(dy);
+        double limiteC = dx == 0 ? Double.MAX_VALUE
+                : ((dx > 0 ? (c + 1) * lado : c * lado) - x1) / dx;
+        double limiteF = dy == 0 ? Double.MAX_VALUE
+                : ((dy > 0 ? (f + 1) * lado : f * lado) - y1) / dy;
+
+        for (int pasos = 0; pasos < MAX_CELLS_PER_EDGE; pasos++) {
+            int celda = f * colsAristas + c;
+            if (llenado == null) {
+                inicioAristas[celda + 1]++;
+            } else {
+                aristasPorCelda[llenado[celda]++] = arista;
+            }
+            if (c == cFin && f == fFin)
+                break;
+
+            if (limiteC < limiteF) {
+                limiteC += deltaC;
+                c = Math.max(0, Math.min(colsAristas - 1, c + pasoC));
+            } else {
+                limiteF += deltaF;
+                f = Math.max(0, Math.min(rowsAristas - 1, f + pasoF));
+            }
+        }
+    }
+
+    private static double distanciaASegmento(double x, double y, Nodo<?> desde, Nodo<?> hacia) {
+        double ax = desde.getX();
+        double ay = desde.getY();
+        double bx = hacia.getX() - ax;
+        double by = hacia.getY() - ay;
+        double largo2 = bx * bx + by * by;
+        double t = largo2 == 0 ? 0 : Math.max(0, Math.min(1, ((x - ax) * bx + (y - ay) * by) / largo2));
+        double dx = x - (ax + t * bx);
+        double dy = y - (ay + t * by);
+        return dx * dx + dy * dy;
+    }
+
+    private int columna(double x) {
+        return clamp((x - minX) / cellSize, cols);
+    }
+
+    private int fila(double y) {
+        return clamp((y - minY) / cellSize, rows);
+    }
+
+    private int celda(int c, int f) {
+        return f * cols + c;
+    }
+
+    private static int clamp(double v, int n) {
+        return (int) Math.max(0, Math.min(n - 1, v));
+    }
+
+    /**
+     * @return Cantidad de nodos indexados
+     */
+    public int size() {
+        return numNodos;
+    }
+}
@@ -0,0 +1,711 @@
+package com.espoch.grafo.view;
+
+import com.espoch.grafo.model.IndiceGrafo;
+import com.espoch.grafo.model.MapaLongInt;
+import com.espoch.grafo.model.Nodo;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Layout jerárquico (Sugiyama) para grafos dirigidos casi acíclicos, como
+ * alternativa a {@link ForceDirectedLayout}. Se calcula de una sola vez, sin
+ * simulación, en cuatro fases:
+ *
+ * 1. Eliminación de ciclos: se invierten las aristas de retroceso de un DFS.
+ * 2. Capas por camino más largo desde las fuentes, seguido de una pasada
+ * que baja cada nodo dentro de su rango si eso acorta sus aristas (la
+ * misma función objetivo que network simplex, optimizada nodo por nodo).
+ * Las aristas que saltan varias capas se parten con nodos ficticios.
+ * 3. Minimización de cruces con barridos de baricentro alternando hacia
+ * abajo y hacia arriba; se conserva el orden con menos cruces (contados
+ * con un árbol de Fenwick en O(E log V) por barrido).
+ * 4. Coordenada x con Brandes–Köpf: cuatro alineaciones verticales por
+ * medianas, compactación horizontal por camino más largo sobre el grafo de
+ * bloques y balanceo por la media de las dos medianas.
+ *
+ * Todo es O((V + D) log V) por barrido, con D nodos ficticios. No usa
+ * JavaFX, así que sirve también sin interfaz. {@link #calcular} trabaja
+ * sobre una copia indexada y no toca los nodos, así que puede correr fuera
+ * del hilo de la interfaz (una ejecución a la vez por instancia).
+ */
+public class SugiyamaLayout {
+    private static final double LAYER_SPACING = 120.0; // Distancia vertical entre capas
+    private static final double NODE_SPACING = 70.0; // Ancho reservado para un nodo real
+    private static final double DUMMY_SPACING = 20.0; // Ancho reservado para un nodo ficticio
+    private static final int MAX_SWEEPS = 24; // Barridos de baricentro como máximo
+    private static final int SWEEPS_WITHOUT_GAIN = 4; // Barridos seguidos sin mejora para detenerse
+    private static final int MAX_SPAN = 32; // Aristas más largas no se enrutan (se dibujan rectas sin ficticios)
+
+    // Grafo propio (reales 0..n-1, ficticios n..total-1)
+    private int n;
+    private int total;
+    private int[] capaDe;
+    private int[] arribaInicio;
+    private int[] arriba; // Vecinos en la capa anterior
+    private int[] abajoInicio;
+    private int[] abajo; // Vecinos en la capa siguiente
+    private int[][] capas; // Orden de cada capa
+    private int[] pos; // Posición de cada nodo en su capa
+    private MapaLongInt conflictos; // Aristas (superior, inferior) con conflicto de tipo 1
+
+    // Resultado de la última ejecución
+    private int numCapas;
+    private int aristasInvertidas;
+    private long cruces;
+
+    /**
+     * Calcula el layout y asigna x e y a todos los nodos. Las aristas hacia
+     * nodos que no están en la lista se ignoran.
+     *
+     * @param nodos Lista de nodos del grafo
+     */
+    public <T> void apply(List<Nodo<T>> nodos) {
+        IndiceGrafo<T> indice = new IndiceGrafo<>(nodos);
+        aplicar(indice, calcular(indice));
+    }
+
+    /**
+     * Calcula el layout sin modificar los nodos
+     *
+     * @param indice Copia indexada del grafo
+     * @return x, y intercalados por índice de nodo
+     */
+    public <T> double[] calcular(IndiceGrafo<T> indice) {
+        n = indice.size();
+        if (n == 0) {
+            numCapas = 0;
+            aristasInvertidas = 0;
+            cruces = 0;
+            return new double[0];
+        }
+
+        int[][] dag = quitarCiclos(indice);
+        int[] topologico = new int[n];
+        int[] capa = capasPorCaminoMasLargo(dag, topologico);
+        acortarAristas(dag, capa, topologico);
+        construirGrafoPropio(dag, capa, topologico);
+        minimizarCruces();
+        marcarConflictos();
+
+        double[][] xs = new double[4][];
+        for (int d = 0; d < 4; d++) {
+            xs[d] = alinearYCompactar(d < 2, d % 2 == 0);
+        }
+        double[] x = balancear(xs);
+
+        double[] posiciones = new double[2 * n];
+        for (int v = 0; v < n; v++) {
+            posiciones[2 * v] = x[v];
+            posiciones[2 * v + 1] = capaDe[v] * LAYER_SPACING;
+        }
+
+        // Liberar el grafo propio, que puede ser mucho más grande que el original
+        capaDe = arribaInicio = arriba = abajoInicio = abajo = pos = null;
+        capas = null;
+        conflictos = null;
+        return posiciones;
+    }
+
+    /**
+     * Mueve los nodos del índice a las posiciones calculadas y los deja sin
+     * velocidad
+     *
+     * @param indice     El mismo índice que se pasó a {@link #calcular}
+     * @param posiciones Resultado de {@link #calcular}
+     */
+    public static <T> void aplicar(IndiceGrafo<T> indice, double[] posiciones) {
+        for (int v = 0; v < indice.size(); v++) {
+            Nodo<T> nodo = indice.getNodo(v);
+            nodo.setX(posiciones[2 * v]);
+            nodo.setY(posiciones[2 * v + 1]);
+            nodo.setVx(0);
+            nodo.setVy(0);
+        }
+    }
+
+    /**
+     * @return Capas de la última ejecución
+     */
+    public int getNumCapas() {
+        return numCapas;
+    }
+
+    /**
+     * @return Nodos ficticios que se agregaron en la última ejecución
+     */
+    public int getNumDummies() {
+        return total - n;
+    }
+
+    /**
+     * @return Aristas invertidas para romper ciclos en la última ejecución
+     */
+    public int getAristasInvertidas() {
+        return aristasInvertidas;
+    }
+
+    /**
+     * @return Cruces entre capas del orden elegido (contando los tramos de
+     *         los nodos ficticios)
+     */
+    public long getCruces() {
+        return cruces;
+    }
+
+    /**
+     * Fase 1: DFS iterativo; cada arista hacia un nodo que sigue en la pila
+     * cierra un ciclo y se invierte. Los lazos se descartan.
+     *
+     * @return Aristas salientes del grafo acíclico resultante
+     */
+    private int[][] quitarCiclos(IndiceGrafo<?> indice) {
+        int[] estado = new int[n]; // 0 = sin visitar, 1 = en la pila, 2 = terminado
+        int[] pila = new int[n];
+        int[] siguiente = new int[n];
+        boolean[][] invertida = new boolean[n][];
+        for (int u = 0; u < n; u++) {
+            invertida[u] = new boolean[indice.getSalientes(u).length];
+        }
+
+        aristasInvertidas = 0;
+        for (int raiz = 0; raiz < n; raiz++) {
+            if (estado[raiz] != 0)
+                continue;
+            int cima = 0;
+            pila[cima++] = raiz;
+            estado[raiz] = 1;
+            while (cima > 0) {
+                int u = pila[cima - 1];
+                int[] salientes = indice.getSalientes(u);
+                if (siguiente[u] < salientes.length) {
+                    int i = siguiente[u]++;
+                    int v = salientes[i];
+                    if (estado[v] == 1) {
+                        invertida[u][i] = true;
+                        if (v != u)
+                            aristasInvertidas++;
+                    } else if (estado[v] == 0) {
+                        estado[v] = 1;
+                        pila[cima++] = v;
+                    }
+                } else {
+                    estado[u] = 2;
+                    cima--;
+                }
+            }
+        }
+
+        int[] grado = new int[n];
+        for (int u = 0; u < n; u++) {
+            int[] salientes = indice.getSalientes(u);
+            for (int i = 0; i < salientes.length; i++) {
+                if (salientes[i] != u)
+                    grado[invertida[u][i] ? salientes[i] : u]++;
+            }
+        }
+        int[][] dag = new int[n][];
+        for (int u = 0; u < n; u++) {
+            dag[u] = new int[grado[u]];
+        }
+        Arrays.fill(grado, 0);
+        for (int u = 0; u < n; u++) {
+            int[] salientes = indice.getSalientes(u);
+            for (int i = 0; i < salientes.length; i++) {
+                int v = salientes[i];
+                if (v == u)
+                    continue;
+                if (invertida[u][i])
+                    dag[v][grado[v]++] = u;
+                else
+                    dag[u][grado[u]++] = v;
+            }
+        }
+        return dag;
+    }
+
+    /**
+     * Fase 2: capa de cada nodo = camino más largo desde una fuente
+     * (algoritmo de Kahn)
+     *
+     * @param topologico Recibe el orden topológico
+     * @return Capa de cada nodo
+     */
+    private int[] capasPorCaminoMasLargo(int[][] dag, int[] topologico) {
+        int[] entrada = new int[n];
+        for (int[] salientes : dag) {
+            for (int v : salientes) {
+                entrada[v]++;
+            }
+        }
+        int cabeza = 0;
+        int cola = 0;
+        for (int u = 0; u < n; u++) {
+            if (entrada[u] == 0)
+                topologico[cola++] = u;
+        }
+
+        int[] capa = new int[n];
+        numCapas = 1;
+        while (cabeza < cola) {
+            int u = topologico[cabeza++];
+            numCapas = Math.max(numCapas, capa[u] + 1);
+            for (int v : dag[u]) {
+                capa[v] = Math.max(capa[v], capa[u] + 1);
+                if (--entrada[v] == 0)
+                    topologico[cola++] = v;
+            }
+        }
+        return capa;
+    }
+
+    /**
+     * Recorre los nodos en orden topológico inverso y baja hasta justo
+     * encima de su sucesor más cercano a los que tienen más aristas
+     * salientes que entrantes: así se reduce la longitud total de las
+     * aristas (y los nodos ficticios) sin romper el orden de capas
+     */
+    private void acortarAristas(int[][] dag, int[] capa, int[] topologico) {
+        int[] entrada = new int[n];
+        for (int[] salientes : dag) {
+            for (int v : salientes) {
+                entrada[v]++;
+            }
+        }
+        for (int t = n - 1; t >= 0; t--) {
+            int u = topologico[t];
+            if (dag[u].length <= entrada[u])
+                continue;
+            int limite = Integer.MAX_VALUE;
+            for (int v : dag[u]) {
+                limite = Math.min(limite, capa[v] - 1);
+            }
+            capa[u] = Math.max(capa[u], limite);
+        }
+
+        // Puede quedar alguna capa vacía arriba
+        int minima = Integer.MAX_VALUE;
+        for (int c : capa) {
+            minima = Math.min(minima, c);
+        }
+        numCapas = 0;
+        for (int u = 0; u < n; u++) {
+            capa[u] -= minima;
+            numCapas = Math.max(numCapas, capa[u] + 1);
+        }
+    }
+
+    /**
+     * Parte las aristas largas con nodos ficticios y arma las adyacencias
+     * entre capas consecutivas. Las que saltan más de {@value #MAX_SPAN}
+     * capas quedan fuera del grafo propio. El orden inicial de cada capa es
+     * el orden topológico.
+     */
+    private void construirGrafoPropio(int[][] dag, int[] capa, int[] topologico) {
+        int ficticios = 0;
+        int numAristas = 0;
+        for (int u = 0; u < n; u++) {
+            for (int v : dag[u]) {
+                if (capa[v] - capa[u] <= MAX_SPAN) {
+                    ficticios += capa[v] - capa[u] - 1;
+                    numAristas += capa[v] - capa[u];
+                }
+            }
+        }
+        total = n + ficticios;
+        capaDe = Arrays.copyOf(capa, total);
+        int[] desde = new int[numAristas];
+        int[] hacia = new int[numAristas];
+        int[] secuencia = new int[total];
+
+        int siguienteFicticio = n;
+        int k = 0;
+        int s = 0;
+        for (int t = 0; t < n; t++) {
+            int u = topologico[t];
+            secuencia[s++] = u;
+            for (int v : dag[u]) {
+                if (capa[v] - capa[u] > MAX_SPAN)
+                    continue;
+                int anterior = u;
+                for (int c = capa[u] + 1; c < capa[v]; c++) {
+                    int d = siguienteFicticio++;
+                    capaDe[d] = c;
+                    secuencia[s++] = d;
+                    desde[k] = anterior;
+                    hacia[k++] = d;
+                    anterior = d;
+                }
+                desde[k] = anterior;
+                hacia[k++] = v;
+            }
+        }
+
+        arribaInicio = new int[total + 1];
+        abajoInicio = new int[total + 1];
+        arriba = new int[numAristas];
+        abajo = new int[numAristas];
+        llenarCsr(hacia, desde, arribaInicio, arriba);
+        llenarCsr(desde, hacia, abajoInicio, abajo);
+
+        // Capas con el orden de la secuencia (counting sort estable)
+        int[] tamaño = new int[numCapas];
+        for (int v = 0; v < total; v++) {
+            tamaño[capaDe[v]]++;
+        }
+        capas = new int[numCapas][];
+        for (int c = 0; c < numCapas; c++) {
+            capas[c] = new int[tamaño[c]];
+        }
+        Arrays.fill(tamaño, 0);
+        pos = new int[total];
+        for (int i = 0; i < total; i++) {
+            int v = secuencia[i];
+            int c = capaDe[v];
+            pos[v] = tamaño[c];
+            capas[c][tamaño[c]++] = v;
+        }
+    }
+
+    /**
+     * Llena una adyacencia CSR agrupando los destinos por origen
+     */
+    private void llenarCsr(int[] origen, int[] destino, int[] inicio, int[] lista) {
+        for (int u : origen) {
+            inicio[u + 1]++;
+        }
+        for (int v = 0; v < total; v++) {
+            inicio[v + 1] += inicio[v];
+        }
+        int[] siguiente = Arrays.copyOf(inicio, total);
+        for (int i = 0; i < origen.length; i++) {
+            lista[siguiente[origen[i]]++] = destino[i];
+        }
+    }
+
+    /**
+     * Fase 3: barridos de baricentro; se queda con el orden de menos cruces
+     */
+    private void minimizarCruces() {
+        int[][] mejor = copiarCapas();
+        long mejoresCruces = contarCruces();
+        int sinMejora = 0;
+        for (int barrido = 0; barrido < MAX_SWEEPS && mejoresCruces > 0 && sinMejora < SWEEPS_WITHOUT_GAIN;
+                barrido++) {
+            boolean haciaAbajo = barrido % 2 == 0;
+            if (haciaAbajo) {
+                for (int c = 1; c < numCapas; c++) {
+                    ordenarPorBaricentro(capas[c], arribaInicio, arriba);
+                }
+            } else {
+                for (int c = numCapas - 2; c >= 0; c--) {
+                    ordenarPorBaricentro(capas[c], abajoInicio, abajo);
+                }
+            }
+
+            long actuales = contarCruces();
+            if (actuales < mejoresCruces) {
+                mejoresCruces = actuales;
+                mejor = copiarCapas();
+                sinMejora = 0;
+            } else {
+                sinMejora++;
+            }
+        }
+
+        capas = mejor;
+        for (int[] capa : capas) {
+            for (int i = 0; i < capa.length; i++) {
+                pos[capa[i]] = i;
+            }
+        }
+        cruces = mejoresCruces;
+    }
+
+    /**
+     * Reordena una capa por el promedio de las posiciones de sus vecinos en
+     * la capa fija; los nodos sin vecinos conservan su posición. El orden se
+     * hace sobre claves primitivas (baricentro como float, posición actual
+     * para desempatar).
+     */
+    private void ordenarPorBaricentro(int[] capa, int[] inicio, int[] vecinos) {
+        long[] claves = new long[capa.length];
+        for (int i = 0; i < capa.length; i++) {
+            int v = capa[i];
+            int grado = inicio[v + 1] - inicio[v];
+            double baricentro = i;
+            if (grado > 0) {
+                long suma = 0;
+                for (int j = inicio[v]; j < inicio[v + 1]; j++) {
+                    suma += pos[vecinos[j]];
+                }
+                baricentro = (double) suma / grado;
+            }
+            claves[i] = ((long) Float.floatToIntBits((float) baricentro) << 32) | i;
+        }
+        Arrays.sort(claves);
+
+        int[] anterior = capa.clone();
+        for (int i = 0; i < capa.length; i++) {
+            capa[i] = anterior[(int) claves[i]];
+            pos[capa[i]] = i;
+        }
+    }
+
+    /**
+     * Cuenta los cruces entre todas las capas consecutivas (Barth, Jünger y
+     * Mutzel: inversiones de las posiciones inferiores ordenadas por la
+     * posición superior)
+     */
+    private long contarCruces() {
+        long suma = 0;
+        int[] arbol = new int[0];
+        int[] destinos = new int[0];
+        for (int c = 0; c + 1 < numCapas; c++) {
+            int tamaño = capas[c + 1].length;
+            if (arbol.length < tamaño + 1)
+                arbol = new int[tamaño + 1];
+            else
+                Arrays.fill(arbol, 0, tamaño + 1, 0);
+
+            int insertados = 0;
+            for (int u : capas[c]) {
+                int grado = abajoInicio[u + 1] - abajoInicio[u];
+                if (destinos.length < grado)
+                    destinos = new int[grado * 2];
+                for (int j = 0; j < grado; j++) {
+                    destinos[j] = pos[abajo[abajoInicio[u] + j]];
+                }
+                Arrays.sort(destinos, 0, grado);
+
+                for (int j = 0; j < grado; j++) {
+                    int p = destinos[j];
+                    int menoresOIguales = 0;
+                    for (int i = p + 1; i > 0; i -= i & -i) {
+                        menoresOIguales += arbol[i];
+                    }
+                    suma += insertados - menoresOIguales;
+                    for (int i = p + 1; i <= tamaño; i += i & -i) {
+                        arbol[i]++;
+                    }
+                    insertados++;
+                }
+            }
+        }
+        return suma;
+    }
+
+    private int[][] copiarCapas() {
+        int[][] copia = new int[numCapas][];
+        for (int c = 0; c < numCapas; c++) {
+            copia[c] = capas[c].clone();
+        }
+        return copia;
+    }
+
+    /**
+     * Marca los conflictos de tipo 1: aristas que cruzan un segmento
+     * interno (entre dos nodos ficticios). Brandes–Köpf les da prioridad a
+     * los segmentos internos para que las aristas largas queden rectas.
+     */
+    private void marcarConflictos() {
+        conflictos = new MapaLongInt(16);
+        for (int c = 1; c + 1 < numCapas; c++) {
+            int[] inferior = capas[c + 1];
+            int k0 = 0;
+            int l = 0;
+            for (int l1 = 0; l1 < inferior.length; l1++) {
+                int v = inferior[l1];
+                int interno = -1;
+                if (v >= n && arribaInicio[v + 1] > arribaInicio[v] && arriba[arribaInicio[v]] >= n)
+                    interno = arriba[arribaInicio[v]];
+
+                if (l1 == inferior.length - 1 || interno >= 0) {
+                    int k1 = interno >= 0 ? pos[interno] : capas[c].length - 1;
+                    for (; l <= l1; l++) {
+                        int w = inferior[l];
+                        for (int j = arribaInicio[w]; j < arribaInicio[w + 1]; j++) {
+                            int u = arriba[j];
+                            if (pos[u] < k0 || pos[u] > k1)
+                                conflictos.put(arista(u, w), 1);
+                        }
+                    }
+                    k0 = k1;
+                }
+            }
+        }
+    }
+
+    private static long arista(int superior, int inferior) {
+        return ((long) superior << 32) | inferior;
+    }
+
+    /**
+     * Alineación vertical por medianas y compactación horizontal en una de
+     * las cuatro direcciones. La compactación asigna a cada bloque el camino
+     * más largo en el grafo de bloques (Brandes, Walter y Zink, 2020).
+     *
+     * @param haciaAbajo Alinear con los vecinos de la capa anterior (true) o
+     *                   de la siguiente (false)
+     * @param izquierda  Recorrer las capas de izquierda a derecha
+     * @return x de cada nodo del grafo propio
+     */
+    private double[] alinearYCompactar(boolean haciaAbajo, boolean izquierda) {
+        int[] inicio = haciaAbajo ? arribaInicio : abajoInicio;
+        int[] vecinos = haciaAbajo ? arriba : abajo;
+
+        // Vecinos ordenados por posición para tomar las medianas
+        int[] ordenados = vecinos.clone();
+        for (int v = 0; v < total; v++) {
+            ordenarPorPosicion(ordenados, inicio[v], inicio[v + 1]);
+        }
+
+        int[] raiz = new int[total];
+        int[] alinear = new int[total];
+        for (int v = 0; v < total; v++) {
+            raiz[v] = v;
+            alinear[v] = v;
+        }
+        for (int s = 1; s < numCapas; s++) {
+            int[] capa = capas[haciaAbajo ? s : numCapas - 1 - s];
+            int r = -1;
+            for (int k = 0; k < capa.length; k++) {
+                int v = capa[izquierda ? k : capa.length - 1 - k];
+                int grado = inicio[v + 1] - inicio[v];
+                for (int m = (grado - 1) / 2; grado > 0 && m <= grado / 2; m++) {
+                    if (alinear[v] != v)
+                        break;
+                    int u = ordenados[inicio[v] + (izquierda ? m : grado - 1 - m)];
+                    int pu = izquierda ? pos[u] : capas[capaDe[u]].length - 1 - pos[u];
+                    long clave = haciaAbajo ? arista(u, v) : arista(v, u);
+                    if (conflictos.get(clave) < 0 && r < pu) {
+                        alinear[u] = v;
+                        raiz[v] = raiz[u];
+                        alinear[v] = raiz[v];
+                        r = pu;
+                    }
+                }
+            }
+        }
+
+        // Grafo de bloques: el vecino izquierdo de cada nodo empuja su bloque
+        int[] grado = new int[total + 1];
+        int[] entrada = new int[total];
+        for (int[] capa : capas) {
+            for (int k = 1; k < capa.length; k++) {
+                int w = izquierda ? capa[k - 1] : capa[capa.length - k];
+                int v = izquierda ? capa[k] : capa[capa.length - 1 - k];
+                grado[raiz[w] + 1]++;
+                entrada[raiz[v]]++;
+            }
+        }
+        for (int v = 0; v < total; v++) {
+            grado[v + 1] += grado[v];
+        }
+        int[] destino = new int[grado[total]];
+        double[] separacion = new double[grado[total]];
+        int[] siguiente = Arrays.copyOf(grado, total);
+        for (int[] capa : capas) {
+            for (int k = 1; k < capa.length; k++) {
+                int w = izquierda ? capa[k - 1] : capa[capa.length - k];
+                int v = izquierda ? capa[k] : capa[capa.length - 1 - k];
+                int i = siguiente[raiz[w]]++;
+                destino[i] = raiz[v];
+                separacion[i] = (ancho(w) + ancho(v)) / 2;
+            }
+        }
+
+        double[] x = new double[total];
+        int[] cola = new int[total];
+        int cabeza = 0;
+        int fin = 0;
+        for (int v = 0; v < total; v++) {
+            if (raiz[v] == v && entrada[v] == 0)
+                cola[fin++] = v;
+        }
+        while (cabeza < fin) {
+            int b = cola[cabeza++];
+            for (int i = grado[b]; i < grado[b + 1]; i++) {
+                int c = destino[i];
+                x[c] = Math.max(x[c], x[b] + separacion[i]);
+                if (--entrada[c] == 0)
+                    cola[fin++] = c;
+            }
+        }
+
+        double signo = izquierda ? 1 : -1;
+        double[] resultado = new double[total];
+        for (int v = 0; v < total; v++) {
+            resultado[v] = signo * x[raiz[v]];
+        }
+        return resultado;
+    }
+
+    /**
+     * Ordena por posición un tramo de una lista de adyacencia (inserción:
+     * los grados suelen ser chicos; los grandes usan el orden de la librería)
+     */
+    private void ordenarPorPosicion(int[] lista, int desde, int hasta) {
+        if (hasta - desde > 32) {
+            long[] claves = new long[hasta - desde];
+            for (int i = desde; i < hasta; i++) {
+                claves[i - desde] = ((long) pos[lista[i]] << 32) | lista[i];
+            }
+            Arrays.sort(claves);
+            for (int i = desde; i < hasta; i++) {
+                lista[i] = (int) claves[i - desde];
+            }
+            return;
+        }
+        for (int i = desde + 1; i < hasta; i++) {
+            int v = lista[i];
+            int j = i - 1;
+            while (j >= desde && pos[lista[j]] > pos[v]) {
+                lista[j + 1] = lista[j];
+                j--;
+            }
+            lista[j + 1] = v;
+        }
+    }
+
+    private double ancho(int v) {
+        return v < n ? NODE_SPACING : DUMMY_SPACING;
+    }
+
+    /**
+     * Alinea las cuatro asignaciones con la más angosta y toma para cada
+     * nodo la media de las dos medianas
+     */
+    private double[] balancear(double[][] xs) {
+        double[] min = new double[4];
+        double[] max = new double[4];
+        int angosta = 0;
+        for (int d = 0; d < 4; d++) {
+            min[d] = Double.MAX_VALUE;
+            max[d] = -Double.MAX_VALUE;
+            for (double x : xs[d]) {
+                min[d] = Math.min(min[d], x);
+                max[d] = Math.max(max[d], x);
+            }
+            if (max[d] - min[d] < max[angosta] - min[angosta])
+                angosta = d;
+        }
+
+        double[] desplazamiento = new double[4];
+        for (int d = 0; d < 4; d++) {
+            boolean izquierda = d % 2 == 0;
+            desplazamiento[d] = izquierda ? min[angosta] - min[d] : max[angosta] - max[d];
+        }
+
+        double[] x = new double[total];
+        double[] valores = new double[4];
+        for (int v = 0; v < total; v++) {
+            for (int d = 0; d < 4; d++) {
+                valores[d] = xs[d][v] + desplazamiento[d];
+            }
+            Arrays.sort(valores);
+            x[v] = (valores[1] + valores[2]) / 2 - min[angosta];
+        }
+        return x;
+    }
+}
@@ -0,0 +1,446 @@
+package com.espoch.grafo.view;
+
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.Nodo;
+import com.espoch.grafo.model.ParcheGrafo;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caché de tiles rasterizados del grafo para cuando el layout está quieto.
+ * Cada tile es una imagen de {@value #TILE_SIZE} px en coordenadas
+ * {@code mundo * zoom}, guardada por nivel de zoom; al dibujar solo se
+ * rasterizan los tiles visibles que faltan y el resto se copia tal cual.
+ * Los cambios locales invalidan únicamente los tiles que tocan: las
+ * ediciones con {@link #invalidatePatch}, y los movimientos con
+ * {@link #invalidateMoved}, que compara contra las posiciones con que se
+ * dibujaron los tiles.
+ *
+ * Debe usarse desde el hilo de JavaFX (usa snapshots de Canvas).
+ */
+public class TileCache {
+    public static final int TILE_SIZE = 256;
+    private static final int MAX_TILES = 192; // ~48 MB de imágenes ARGB
+    // Por encima de estos nodos movidos o rectángulos sucios es más barato descartar todo
+    private static final int MAX_MOVED = 512;
+    private static final int MAX_RECTS = 4096;
+
+    // Margen alrededor de cada elemento (radio, flecha, grosor del trazo)
+    private static final double MARGIN = GraphRenderer.NODE_RADIUS + GraphRenderer.ARROW_SIZE
+            + GraphRenderer.EDGE_WIDTH;
+
+    // Resolución del nivel de zoom de los tiles: absorbe el error de sumar y restar incrementos
+    private static final double ZOOM_QUANTUM = 1e-6;
+
+    private record TileKey(long nivel, int tx, int ty) {
+        TileKey(double zoom, int tx, int ty) {
+            this(Math.round(zoom / ZOOM_QUANTUM), tx, ty);
+        }
+
+        double zoom() {
+            return nivel * ZOOM_QUANTUM;
+        }
+    }
+
+    // Orden de acceso para descartar los tiles menos usados
+    private final LinkedHashMap<TileKey, WritableImage> tiles = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TileKey, WritableImage> eldest) {
+            return size() > MAX_TILES;
+        }
+    };
+
+    // Posiciones con que están dibujados los tiles, en el orden de la lista de nodos (null = sin tiles)
+    private Nodo<?>[] dibujados;
+    private double[] dibujadoX;
+    private double[] dibujadoY;
+
+    private int renderedTiles;
+    private int renderedNodes;
+    private int renderedEdges;
+
+    /**
+     * Descarta todos los tiles (p. ej. cuando el layout mueve todos los nodos)
+     */
+    public void invalidateAll() {
+        tiles.clear();
+        dibujados = null;
+    }
+
+    /**
+     * Descarta los tiles que intersectan un rectángulo en coordenadas del
+     * mundo, en todos los niveles de zoom
+     */
+    public void invalidateWorldRect(double minX, double minY, double maxX, double maxY) {
+        Iterator<TileKey> it = tiles.keySet().iterator();
+        while (it.hasNext()) {
+            TileKey key = it.next();
+            double z = key.zoom();
+            int tx0 = tileIndex(minX * z - MARGIN * z);
+            int tx1 = tileIndex(maxX * z + MARGIN * z);
+            int ty0 = tileIndex(minY * z - MARGIN * z);
+            int ty1 = tileIndex(maxY * z + MARGIN * z);
+            if (key.tx() >= tx0 && key.tx() <= tx1 && key.ty() >= ty0 && key.ty() <= ty1) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Descarta los tiles que tocan los nodos que se movieron desde que se
+     * dibujaron los tiles (o que son nuevos), en la posición vieja y en la
+     * nueva, y las aristas con algún extremo movido. La estructura debe ser
+     * la misma con que se dibujó o sus cambios ya invalidados con
+     * {@link #invalidatePatch}. Si se movió mucho, descarta todo.
+     *
+     * @param nodos Nodos del grafo dibujado en los tiles
+     */
+    public <T> void invalidateMoved(List<Nodo<T>> nodos) {
+        if (dibujados == null) {
+            return;
+        }
+        List<double[]> rects = new ArrayList<>();
+        // Posición vieja de los nodos movidos (NaN si son nuevos)
+        Map<Nodo<T>, double[]> movidos = new IdentityHashMap<>();
+
+        // La lista solo pierde nodos o suma al final, así que se recorre a la par de la vieja
+        int j = 0;
+        for (Nodo<T> nodo : nodos) {
+            while (j < dibujados.length && dibujados[j] != nodo) {
+                rects.add(new double[] { dibujadoX[j], dibujadoY[j], dibujadoX[j], dibujadoY[j] }); // Eliminado
+                j++;
+            }
+            double viejoX = j < dibujados.length ? dibujadoX[j] : Double.NaN;
+            double viejoY = j < dibujados.length ? dibujadoY[j] : Double.NaN;
+            j++;
+            if (viejoX != nodo.getX() || viejoY != nodo.getY()) {
+                movidos.put(nodo, new double[] { viejoX, viejoY });
+                if (movidos.size() > MAX_MOVED) {
+                    invalidateAll();
+                    return;
+                }
+            }
+        }
+
+        for (Map.Entry<Nodo<T>, double[]> movido : movidos.entrySet()) {
+            double[] viejo = movido.getValue();
+            Nodo<T> nodo = movido.getKey();
+            if (!Double.isNaN(viejo[0])) {
+                rects.add(new double[] { viejo[0], viejo[1], viejo[0], viejo[1] });
+            }
+            rects.add(new double[] { nodo.getX(), nodo.getY(), nodo.getX(), nodo.getY() });
+        }
+        if (!movidos.isEmpty()) {
+            for (Nodo<T> nodo : nodos) {
+                double[] viejoOrigen = movidos.get(nodo);
+                for (int i = 0; i < nodo.getGrado(); i++) {
+                    Nodo<T> vecino = nodo.getVecino(i);
+                    double[] viejoDestino = movidos.get(vecino);
+                    if (viejoOrigen == null && viejoDestino == null) {
+                        continue;
+                    }
+                    agregarArista(rects, viejoOrigen != null ? viejoOrigen[0] : nodo.getX(),
+                            viejoOrigen != null ? viejoOrigen[1] : nodo.getY(),
+                            viejoDestino != null ? viejoDestino[0] : vecino.getX(),
+                            viejoDestino != null ? viejoDestino[1] : vecino.getY());
+                    agregarArista(rects, nodo.getX(), nodo.getY(), vecino.getX(), vecino.getY());
+                    if (rects.size() > MAX_RECTS) {
+                        invalidateAll();
+                        return;
+                    }
+                }
+            }
+        }
+
+        for (double[] rect : rects) {
+            invalidateWorldRect(rect[0], rect[1], rect[2], rect[3]);
+        }
+        recordar(nodos);
+    }
+
+    private static void agregarArista(List<double[]> rects, double x1, double y1, double x2, double y2) {
+        if (!Double.isNaN(x1) && !Double.isNaN(x2)) {
+            rects.add(new double[] { Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2) });
+        }
+    }
+
+    /**
+     * Guarda las posiciones con que se dibujan los tiles
+     */
+    private <T> void recordar(List<Nodo<T>> nodos) {
+        int n = nodos.size();
+        dibujados = new Nodo<?>[n];
+        dibujadoX = new double[n];
+        dibujadoY = new double[n];
+        for (int i = 0; i < n; i++) {
+            Nodo<T> nodo = nodos.get(i);
+            dibujados[i] = nodo;
+            dibujadoX[i] = nodo.getX();
+            dibujadoY[i] = nodo.getY();
+        }
+    }
+
+    /**
+     * Descarta los tiles que tocan los nodos y aristas de un parche que
+     * existen en el grafo. Se llama antes de aplicarlo (lo que se quita,
+     * todavía en el grafo) y después (lo que se agrega).
+     */
+    public <T> void invalidatePatch(GrafoDireccional<T> grafo, ParcheGrafo<T> parche) {
+        if (tiles.isEmpty()) {
+            return;
+        }
+        invalidarAristas(grafo, parche.getAristasEliminadas());
+        invalidarAristas(grafo, parche.getAristasAgregadas());
+        invalidarNodos(grafo, parche.getNodosEliminados());
+        invalidarNodos(grafo, parche.getNodosAgregados());
+    }
+
+    private <T> void invalidarAristas(GrafoDireccional<T> grafo, List<ParcheGrafo.Arista<T>> aristas) {
+        for (ParcheGrafo.Arista<T> arista : aristas) {
+            Nodo<T> origen = grafo.encontrarNodo(arista.origen());
+            Nodo<T> destino = grafo.encontrarNodo(arista.destino());
+            if (origen != null && destino != null) {
+                invalidateEdge(origen, destino);
+            }
+        }
+    }
+
+    private <T> void invalidarNodos(GrafoDireccional<T> grafo, List<T> valores) {
+        for (T valor : valores) {
+            Nodo<T> nodo = grafo.encontrarNodo(valor);
+            if (nodo != null) {
+                invalidateWorldRect(nodo.getX(), nodo.getY(), nodo.getX(), nodo.getY());
+            }
+        }
+    }
+
+    /**
+     * Descarta los tiles que tocan un nodo y todas sus aristas salientes
+     */
+    public <T> void invalidateNode(Nodo<T> nodo) {
+        double minX = nodo.getX();
+        double minY = nodo.getY();
+        double maxX = minX;
+        double maxY = minY;
+        for (int i = 0; i < nodo.getGrado(); i++) {
+            Nodo<T> vecino = nodo.getVecino(i);
+            minX = Math.min(minX, vecino.getX());
+            minY = Math.min(minY, vecino.getY());
+            maxX = Math.max(maxX, vecino.getX());
+            maxY = Math.max(maxY, vecino.getY());
+        }
+        invalidateWorldRect(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Descarta los tiles que tocan un nodo con sus aristas salientes y las
+     * entrantes dadas (p. ej. antes y después de arrastrarlo)
+     *
+     * @param entrantes Orígenes de las aristas que llegan al nodo
+     */
+    public <T> void invalidateIncident(Nodo<T> nodo, List<Nodo<T>> entrantes) {
+        if (tiles.isEmpty()) {
+            return;
+        }
+        invalidateNode(nodo);
+        for (Nodo<T> origen : entrantes) {
+            invalidateEdge(origen, nodo);
+        }
+    }
+
+    /**
+     * Descarta los tiles que toca una arista
+     */
+    public <T> void invalidateEdge(Nodo<T> from, Nodo<T> to) {
+        invalidateWorldRect(Math.min(from.getX(), to.getX()), Math.min(from.getY(), to.getY()),
+                Math.max(from.getX(), to.getX()), Math.max(from.getY(), to.getY()));
+    }
+
+    /**
+     * Dibuja la región visible usando los tiles en caché y rasteriza los que
+     * faltan en una sola pasada sobre nodos y aristas
+     *
+     * @param gc       Contexto del canvas en pantalla
+     * @param renderer Renderer con el zoom actual
+     * @param nodos    Nodos del grafo
+     * @param offsetX  Desplazamiento de pantalla en X
+     * @param offsetY  Desplazamiento de pantalla en Y
+     * @param vista    Región visible [minX, minY, maxX, maxY] en coordenadas del canvas
+     */
+    public <T> void draw(GraphicsContext gc, GraphRenderer renderer, List<Nodo<T>> nodos,
+            double offsetX, double offsetY, double[] vista) {
+        double zoom = renderer.getZoom();
+        // Offsets enteros para que los tiles se copien sin interpolación
+        double ox = Math.round(offsetX);
+        double oy = Math.round(offsetY);
+
+        int tx0 = tileIndex(vista[0] - ox);
+        int tx1 = tileIndex(vista[2] - ox);
+        int ty0 = tileIndex(vista[1] - oy);
+        int ty1 = tileIndex(vista[3] - oy);
+
+        renderedTiles = 0;
+        renderedNodes = 0;
+        renderedEdges = 0;
+
+        Map<TileKey, Canvas> pendientes = new HashMap<>();
+        for (int ty = ty0; ty <= ty1; ty++) {
+            for (int tx = tx0; tx <= tx1; tx++) {
+                TileKey key = new TileKey(zoom, tx, ty);
+                if (!tiles.containsKey(key)) {
+                    Canvas tile = new Canvas(TILE_SIZE, TILE_SIZE);
+                    GraphicsContext tgc = tile.getGraphicsContext2D();
+                    tgc.setFill(GraphRenderer.BACKGROUND_COLOR);
+                    tgc.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+                    renderer.beginEdges(tgc);
+                    pendientes.put(key, tile);
+                }
+            }
+        }
+
+        if (!pendientes.isEmpty()) {
+            if (dibujados == null) {
+                recordar(nodos);
+            }
+            renderTiles(renderer, nodos, zoom, pendientes);
+        }
+
+        for (int ty = ty0; ty <= ty1; ty++) {
+            for (int tx = tx0; tx <= tx1; tx++) {
+                WritableImage imagen = tiles.get(new TileKey(zoom, tx, ty));
+                if (imagen != null) {
+                    gc.drawImage(imagen, tx * TILE_SIZE + ox, ty * TILE_SIZE + oy);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rasteriza los tiles pendientes: primero todas las aristas, luego todos
+     * los nodos, cada elemento solo en los tiles que su caja toca. Las
+     * aristas se recortan solo contra los nodos de su tile.
+     */
+    private <T> void renderTiles(GraphRenderer renderer, List<Nodo<T>> nodos, double zoom,
+            Map<TileKey, Canvas> pendientes) {
+        double margen = MARGIN * zoom;
+
+        Map<TileKey, List<Nodo<T>>> nodosTile = new HashMap<>();
+        for (Nodo<T> nodo : nodos) {
+            double x = nodo.getX() * zoom;
+            double y = nodo.getY() * zoom;
+            List<TileKey> destino = tilesFor(pendientes, zoom, x - margen, y - margen, x + margen, y + margen);
+            for (TileKey key : destino) {
+                nodosTile.computeIfAbsent(key, k -> new ArrayList<>()).add(nodo);
+            }
+            if (!destino.isEmpty())
+                renderedNodes++;
+        }
+
+        for (Nodo<T> nodo : nodos) {
+            double x1 = nodo.getX() * zoom;
+            double y1 = nodo.getY() * zoom;
+            for (int i = 0; i < nodo.getGrado(); i++) {
+                Nodo<T> vecino = nodo.getVecino(i);
+                double x2 = vecino.getX() * zoom;
+                double y2 = vecino.getY() * zoom;
+                List<TileKey> destino = tilesFor(pendientes, zoom,
+                        Math.min(x1, x2) - margen, Math.min(y1, y2) - margen,
+                        Math.max(x1, x2) + margen, Math.max(y1, y2) + margen);
+                for (TileKey key : destino) {
+                    renderer.drawEdge(pendientes.get(key).getGraphicsContext2D(),
+                            nodosTile.getOrDefault(key, List.of()), nodo, vecino,
+                            -key.tx() * TILE_SIZE, -key.ty() * TILE_SIZE);
+                }
+                if (!destino.isEmpty())
+                    renderedEdges++;
+            }
+        }
+
+        for (Map.Entry<TileKey, List<Nodo<T>>> entry : nodosTile.entrySet()) {
+            GraphicsContext tgc = pendientes.get(entry.getKey()).getGraphicsContext2D();
+            for (Nodo<T> nodo : entry.getValue()) {
+                renderer.drawNode(tgc, nodo, -entry.getKey().tx() * TILE_SIZE, -entry.getKey().ty() * TILE_SIZE);
+            }
+        }
+
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(GraphRenderer.BACKGROUND_COLOR);
+        for (Map.Entry<TileKey, Canvas> entry : pendientes.entrySet()) {
+            tiles.put(entry.getKey(), entry.getValue().snapshot(params, null));
+            renderedTiles++;
+        }
+    }
+
+    /**
+     * Tiles pendientes que intersectan un rectángulo en coordenadas
+     * {@code mundo * zoom}
+     */
+    private static List<TileKey> tilesFor(Map<TileKey, Canvas> pendientes, double zoom,
+            double minX, double minY, double maxX, double maxY) {
+        List<TileKey> resultado = new ArrayList<>(4);
+        int tx0 = tileIndex(minX);
+        int tx1 = tileIndex(maxX);
+        int ty0 = tileIndex(minY);
+        int ty1 = tileIndex(maxY);
+
+        // Una arista larga puede cruzar muchos tiles: recorrer el menor de los dos conjuntos
+        long area = (long) (tx1 - tx0 + 1) * (ty1 - ty0 + 1);
+        if (area <= pendientes.size()) {
+            for (int ty = ty0; ty <= ty1; ty++) {
+                for (int tx = tx0; tx <= tx1; tx++) {
+                    TileKey key = new TileKey(zoom, tx, ty);
+                    if (pendientes.containsKey(key))
+                        resultado.add(key);
+                }
+            }
+        } else {
+            for (TileKey key : pendientes.keySet()) {
+                if (key.tx() >= tx0 && key.tx() <= tx1 && key.ty() >= ty0 && key.ty() <= ty1)
+                    resultado.add(key);
+            }
+        }
+        return resultado;
+    }
+
+    private static int tileIndex(double coordenada) {
+        return (int) Math.floor(coordenada / TILE_SIZE);
+    }
+
+    /**
+     * @return Tiles rasterizados en el último dibujado (0 si todo vino de la caché)
+     */
+    public int getRenderedTiles() {
+        return renderedTiles;
+    }
+
+    /**
+     * @return Nodos dibujados en tiles nuevos durante el último dibujado
+     */
+    public int getRenderedNodes() {
+        return renderedNodes;
+    }
+
+    /**
+     * @return Aristas dibujadas en tiles nuevos durante el último dibujado
+     */
+    public int getRenderedEdges() {
+        return renderedEdges;
+    }
+
+    /**
+     * @return Cantidad de tiles en caché
+     */
+    public int size() {
+        return tiles.size();
+    }
+}
@@ -0,0 +1,171 @@
+package com.espoch.grafo.view;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Repulsión vectorial: igual que la escalar, cada par (i, j > i) se calcula
+ * una vez, pero los nodos j se procesan de a {@code SPECIES.length()} por
+ * instrucción. Como los j de una fila son contiguos, la reacción sobre ellos
+ * es una carga, un fma y un guardado de vector; la acción sobre i se
+ * acumula en un vector y se reduce al final de la fila.
+ *
+ * El JIT solo traduce la Vector API a instrucciones SIMD si la especie es
+ * una constante dentro del método compilado; pasarla como parámetro o
+ * campo deja el código en su versión genérica, decenas de veces más lenta.
+ * Por eso hay una subclase por ancho con el lazo repetido.
+ *
+ * Solo se carga si el módulo {@code jdk.incubator.vector} está presente.
+ */
+abstract class VectorRepulsionKernel implements RepulsionKernel {
+    static final int MIN_BITS = 256; // Ancho mínimo con el que el vectorial le gana al escalar
+
+    /**
+     * @param bits Ancho del vector (128, 256 o 512)
+     * @return Núcleo con ese ancho
+     */
+    static VectorRepulsionKernel of(int bits) {
+        return switch (bits) {
+            case 128 -> new Ancho128();
+            case 256 -> new Ancho256();
+            case 512 -> new Ancho512();
+            default -> throw new IllegalArgumentException("Ancho de vector no soportado: " + bits);
+        };
+    }
+
+    /**
+     * @return Núcleo con el ancho preferido por la CPU, o el escalar si ese
+     *         ancho es menor que {@value #MIN_BITS} bits: con dos doubles por
+     *         registro la versión vectorial midió 0.80-0.84x de la escalar,
+     *         que además recorre cada par con menos instrucciones
+     */
+    static RepulsionKernel preferred() {
+        int bits = DoubleVector.SPECIES_PREFERRED.vectorBitSize();
+        return bits >= MIN_BITS ? of(bits) : RepulsionKernel.scalar();
+    }
+
+    /**
+     * Completa con escalares la fila del nodo i desde la columna j
+     */
+    private static void cola(double[] x, double[] y, int n, int i, int j, double sumaX, double sumaY,
+            double[] fx, double[] fy, double strength) {
+        for (; j < n; j++) {
+            double dx = x[j] - x[i];
+            double dy = y[j] - y[i];
+            double distancia = Math.max(1.0, Math.sqrt(dx * dx + dy * dy));
+            double factor = strength / (distancia * distancia * distancia);
+            sumaX += dx * factor;
+            sumaY += dy * factor;
+            fx[j] += dx * factor;
+            fy[j] += dy * factor;
+        }
+        fx[i] -= sumaX;
+        fy[i] -= sumaY;
+    }
+
+    private static final class Ancho128 extends VectorRepulsionKernel {
+        private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_128;
+
+        @Override
+        public void accumulate(double[] x, double[] y, int n, double[] fx, double[] fy, double strength) {
+            DoubleVector uno = DoubleVector.broadcast(SPECIES, 1.0);
+            DoubleVector k = DoubleVector.broadcast(SPECIES, strength);
+            for (int i = 0; i < n; i++) {
+                DoubleVector xi = DoubleVector.broadcast(SPECIES, x[i]);
+                DoubleVector yi = DoubleVector.broadcast(SPECIES, y[i]);
+                DoubleVector sumaX = DoubleVector.zero(SPECIES);
+                DoubleVector sumaY = DoubleVector.zero(SPECIES);
+                int j = i + 1;
+                int limite = j + SPECIES.loopBound(n - j);
+                for (; j < limite; j += SPECIES.length()) {
+                    DoubleVector dx = DoubleVector.fromArray(SPECIES, x, j).sub(xi);
+                    DoubleVector dy = DoubleVector.fromArray(SPECIES, y, j).sub(yi);
+                    DoubleVector distancia = dx.mul(dx).add(dy.mul(dy)).lanewise(VectorOperators.SQRT).max(uno);
+                    DoubleVector factor = k.div(distancia.mul(distancia).mul(distancia));
+                    sumaX = dx.fma(factor, sumaX);
+                    sumaY = dy.fma(factor, sumaY);
+                    dx.fma(factor, DoubleVector.fromArray(SPECIES, fx, j)).intoArray(fx, j);
+                    dy.fma(factor, DoubleVector.fromArray(SPECIES, fy, j)).intoArray(fy, j);
+                }
+                cola(x, y, n, i, j, sumaX.reduceLanes(VectorOperators.ADD), sumaY.reduceLanes(VectorOperators.ADD),
+                        fx, fy, strength);
+            }
+        }
+
+        @Override
+        public String getName() {
+            return "vector-128";
+        }
+    }
+
+    private static final class Ancho256 extends VectorRepulsionKernel {
+        private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_256;
+
+        @Override
+        public void accumulate(double[] x, double[] y, int n, double[] fx, double[] fy, double strength) {
+            DoubleVector uno = DoubleVector.broadcast(SPECIES, 1.0);
+            DoubleVector k = DoubleVector.broadcast(SPECIES, strength);
+            for (int i = 0; i < n; i++) {
+                DoubleVector xi = DoubleVector.broadcast(SPECIES, x[i]);
+                DoubleVector yi = DoubleVector.broadcast(SPECIES, y[i]);
+                DoubleVector sumaX = DoubleVector.zero(SPECIES);
+                DoubleVector sumaY = DoubleVector.zero(SPECIES);
+                int j = i + 1;
+                int limite = j + SPECIES.loopBound(n - j);
+                for (; j < limite; j += SPECIES.length()) {
+                    DoubleVector dx = DoubleVector.fromArray(SPECIES, x, j).sub(xi);
+                    DoubleVector dy = DoubleVector.fromArray(SPECIES, y, j).sub(yi);
+                    DoubleVector distancia = dx.mul(dx).add(dy.mul(dy)).lanewise(VectorOperators.SQRT).max(uno);
+                    DoubleVector factor = k.div(distancia.mul(distancia).mul(distancia));
+                    sumaX = dx.fma(factor, sumaX);
+                    sumaY = dy.fma(factor, sumaY);
+                    dx.fma(factor, DoubleVector.fromArray(SPECIES, fx, j)).intoArray(fx, j);
+                    dy.fma(factor, DoubleVector.fromArray(SPECIES, fy, j)).intoArray(fy, j);
+                }
+                cola(x, y, n, i, j, sumaX.reduceLanes(VectorOperators.ADD), sumaY.reduceLanes(VectorOperators.ADD),
+                        fx, fy, strength);
+            }
+        }
+
+        @Override
+        public String getName() {
+            return "vector-256";
+        }
+    }
+
+    private static final class Ancho512 extends VectorRepulsionKernel {
+        private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_512;
+
+        @Override
+        public void accumulate(double[] x, double[] y, int n, double[] fx, double[] fy, double strength) {
+            DoubleVector uno = DoubleVector.broadcast(SPECIES, 1.0);
+            DoubleVector k = DoubleVector.broadcast(SPECIES, strength);
+            for (int i = 0; i < n; i++) {
+                DoubleVector xi = DoubleVector.broadcast(SPECIES, x[i]);
+                DoubleVector yi = DoubleVector.broadcast(SPECIES, y[i]);
+                DoubleVector sumaX = DoubleVector.zero(SPECIES);
+                DoubleVector sumaY = DoubleVector.zero(SPECIES);
+                int j = i + 1;
+                int limite = j + SPECIES.loopBound(n - j);
+                for (; j < limite; j += SPECIES.length()) {
+                    DoubleVector dx = DoubleVector.fromArray(SPECIES, x, j).sub(xi);
+                    DoubleVector dy = DoubleVector.fromArray(SPECIES, y, j).sub(yi);
+                    DoubleVector distancia = dx.mul(dx).add(dy.mul(dy)).lanewise(VectorOperators.SQRT).max(uno);
+                    DoubleVector factor = k.div(distancia.mul(distancia).mul(distancia));
+                    sumaX = dx.fma(factor, sumaX);
+                    sumaY = dy.fma(factor, sumaY);
+                    dx.fma(factor, DoubleVector.fromArray(SPECIES, fx, j)).intoArray(fx, j);
+                    dy.fma(factor, DoubleVector.fromArray(SPECIES, fy, j)).intoArray(fy, j);
+                }
+                cola(x, y, n, i, j, sumaX.reduceLanes(VectorOperators.ADD), sumaY.reduceLanes(VectorOperators.ADD),
+                        fx, fy, strength);
+            }
+        }
+
+        @Override
+        public String getName() {
+            return "vector-512";
+        }
+    }
+}
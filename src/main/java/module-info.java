@@ -1,13 +1,22 @@
 module com.espoch.grafo {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.management;
+    requires jdk.jfr;
+    requires jdk.httpserver;
+    requires static jdk.incubator.vector;
 
     opens com.espoch.grafo to javafx.fxml;
 
     exports com.espoch.grafo;
     exports com.espoch.grafo.controller;
+    exports com.espoch.grafo.export;
+    exports com.espoch.grafo.generator;
+    exports com.espoch.grafo.load;
+    exports com.espoch.grafo.metrics;
     opens com.espoch.grafo.controller to javafx.fxml;
     exports com.espoch.grafo.model;
+    exports com.espoch.grafo.server;
     opens com.espoch.grafo.model to javafx.fxml;
     exports com.espoch.grafo.view;
     opens com.espoch.grafo.view to javafx.fxml;
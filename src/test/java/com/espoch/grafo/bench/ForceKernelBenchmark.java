@@ -0,0 +1,193 @@
+package com.espoch.grafo.bench;
+
+import com.espoch.grafo.view.RepulsionKernel;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compara el núcleo de repulsión escalar con el vectorial en cada ancho de
+ * registro (128, 256 y 512 bits) y verifica que las fuerzas coincidan con
+ * las escalares dentro de una tolerancia relativa.
+ *
+ * Cada núcleo se mide en una JVM aparte: si comparten proceso, el JIT mezcla
+ * los perfiles de las distintas especies de vector y los últimos en medirse
+ * salen varias veces más lentos de lo que son.
+ *
+ * Uso: {@code java --add-modules jdk.incubator.vector -cp ...
+ * com.espoch.grafo.bench.ForceKernelBenchmark [n...]}
+ */
+public final class ForceKernelBenchmark {
+    private static final double STRENGTH = 6400.0;
+    private static final double TOLERANCE = 1e-9; // Error relativo máximo respecto a la mayor fuerza
+    private static final int WARMUP_MILLIS = 1500;
+    private static final int MEASURE_MILLIS = 3000;
+    private static final int[] DEFAULT_SIZES = { 1_000, 5_000, 20_000 };
+    private static final int[] LANE_BITS = { 128, 256, 512 };
+    private static final String SOLO = "--solo"; // Mide un único núcleo (proceso hijo)
+
+    private ForceKernelBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<String> tamaños = new ArrayList<>();
+        String solo = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(SOLO))
+                solo = args[++i];
+            else
+                tamaños.add(args[i]);
+        }
+        if (tamaños.isEmpty()) {
+            Arrays.stream(DEFAULT_SIZES).forEach(n -> tamaños.add(Integer.toString(n)));
+        }
+
+        if (solo != null) {
+            medirNucleo(kernelPorNombre(solo), tamaños);
+            return;
+        }
+
+        List<String> nombres = new ArrayList<>();
+        nombres.add(RepulsionKernel.scalar().getName());
+        if (RepulsionKernel.isVectorAvailable()) {
+            for (int bits : LANE_BITS) {
+                nombres.add(RepulsionKernel.vector(bits).getName());
+            }
+        } else {
+            System.out.println("Vector API no disponible: agregue --add-modules jdk.incubator.vector");
+        }
+        System.out.println("Núcleo por defecto: " + RepulsionKernel.best().getName());
+
+        // nombre -> n -> [ms, error]
+        Map<String, Map<String, double[]>> resultados = new HashMap<>();
+        for (String nombre : nombres) {
+            resultados.put(nombre, ejecutarHijo(nombre, tamaños));
+        }
+
+        System.out.printf("%-10s %8s %12s %12s %10s %12s%n", "nucleo", "n", "ms/llamada", "Mpares/s", "speedup",
+                "error rel.");
+        for (String n : tamaños) {
+            double msEscalar = resultados.get(nombres.get(0)).get(n)[0];
+            for (String nombre : nombres) {
+                double[] r = resultados.get(nombre).get(n);
+                double pares = Double.parseDouble(n) * Double.parseDouble(n) / 2;
+                System.out.printf("%-10s %8s %12.3f %12.1f %9.2fx %12.2e%s%n", nombre, n, r[0],
+                        pares / (r[0] / 1000) / 1e6, msEscalar / r[0], r[1],
+                        r[1] > TOLERANCE ? "  FUERA DE TOLERANCIA" : "");
+            }
+        }
+    }
+
+    /**
+     * Lanza una JVM nueva con la misma ruta de clases que mide un solo núcleo
+     *
+     * @return n -> [ms por llamada, error relativo]
+     */
+    private static Map<String, double[]> ejecutarHijo(String nombre, List<String> tamaños)
+            throws IOException, InterruptedException {
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.add("--add-modules");
+        comando.add("jdk.incubator.vector");
+        String modulePath = System.getProperty("jdk.module.path");
+        if (modulePath != null) {
+            comando.addAll(List.of("--module-path", modulePath, "-m",
+                    ForceKernelBenchmark.class.getModule().getName() + "/" + ForceKernelBenchmark.class.getName()));
+        } else {
+            comando.addAll(List.of("-cp", System.getProperty("java.class.path"), ForceKernelBenchmark.class.getName()));
+        }
+        comando.add(SOLO);
+        comando.add(nombre);
+        comando.addAll(tamaños);
+
+        Process proceso = new ProcessBuilder(comando).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        Map<String, double[]> resultado = new HashMap<>();
+        try (BufferedReader lector = new BufferedReader(
+                new InputStreamReader(proceso.getInputStream(), StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                String[] campos = linea.trim().split("\\s+");
+                resultado.put(campos[0], new double[] { Double.parseDouble(campos[1]), Double.parseDouble(campos[2]) });
+            }
+        }
+        if (proceso.waitFor() != 0 || resultado.size() != tamaños.size())
+            throw new IllegalStateException("Falló la medición de " + nombre);
+        return resultado;
+    }
+
+    /**
+     * Mide un núcleo para cada tamaño e imprime "n ms error" por línea
+     */
+    private static void medirNucleo(RepulsionKernel kernel, List<String> tamaños) {
+        for (String texto : tamaños) {
+            int n = Integer.parseInt(texto);
+            Random random = new Random(42);
+            double[] x = new double[n];
+            double[] y = new double[n];
+            double lado = Math.sqrt(n) * 60;
+            for (int i = 0; i < n; i++) {
+                x[i] = random.nextDouble() * lado;
+                y[i] = random.nextDouble() * lado;
+            }
+
+            double[] refX = new double[n];
+            double[] refY = new double[n];
+            RepulsionKernel.scalar().accumulate(x, y, n, refX, refY, STRENGTH);
+            double[] fx = new double[n];
+            double[] fy = new double[n];
+            kernel.accumulate(x, y, n, fx, fy, STRENGTH);
+            double error = errorRelativo(refX, refY, fx, fy);
+
+            System.out.println(n + " " + medir(kernel, x, y, n, fx, fy) + " " + error);
+        }
+    }
+
+    private static RepulsionKernel kernelPorNombre(String nombre) {
+        if (nombre.equals(RepulsionKernel.scalar().getName()))
+            return RepulsionKernel.scalar();
+        return RepulsionKernel.vector(Integer.parseInt(nombre.substring(nombre.indexOf('-') + 1)));
+    }
+
+    /**
+     * Calienta el JIT y luego mide el tiempo medio por llamada
+     */
+    private static double medir(RepulsionKernel kernel, double[] x, double[] y, int n, double[] fx, double[] fy) {
+        long fin = System.nanoTime() + WARMUP_MILLIS * 1_000_000L;
+        while (System.nanoTime() < fin) {
+            kernel.accumulate(x, y, n, fx, fy, STRENGTH);
+        }
+
+        int llamadas = 0;
+        long inicio = System.nanoTime();
+        fin = inicio + MEASURE_MILLIS * 1_000_000L;
+        long ahora;
+        do {
+            kernel.accumulate(x, y, n, fx, fy, STRENGTH);
+            llamadas++;
+            ahora = System.nanoTime();
+        } while (ahora < fin);
+        return (ahora - inicio) / 1e6 / llamadas;
+    }
+
+    /**
+     * Máxima diferencia entre fuerzas relativa a la mayor norma de fuerza
+     */
+    private static double errorRelativo(double[] refX, double[] refY, double[] fx, double[] fy) {
+        double maxNorma = 0;
+        double maxDiferencia = 0;
+        for (int i = 0; i < refX.length; i++) {
+            maxNorma = Math.max(maxNorma, Math.hypot(refX[i], refY[i]));
+            maxDiferencia = Math.max(maxDiferencia, Math.hypot(refX[i] - fx[i], refY[i] - fy[i]));
+        }
+        return maxNorma == 0 ? 0 : maxDiferencia / maxNorma;
+    }
+}
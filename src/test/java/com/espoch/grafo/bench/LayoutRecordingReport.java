@@ -0,0 +1,122 @@
+package com.espoch.grafo.bench;
+
+import com.espoch.grafo.export.LayoutPlayer;
+import com.espoch.grafo.export.LayoutRecorder;
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.Nodo;
+import com.espoch.grafo.view.ForceDirectedLayout;
+import com.espoch.grafo.view.LayoutStats;
+import com.espoch.grafo.view.SeededRandomPlacement;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Graba una sesión de layout de un grafo aleatorio y la reproduce:
+ * compara el tamaño de la grabación con el de guardar 16 bytes por nodo y
+ * frame, mide el costo de grabar y la velocidad de reproducción, y verifica
+ * que el error de las posiciones reproducidas no pase el umbral más medio
+ * cuanto.
+ *
+ * Uso: {@code java -cp ... com.espoch.grafo.bench.LayoutRecordingReport
+ * [nodos] [frames] [aristasPorNodo]}
+ */
+public final class LayoutRecordingReport {
+    private static final int DEFAULT_NODES = 1_000;
+    private static final int DEFAULT_FRAMES = 600; // 10 s a 60 fps
+    private static final int DEFAULT_DEGREE = 2;
+    private static final long FRAME_NANOS = 16_666_667L;
+    private static final long SEED = 42L;
+
+    private LayoutRecordingReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NODES;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_FRAMES;
+        int grado = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DEGREE;
+        System.out.printf("JVM %s, %d nodos, %d aristas por nodo, %d frames%n", Runtime.version(), n, grado,
+                frames);
+
+        GrafoDireccional<Integer> grafo = new GrafoDireccional<>();
+        for (int i = 0; i < n; i++) {
+            grafo.agregarNodo(i);
+        }
+        Random random = new Random(SEED);
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < grado; k++) {
+                grafo.agregarArista(i, random.nextInt(n));
+            }
+        }
+        new SeededRandomPlacement(SEED).placeAll(grafo);
+
+        Path archivo = Files.createTempFile("layout", ".grly");
+        try {
+            grabar(grafo, archivo, frames);
+            reproducir(grafo, archivo);
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    private static void grabar(GrafoDireccional<Integer> grafo, Path archivo, int frames) throws IOException {
+        ForceDirectedLayout layout = new ForceDirectedLayout(0, 0);
+        List<Nodo<Integer>> nodos = grafo.getNodos();
+        long grabando = 0;
+        long simulando = 0;
+        int grabados;
+        long bytes;
+        try (LayoutRecorder grabador = new LayoutRecorder(archivo)) {
+            for (int f = 0; f < frames; f++) {
+                long inicio = System.nanoTime();
+                LayoutStats stats = layout.measure(nodos);
+                layout.setCenter(stats.getCenterX(), stats.getCenterY());
+                layout.calculateForces(nodos);
+                layout.updatePositions(nodos, FRAME_NANOS / 1e9);
+                long medio = System.nanoTime();
+                grabador.grabar(grafo, f * FRAME_NANOS);
+                grabando += System.nanoTime() - medio;
+                simulando += medio - inicio;
+            }
+            grabados = grabador.getFrames();
+            bytes = grabador.getBytes();
+        }
+
+        long crudo = 16L * grafo.size() * frames;
+        System.out.printf("  Grabación: %,d bytes (%d frames con cambios), crudo %,d bytes: %.1f%% (%.1fx)%n",
+                bytes, grabados, crudo, 100.0 * bytes / crudo, (double) crudo / bytes);
+        System.out.printf("  Grabar: %.3f ms/frame (simular: %.3f ms/frame)%n", grabando / 1e6 / frames,
+                simulando / 1e6 / frames);
+    }
+
+    private static void reproducir(GrafoDireccional<Integer> original, Path archivo) throws IOException {
+        long inicio = System.nanoTime();
+        int frames = 0;
+        GrafoDireccional<Integer> reproducido;
+        try (LayoutPlayer reproductor = new LayoutPlayer(archivo)) {
+            int aplicados;
+            while ((aplicados = reproductor.avanzar(Long.MAX_VALUE)) >= 0) {
+                frames += aplicados;
+            }
+            reproducido = reproductor.getGrafo();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        double errorMaximo = 0;
+        List<Nodo<Integer>> nodos = original.getNodos();
+        List<Nodo<Integer>> copia = reproducido.getNodos();
+        for (int i = 0; i < nodos.size(); i++) {
+            errorMaximo = Math.max(errorMaximo, Math.abs(nodos.get(i).getX() - copia.get(i).getX()));
+            errorMaximo = Math.max(errorMaximo, Math.abs(nodos.get(i).getY() - copia.get(i).getY()));
+        }
+        double cota = LayoutRecorder.DEFAULT_THRESHOLD + LayoutRecorder.DEFAULT_QUANTUM / 2;
+        System.out.printf("  Reproducir: %d frames en %.3f s (%.0f frames/s)%n", frames, segundos,
+                frames / segundos);
+        System.out.printf("  Error máximo: %.3f (cota %.3f) %s, %d aristas reproducidas de %d%n", errorMaximo,
+                cota, errorMaximo <= cota + 1e-9 ? "OK" : "EXCEDIDO", reproducido.getNumAristas(),
+                original.getNumAristas());
+    }
+}
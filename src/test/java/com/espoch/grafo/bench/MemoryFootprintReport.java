@@ -0,0 +1,100 @@
+package com.espoch.grafo.bench;
+
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.Nodo;
+
+import java.util.Random;
+
+/**
+ * Mide la memoria que ocupan los nodos y las aristas de un grafo grande:
+ * bytes por {@link Nodo} suelto, por nodo dentro del grafo (incluye el
+ * valor y la entrada del índice por valor) y por arista, antes y después de
+ * {@link GrafoDireccional#compactar()}.
+ *
+ * La medición es la diferencia de heap ocupado entre dos puntos, forzando
+ * recolecciones hasta que el valor se estabiliza, así que conviene correrlo
+ * con un heap fijo y sin otras cargas en la JVM.
+ *
+ * Uso: {@code java -Xms4g -Xmx4g -cp ... com.espoch.grafo.bench.MemoryFootprintReport
+ * [nodos] [aristasPorNodo]}
+ */
+public final class MemoryFootprintReport {
+    private static final int DEFAULT_NODES = 1_000_000;
+    private static final int DEFAULT_DEGREE = 4;
+    private static final long SEED = 42L;
+
+    // Mantiene vivas las estructuras medidas
+    private static Object retenido;
+
+    private MemoryFootprintReport() {
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NODES;
+        int grado = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_DEGREE;
+        System.out.printf("JVM %s, %d nodos, %d aristas por nodo%n", Runtime.version(), n, grado);
+
+        // Nodos sueltos: solo el objeto Nodo (el valor es un Integer cacheado)
+        long base = heapUsado();
+        Nodo<?>[] sueltos = new Nodo<?>[n];
+        long arreglo = heapUsado() - base;
+        Integer cero = 0;
+        for (int i = 0; i < n; i++) {
+            sueltos[i] = new Nodo<>(cero, i, i);
+        }
+        retenido = sueltos;
+        imprimir("Nodo suelto", heapUsado() - base - arreglo, n);
+        sueltos = null;
+        retenido = null;
+
+        // Grafo: valores en caja, lista de nodos e índice por valor
+        base = heapUsado();
+        GrafoDireccional<Integer> grafo = new GrafoDireccional<>();
+        for (int i = 0; i < n; i++) {
+            grafo.agregarNodo(i);
+        }
+        retenido = grafo;
+        long conNodos = heapUsado();
+        imprimir("Nodo en el grafo", conNodos - base, n);
+
+        Random random = new Random(SEED);
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < grado; k++) {
+                grafo.agregarArista(i, random.nextInt(n));
+            }
+        }
+        long conAristas = heapUsado();
+        int aristas = grafo.getNumAristas();
+        imprimir("Arista", conAristas - conNodos, aristas);
+
+        grafo.compactar();
+        imprimir("Arista (compactado)", heapUsado() - conNodos, aristas);
+        imprimir("Grafo completo por nodo", heapUsado() - base, n);
+    }
+
+    private static void imprimir(String etiqueta, long bytes, int cantidad) {
+        System.out.printf("  %-26s %8.1f bytes  (%,d bytes en total)%n", etiqueta,
+                cantidad == 0 ? 0.0 : (double) bytes / cantidad, bytes);
+    }
+
+    /**
+     * Heap ocupado después de recolectar hasta que deja de bajar
+     */
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        long anterior = Long.MAX_VALUE;
+        long actual = runtime.totalMemory() - runtime.freeMemory();
+        for (int i = 0; i < 10 && actual < anterior; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            anterior = actual;
+            actual = runtime.totalMemory() - runtime.freeMemory();
+        }
+        return actual;
+    }
+}
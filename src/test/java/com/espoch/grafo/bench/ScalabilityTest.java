@@ -0,0 +1,337 @@
+package com.espoch.grafo.bench;
+
+import com.espoch.grafo.export.GraphExporter;
+import com.espoch.grafo.generator.GraphGenerator;
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.Nodo;
+import com.espoch.grafo.view.EdgeAggregator;
+import com.espoch.grafo.view.ForceDirectedLayout;
+import com.espoch.grafo.view.GraphRenderer;
+import com.espoch.grafo.view.LayoutStats;
+import com.espoch.grafo.view.SeededRandomPlacement;
+import com.espoch.grafo.view.SpatialIndex;
+import com.espoch.grafo.view.TileCache;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Verifica que las operaciones principales escalen según su complejidad
+ * declarada. Cada caso se mide con grafos generados de tamaño creciente
+ * (duplicando), se ajusta una recta a log(tiempo) contra log(tamaño) y la
+ * pendiente es el exponente observado: ~1 para algo lineal, ~2 para algo
+ * cuadrático. Cada caso es una prueba que falla si su exponente pasa el
+ * declarado más {@value #TOLERANCIA}, así que el build normal ({@code mvn
+ * test}) se corta cuando una operación lineal se vuelve cuadrática.
+ *
+ * Cada tamaño se mide {@value #REPETICIONES} veces y se toma el mínimo,
+ * después de calentar con los dos tamaños más chicos durante
+ * {@value #CALENTAMIENTO_NANOS} ns (si no, los primeros se miden sin
+ * compilar y el exponente sale torcido). Si un caso ya pasó su
+ * cota y cada medición tarda segundos, no se prueban tamaños mayores: una
+ * regresión cuadrática con millones de aristas no terminaría nunca.
+ *
+ * La propiedad {@code grafo.escala} multiplica todos los tamaños (por
+ * defecto {@value #ESCALA_POR_DEFECTO}, para que el build no tarde; 1 para
+ * los tamaños completos: {@code mvn test -Dgrafo.escala=1}). Con
+ * {@code -DexcludedGroups=escala} no se corre. El caso de dibujado necesita
+ * JavaFX; sin entorno gráfico se omite.
+ */
+@Tag("escala")
+class ScalabilityTest {
+    // Margen sobre el exponente declarado. Con el heap ya tocado (ver el
+    // argLine de surefire) las operaciones lineales dan hasta ~1.35; una
+    // cuadrática da 2 o más.
+    private static final double TOLERANCIA = 0.5;
+    private static final double ESCALA_POR_DEFECTO = 0.25;
+    private static final long CALENTAMIENTO_NANOS = 1_000_000_000L; // Tiempo medido mínimo al calentar
+    private static final long CORTE_NANOS = 2_000_000_000L; // Medición tan cara que no se sigue duplicando
+    private static final int REPETICIONES = 5;
+    private static final long SEED = 42L;
+    private static final double SEPARACION = 30; // Lado del área por nodo al ubicarlos
+    private static final int COLUMNAS = 512; // Ancho de la grilla de agregarArista
+
+    private static Boolean toolkit; // null hasta el primer caso que dibuja
+
+    /**
+     * Mide una vez la operación con el tamaño dado
+     */
+    @FunctionalInterface
+    private interface Medicion {
+        /**
+         * @return Nanosegundos de la parte medida (sin la preparación)
+         */
+        long medir(int n) throws IOException;
+    }
+
+    private record Caso(String nombre, String unidad, double exponente, int[] tamaños, Medicion medicion) {
+    }
+
+    @TestFactory
+    Stream<DynamicTest> complejidadDeclarada() {
+        double escala = Double.parseDouble(System.getProperty("grafo.escala", String.valueOf(ESCALA_POR_DEFECTO)));
+        System.out.printf("JVM %s, %d procesadores, escala %.2f, tolerancia %.2f%n", Runtime.version(),
+                Runtime.getRuntime().availableProcessors(), escala, TOLERANCIA);
+
+        return Stream.of(
+                new Caso("agregarArista", "aristas", 1, tamaños(250_000, escala), ScalabilityTest::agregarAristas),
+                new Caso("desdeAristas", "aristas", 1, tamaños(250_000, escala), ScalabilityTest::desdeAristas),
+                new Caso("eliminarNodo x20", "nodos", 1, tamaños(25_000, escala), ScalabilityTest::eliminarNodos),
+                // Repulsión entre todos los pares y entre nodos y aristas: O(V² + V·E)
+                new Caso("paso de layout", "nodos", 2, tamaños(200, Math.sqrt(escala)), ScalabilityTest::pasoLayout),
+                new Caso("exportar SVG", "nodos", 1, tamaños(25_000, escala), ScalabilityTest::exportarSvg),
+                new Caso("agregar aristas (vista)", "nodos", 1, tamaños(50_000, escala),
+                        ScalabilityTest::agregarVista),
+                new Caso("índice espacial", "nodos", 1, tamaños(100_000, escala), ScalabilityTest::indiceEspacial),
+                // Toda el área del grafo: recortar cada arista contra todos los nodos sale cuadrático
+                new Caso("dibujar tiles", "nodos", 1, tamaños(2_000, escala), ScalabilityTest::dibujarTiles))
+                .map(caso -> DynamicTest.dynamicTest(caso.nombre(), () -> {
+                    double exponente = medir(caso);
+                    assertTrue(exponente <= caso.exponente() + TOLERANCIA, String.format(
+                            "Regresión de complejidad: exponente %.2f, declarado %.0f", exponente, caso.exponente()));
+                }));
+    }
+
+    /**
+     * Cuatro tamaños duplicando desde base·factor
+     */
+    private static int[] tamaños(int base, double factor) {
+        int primero = Math.max(16, (int) (base * factor));
+        return new int[] { primero, primero * 2, primero * 4, primero * 8 };
+    }
+
+    /**
+     * @return Exponente observado (pendiente en escala log-log)
+     */
+    private static double medir(Caso caso) throws IOException {
+        int[] tamaños = caso.tamaños();
+        // Calentamiento: que el JIT compile antes de medir (la API de vectores
+        // necesita bastante más que unas pocas llamadas)
+        long calentado = 0;
+        for (int i = 0; i < 2 || calentado < CALENTAMIENTO_NANOS; i++) {
+            calentado += caso.medicion().medir(tamaños[0]) + caso.medicion().medir(tamaños[1]);
+        }
+        double[] logN = new double[tamaños.length];
+        double[] logT = new double[tamaños.length];
+        StringBuilder detalle = new StringBuilder();
+        int medidos = 0;
+        while (medidos < tamaños.length) {
+            int n = tamaños[medidos];
+            long mejor = Long.MAX_VALUE;
+            for (int r = 0; r < REPETICIONES; r++) {
+                System.gc();
+                mejor = Math.min(mejor, caso.medicion().medir(n));
+            }
+            logN[medidos] = Math.log(n);
+            logT[medidos] = Math.log(Math.max(mejor, 1));
+            detalle.append(String.format("  %,d %s: %.1f ms", n, caso.unidad(), mejor / 1e6));
+            medidos++;
+            // Si ya creció de más y es caro, el tamaño siguiente solo tardaría más
+            if (medidos >= 2 && mejor > CORTE_NANOS && pendiente(logN, logT, medidos) > caso.exponente() + TOLERANCIA)
+                break;
+        }
+        double exponente = pendiente(logN, logT, medidos);
+        boolean ok = exponente <= caso.exponente() + TOLERANCIA;
+        System.out.printf("%-24s exponente %.2f (declarado %.0f) %s%n%s%n", caso.nombre(), exponente,
+                caso.exponente(), ok ? "OK" : "FALLA", detalle);
+        return exponente;
+    }
+
+    /**
+     * Pendiente de la recta de mínimos cuadrados
+     */
+    private static double pendiente(double[] x, double[] y, int n) {
+        double mediaX = 0;
+        double mediaY = 0;
+        for (int i = 0; i < n; i++) {
+            mediaX += x[i] / n;
+            mediaY += y[i] / n;
+        }
+        double covarianza = 0;
+        double varianza = 0;
+        for (int i = 0; i < n; i++) {
+            covarianza += (x[i] - mediaX) * (y[i] - mediaY);
+            varianza += (x[i] - mediaX) * (x[i] - mediaX);
+        }
+        return covarianza / varianza;
+    }
+
+    /**
+     * Grafo aleatorio con el grado medio dado, ubicado en un área que crece
+     * con la cantidad de nodos (densidad constante en pantalla)
+     */
+    private static GrafoDireccional<Integer> grafo(int nodos, int grado) {
+        GrafoDireccional<Integer> grafo = aristas(nodos, grado).toGrafo();
+        double lado = Math.sqrt(nodos) * SEPARACION;
+        new SeededRandomPlacement(SEED, 0, 0, lado, lado).placeAll(grafo);
+        return grafo;
+    }
+
+    private static GraphGenerator.Aristas aristas(int nodos, int grado) {
+        return GraphGenerator.erdosRenyi(nodos, (double) grado / (nodos - 1), SEED);
+    }
+
+    /**
+     * Sobre una grilla: los extremos de cada arista están cerca en memoria,
+     * así que el exponente mide el algoritmo y no los fallos de caché de
+     * las búsquedas al azar (que con aristas aleatorias lo suben a ~1.6)
+     */
+    private static long agregarAristas(int m) {
+        GraphGenerator.Aristas aristas = GraphGenerator.grilla(Math.max(1, m / (2 * COLUMNAS)), COLUMNAS);
+        GrafoDireccional<Integer> grafo = new GrafoDireccional<>();
+        for (int i = 0; i < aristas.numNodos(); i++) {
+            grafo.agregarNodo(i);
+        }
+        int[] origenes = aristas.origenes();
+        int[] destinos = aristas.destinos();
+        long inicio = System.nanoTime();
+        for (int e = 0; e < aristas.numAristas(); e++) {
+            grafo.agregarArista(origenes[e], destinos[e]);
+        }
+        return System.nanoTime() - inicio;
+    }
+
+    private static long desdeAristas(int m) {
+        GraphGenerator.Aristas aristas = aristas(m / 8, 8);
+        long inicio = System.nanoTime();
+        GrafoDireccional<Integer> grafo = aristas.toGrafo();
+        long tiempo = System.nanoTime() - inicio;
+        if (grafo.getNumAristas() == 0)
+            throw new IllegalStateException("Grafo vacío");
+        return tiempo;
+    }
+
+    private static long eliminarNodos(int n) {
+        GrafoDireccional<Integer> grafo = aristas(n, 8).toGrafo();
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] valores = random.ints(20, 0, n).distinct().toArray();
+        long inicio = System.nanoTime();
+        for (int valor : valores) {
+            grafo.eliminarNodo(valor);
+        }
+        return System.nanoTime() - inicio;
+    }
+
+    private static long pasoLayout(int n) {
+        List<Nodo<Integer>> nodos = grafo(n, 2).getNodos();
+        ForceDirectedLayout layout = new ForceDirectedLayout(0, 0);
+        long inicio = System.nanoTime();
+        LayoutStats stats = layout.measure(nodos);
+        layout.setCenter(stats.getCenterX(), stats.getCenterY());
+        layout.calculateForces(nodos);
+        layout.updatePositions(nodos, 1 / 60.0);
+        return System.nanoTime() - inicio;
+    }
+
+    private static long exportarSvg(int n) throws IOException {
+        List<Nodo<Integer>> nodos = grafo(n, 4).getNodos();
+        Path archivo = Files.createTempFile("escala", ".svg");
+        try {
+            long inicio = System.nanoTime();
+            new GraphExporter(1).exportSvg(nodos, archivo);
+            return System.nanoTime() - inicio;
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    private static long agregarVista(int n) {
+        List<Nodo<Integer>> nodos = grafo(n, 4).getNodos();
+        LayoutStats stats = new ForceDirectedLayout(0, 0).measure(nodos);
+        EdgeAggregator agregador = new EdgeAggregator(8, 20_000);
+        long inicio = System.nanoTime();
+        agregador.update(nodos, stats, 0.5);
+        return System.nanoTime() - inicio;
+    }
+
+    private static long indiceEspacial(int n) {
+        List<Nodo<Integer>> nodos = grafo(n, 0).getNodos();
+        SpatialIndex indice = new SpatialIndex();
+        long inicio = System.nanoTime();
+        indice.rebuild(nodos);
+        long tiempo = System.nanoTime() - inicio;
+        if (indice.size() != n)
+            throw new IllegalStateException("Índice incompleto");
+        return tiempo;
+    }
+
+    /**
+     * Sobre una grilla ubicada como tal: aristas cortas, como después del
+     * layout. Con aristas al azar cada una cruza una fracción fija del área,
+     * y la cantidad de tiles por arista crece con el grafo.
+     */
+    private static long dibujarTiles(int n) throws IOException {
+        requerirToolkit();
+        int columnas = (int) Math.ceil(Math.sqrt(n));
+        List<Nodo<Integer>> nodos = GraphGenerator.grilla(columnas, columnas).toGrafo().getNodos();
+        for (Nodo<Integer> nodo : nodos) {
+            nodo.setX(nodo.getValue() % columnas * SEPARACION);
+            nodo.setY(nodo.getValue() / columnas * SEPARACION);
+        }
+        double lado = columnas * SEPARACION;
+        double[] vista = { 0, 0, lado, lado };
+        return enHiloFx(() -> {
+            TileCache cache = new TileCache();
+            Canvas pantalla = new Canvas(1, 1); // Solo se mide rasterizar los tiles
+            long inicio = System.nanoTime();
+            cache.draw(pantalla.getGraphicsContext2D(), new GraphRenderer(), nodos, 0, 0, vista);
+            long tiempo = System.nanoTime() - inicio;
+            if (cache.getRenderedNodes() != nodos.size())
+                throw new IllegalStateException("Faltaron nodos");
+            return tiempo;
+        });
+    }
+
+    /**
+     * Inicia JavaFX como {@link GraphExporter#iniciarToolkit}; sin entorno
+     * gráfico el caso se omite
+     */
+    private static void requerirToolkit() {
+        if (toolkit == null) {
+            try {
+                GraphExporter.iniciarToolkit();
+                toolkit = true;
+            } catch (RuntimeException | LinkageError sinPantalla) {
+                toolkit = false;
+            }
+        }
+        assumeTrue(toolkit, "JavaFX no pudo iniciarse");
+    }
+
+    /**
+     * Ejecuta una medición en el hilo de JavaFX (los tiles son snapshots de
+     * Canvas) y espera el resultado
+     */
+    private static long enHiloFx(Callable<Long> medicion) throws IOException {
+        FutureTask<Long> tarea = new FutureTask<>(medicion);
+        if (Platform.isFxApplicationThread())
+            tarea.run();
+        else
+            Platform.runLater(tarea);
+        try {
+            return tarea.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Medición interrumpida");
+        } catch (ExecutionException e) {
+            throw new IOException("Falló el dibujado", e.getCause());
+        }
+    }
+}
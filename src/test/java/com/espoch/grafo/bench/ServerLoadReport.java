@@ -0,0 +1,255 @@
+package com.espoch.grafo.bench;
+
+import com.espoch.grafo.server.GraphServer;
+import com.espoch.grafo.server.GraphService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga del modo servidor: varios clientes concurrentes, cada uno
+ * en un hilo virtual, mezclan lotes de mutaciones con consultas durante un
+ * tiempo fijo mientras un cliente del stream cuenta los eventos recibidos.
+ * Informa pedidos por segundo y latencias p50/p99 por endpoint; lo medido
+ * durante el calentamiento se descarta.
+ *
+ * Sin {@code --url} levanta un {@link GraphServer} en el mismo proceso, en
+ * un puerto libre; así las latencias incluyen la competencia por la CPU
+ * entre clientes y servidor.
+ *
+ * Uso: {@code java -cp ... com.espoch.grafo.bench.ServerLoadReport [--url u]
+ * [--clientes n] [--segundos s] [--lote aristas] [--nodos n]}
+ */
+public final class ServerLoadReport {
+    private static final int DEFAULT_CLIENTS = 32;
+    private static final int DEFAULT_SECONDS = 10;
+    private static final int DEFAULT_BATCH = 100;
+    private static final int DEFAULT_NODES = 2_000; // Rango de valores; por debajo del límite del layout en vivo
+    private static final int WARMUP_SECONDS = 2;
+    private static final int MUTATION_PERCENT = 50;
+    private static final int REMOVAL_PERCENT = 20; // Dentro de un lote, líneas que eliminan una arista
+    private static final long SEED = 42L;
+
+    private static final String[] ENDPOINTS = { "POST /mutaciones", "GET /grafo", "GET /nodos/{v}" };
+
+    /**
+     * Latencias de un cliente por endpoint, en nanosegundos
+     */
+    private static final class Muestras {
+        final long[][] latencias = new long[ENDPOINTS.length][1024];
+        final int[] cantidad = new int[ENDPOINTS.length];
+        int errores;
+
+        void agregar(int endpoint, long nanos) {
+            if (cantidad[endpoint] == latencias[endpoint].length)
+                latencias[endpoint] = Arrays.copyOf(latencias[endpoint], cantidad[endpoint] * 2);
+            latencias[endpoint][cantidad[endpoint]++] = nanos;
+        }
+    }
+
+    private ServerLoadReport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String destino = null;
+        int clientes = DEFAULT_CLIENTS;
+        int segundos = DEFAULT_SECONDS;
+        int lote = DEFAULT_BATCH;
+        int nodos = DEFAULT_NODES;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--url" -> destino = args[++i];
+            case "--clientes" -> clientes = Integer.parseInt(args[++i]);
+            case "--segundos" -> segundos = Integer.parseInt(args[++i]);
+            case "--lote" -> lote = Integer.parseInt(args[++i]);
+            case "--nodos" -> nodos = Integer.parseInt(args[++i]);
+            default -> throw new IllegalArgumentException("Argumento desconocido: " + args[i]);
+            }
+        }
+
+        GraphServer servidor = null;
+        if (destino == null) {
+            servidor = new GraphServer(new GraphService(), new InetSocketAddress("127.0.0.1", 0));
+            servidor.start();
+            destino = "http://127.0.0.1:" + servidor.getPuerto();
+        }
+        String url = destino;
+        System.out.printf("JVM %s, %s, %d clientes, lotes de %d, %d nodos, %d s (+%d s de calentamiento)%n",
+                Runtime.version(), url, clientes, lote, nodos, segundos, WARMUP_SECONDS);
+
+        HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5)).build();
+        AtomicLong eventos = new AtomicLong();
+        AtomicLong bytesStream = new AtomicLong();
+        Thread stream = Thread.ofVirtual().start(() -> escuchar(cliente, URI.create(url + "/stream"), eventos,
+                bytesStream));
+
+        long inicio = System.nanoTime();
+        long medicion = inicio + WARMUP_SECONDS * 1_000_000_000L;
+        long fin = medicion + segundos * 1_000_000_000L;
+        List<Muestras> resultados = new ArrayList<>();
+        long eventosAntes;
+        long bytesAntes;
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Muestras>> futuros = new ArrayList<>();
+            for (int c = 0; c < clientes; c++) {
+                long semilla = SEED + c;
+                int loteCliente = lote;
+                int nodosCliente = nodos;
+                futuros.add(hilos.submit(() -> trabajar(cliente, url, new SplittableRandom(semilla), loteCliente,
+                        nodosCliente, medicion, fin)));
+            }
+            long espera = medicion - System.nanoTime();
+            if (espera > 0)
+                Thread.sleep(espera / 1_000_000);
+            eventosAntes = eventos.get();
+            bytesAntes = bytesStream.get();
+            for (Future<Muestras> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+        }
+        long eventosMedidos = eventos.get() - eventosAntes;
+        long bytesMedidos = bytesStream.get() - bytesAntes;
+        stream.interrupt();
+
+        imprimir(resultados, segundos, lote);
+        System.out.printf("  stream: %d eventos (%.1f/s), %.1f KB/s%n", eventosMedidos,
+                (double) eventosMedidos / segundos, bytesMedidos / 1024.0 / segundos);
+        System.out.println("  grafo final: " + cliente.send(HttpRequest.newBuilder(URI.create(url + "/grafo"))
+                .build(), HttpResponse.BodyHandlers.ofString()).body());
+
+        if (servidor != null)
+            servidor.stop();
+    }
+
+    /**
+     * Un cliente: pedidos seguidos hasta {@code fin}; solo guarda latencias
+     * a partir de {@code medicion}
+     */
+    private static Muestras trabajar(HttpClient cliente, String url, SplittableRandom random, int lote, int nodos,
+            long medicion, long fin) {
+        Muestras muestras = new Muestras();
+        StringBuilder cuerpo = new StringBuilder(lote * 12);
+        while (true) {
+            long inicio = System.nanoTime();
+            if (inicio >= fin)
+                return muestras;
+
+            int endpoint;
+            HttpRequest pedido;
+            if (random.nextInt(100) < MUTATION_PERCENT) {
+                endpoint = 0;
+                cuerpo.setLength(0);
+                for (int i = 0; i < lote; i++) {
+                    if (random.nextInt(100) < REMOVAL_PERCENT)
+                        cuerpo.append("- ");
+                    cuerpo.append(random.nextInt(nodos)).append(' ').append(random.nextInt(nodos)).append('\n');
+                }
+                pedido = HttpRequest.newBuilder(URI.create(url + "/mutaciones"))
+                        .POST(HttpRequest.BodyPublishers.ofString(cuerpo.toString())).build();
+            } else if (random.nextBoolean()) {
+                endpoint = 1;
+                pedido = HttpRequest.newBuilder(URI.create(url + "/grafo")).build();
+            } else {
+                endpoint = 2;
+                pedido = HttpRequest.newBuilder(URI.create(url + "/nodos/" + random.nextInt(nodos))).build();
+            }
+
+            try {
+                int estado = cliente.send(pedido, HttpResponse.BodyHandlers.discarding()).statusCode();
+                long nanos = System.nanoTime() - inicio;
+                if (inicio < medicion)
+                    continue;
+                if (estado == 200 || (endpoint == 2 && estado == 404))
+                    muestras.agregar(endpoint, nanos);
+                else
+                    muestras.errores++;
+            } catch (IOException e) {
+                muestras.errores++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return muestras;
+            }
+        }
+    }
+
+    /**
+     * Lee el stream contando eventos y bytes hasta que lo interrumpen
+     */
+    private static void escuchar(HttpClient cliente, URI uri, AtomicLong eventos, AtomicLong bytes) {
+        try {
+            HttpResponse<InputStream> respuesta = cliente.send(HttpRequest.newBuilder(uri).build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            try (BufferedReader lector = new BufferedReader(
+                    new InputStreamReader(respuesta.body(), StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = lector.readLine()) != null && !Thread.currentThread().isInterrupted()) {
+                    bytes.addAndGet(linea.length() + 1);
+                    if (linea.isEmpty())
+                        eventos.incrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            // El servidor cerró el stream
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void imprimir(List<Muestras> resultados, int segundos, int lote) {
+        int errores = 0;
+        long total = 0;
+        System.out.printf("  %-18s %9s %10s %10s %10s %10s%n", "endpoint", "pedidos", "pedidos/s", "p50 ms",
+                "p99 ms", "max ms");
+        for (int e = 0; e < ENDPOINTS.length; e++) {
+            int cantidad = 0;
+            for (Muestras muestras : resultados) {
+                cantidad += muestras.cantidad[e];
+            }
+            long[] todas = new long[cantidad];
+            int k = 0;
+            for (Muestras muestras : resultados) {
+                System.arraycopy(muestras.latencias[e], 0, todas, k, muestras.cantidad[e]);
+                k += muestras.cantidad[e];
+            }
+            Arrays.sort(todas);
+            total += cantidad;
+            System.out.printf("  %-18s %9d %10.0f %10.2f %10.2f %10.2f%n", ENDPOINTS[e], cantidad,
+                    (double) cantidad / segundos, percentil(todas, 0.50), percentil(todas, 0.99),
+                    cantidad == 0 ? 0.0 : todas[cantidad - 1] / 1e6);
+            if (e == 0)
+                System.out.printf("  %-18s %9s %10.0f%n", "  (mutaciones/s)", "", (double) cantidad * lote / segundos);
+        }
+        for (Muestras muestras : resultados) {
+            errores += muestras.errores;
+        }
+        System.out.printf("  %-18s %9d %10.0f   errores: %d%n", "total", total, (double) total / segundos, errores);
+    }
+
+    /**
+     * Percentil por rango más cercano, en milisegundos
+     */
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0)
+            return 0.0;
+        int i = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, i)] / 1e6;
+    }
+}
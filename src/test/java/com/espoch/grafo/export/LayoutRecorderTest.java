@@ -0,0 +1,213 @@
+package com.espoch.grafo.export;
+
+import com.espoch.grafo.generator.GraphGenerator;
+import com.espoch.grafo.model.GrafoDireccional;
+import com.espoch.grafo.model.Grafos;
+import com.espoch.grafo.model.Nodo;
+import com.espoch.grafo.model.ParcheGrafo;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Grabar y reproducir: después de cada registro el grafo reproducido tiene
+ * la estructura grabada y las posiciones a menos del umbral más medio
+ * cuanto, y los cambios de estructura se graban como parches.
+ */
+class LayoutRecorderTest {
+    private static final long FRAME_NANOS = 16_666_667L;
+    private static final double COTA = LayoutRecorder.DEFAULT_THRESHOLD + LayoutRecorder.DEFAULT_QUANTUM / 2
+            + 1e-9;
+
+    @Test
+    void reproduceEdicionesYMovimientos() throws IOException {
+        GrafoDireccional<Integer> grafo = GraphGenerator.erdosRenyi(300, 0.01, 5).toGrafo();
+        SplittableRandom random = new SplittableRandom(5);
+        Path archivo = Files.createTempFile("layout", ".grly");
+        try {
+            try (LayoutRecorder grabador = new LayoutRecorder(archivo)) {
+                for (int f = 0; f < 120; f++) {
+                    mover(grafo, random);
+                    if (f % 10 == 5) {
+                        editar(grafo, random, 1000 + f);
+                    }
+                    grabador.grabar(grafo, f * FRAME_NANOS);
+                }
+            }
+
+            try (LayoutPlayer reproductor = new LayoutPlayer(archivo)) {
+                while (reproductor.avanzar(Long.MAX_VALUE) >= 0) {
+                    // Todo de una vez
+                }
+                assertIgual(grafo, reproductor.getGrafo());
+            }
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    @Test
+    void avanzaFrameAFrame() throws IOException {
+        GrafoDireccional<Integer> grafo = GraphGenerator.erdosRenyi(100, 0.03, 8).toGrafo();
+        SplittableRandom random = new SplittableRandom(8);
+        Path archivo = Files.createTempFile("layout", ".grly");
+        try {
+            List<GrafoDireccional<Integer>> esperados = grabar(grafo, random, archivo, 40);
+            try (LayoutPlayer reproductor = new LayoutPlayer(archivo)) {
+                for (int f = 0; f < esperados.size(); f++) {
+                    reproductor.avanzar(f * FRAME_NANOS);
+                    assertIgual(esperados.get(f), reproductor.getGrafo());
+                }
+                assertEquals(-1, reproductor.avanzar(Long.MAX_VALUE));
+            }
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    @Test
+    void unCambioChicoSeGrabaComoParche() throws IOException {
+        GrafoDireccional<Integer> grafo = GraphGenerator.erdosRenyi(5_000, 0.002, 2).toGrafo();
+        Path archivo = Files.createTempFile("layout", ".grly");
+        try (LayoutRecorder grabador = new LayoutRecorder(archivo)) {
+            grabador.grabar(grafo, 0);
+            long estructura = grabador.getBytes();
+
+            grafo.aplicar(new ParcheGrafo<Integer>().agregarNodo(-1).agregarArista(-1, 0), (nodo, vecino) -> {
+                nodo.setX(vecino.getX());
+                nodo.setY(vecino.getY());
+            });
+            grabador.grabar(grafo, FRAME_NANOS);
+            assertTrue(grabador.getBytes() - estructura < 32,
+                    "el parche y el frame ocupan " + (grabador.getBytes() - estructura) + " bytes");
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    @Test
+    void otroGrafoYNodosReordenadosGrabanLaEstructura() throws IOException {
+        GrafoDireccional<Integer> grafo = GraphGenerator.erdosRenyi(50, 0.05, 4).toGrafo();
+        Path archivo = Files.createTempFile("layout", ".grly");
+        try {
+            try (LayoutRecorder grabador = new LayoutRecorder(archivo)) {
+                grabador.grabar(grafo, 0);
+                // Eliminado y vuelto a agregar: queda al final de la lista
+                grafo.eliminarNodo(3);
+                grafo.agregarNodo(3);
+                grabador.grabar(grafo, FRAME_NANOS);
+                grafo = GraphGenerator.erdosRenyi(20, 0.1, 6).toGrafo();
+                grabador.grabar(grafo, 2 * FRAME_NANOS);
+            }
+            try (LayoutPlayer reproductor = new LayoutPlayer(archivo)) {
+                reproductor.avanzar(0);
+                GrafoDireccional<Integer> primero = reproductor.getGrafo();
+                reproductor.avanzar(FRAME_NANOS);
+                assertNotSame(primero, reproductor.getGrafo());
+                assertEquals(3, (int) reproductor.getGrafo().getNodos().get(49).getValue());
+                reproductor.avanzar(2 * FRAME_NANOS);
+                assertIgual(grafo, reproductor.getGrafo());
+            }
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    @Test
+    void unParcheModificaElGrafoReproducido() throws IOException {
+        GrafoDireccional<Integer> grafo = GraphGenerator.erdosRenyi(50, 0.05, 4).toGrafo();
+        Path archivo = Files.createTempFile("layout", ".grly");
+        try {
+            try (LayoutRecorder grabador = new LayoutRecorder(archivo)) {
+                grabador.grabar(grafo, 0);
+                grafo.aplicar(ParcheGrafo.eliminacion(grafo, 10), (nodo, vecino) -> {
+                });
+                grabador.grabar(grafo, FRAME_NANOS);
+            }
+            try (LayoutPlayer reproductor = new LayoutPlayer(archivo)) {
+                reproductor.avanzar(0);
+                GrafoDireccional<Integer> primero = reproductor.getGrafo();
+                reproductor.avanzar(FRAME_NANOS);
+                assertSame(primero, reproductor.getGrafo());
+                assertTrue(reproductor.isEstructuraNueva());
+                assertIgual(grafo, reproductor.getGrafo());
+            }
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    /**
+     * Graba {@code frames} frames con ediciones y devuelve una copia del
+     * grafo después de cada uno
+     */
+    private static List<GrafoDireccional<Integer>> grabar(GrafoDireccional<Integer> grafo,
+            SplittableRandom random, Path archivo, int frames) throws IOException {
+        List<GrafoDireccional<Integer>> copias = new ArrayList<>(frames);
+        try (LayoutRecorder grabador = new LayoutRecorder(archivo)) {
+            for (int f = 0; f < frames; f++) {
+                mover(grafo, random);
+                if (f % 3 == 1) {
+                    editar(grafo, random, 1000 + f);
+                }
+                grabador.grabar(grafo, f * FRAME_NANOS);
+                copias.add(Grafos.copia(grafo));
+            }
+        }
+        return copias;
+    }
+
+    private static void mover(GrafoDireccional<Integer> grafo, SplittableRandom random) {
+        for (Nodo<Integer> nodo : grafo.getNodos()) {
+            if (random.nextInt(3) == 0) {
+                nodo.setX(nodo.getX() + random.nextDouble(-5, 5));
+                nodo.setY(nodo.getY() + random.nextDouble(-5, 5));
+            }
+        }
+    }
+
+    /**
+     * Agrega un nodo unido a otro, elimina uno con sus aristas o cambia una
+     * arista
+     */
+    private static void editar(GrafoDireccional<Integer> grafo, SplittableRandom random, int nuevo) {
+        List<Nodo<Integer>> nodos = grafo.getNodos();
+        Nodo<Integer> uno = nodos.get(random.nextInt(nodos.size()));
+        Nodo<Integer> otro = nodos.get(random.nextInt(nodos.size()));
+        ParcheGrafo<Integer> parche = switch (random.nextInt(3)) {
+            case 0 -> new ParcheGrafo<Integer>().agregarNodo(nuevo).agregarArista(uno.getValue(), nuevo);
+            case 1 -> ParcheGrafo.eliminacion(grafo, uno.getValue());
+            default -> uno.tieneVecino(otro)
+                    ? new ParcheGrafo<Integer>().eliminarArista(uno.getValue(), otro.getValue())
+                    : new ParcheGrafo<Integer>().agregarArista(uno.getValue(), otro.getValue());
+        };
+        grafo.aplicar(parche, (nodo, vecino) -> {
+        });
+    }
+
+    /**
+     * Misma estructura, mismos valores en el mismo orden y posiciones dentro
+     * de la cota
+     */
+    private static void assertIgual(GrafoDireccional<Integer> esperado, GrafoDireccional<Integer> grafo) {
+        assertTrue(ParcheGrafo.calcular(grafo, esperado).isEmpty());
+        List<Nodo<Integer>> nodos = esperado.getNodos();
+        List<Nodo<Integer>> reproducidos = grafo.getNodos();
+        assertEquals(nodos.size(), reproducidos.size());
+        for (int i = 0; i < nodos.size(); i++) {
+            assertEquals(nodos.get(i).getValue(), reproducidos.get(i).getValue());
+            assertEquals(nodos.get(i).getX(), reproducidos.get(i).getX(), COTA, "x de " + nodos.get(i));
+            assertEquals(nodos.get(i).getY(), reproducidos.get(i).getY(), COTA, "y de " + nodos.get(i));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.espoch.grafo.export;
+
+import com.espoch.grafo.model.Nodo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ida y vuelta de {@link PositionFrameEncoder} y
+ * {@link PositionFrameDecoder}: las posiciones decodificadas quedan a
+ * menos del umbral más medio cuanto de las originales.
+ */
+class PositionFrameEncoderTest {
+    private static final double CUANTO = 0.1;
+    private static final double UMBRAL = 0.5;
+    private static final double COTA = UMBRAL + CUANTO / 2 + 1e-9;
+
+    @Test
+    void idaYVueltaConMovimientosYNodosNuevos() {
+        SplittableRandom random = new SplittableRandom(11);
+        List<Nodo<Integer>> nodos = nodos(500, random);
+        List<Nodo<Integer>> copia = nodos(500, random);
+        PositionFrameEncoder codificador = new PositionFrameEncoder(CUANTO, UMBRAL, 50);
+        PositionFrameDecoder decodificador = new PositionFrameDecoder(CUANTO);
+
+        for (int f = 0; f < 200; f++) {
+            for (Nodo<Integer> nodo : nodos) {
+                if (random.nextInt(4) == 0) {
+                    nodo.setX(nodo.getX() + random.nextDouble(-3, 3));
+                    nodo.setY(nodo.getY() + random.nextDouble(-3, 3));
+                }
+            }
+            if (f % 20 == 19) { // Crece por el final: sigue con diferencias
+                nodos.add(new Nodo<>(nodos.size(), random.nextDouble(-1e4, 1e4), random.nextDouble(-1e4, 1e4)));
+                copia.add(new Nodo<>(copia.size(), 0, 0));
+            }
+            byte[] frame = codificador.codificar(nodos);
+            if (frame != null) {
+                decodificador.aplicar(frame, copia);
+                assertEquals(nodos.size(), decodificador.size());
+            }
+            assertCerca(nodos, copia);
+        }
+    }
+
+    @Test
+    void elPrimerFrameYLosPeriodicosSonClave() {
+        SplittableRandom random = new SplittableRandom(3);
+        List<Nodo<Integer>> nodos = nodos(10, random);
+        PositionFrameEncoder codificador = new PositionFrameEncoder(CUANTO, 0, 3);
+        PositionFrameDecoder decodificador = new PositionFrameDecoder(CUANTO);
+
+        List<Boolean> claves = new ArrayList<>();
+        for (int f = 0; f < 8; f++) {
+            nodos.get(0).setX(nodos.get(0).getX() + 1);
+            byte[] frame = codificador.codificar(nodos);
+            decodificador.decodificar(frame, 0, frame.length);
+            claves.add(decodificador.isClave());
+        }
+        assertEquals(List.of(true, false, false, false, true, false, false, false), claves);
+    }
+
+    @Test
+    void sinMovimientoNoHayFrame() {
+        List<Nodo<Integer>> nodos = nodos(20, new SplittableRandom(5));
+        PositionFrameEncoder codificador = new PositionFrameEncoder(CUANTO, UMBRAL, 0);
+        codificador.codificar(nodos);
+        nodos.get(3).setX(nodos.get(3).getX() + UMBRAL / 2);
+        assertNull(codificador.codificar(nodos));
+
+        nodos.get(3).setX(nodos.get(3).getX() + UMBRAL);
+        byte[] frame = codificador.codificar(nodos);
+        PositionFrameDecoder decodificador = new PositionFrameDecoder(CUANTO);
+        assertTrue(frame.length <= 8, "una diferencia de un nodo ocupa pocos bytes");
+        assertThrows(IllegalArgumentException.class, () -> decodificador.decodificar(frame, 0, frame.length));
+    }
+
+    @Test
+    void eliminarUnNodoFuerzaUnFrameClave() {
+        SplittableRandom random = new SplittableRandom(9);
+        List<Nodo<Integer>> nodos = nodos(30, random);
+        List<Nodo<Integer>> copia = nodos(30, random);
+        PositionFrameEncoder codificador = new PositionFrameEncoder(CUANTO, UMBRAL, 0);
+        PositionFrameDecoder decodificador = new PositionFrameDecoder(CUANTO);
+        decodificador.aplicar(codificador.codificar(nodos), copia);
+
+        nodos.remove(7);
+        copia.remove(7);
+        decodificador.aplicar(codificador.codificar(nodos), copia);
+        assertTrue(decodificador.isClave());
+        assertCerca(nodos, copia);
+    }
+
+    @Test
+    void rechazaFramesMalFormados() {
+        PositionFrameDecoder decodificador = new PositionFrameDecoder(CUANTO);
+        byte[] desconocido = { 9, 0 };
+        assertThrows(IllegalArgumentException.class, () -> decodificador.decodificar(desconocido, 0, 2));
+        byte[] sobrante = { PositionFrameEncoder.KEY, 0, 5 };
+        assertThrows(IllegalArgumentException.class, () -> decodificador.decodificar(sobrante, 0, 3));
+        byte[] truncado = { PositionFrameEncoder.KEY, 2, 0 };
+        assertThrows(IllegalArgumentException.class, () -> decodificador.decodificar(truncado, 0, 3));
+    }
+
+    private static List<Nodo<Integer>> nodos(int n, SplittableRandom random) {
+        List<Nodo<Integer>> nodos = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            nodos.add(new Nodo<>(i, random.nextDouble(-1e4, 1e4), random.nextDouble(-1e4, 1e4)));
+        }
+        return nodos;
+    }
+
+    private static void assertCerca(List<Nodo<Integer>> esperados, List<Nodo<Integer>> nodos) {
+        for (int i = 0; i < esperados.size(); i++) {
+            assertEquals(esperados.get(i).getX(), nodos.get(i).getX(), COTA, "x del nodo " + i);
+            assertEquals(esperados.get(i).getY(), nodos.get(i).getY(), COTA, "y del nodo " + i);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.espoch.grafo.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ida y vuelta de varints y zigzag, desde el buffer y desde un flujo.
+ */
+class VarintTest {
+    private static final int[] VALORES = { 0, 1, -1, 63, -64, 64, 127, 128, 300, -300, 16_383, 16_384,
+            1 << 21, -(1 << 21), 1 << 28, Integer.MAX_VALUE, Integer.MIN_VALUE };
+
+    @Test
+    void zigzagIdaYVuelta() {
+        Varint.Buffer buffer = new Varint.Buffer();
+        for (int valor : VALORES) {
+            buffer.escribirZigzag(valor);
+        }
+        Varint.Lector lector = new Varint.Lector(buffer.getBytes(), 0, buffer.size());
+        for (int valor : VALORES) {
+            assertEquals(valor, lector.leerZigzag());
+        }
+        assertTrue(lector.terminado());
+    }
+
+    @Test
+    void sinSignoIdaYVueltaDesdeUnFlujo() throws IOException {
+        Varint.Buffer buffer = new Varint.Buffer();
+        for (int valor : VALORES) {
+            buffer.escribir(valor);
+        }
+        ByteArrayInputStream entrada = new ByteArrayInputStream(buffer.toByteArray());
+        for (int valor : VALORES) {
+            assertEquals(valor, Varint.leer(entrada));
+        }
+        assertEquals(-1, Varint.leer(entrada));
+    }
+
+    @Test
+    void losValoresChicosOcupanUnByte() {
+        Varint.Buffer buffer = new Varint.Buffer();
+        buffer.escribir(127);
+        buffer.escribirZigzag(-64);
+        buffer.escribirZigzag(63);
+        assertArrayEquals(new byte[] { 127, 127, 126 }, buffer.toByteArray());
+        buffer.escribir(128);
+        assertEquals(5, buffer.size());
+    }
+
+    @Test
+    void elBufferCrece() {
+        Varint.Buffer buffer = new Varint.Buffer();
+        for (int i = 0; i < 10_000; i++) {
+            buffer.escribir(i);
+        }
+        Varint.Lector lector = new Varint.Lector(buffer.getBytes(), 0, buffer.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, lector.leer());
+        }
+        assertTrue(lector.terminado());
+    }
+
+    @Test
+    void rechazaDatosTruncados() {
+        byte[] truncado = { (byte) 0x80, (byte) 0x80 };
+        assertThrows(IllegalArgumentException.class, () -> new Varint.Lector(truncado, 0, 2).leer());
+        assertThrows(EOFException.class, () -> Varint.leer(new ByteArrayInputStream(truncado)));
+
+        byte[] largo = { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 1 };
+        assertThrows(IllegalArgumentException.class, () -> new Varint.Lector(largo, 0, largo.length).leer());
+        assertThrows(IOException.class, () -> Varint.leer(new ByteArrayInputStream(largo)));
+    }
+}
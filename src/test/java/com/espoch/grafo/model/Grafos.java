@@ -0,0 +1,29 @@
+package com.espoch.grafo.model;
+
+/**
+ * Utilidades de los tests de grafos.
+ */
+public final class Grafos {
+    private Grafos() {
+    }
+
+    /**
+     * Copia independiente: mismos valores en el mismo orden, mismas aristas
+     * y mismas posiciones y fijaciones
+     */
+    public static GrafoDireccional<Integer> copia(GrafoDireccional<Integer> grafo) {
+        GrafoDireccional<Integer> copia = new GrafoDireccional<>();
+        for (Nodo<Integer> nodo : grafo.getNodos()) {
+            Nodo<Integer> nuevo = copia.agregarNodo(nodo.getValue());
+            nuevo.setX(nodo.getX());
+            nuevo.setY(nodo.getY());
+            nuevo.setFijo(nodo.isFijo());
+        }
+        for (Nodo<Integer> nodo : grafo.getNodos()) {
+            for (int i = 0; i < nodo.getGrado(); i++) {
+                copia.agregarArista(nodo.getValue(), nodo.getVecino(i).getValue());
+            }
+        }
+        return copia;
+    }
+}
@@ -0,0 +1,182 @@
+package com.espoch.grafo.model;
+
+import com.espoch.grafo.generator.GraphGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deshacer y rehacer devuelven el grafo exacto (estructura, posiciones y
+ * nodos fijos) y el presupuesto descarta las entradas más viejas.
+ */
+class HistorialGrafoTest {
+    private static final BiConsumer<Nodo<Integer>, Nodo<Integer>> SIN_COLOCAR = (nodo, vecino) -> {
+    };
+    private static final long SIN_LIMITE = Long.MAX_VALUE;
+
+    @Test
+    void deshacerRestauraLaPosicionYLaFijacion() {
+        GrafoDireccional<Integer> grafo = new GrafoDireccional<>();
+        for (int i = 0; i < 4; i++) {
+            grafo.agregarNodo(i);
+        }
+        grafo.agregarArista(0, 1);
+        grafo.agregarArista(1, 2);
+        grafo.agregarArista(3, 1);
+        Nodo<Integer> nodo = grafo.encontrarNodo(1);
+        nodo.setX(123.5);
+        nodo.setY(-42.25);
+        nodo.setFijo(true);
+
+        HistorialGrafo<Integer> historial = new HistorialGrafo<>(SIN_LIMITE);
+        historial.aplicar(grafo, ParcheGrafo.eliminacion(grafo, 1), "eliminar", SIN_COLOCAR);
+        assertNull(grafo.encontrarNodo(1));
+        assertEquals(0, grafo.getNumAristas());
+
+        historial.deshacer(grafo, SIN_COLOCAR);
+        Nodo<Integer> restaurado = grafo.encontrarNodo(1);
+        assertEquals(123.5, restaurado.getX());
+        assertEquals(-42.25, restaurado.getY());
+        assertTrue(restaurado.isFijo());
+        assertEquals(3, grafo.getNumAristas());
+        assertTrue(grafo.encontrarNodo(3).tieneVecino(restaurado));
+
+        historial.rehacer(grafo, SIN_COLOCAR);
+        assertNull(grafo.encontrarNodo(1));
+        historial.deshacer(grafo, SIN_COLOCAR);
+        assertEquals(123.5, grafo.encontrarNodo(1).getX());
+        assertTrue(grafo.encontrarNodo(1).isFijo());
+    }
+
+    @Test
+    void deshacerYRehacerTodoDevuelveLosMismosGrafos() {
+        GrafoDireccional<Integer> grafo = GraphGenerator.erdosRenyi(150, 0.04, 7).toGrafo();
+        SplittableRandom random = new SplittableRandom(7);
+        for (Nodo<Integer> nodo : grafo.getNodos()) {
+            nodo.setX(random.nextDouble(1000));
+            nodo.setY(random.nextDouble(1000));
+            nodo.setFijo(random.nextInt(4) == 0);
+        }
+        GrafoDireccional<Integer> original = Grafos.copia(grafo);
+
+        HistorialGrafo<Integer> historial = new HistorialGrafo<>(SIN_LIMITE);
+        List<GrafoDireccional<Integer>> estados = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            historial.aplicar(grafo, edicion(grafo, random, 150 + i), "edición " + i, SIN_COLOCAR);
+            estados.add(Grafos.copia(grafo));
+        }
+        long bytes = historial.getBytes();
+
+        for (int i = estados.size() - 2; i >= -1; i--) {
+            historial.deshacer(grafo, SIN_COLOCAR);
+            assertIguales(i < 0 ? original : estados.get(i), grafo);
+        }
+        assertFalse(historial.puedeDeshacer());
+        for (GrafoDireccional<Integer> estado : estados) {
+            historial.rehacer(grafo, SIN_COLOCAR);
+            assertIguales(estado, grafo);
+        }
+        assertFalse(historial.puedeRehacer());
+        assertEquals(bytes, historial.getBytes());
+    }
+
+    @Test
+    void elPresupuestoDescartaLasEntradasMasViejas() {
+        GrafoDireccional<Integer> grafo = new GrafoDireccional<>();
+        HistorialGrafo<Integer> vacio = new HistorialGrafo<>(SIN_LIMITE);
+        vacio.aplicar(grafo, new ParcheGrafo<Integer>().agregarNodo(-1), "medir", SIN_COLOCAR);
+        long porEntrada = vacio.getBytes();
+
+        HistorialGrafo<Integer> historial = new HistorialGrafo<>(3 * porEntrada);
+        for (int i = 0; i < 5; i++) {
+            historial.aplicar(grafo, new ParcheGrafo<Integer>().agregarNodo(i), "nodo " + i, SIN_COLOCAR);
+            assertTrue(historial.getBytes() <= 3 * porEntrada);
+        }
+        assertEquals(3 * porEntrada, historial.getBytes());
+
+        int deshechas = 0;
+        while (historial.deshacer(grafo, SIN_COLOCAR) != null) {
+            deshechas++;
+        }
+        assertEquals(3, deshechas);
+        assertEquals(3, grafo.size()); // -1, 0 y 1 quedan
+        while (historial.rehacer(grafo, SIN_COLOCAR) != null) {
+            deshechas--;
+        }
+        assertEquals(0, deshechas);
+        assertEquals(3 * porEntrada, historial.getBytes());
+
+        // Una edición nueva descarta lo que se podía rehacer
+        historial.deshacer(grafo, SIN_COLOCAR);
+        historial.deshacer(grafo, SIN_COLOCAR);
+        historial.aplicar(grafo, new ParcheGrafo<Integer>().agregarNodo(9), "nodo 9", SIN_COLOCAR);
+        assertFalse(historial.puedeRehacer());
+        assertEquals(2 * porEntrada, historial.getBytes());
+    }
+
+    @Test
+    void unaEdicionMasGrandeQueElPresupuestoVaciaElHistorial() {
+        GrafoDireccional<Integer> grafo = GraphGenerator.erdosRenyi(50, 0.2, 3).toGrafo();
+        HistorialGrafo<Integer> historial = new HistorialGrafo<>(200);
+        historial.aplicar(grafo, new ParcheGrafo<Integer>().agregarNodo(100), "nodo", SIN_COLOCAR);
+        assertTrue(historial.puedeDeshacer());
+
+        historial.aplicar(grafo, ParcheGrafo.eliminacion(grafo, 0), "eliminar", SIN_COLOCAR);
+        assertFalse(historial.puedeDeshacer());
+        assertEquals(0, historial.getBytes());
+    }
+
+    @Test
+    void unCambioPorFueraDelHistorialSeDetectaAlDeshacer() {
+        GrafoDireccional<Integer> grafo = GraphGenerator.erdosRenyi(20, 0.2, 5).toGrafo();
+        HistorialGrafo<Integer> historial = new HistorialGrafo<>(SIN_LIMITE);
+        historial.aplicar(grafo, new ParcheGrafo<Integer>().agregarNodo(20), "nodo", SIN_COLOCAR);
+        grafo.agregarArista(0, 20); // El inverso ya no incluye todas las entrantes de 20
+
+        long modificaciones = grafo.getModificaciones();
+        assertThrows(IllegalStateException.class, () -> historial.deshacer(grafo, SIN_COLOCAR));
+        assertEquals(modificaciones, grafo.getModificaciones());
+        assertFalse(historial.puedeDeshacer());
+    }
+
+    /**
+     * Igual estructura y mismas posiciones y fijaciones
+     */
+    private static void assertIguales(GrafoDireccional<Integer> esperado, GrafoDireccional<Integer> grafo) {
+        assertTrue(ParcheGrafo.calcular(grafo, esperado).isEmpty());
+        assertEquals(esperado.getNumAristas(), grafo.getNumAristas());
+        for (Nodo<Integer> nodo : esperado.getNodos()) {
+            Nodo<Integer> actual = grafo.encontrarNodo(nodo.getValue());
+            assertEquals(nodo.getX(), actual.getX(), "x de " + nodo);
+            assertEquals(nodo.getY(), actual.getY(), "y de " + nodo);
+            assertEquals(nodo.isFijo(), actual.isFijo(), "fijo de " + nodo);
+        }
+    }
+
+    /**
+     * Elimina un nodo con sus aristas, o agrega uno unido a otro, o cambia
+     * aristas
+     */
+    private static ParcheGrafo<Integer> edicion(GrafoDireccional<Integer> grafo, SplittableRandom random,
+            int nuevo) {
+        List<Nodo<Integer>> nodos = grafo.getNodos();
+        Nodo<Integer> uno = nodos.get(random.nextInt(nodos.size()));
+        Nodo<Integer> otro = nodos.get(random.nextInt(nodos.size()));
+        return switch (random.nextInt(3)) {
+            case 0 -> ParcheGrafo.eliminacion(grafo, uno.getValue());
+            case 1 -> new ParcheGrafo<Integer>().agregarNodo(nuevo).agregarArista(nuevo, uno.getValue());
+            default -> uno.tieneVecino(otro)
+                    ? new ParcheGrafo<Integer>().eliminarArista(uno.getValue(), otro.getValue())
+                    : new ParcheGrafo<Integer>().agregarArista(uno.getValue(), otro.getValue());
+        };
+    }
+}
@@ -0,0 +1,154 @@
+package com.espoch.grafo.model;
+
+import com.espoch.grafo.generator.GraphGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Diferencia y aplicación de parches: calcular, aplicar y volver a calcular
+ * no deja diferencias, el inverso restaura el grafo y los parches que no
+ * corresponden al grafo se rechazan sin modificarlo.
+ */
+class ParcheGrafoTest {
+    private static final BiConsumer<Nodo<Integer>, Nodo<Integer>> SIN_COLOCAR = (nodo, vecino) -> {
+    };
+
+    @Test
+    void aplicarLaDiferenciaDejaLosGrafosIguales() {
+        for (long seed = 1; seed <= 5; seed++) {
+            GrafoDireccional<Integer> actual = GraphGenerator.erdosRenyi(200, 0.03, seed).toGrafo();
+            GrafoDireccional<Integer> nuevo = variante(actual, seed);
+
+            ParcheGrafo<Integer> parche = ParcheGrafo.calcular(actual, nuevo);
+            assertFalse(parche.isEmpty());
+            actual.aplicar(parche, SIN_COLOCAR);
+
+            assertTrue(ParcheGrafo.calcular(actual, nuevo).isEmpty(), "semilla " + seed);
+            assertEquals(nuevo.size(), actual.size());
+            assertEquals(nuevo.getNumAristas(), actual.getNumAristas());
+        }
+    }
+
+    @Test
+    void elInversoRestauraElGrafo() {
+        for (long seed = 1; seed <= 5; seed++) {
+            GrafoDireccional<Integer> actual = GraphGenerator.erdosRenyi(200, 0.03, seed).toGrafo();
+            GrafoDireccional<Integer> original = Grafos.copia(actual);
+            ParcheGrafo<Integer> parche = ParcheGrafo.calcular(actual, variante(actual, seed));
+
+            actual.aplicar(parche, SIN_COLOCAR);
+            actual.aplicar(parche.invertir(), SIN_COLOCAR);
+
+            assertTrue(ParcheGrafo.calcular(actual, original).isEmpty(), "semilla " + seed);
+            assertEquals(original.getNumAristas(), actual.getNumAristas());
+        }
+    }
+
+    @Test
+    void laEliminacionIncluyeLasAristasEntrantes() {
+        GrafoDireccional<Integer> grafo = grafo(1, 2, 2, 3, 3, 2, 4, 2);
+        ParcheGrafo<Integer> parche = ParcheGrafo.eliminacion(grafo, 2);
+        grafo.aplicar(parche, SIN_COLOCAR);
+
+        assertEquals(3, grafo.size());
+        assertEquals(0, grafo.getNumAristas());
+    }
+
+    @Test
+    void rechazaEliminarUnNodoConAristasEntrantesSinListar() {
+        GrafoDireccional<Integer> grafo = grafo(1, 2, 2, 3, 3, 2);
+        // Falta la entrante 1 → 2
+        ParcheGrafo<Integer> parche = new ParcheGrafo<Integer>().eliminarArista(2, 3).eliminarArista(3, 2)
+                .eliminarNodo(2);
+        assertRechazado(grafo, parche);
+    }
+
+    @Test
+    void rechazaEliminarUnNodoSinSusAristasSalientes() {
+        GrafoDireccional<Integer> grafo = grafo(1, 2, 2, 3);
+        assertRechazado(grafo, new ParcheGrafo<Integer>().eliminarArista(1, 2).eliminarNodo(2));
+    }
+
+    @Test
+    void rechazaOperacionesRepetidas() {
+        GrafoDireccional<Integer> grafo = grafo(1, 2, 2, 3);
+        assertRechazado(grafo, new ParcheGrafo<Integer>().eliminarArista(1, 2).eliminarArista(1, 2));
+        assertRechazado(grafo, new ParcheGrafo<Integer>().agregarArista(3, 1).agregarArista(3, 1));
+        assertRechazado(grafo, new ParcheGrafo<Integer>().agregarNodo(9).agregarNodo(9));
+        assertRechazado(grafo, new ParcheGrafo<Integer>().eliminarArista(2, 3).eliminarNodo(3).eliminarNodo(3));
+    }
+
+    @Test
+    void rechazaOperacionesQueNoCorrespondenAlGrafo() {
+        GrafoDireccional<Integer> grafo = grafo(1, 2, 2, 3);
+        assertRechazado(grafo, new ParcheGrafo<Integer>().agregarNodo(1));
+        assertRechazado(grafo, new ParcheGrafo<Integer>().eliminarNodo(7));
+        assertRechazado(grafo, new ParcheGrafo<Integer>().eliminarArista(3, 1));
+        assertRechazado(grafo, new ParcheGrafo<Integer>().agregarArista(1, 2));
+        assertRechazado(grafo, new ParcheGrafo<Integer>().agregarArista(1, 8));
+    }
+
+    @Test
+    void permiteQuitarYVolverAPonerLaMismaArista() {
+        GrafoDireccional<Integer> grafo = grafo(1, 2);
+        grafo.aplicar(new ParcheGrafo<Integer>().eliminarArista(1, 2).agregarArista(1, 2), SIN_COLOCAR);
+        assertEquals(1, grafo.getNumAristas());
+    }
+
+    /**
+     * El parche debe fallar y dejar el grafo como estaba
+     */
+    private static void assertRechazado(GrafoDireccional<Integer> grafo, ParcheGrafo<Integer> parche) {
+        GrafoDireccional<Integer> antes = Grafos.copia(grafo);
+        long modificaciones = grafo.getModificaciones();
+        assertThrows(IllegalStateException.class, () -> grafo.aplicar(parche, SIN_COLOCAR), parche.toString());
+        assertEquals(modificaciones, grafo.getModificaciones());
+        assertEquals(antes.getNumAristas(), grafo.getNumAristas());
+        assertTrue(ParcheGrafo.calcular(grafo, antes).isEmpty());
+    }
+
+    /**
+     * Grafo con las aristas dadas como pares (origen, destino)
+     */
+    private static GrafoDireccional<Integer> grafo(int... pares) {
+        GrafoDireccional<Integer> grafo = new GrafoDireccional<>();
+        for (int i = 0; i < pares.length; i += 2) {
+            grafo.agregarNodo(pares[i]);
+            grafo.agregarNodo(pares[i + 1]);
+            grafo.agregarArista(pares[i], pares[i + 1]);
+        }
+        return grafo;
+    }
+
+    /**
+     * Copia con algunos nodos quitados, otros nuevos y aristas cambiadas
+     */
+    private static GrafoDireccional<Integer> variante(GrafoDireccional<Integer> grafo, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        GrafoDireccional<Integer> nuevo = Grafos.copia(grafo);
+        int n = grafo.size();
+        for (int i = 0; i < 10; i++) {
+            nuevo.eliminarNodo(random.nextInt(n));
+        }
+        for (int i = 0; i < 10; i++) {
+            nuevo.agregarNodo(n + i);
+        }
+        for (int i = 0; i < 50; i++) {
+            int origen = random.nextInt(n + 10);
+            int destino = random.nextInt(n + 10);
+            if (random.nextBoolean()) {
+                nuevo.eliminarArista(origen, destino);
+            } else if (nuevo.encontrarNodo(origen) != null && nuevo.encontrarNodo(destino) != null) {
+                nuevo.agregarArista(origen, destino);
+            }
+        }
+        return nuevo;
+    }
+}
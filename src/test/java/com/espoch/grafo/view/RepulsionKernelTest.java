@@ -0,0 +1,64 @@
+package com.espoch.grafo.view;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Los núcleos vectoriales de cada ancho dan las mismas fuerzas que el
+ * escalar salvo por el orden de las sumas, también con filas que no llenan
+ * un vector y con nodos superpuestos.
+ */
+class RepulsionKernelTest {
+    private static final double STRENGTH = 6400.0;
+    private static final double TOLERANCIA = 1e-9; // Error relativo máximo respecto a la mayor fuerza
+    private static final int[] ANCHOS = { 128, 256, 512 };
+    private static final int[] TAMAÑOS = { 1, 2, 3, 7, 8, 9, 17, 100, 1_001 };
+
+    @Test
+    void losVectorialesCoincidenConElEscalar() {
+        assertTrue(RepulsionKernel.isVectorAvailable(), "falta --add-modules jdk.incubator.vector");
+        for (int n : TAMAÑOS) {
+            SplittableRandom random = new SplittableRandom(n);
+            double lado = Math.sqrt(n) * 60;
+            double[] x = new double[n];
+            double[] y = new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = random.nextDouble(lado);
+                y[i] = random.nextDouble(lado);
+            }
+            if (n > 2) { // Dos nodos en el mismo lugar: la distancia se acota a 1
+                x[1] = x[0];
+                y[1] = y[0];
+            }
+            double[] iniciales = random.doubles(n, -10, 10).toArray();
+
+            double[] refX = iniciales.clone();
+            double[] refY = iniciales.clone();
+            RepulsionKernel.scalar().accumulate(x, y, n, refX, refY, STRENGTH);
+            for (int bits : ANCHOS) {
+                RepulsionKernel kernel = RepulsionKernel.vector(bits);
+                double[] fx = iniciales.clone();
+                double[] fy = iniciales.clone();
+                kernel.accumulate(x, y, n, fx, fy, STRENGTH);
+                double error = errorRelativo(refX, refY, fx, fy);
+                assertTrue(error <= TOLERANCIA, kernel.getName() + " con " + n + " nodos: error " + error);
+            }
+        }
+    }
+
+    /**
+     * Máxima diferencia entre fuerzas relativa a la mayor norma de fuerza
+     */
+    private static double errorRelativo(double[] refX, double[] refY, double[] fx, double[] fy) {
+        double maxNorma = 0;
+        double maxDiferencia = 0;
+        for (int i = 0; i < refX.length; i++) {
+            maxNorma = Math.max(maxNorma, Math.hypot(refX[i], refY[i]));
+            maxDiferencia = Math.max(maxDiferencia, Math.hypot(refX[i] - fx[i], refY[i] - fy[i]));
+        }
+        return maxNorma == 0 ? 0 : maxDiferencia / maxNorma;
+    }
+}